@@ -0,0 +1,54 @@
+package com.siimkinks.sqlitemagic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define index on table columns.
+ * <p>
+ * When annotating a column, single column index is created on that column.
+ * Composite indexes are defined with {@link Table#indexes()} where {@link #columns()}
+ * lists the indexed column names.
+ * <p>
+ * Indexes are created together with their tables. Existing databases need to create
+ * new indexes in their upgrade scripts.
+ *
+ * @see <a href="https://www.sqlite.org/lang_createindex.html">SQLite documentation: CREATE INDEX</a>
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.CLASS)
+public @interface Index {
+  /**
+   * Index name.<br>
+   * Defaults to "index_" followed by table name and indexed column names separated with "_".
+   *
+   * @return Index name
+   */
+  String value() default "";
+
+  /**
+   * Indexed column names in index order.<br>
+   * Only applicable on indexes defined with {@link Table#indexes()}.
+   *
+   * @return Indexed column names
+   */
+  String[] columns() default {};
+
+  /**
+   * Create UNIQUE index.
+   *
+   * @return True if duplicate values in indexed columns are not allowed, false if they are.
+   */
+  boolean unique() default false;
+
+  /**
+   * WHERE clause expression of partial index.<br>
+   * If defined, only rows where the expression evaluates to true are indexed.
+   * Expression must not contain bound parameters.
+   *
+   * @return Partial index expression without "WHERE" keyword
+   */
+  String where() default "";
+}
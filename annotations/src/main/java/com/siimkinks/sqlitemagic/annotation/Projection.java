@@ -0,0 +1,32 @@
+package com.siimkinks.sqlitemagic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define projection -- a slim read only object which contains only some of the
+ * columns of a {@link Table}.<br>
+ * This annotation can only be used on interfaces or value objects.<br>
+ * <p>
+ * Each abstract method of the projection is mapped to a column in the projected table.
+ * Column name defaults to method name where camel case is replaced with "_" and can be
+ * changed with {@link Column} annotation.
+ * </p>
+ * <p>
+ * Selecting from the generated projection table object selects only the projected columns,
+ * e.g. {@code Select.from(AUTHOR_SUMMARY)} creates "SELECT author.name,author.rating FROM author"
+ * query builder.
+ * </p>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface Projection {
+  /**
+   * Name of the projected table.
+   *
+   * @return Table name.
+   */
+  String value();
+}
@@ -0,0 +1,34 @@
+package com.siimkinks.sqlitemagic.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define SQL SELECT query that is validated and compiled by the annotation processor.<br>
+ * This annotation can only be used on methods of an interface.<br>
+ * <p>
+ * Annotated method must return {@code CompiledSelect<T, Select.SelectN>} where {@code T} is
+ * a {@link Table} and query must select all columns of that table, e.g.
+ * {@code "SELECT * FROM author WHERE name = ?"} or
+ * {@code "SELECT author.* FROM author JOIN book ON book.author = author.id"}.
+ * Queries with joins must select the table columns with {@code <table>.*}.
+ * Each method parameter is bound to one {@code ?} placeholder in the order of declaration.
+ * </p>
+ * <p>
+ * Referenced tables and columns are checked against the known schema at compile time.
+ * Generated implementation of the interface is named {@code <Interface>Impl} and it contains
+ * the final SQL string constants, so no SQL is built at runtime.
+ * </p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface Query {
+  /**
+   * SQL SELECT statement.
+   *
+   * @return Query SQL.
+   */
+  String value();
+}
@@ -54,4 +54,25 @@ public @interface Table {
    * @return True if system should access model fields with access methods, false if not.
    */
   boolean useAccessMethods() default false;
+
+  /**
+   * Track which columns of the model have changed.<br>
+   * If true SqliteMagic gradle plugin instruments every write to the model column fields, so
+   * that bulk updates write only the changed columns. Writes in the model constructor and in
+   * field initializers also count as changes.
+   * This parameter is only applicable on non-value objects without persisted complex columns
+   * whose columns are declared in the annotated class itself.
+   *
+   * @return True if system should update only changed columns in bulk updates, false if not.
+   */
+  boolean trackDirtyColumns() default false;
+
+  /**
+   * Composite indexes of the table.<br>
+   * Each {@link Index} must define its columns with {@link Index#columns()}.
+   * Single column indexes can also be defined by annotating the column with {@link Index}.
+   *
+   * @return Table indexes
+   */
+  Index[] indexes() default {};
 }
@@ -32,6 +32,7 @@ public class Const {
   public static final Modifier[] STATIC_METHOD_MODIFIERS = new Modifier[]{PUBLIC, STATIC};
   public static final Modifier[] PRIVATE_FINAL_FIELD_MODIFIERS = new Modifier[]{PRIVATE, FINAL};
   public static final Modifier[] PRIVATE_STATIC_METHOD_MODIFIERS = new Modifier[]{PRIVATE, STATIC};
+  public static final Modifier[] PRIVATE_STATIC_FINAL = new Modifier[]{PRIVATE, STATIC, FINAL};
   public static final Modifier[] METHOD_MODIFIERS_WITH_SYNC = new Modifier[]{PUBLIC, STATIC, SYNCHRONIZED};
 
   public static final String GENERATION_COMMENT = "Generated by SqliteMagic. Do not modify!";
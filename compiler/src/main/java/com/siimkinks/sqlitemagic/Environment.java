@@ -9,6 +9,8 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.SetMultimap;
 import com.siimkinks.sqlitemagic.element.ExtendedTypeElement;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
+import com.siimkinks.sqlitemagic.element.QueryElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.element.TransformerElement;
 import com.siimkinks.sqlitemagic.element.ViewElement;
@@ -71,6 +73,8 @@ public class Environment {
   private final Map<String, TableElement> tableElements = new HashMap<>();
   private final Map<String, TableElement> tableElementsByTableName = new HashMap<>();
   private final Map<String, ViewElement> viewElements = new HashMap<>();
+  private final Map<String, ProjectionElement> projectionElements = new HashMap<>();
+  private final Map<String, QueryElement> queryElements = new HashMap<>();
   private final Map<String, TransformerElement> transformerElements = new HashMap<>();
 
   @Getter
@@ -110,6 +114,8 @@ public class Environment {
   public void clear() {
     tableElements.clear();
     viewElements.clear();
+    projectionElements.clear();
+    queryElements.clear();
     transformerElements.clear();
   }
 
@@ -175,6 +181,24 @@ public class Environment {
     viewElements.put(tableQualifiedTypeName, viewElement);
   }
 
+  public Collection<ProjectionElement> getProjectionElements() {
+    return projectionElements.values();
+  }
+
+  public void addProjectionElement(@NonNull ProjectionElement projectionElement) {
+    final TypeElement projectionTypeElement = projectionElement.getProjectionElement();
+    projectionElements.put(Environment.getQualifiedName(projectionTypeElement), projectionElement);
+  }
+
+  public Collection<QueryElement> getQueryElements() {
+    return queryElements.values();
+  }
+
+  public void addQueryElement(@NonNull QueryElement queryElement) {
+    final TypeElement queryTypeElement = queryElement.getQueryElement();
+    queryElements.put(Environment.getQualifiedName(queryTypeElement), queryElement);
+  }
+
   public boolean hasTransformerFor(TypeElement element) {
     return transformerElements.containsKey(getQualifiedName(element));
   }
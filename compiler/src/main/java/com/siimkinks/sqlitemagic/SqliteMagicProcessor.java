@@ -4,6 +4,8 @@ import com.google.auto.service.AutoService;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
 import com.siimkinks.sqlitemagic.annotation.Column;
+import com.siimkinks.sqlitemagic.annotation.Projection;
+import com.siimkinks.sqlitemagic.annotation.Query;
 import com.siimkinks.sqlitemagic.annotation.Table;
 import com.siimkinks.sqlitemagic.annotation.View;
 import com.siimkinks.sqlitemagic.annotation.transformer.Transformer;
@@ -12,6 +14,10 @@ import com.siimkinks.sqlitemagic.processing.GenClassesManagerStep;
 import com.siimkinks.sqlitemagic.processing.ModelCodeGenerationStep;
 import com.siimkinks.sqlitemagic.processing.ModelCollectionStep;
 import com.siimkinks.sqlitemagic.processing.ProcessingStep;
+import com.siimkinks.sqlitemagic.processing.ProjectionCodeGenerationStep;
+import com.siimkinks.sqlitemagic.processing.ProjectionCollectionStep;
+import com.siimkinks.sqlitemagic.processing.QueryCodeGenerationStep;
+import com.siimkinks.sqlitemagic.processing.QueryCollectionStep;
 import com.siimkinks.sqlitemagic.processing.TransformerCodeGenerationStep;
 import com.siimkinks.sqlitemagic.processing.TransformerCollectionStep;
 import com.siimkinks.sqlitemagic.processing.ViewCodeGenerationStep;
@@ -51,7 +57,9 @@ public class SqliteMagicProcessor extends AbstractProcessor {
         Table.class.getCanonicalName(),
         Column.class.getCanonicalName(),
         Transformer.class.getCanonicalName(),
-        View.class.getCanonicalName()
+        View.class.getCanonicalName(),
+        Projection.class.getCanonicalName(),
+        Query.class.getCanonicalName()
     );
   }
 
@@ -73,6 +81,10 @@ public class SqliteMagicProcessor extends AbstractProcessor {
         new ModelCodeGenerationStep(),
         new ViewCollectionStep(),
         new ViewCodeGenerationStep(),
+        new ProjectionCollectionStep(),
+        new ProjectionCodeGenerationStep(),
+        new QueryCollectionStep(),
+        new QueryCodeGenerationStep(),
         new GenClassesManagerStep()
     );
     Const.init(environment);
@@ -4,6 +4,7 @@ import android.support.annotation.NonNull;
 
 import com.siimkinks.sqlitemagic.element.ExtendedTypeElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
+import com.siimkinks.sqlitemagic.entity.DirtyTrackable;
 import com.siimkinks.sqlitemagic.entity.EntityBulkDeleteBuilder;
 import com.siimkinks.sqlitemagic.entity.EntityBulkInsertBuilder;
 import com.siimkinks.sqlitemagic.entity.EntityBulkPersistBuilder;
@@ -14,8 +15,10 @@ import com.siimkinks.sqlitemagic.entity.EntityInsertBuilder;
 import com.siimkinks.sqlitemagic.entity.EntityPersistBuilder;
 import com.siimkinks.sqlitemagic.entity.EntityUpdateBuilder;
 import com.siimkinks.sqlitemagic.exception.OperationFailedException;
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
 import com.siimkinks.sqlitemagic.internal.StringArraySet;
+import com.siimkinks.sqlitemagic.internal.TableGraphNode;
 import com.siimkinks.sqlitemagic.util.Callback;
 import com.siimkinks.sqlitemagic.util.FormatData;
 import com.siimkinks.sqlitemagic.internal.MutableInt;
@@ -61,6 +64,7 @@ import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CREATE;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_INSERT_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_UPDATE_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_OBSERVE;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_QUEUE_WRITE;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SET_CONFLICT_ALGORITHM;
 import static com.siimkinks.sqlitemagic.util.NameConst.PACKAGE_ROOT;
 import static com.siimkinks.sqlitemagic.writer.EntityEnvironment.tableNameFromStructureConstant;
@@ -115,7 +119,10 @@ public class WriterUtil {
   public static final ClassName COMPLEX_COLUMN = ClassName.get(ComplexColumn.class);
   public static final ClassName JOIN_CLAUSE = ClassName.get(JoinClause.class);
   public static final ClassName FAST_CURSOR = ClassName.get("com.siimkinks.sqlitemagic", "FastCursor");
+  public static final ClassName ENTITY_CACHE = ClassName.get("com.siimkinks.sqlitemagic", "EntityCache");
   public static final ClassName SIMPLE_ARRAY_MAP = ClassName.get(SimpleArrayMap.class);
+  public static final ClassName COLUMN_POSITIONS = ClassName.get(ColumnPositions.class);
+  public static final ClassName TABLE_GRAPH_NODE = ClassName.get(TableGraphNode.class);
   public static final ClassName STRING_ARRAY_SET = ClassName.get(StringArraySet.class);
   public static final ClassName COMPILED_N_COLUMNS_SELECT_IMPL = ClassName.get(CompiledSelectImpl.class);
   public static final ClassName COMPILED_N_COLUMNS_SELECT = ClassName.get(CompiledSelect.class);
@@ -129,6 +136,9 @@ public class WriterUtil {
   public static final ClassName ENTITY_BULK_UPDATE_BUILDER = ClassName.get(EntityBulkUpdateBuilder.class);
   public static final ClassName ENTITY_BULK_PERSIST_BUILDER = ClassName.get(EntityBulkPersistBuilder.class);
   public static final ClassName ENTITY_BULK_DELETE_BUILDER = ClassName.get(EntityBulkDeleteBuilder.class);
+  public static final ClassName DIRTY_TRACKABLE = ClassName.get(DirtyTrackable.class);
+  public static final ClassName DIRTY_COLUMN_GROUPS = ClassName.get(DirtyColumnGroups.class);
+  public static final ClassName REVERTIBLE_WRITE = ClassName.get(GroupCommitWriter.RevertibleWrite.class);
   public static final ParameterizedTypeName LIST_JOIN_CLAUSE_TYPE_NAME = ParameterizedTypeName.get(ArrayList.class, JoinClause.class);
   public static final ParameterizedTypeName SYSTEM_RENAMED_TABLES_TYPE_NAME =
       ParameterizedTypeName.get(SIMPLE_ARRAY_MAP, ClassName.get(String.class), ParameterizedTypeName.get(LinkedList.class, String.class));
@@ -176,6 +186,21 @@ public class WriterUtil {
     return MethodSpec.methodBuilder(methodName);
   }
 
+  /**
+   * Add statement that publishes the changed row id along with the table name if the table
+   * supports row level triggers. Otherwise table level triggers are sent.
+   */
+  public static void addRowTriggerSendingStatement(MethodSpec.Builder builder, Set<TableElement> allTableTriggers,
+                                                   TableElement tableElement, CodeBlock rowId) {
+    if (allTableTriggers.size() > 1 || !tableElement.sendsRowTriggers()) {
+      addTableTriggersSendingStatement(builder, allTableTriggers);
+      return;
+    }
+    final FormatData tableName = tableNameFromStructureConstant(tableElement);
+    builder.addStatement(tableName.formatInto("$L.sendRowTrigger(%s, $L, $L)"),
+        tableName.getArgsBetween(DB_CONNECTION_VARIABLE).and(tableElement.getTablePos(), rowId));
+  }
+
   public static MethodSpec buildSqlTransactionMethod(String methodName, CodeBlock sqlTransactionBody) {
     return buildSqlTransactionMethod(MethodSpec.methodBuilder(methodName), sqlTransactionBody);
   }
@@ -205,6 +230,13 @@ public class WriterUtil {
     if (allTableTriggers.size() > 1) {
       final List<Object> args = new ArrayList<>();
       args.add(DB_CONNECTION_VARIABLE);
+      final StringBuilder tableIds = new StringBuilder();
+      for (TableElement tableElement : allTableTriggers) {
+        if (tableIds.length() > 0) {
+          tableIds.append(", ");
+        }
+        tableIds.append(tableElement.getTablePos());
+      }
       final String joinedTableTriggers = StringUtil.join(", ", allTableTriggers, new StringUtil.ToStringCallback<TableElement>() {
         @NonNull
         @Override
@@ -214,11 +246,12 @@ public class WriterUtil {
           return tableName.getFormat();
         }
       });
-      builder.addStatement("$L.sendTableTriggers(" + joinedTableTriggers + ")", args.toArray());
+      builder.addStatement("$L.sendTableTriggers(new int[]{" + tableIds + "}, " + joinedTableTriggers + ")", args.toArray());
     } else {
       final TableElement firstValue = allTableTriggers.iterator().next();
       final FormatData tableName = tableNameFromStructureConstant(firstValue);
-      builder.addStatement(tableName.formatInto("$L.sendTableTrigger(%s)"), tableName.getWithOtherArgsBefore(DB_CONNECTION_VARIABLE));
+      builder.addStatement(tableName.formatInto("$L.sendTableTrigger(%s, $L)"),
+          tableName.getArgsBetween(DB_CONNECTION_VARIABLE).and(firstValue.getTablePos()));
     }
   }
 
@@ -351,7 +384,8 @@ public class WriterUtil {
   }
 
   public static void addRxSingleCreateFromCallableParentClass(MethodSpec.Builder builder) {
-    builder.addCode("return $T.fromCallable(this)", SINGLE)
+    builder.addCode(dbConnectionVariable())
+        .addCode("return $L.$L(this)", DB_CONNECTION_VARIABLE, METHOD_QUEUE_WRITE)
         .addCode(chainedScheduler());
   }
 
@@ -559,6 +593,18 @@ public class WriterUtil {
         .build();
   }
 
+  public static CodeBlock insertStatementWithConflictAlgorithmVariable() {
+    return CodeBlock.builder()
+        .addStatement("final $T $L = $L.$L($L, $L)",
+            SQLITE_STATEMENT,
+            STATEMENT_VARIABLE,
+            MANAGER_VARIABLE,
+            METHOD_GET_INSERT_STATEMENT,
+            FIELD_INSERT_SQL,
+            CONFLICT_ALGORITHM_VARIABLE)
+        .build();
+  }
+
   public static CodeBlock updateStatementVariable() {
     return updateStatementVariable(STATEMENT_VARIABLE);
   }
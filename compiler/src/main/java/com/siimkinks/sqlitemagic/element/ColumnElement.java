@@ -8,6 +8,7 @@ import com.siimkinks.sqlitemagic.Const;
 import com.siimkinks.sqlitemagic.Environment;
 import com.siimkinks.sqlitemagic.annotation.Column;
 import com.siimkinks.sqlitemagic.annotation.Id;
+import com.siimkinks.sqlitemagic.annotation.Index;
 import com.siimkinks.sqlitemagic.annotation.Unique;
 import com.siimkinks.sqlitemagic.util.FormatData;
 import com.squareup.javapoet.TypeName;
@@ -43,6 +44,8 @@ public abstract class ColumnElement implements BaseColumnElement {
 
   abstract Unique getUniqueAnnotation();
 
+  abstract Index getIndexAnnotation();
+
   public abstract TransformerElement getTransformer();
 
   public abstract Column getColumnAnnotation();
@@ -200,6 +203,10 @@ public abstract class ColumnElement implements BaseColumnElement {
     return getUniqueAnnotation() != null;
   }
 
+  public boolean isIndexed() {
+    return getIndexAnnotation() != null;
+  }
+
   public boolean isOnDeleteCascade() {
     return isHandledRecursively() && getColumnAnnotation().onDeleteCascade();
   }
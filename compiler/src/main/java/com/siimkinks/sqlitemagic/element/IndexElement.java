@@ -0,0 +1,77 @@
+package com.siimkinks.sqlitemagic.element;
+
+import android.support.annotation.NonNull;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.siimkinks.sqlitemagic.annotation.Index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class IndexElement {
+  private final String indexName;
+  private final String tableName;
+  private final List<String> columnNames;
+  private final boolean unique;
+  private final String where;
+  /**
+   * Whether index is defined by annotating a column
+   */
+  private final boolean columnIndex;
+  private final boolean columnsDefined;
+
+  public static IndexElement create(@NonNull TableElement tableElement, @NonNull Index indexAnnotation) {
+    final List<String> columnNames = Arrays.asList(indexAnnotation.columns());
+    return create(tableElement.getTableName(), indexAnnotation, columnNames, false);
+  }
+
+  public static IndexElement create(@NonNull TableElement tableElement, @NonNull ColumnElement columnElement) {
+    final Index indexAnnotation = columnElement.getIndexAnnotation();
+    final List<String> columnNames = Collections.singletonList(columnElement.getColumnName());
+    return create(tableElement.getTableName(), indexAnnotation, columnNames, true);
+  }
+
+  private static IndexElement create(String tableName, Index indexAnnotation, List<String> columnNames, boolean columnIndex) {
+    final String indexName = Strings.isNullOrEmpty(indexAnnotation.value()) ?
+        "index_" + tableName + "_" + Joiner.on('_').join(columnNames) : indexAnnotation.value();
+    return new IndexElement(indexName,
+        tableName,
+        columnNames,
+        indexAnnotation.unique(),
+        indexAnnotation.where(),
+        columnIndex,
+        indexAnnotation.columns().length > 0);
+  }
+
+  public boolean isPartial() {
+    return !Strings.isNullOrEmpty(where);
+  }
+
+  @NonNull
+  public String getSchema() {
+    final StringBuilder schema = new StringBuilder("CREATE ");
+    if (unique) {
+      schema.append("UNIQUE ");
+    }
+    schema.append("INDEX IF NOT EXISTS ")
+        .append(indexName)
+        .append(" ON ")
+        .append(tableName)
+        .append(" (");
+    Joiner.on(", ").appendTo(schema, columnNames);
+    schema.append(')');
+    if (isPartial()) {
+      schema.append(" WHERE ")
+          .append(where);
+    }
+    return schema.toString();
+  }
+}
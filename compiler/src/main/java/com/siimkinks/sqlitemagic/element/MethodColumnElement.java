@@ -8,6 +8,7 @@ import com.siimkinks.sqlitemagic.Utils;
 import com.siimkinks.sqlitemagic.WriterUtil;
 import com.siimkinks.sqlitemagic.annotation.Column;
 import com.siimkinks.sqlitemagic.annotation.Id;
+import com.siimkinks.sqlitemagic.annotation.Index;
 import com.siimkinks.sqlitemagic.annotation.Unique;
 import com.siimkinks.sqlitemagic.util.FormatData;
 import com.siimkinks.sqlitemagic.util.StringUtil;
@@ -36,6 +37,7 @@ public final class MethodColumnElement extends ColumnElement {
   private final Column columnAnnotation;
   private final Id idAnnotation;
   private final Unique uniqueAnnotation;
+  private final Index indexAnnotation;
   private final TableElement enclosingTable;
   private final String sqlType;
   // real Java type e.g. Author
@@ -70,6 +72,7 @@ public final class MethodColumnElement extends ColumnElement {
         .columnAnnotation(columnAnnotation)
         .idAnnotation(columnElement.getAnnotation(Id.class))
         .uniqueAnnotation(columnElement.getAnnotation(Unique.class))
+        .indexAnnotation(columnElement.getAnnotation(Index.class))
         .enclosingTable(enclosingTable)
         .sqlType(sqlType)
         .deserializedType(deserializedType)
@@ -0,0 +1,125 @@
+package com.siimkinks.sqlitemagic.element;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.common.collect.ImmutableSet;
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.annotation.Column;
+import com.siimkinks.sqlitemagic.annotation.Projection;
+import com.siimkinks.sqlitemagic.writer.EntityEnvironment;
+import com.siimkinks.sqlitemagic.writer.ValueBuilderWriter;
+import com.siimkinks.sqlitemagic.writer.ValueCreatorWriter;
+import com.siimkinks.sqlitemagic.writer.ValueWriter;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+
+import lombok.Getter;
+
+public final class ProjectionElement {
+  private final Environment environment;
+  @Getter
+  private final TypeElement projectionElement;
+  private final PackageElement modelPackage;
+  @Getter
+  private final String tableName;
+  @Getter
+  @Nullable
+  private final TableElement projectedTable;
+  @Getter
+  private final TypeName projectionElementTypeName;
+  @Getter
+  private final boolean isInterface;
+  private final ImmutableSet<ExecutableElement> allMethods;
+  @Getter
+  private final List<ViewColumnElement> columns = new ArrayList<>();
+  @Getter
+  private ClassName implementationClassName;
+  private String abstractClassNameString;
+  @Getter
+  private ValueWriter valueWriter;
+  private TypeElement $builderElement;
+
+  public ProjectionElement(@NonNull Environment environment, @NonNull Element element) {
+    this.environment = environment;
+    this.projectionElement = (TypeElement) element;
+    this.modelPackage = Environment.getPackage(element);
+    this.tableName = element.getAnnotation(Projection.class).value();
+    this.projectedTable = environment.getTableElementByTableName(tableName);
+    this.projectionElementTypeName = Environment.getTypeName(projectionElement);
+    this.isInterface = projectionElement.getKind() != ElementKind.CLASS;
+    this.allMethods = environment.getLocalAndInheritedColumnMethods(projectionElement);
+    collectColumns();
+    determineImplementationClassName();
+    determineImmutabilityType(projectionElement);
+  }
+
+  private void collectColumns() {
+    for (ExecutableElement method : allMethods) {
+      final Column columnAnnotation = method.getAnnotation(Column.class);
+      final String columnName = MethodColumnElement.getColumnName(method, columnAnnotation != null ? columnAnnotation.value() : null);
+      columns.add(ViewColumnElement.create(environment, method, columnName));
+    }
+  }
+
+  private void determineImplementationClassName() {
+    final String abstractClassName;
+    if (isInterface) {
+      abstractClassName = String.format("%s_%sImpl",
+          EntityEnvironment.getGeneratedDaoClassNameString(projectionElement),
+          getProjectionElementName());
+    } else {
+      abstractClassName = getProjectionElementName();
+    }
+    this.abstractClassNameString = abstractClassName;
+    this.implementationClassName = ClassName.get(getPackageName(), environment.getValueImplementationClassNameString(abstractClassName));
+  }
+
+  private void determineImmutabilityType(TypeElement projectionElement) {
+    final Class<? extends Annotation> builderAnnotation = environment.getAutoValueBuilderAnnotation();
+    for (Element e : projectionElement.getEnclosedElements()) {
+      if (e.getKind() == ElementKind.CLASS && e.getAnnotation(builderAnnotation) != null) {
+        $builderElement = (TypeElement) e;
+        break;
+      }
+    }
+    if (hasBuilder()) {
+      valueWriter = ValueBuilderWriter.create(environment,
+          $builderElement,
+          projectionElement.asType(),
+          columns,
+          abstractClassNameString);
+    } else {
+      valueWriter = ValueCreatorWriter.create(environment,
+          columns,
+          allMethods,
+          abstractClassNameString);
+    }
+  }
+
+  public boolean hasBuilder() {
+    return $builderElement != null;
+  }
+
+  public String getPackageName() {
+    return modelPackage.getQualifiedName().toString();
+  }
+
+  public String getProjectionElementName() {
+    return projectionElement.getSimpleName().toString();
+  }
+
+  public int getAllColumnsCount() {
+    return columns.size();
+  }
+}
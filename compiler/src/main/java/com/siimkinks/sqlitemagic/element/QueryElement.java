@@ -0,0 +1,67 @@
+package com.siimkinks.sqlitemagic.element;
+
+import android.support.annotation.NonNull;
+
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.annotation.Query;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+
+import lombok.Getter;
+
+import static com.siimkinks.sqlitemagic.util.NameConst.PACKAGE_ROOT;
+
+/**
+ * Interface which declares {@link Query} annotated methods.
+ */
+public final class QueryElement {
+  @Getter
+  private final TypeElement queryElement;
+  @Getter
+  private final TypeName queryElementTypeName;
+  @Getter
+  private final boolean isInterface;
+  @Getter
+  private final List<QueryMethodElement> queryMethods = new ArrayList<>();
+  /**
+   * Abstract methods that are not annotated with {@link Query}.
+   */
+  @Getter
+  private final List<ExecutableElement> unannotatedMethods = new ArrayList<>();
+
+  public QueryElement(@NonNull Environment environment, @NonNull TypeElement element) {
+    this.queryElement = element;
+    this.queryElementTypeName = Environment.getTypeName(element);
+    this.isInterface = element.getKind() == ElementKind.INTERFACE;
+    for (ExecutableElement method : environment.getLocalAndInheritedMethods(element)) {
+      if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+        continue;
+      }
+      if (method.getAnnotation(Query.class) != null) {
+        queryMethods.add(new QueryMethodElement(environment, method));
+      } else {
+        unannotatedMethods.add(method);
+      }
+    }
+  }
+
+  public String getQueryElementName() {
+    return queryElement.getSimpleName().toString();
+  }
+
+  /**
+   * Generated implementation lives in the runtime package, so that it can create compiled
+   * selects directly.
+   */
+  public ClassName getImplementationClassName() {
+    return ClassName.get(PACKAGE_ROOT, getQueryElementName() + "Impl");
+  }
+}
@@ -0,0 +1,263 @@
+package com.siimkinks.sqlitemagic.element;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.annotation.Query;
+import com.siimkinks.sqlitemagic.util.SqlTokenizer;
+import com.squareup.javapoet.TypeName;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+import lombok.Getter;
+
+import static com.siimkinks.sqlitemagic.util.SqlTokenizer.isIdentifier;
+import static com.siimkinks.sqlitemagic.util.SqlTokenizer.isKeyword;
+import static com.siimkinks.sqlitemagic.util.SqlTokenizer.unquote;
+
+/**
+ * Single {@link Query} annotated method.
+ * <p>
+ * SQL is only parsed here &ndash; it is checked against the schema in
+ * {@link com.siimkinks.sqlitemagic.validator.QueryValidator}.
+ */
+public final class QueryMethodElement {
+  @Getter
+  private final ExecutableElement method;
+  @Getter
+  private final String sql;
+  @Getter
+  @Nullable
+  private final List<String> tokens;
+  @Getter
+  @Nullable
+  private final String tokenizeError;
+  @Getter
+  private final TypeName returnTypeName;
+  /**
+   * Declared type arguments of the returned compiled select or {@code null} if return type
+   * is not parameterized with two type arguments.
+   */
+  @Getter
+  @Nullable
+  private final List<? extends TypeMirror> returnTypeArguments;
+  @Getter
+  @Nullable
+  private final TableElement resultTable;
+  @Getter
+  private final List<QueryParameter> parameters = new ArrayList<>();
+  /**
+   * Tables referenced in FROM and JOIN clauses mapped by their alias or name.
+   */
+  @Getter
+  private final Map<String, String> sources = new LinkedHashMap<>();
+  /**
+   * Names of referenced tables in the order of appearance.
+   */
+  @Getter
+  private final Set<String> sourceTableNames = new LinkedHashSet<>();
+  /**
+   * Result column aliases defined with AS.
+   */
+  @Getter
+  private final Set<String> resultAliases = new LinkedHashSet<>();
+  @Getter
+  private final List<String> resultColumnTokens = new ArrayList<>();
+  @Getter
+  @Nullable
+  private String firstSourceName;
+  @Getter
+  private boolean hasSubquerySource;
+  @Getter
+  private boolean hasNamedParameters;
+  @Getter
+  private int placeholderCount;
+
+  public QueryMethodElement(@NonNull Environment environment, @NonNull ExecutableElement method) {
+    this.method = method;
+    this.sql = method.getAnnotation(Query.class).value();
+    List<String> tokens;
+    String tokenizeError;
+    try {
+      tokens = SqlTokenizer.tokenize(sql);
+      tokenizeError = null;
+    } catch (IllegalArgumentException e) {
+      tokens = null;
+      tokenizeError = e.getMessage();
+    }
+    this.tokens = tokens;
+    this.tokenizeError = tokenizeError;
+    final TypeMirror returnType = method.getReturnType();
+    this.returnTypeName = TypeName.get(returnType);
+    List<? extends TypeMirror> returnTypeArguments = null;
+    TableElement resultTable = null;
+    if (returnType.getKind() == TypeKind.DECLARED) {
+      final List<? extends TypeMirror> typeArguments = ((DeclaredType) returnType).getTypeArguments();
+      if (typeArguments.size() == 2) {
+        returnTypeArguments = typeArguments;
+        resultTable = environment.getTableElementFor(typeArguments.get(0).toString());
+      }
+    }
+    this.returnTypeArguments = returnTypeArguments;
+    this.resultTable = resultTable;
+    for (VariableElement parameter : method.getParameters()) {
+      parameters.add(new QueryParameter(environment, parameter));
+    }
+    if (tokens != null) {
+      parse(tokens);
+    }
+  }
+
+  private void parse(@NonNull List<String> tokens) {
+    final int size = tokens.size();
+    boolean mainFromFound = false;
+    int depth = 0;
+    for (int i = 0; i < size; i++) {
+      final String token = tokens.get(i);
+      if ("(".equals(token)) {
+        depth++;
+      } else if (")".equals(token)) {
+        depth--;
+      } else if ("?".equals(token)) {
+        placeholderCount++;
+        if (i + 1 < size && Character.isDigit(tokens.get(i + 1).charAt(0))) {
+          hasNamedParameters = true;
+        }
+      } else if (":".equals(token) || "@".equals(token) || "$".equals(token)) {
+        hasNamedParameters = true;
+      } else if (isKeyword(token, "AS") && i + 1 < size && isIdentifier(tokens.get(i + 1))) {
+        resultAliases.add(unquote(tokens.get(i + 1)));
+      } else if (isKeyword(token, "FROM")) {
+        if (depth == 0 && !mainFromFound) {
+          mainFromFound = true;
+          collectResultColumns(tokens, i);
+        }
+        parseSources(tokens, i + 1);
+      }
+    }
+  }
+
+  private void collectResultColumns(@NonNull List<String> tokens, int fromIndex) {
+    int i = 1;
+    if (i < fromIndex && (isKeyword(tokens.get(i), "DISTINCT") || isKeyword(tokens.get(i), "ALL"))) {
+      i++;
+    }
+    for (; i < fromIndex; i++) {
+      resultColumnTokens.add(tokens.get(i));
+    }
+  }
+
+  private void parseSources(@NonNull List<String> tokens, int start) {
+    final int size = tokens.size();
+    int i = start;
+    while (i < size) {
+      final String tableToken = tokens.get(i);
+      if ("(".equals(tableToken)) {
+        hasSubquerySource = true;
+        return;
+      }
+      if (!isIdentifier(tableToken)) {
+        return;
+      }
+      final String tableName = unquote(tableToken);
+      String alias = tableName;
+      i++;
+      if (i < size && isKeyword(tokens.get(i), "AS")) {
+        i++;
+      }
+      if (i < size && isIdentifier(tokens.get(i))) {
+        alias = unquote(tokens.get(i));
+        i++;
+      }
+      sources.put(alias, tableName);
+      sourceTableNames.add(tableName);
+      if (firstSourceName == null) {
+        firstSourceName = alias;
+      }
+      // skip join constraint up to the next source or the end of the FROM clause
+      int depth = 0;
+      boolean nextSource = false;
+      while (i < size && !nextSource) {
+        final String token = tokens.get(i);
+        if ("(".equals(token)) {
+          depth++;
+        } else if (")".equals(token)) {
+          if (depth == 0) {
+            return;
+          }
+          depth--;
+        } else if (depth == 0) {
+          if (",".equals(token) || isKeyword(token, "JOIN")) {
+            nextSource = true;
+          } else if (isFromClauseEnd(token)) {
+            return;
+          }
+        }
+        i++;
+      }
+      if (!nextSource) {
+        return;
+      }
+    }
+  }
+
+  private static boolean isFromClauseEnd(@NonNull String token) {
+    return isKeyword(token, "WHERE")
+        || isKeyword(token, "GROUP")
+        || isKeyword(token, "HAVING")
+        || isKeyword(token, "ORDER")
+        || isKeyword(token, "LIMIT")
+        || isKeyword(token, "UNION")
+        || isKeyword(token, "EXCEPT")
+        || isKeyword(token, "INTERSECT");
+  }
+
+  @NonNull
+  public String getMethodName() {
+    return method.getSimpleName().toString();
+  }
+
+  /**
+   * @return Final SQL with normalized whitespace
+   */
+  @NonNull
+  public String getCompiledSql() {
+    if (tokens == null) {
+      throw new IllegalStateException("Query SQL is not valid");
+    }
+    return SqlTokenizer.join(tokens);
+  }
+
+  public static final class QueryParameter {
+    @Getter
+    private final VariableElement element;
+    @Getter
+    private final ExtendedTypeElement type;
+    @Getter
+    @Nullable
+    private final TransformerElement transformer;
+
+    QueryParameter(@NonNull Environment environment, @NonNull VariableElement element) {
+      this.element = element;
+      this.type = environment.getAnyTypeElement(element);
+      this.transformer = environment.getTransformerFor(type);
+    }
+
+    @NonNull
+    public String getName() {
+      return element.getSimpleName().toString();
+    }
+  }
+}
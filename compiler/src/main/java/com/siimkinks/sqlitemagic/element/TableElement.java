@@ -5,8 +5,10 @@ import android.support.annotation.Nullable;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
+import com.siimkinks.sqlitemagic.Const;
 import com.siimkinks.sqlitemagic.Environment;
 import com.siimkinks.sqlitemagic.WriterUtil;
+import com.siimkinks.sqlitemagic.annotation.Index;
 import com.siimkinks.sqlitemagic.annotation.Table;
 import com.siimkinks.sqlitemagic.exception.DuplicateException;
 import com.siimkinks.sqlitemagic.exception.DuplicateIdException;
@@ -85,6 +87,7 @@ public class TableElement {
   @Getter
   private final List<ColumnElement> allColumns = new ArrayList<>();
   private Set<TableElement> tableTriggers;
+  private List<IndexElement> indexes;
 
   public TableElement(Environment environment, Element tableElement) {
     this.environment = environment;
@@ -227,6 +230,34 @@ public class TableElement {
     return tableAnnotation.useAccessMethods();
   }
 
+  public boolean trackDirtyColumns() {
+    return tableAnnotation.trackDirtyColumns();
+  }
+
+  /**
+   * @return Indexes defined on columns followed by indexes defined on the table
+   */
+  @NonNull
+  public List<IndexElement> getIndexes() {
+    if (indexes == null) {
+      final List<IndexElement> indexes = new ArrayList<>();
+      for (ColumnElement columnElement : allColumns) {
+        if (columnElement.isIndexed()) {
+          indexes.add(IndexElement.create(this, columnElement));
+        }
+      }
+      for (Index indexAnnotation : tableAnnotation.indexes()) {
+        indexes.add(IndexElement.create(this, indexAnnotation));
+      }
+      this.indexes = indexes;
+    }
+    return indexes;
+  }
+
+  public boolean hasIndexes() {
+    return !getIndexes().isEmpty();
+  }
+
   public boolean hasAnyComplexColumns() {
     return complexColumnCount > 0;
   }
@@ -255,6 +286,38 @@ public class TableElement {
     return !isImmutable() || !hasAnyNonIdNotNullableColumns();
   }
 
+  /**
+   * Whether queried objects of this table can be shared through entity cache.
+   * Only immutable objects which are fully described by their own row and are
+   * identified by an integer id can be shared.
+   */
+  public boolean isEntityCacheable() {
+    if (!isImmutable() || !hasId() || hasAnyPersistedComplexColumns()) {
+      return false;
+    }
+    final String cursorMethod = Const.CURSOR_METHOD_MAP.get(getIdColumn().getSerializedType().getQualifiedName());
+    return "getLong".equals(cursorMethod) || "getInt".equals(cursorMethod) || "getShort".equals(cursorMethod);
+  }
+
+  /**
+   * Whether single row changes of this table are published with the changed row id.
+   * Row ids are published only for tables whose objects carry a long id.
+   */
+  public boolean sendsRowTriggers() {
+    if (isImmutable() && !hasId()) {
+      return false;
+    }
+    final ColumnElement idColumn = getIdColumn();
+    return !idColumn.hasTransformer() && TypeName.LONG.box().equals(idColumn.getDeserializedTypeNameForGenerics());
+  }
+
+  /**
+   * @return Position of the id column in all columns
+   */
+  public int getIdColumnPos() {
+    return allColumns.indexOf(getIdColumn());
+  }
+
   public Integer getGraphNodeCount() {
     if (graphNodeCount == null) {
       graphNodeCount = ElementGraphWalker.countNodes(this);
@@ -44,6 +44,12 @@ public final class ViewColumnElement implements BaseColumnElement {
                                          ExecutableElement element,
                                          @Nullable ViewColumn annotation) {
     final String annotationValue = annotation != null ? annotation.value() : null;
+    return create(environment, element, MethodColumnElement.getColumnName(element, annotationValue));
+  }
+
+  public static ViewColumnElement create(Environment environment,
+                                         ExecutableElement element,
+                                         @NonNull String columnName) {
     final TypeMirror returnType = element.getReturnType();
     final ExtendedTypeElement deserializedType = environment.getAnyTypeElement(returnType);
     final TableElement referencedTable = environment.getTableElementFor(deserializedType.getQualifiedName());
@@ -55,7 +61,7 @@ public final class ViewColumnElement implements BaseColumnElement {
     return builder()
         .environment(environment)
         .element(element)
-        .columnName(MethodColumnElement.getColumnName(element, annotationValue))
+        .columnName(columnName)
         .complex(allFromTable)
         .methodName(methodName)
         .getterString(methodName + "()")
@@ -4,6 +4,10 @@ import com.siimkinks.sqlitemagic.Environment;
 import com.siimkinks.sqlitemagic.processing.GenClassesManagerStep;
 import com.siimkinks.sqlitemagic.processing.ModelCodeGenerationStep;
 import com.siimkinks.sqlitemagic.processing.ModelCollectionStep;
+import com.siimkinks.sqlitemagic.processing.ProjectionCodeGenerationStep;
+import com.siimkinks.sqlitemagic.processing.ProjectionCollectionStep;
+import com.siimkinks.sqlitemagic.processing.QueryCodeGenerationStep;
+import com.siimkinks.sqlitemagic.processing.QueryCollectionStep;
 import com.siimkinks.sqlitemagic.processing.TransformerCodeGenerationStep;
 import com.siimkinks.sqlitemagic.processing.TransformerCollectionStep;
 import com.siimkinks.sqlitemagic.processing.ViewCodeGenerationStep;
@@ -24,6 +28,10 @@ import lombok.javac.handlers.HandleTable;
         GenClassesManagerStep.class,
         ViewCollectionStep.class,
         ViewCodeGenerationStep.class,
+        ProjectionCollectionStep.class,
+        ProjectionCodeGenerationStep.class,
+        QueryCollectionStep.class,
+        QueryCodeGenerationStep.class,
         HandleTable.class,
     },
     library = true
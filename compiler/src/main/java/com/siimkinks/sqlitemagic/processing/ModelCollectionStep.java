@@ -73,6 +73,9 @@ public class ModelCollectionStep implements ProcessingStep {
           return false;
         }
       }
+      if (isSuccessfulProcess && !validator.isIndexNamesUnique(environment.getAllTableElements())) {
+        return false;
+      }
       final StrongComponentsFinder strongComponentsFinder = new StrongComponentsFinder(environment.getAllTableElements(), environment.getAllTableNames());
       if (strongComponentsFinder.strongComponentsCount() > 0) {
         strongComponentsFinder.printStrongComponents(environment.getMessager());
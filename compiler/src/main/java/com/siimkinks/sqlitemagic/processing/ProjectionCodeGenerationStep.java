@@ -0,0 +1,46 @@
+package com.siimkinks.sqlitemagic.processing;
+
+import com.google.common.base.Strings;
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.SqliteMagicProcessor;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
+import com.siimkinks.sqlitemagic.writer.ProjectionWriter;
+
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.inject.Inject;
+import javax.lang.model.element.TypeElement;
+
+public final class ProjectionCodeGenerationStep implements ProcessingStep {
+
+  @Inject
+  Environment environment;
+  private final Filer filer;
+  @Inject
+  ProjectionWriter projectionWriter;
+
+  public ProjectionCodeGenerationStep() {
+    SqliteMagicProcessor.inject(this);
+    this.filer = environment.getFiler();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (ProjectionElement projectionElement : environment.getProjectionElements()) {
+      TypeElement element = projectionElement.getProjectionElement();
+      try {
+        projectionWriter.writeSource(filer, projectionElement);
+      } catch (Exception e) {
+        final String errMsg = e.getMessage();
+        environment.error(element, errMsg);
+        if (Strings.isNullOrEmpty(errMsg)) {
+          e.printStackTrace();
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+}
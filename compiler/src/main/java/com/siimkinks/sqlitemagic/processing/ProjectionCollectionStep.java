@@ -0,0 +1,53 @@
+package com.siimkinks.sqlitemagic.processing;
+
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.SqliteMagicProcessor;
+import com.siimkinks.sqlitemagic.annotation.Column;
+import com.siimkinks.sqlitemagic.annotation.Projection;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
+import com.siimkinks.sqlitemagic.validator.ProjectionValidator;
+
+import java.lang.annotation.AnnotationTypeMismatchException;
+import java.util.Set;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.inject.Inject;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+
+public final class ProjectionCollectionStep implements ProcessingStep {
+
+  @Inject
+  Environment environment;
+  @Inject
+  ProjectionValidator validator;
+
+  public ProjectionCollectionStep() {
+    SqliteMagicProcessor.inject(this);
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    boolean isSuccessfulProcess = true;
+    for (Element element : roundEnv.getElementsAnnotatedWith(Projection.class)) {
+      try {
+        final ProjectionElement projectionElement = new ProjectionElement(environment, element);
+        if (!validator.isProjectionElementValid(projectionElement)) {
+          isSuccessfulProcess = false;
+        } else {
+          environment.addProjectionElement(projectionElement);
+        }
+      } catch (AnnotationTypeMismatchException ex) {
+        environment.error(element, String.format("@%s and @%s annotation attribute values must be self defined constant expressions",
+            Projection.class.getSimpleName(), Column.class.getSimpleName()));
+        return false;
+      } catch (Exception e) {
+        environment.error(element, "Projection collection error = " + e.getMessage());
+        e.printStackTrace();
+        return false;
+      }
+    }
+
+    return isSuccessfulProcess;
+  }
+}
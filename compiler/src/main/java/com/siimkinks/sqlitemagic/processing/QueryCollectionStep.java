@@ -0,0 +1,57 @@
+package com.siimkinks.sqlitemagic.processing;
+
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.SqliteMagicProcessor;
+import com.siimkinks.sqlitemagic.annotation.Query;
+import com.siimkinks.sqlitemagic.element.QueryElement;
+import com.siimkinks.sqlitemagic.validator.QueryValidator;
+
+import java.lang.annotation.AnnotationTypeMismatchException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.inject.Inject;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+
+public final class QueryCollectionStep implements ProcessingStep {
+
+  @Inject
+  Environment environment;
+  @Inject
+  QueryValidator validator;
+
+  public QueryCollectionStep() {
+    SqliteMagicProcessor.inject(this);
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    final Set<TypeElement> queryTypeElements = new LinkedHashSet<>();
+    for (Element element : roundEnv.getElementsAnnotatedWith(Query.class)) {
+      queryTypeElements.add((TypeElement) element.getEnclosingElement());
+    }
+    boolean isSuccessfulProcess = true;
+    for (TypeElement element : queryTypeElements) {
+      try {
+        final QueryElement queryElement = new QueryElement(environment, element);
+        if (!validator.isQueryElementValid(queryElement)) {
+          isSuccessfulProcess = false;
+        } else {
+          environment.addQueryElement(queryElement);
+        }
+      } catch (AnnotationTypeMismatchException ex) {
+        environment.error(element, String.format("@%s annotation attribute values must be self defined constant expressions",
+            Query.class.getSimpleName()));
+        return false;
+      } catch (Exception e) {
+        environment.error(element, "Query collection error = " + e.getMessage());
+        e.printStackTrace();
+        return false;
+      }
+    }
+
+    return isSuccessfulProcess;
+  }
+}
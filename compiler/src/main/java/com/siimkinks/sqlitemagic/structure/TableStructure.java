@@ -18,8 +18,11 @@ import lombok.ToString;
 public final class TableStructure implements Serializable {
   String name;
   ArrayList<ColumnStructure> columns;
+  ArrayList<IndexStructure> indexes;
 
-  public static TableStructure create(TableElement tableElement, ArrayList<ColumnStructure> columns) {
-    return new TableStructure(tableElement.getTableName(), columns);
+  public static TableStructure create(TableElement tableElement,
+                                      ArrayList<ColumnStructure> columns,
+                                      ArrayList<IndexStructure> indexes) {
+    return new TableStructure(tableElement.getTableName(), columns, indexes);
   }
 }
@@ -24,7 +24,14 @@ public final class NameConst {
   public static final String FIELD_VIEW_QUERY = "QUERY";
   public static final String FIELD_INSERT_SQL = "INSERT_SQL";
   public static final String FIELD_UPDATE_SQL = "UPDATE_SQL";
+  public static final String FIELD_MAX_BATCH_INSERT_ROWS = "MAX_BATCH_INSERT_ROWS";
+  public static final String FIELD_UPSERT_SQL = "UPSERT_SQL";
+  public static final String FIELD_DIRTY_COLUMNS = "DIRTY_COLUMNS";
+  public static final String FIELD_DIRTY_TRACKED_FIELDS = "DIRTY_TRACKED_FIELDS";
   public static final String FIELD_TABLE_SCHEMA = "TABLE_SCHEMA";
+  public static final String FIELD_SELECTION_COLUMNS = "SELECTION_COLUMNS";
+  public static final String FIELD_INDEX_SCHEMAS = "INDEX_SCHEMAS";
+  public static final String FIELD_ENTITY_CACHE = "entityCache";
 
   public static final String METHOD_NEW_INSTANCE_WITH_ONLY_ID = "newInstanceWithOnlyId";
   public static final String METHOD_ADD_SHALLOW_QUERY_PARTS = "addShallowQueryParts";
@@ -36,6 +43,7 @@ public final class NameConst {
   public static final String METHOD_FROM_CURSOR_POSITION = "fromCurrentCursorPosition";
   public static final String METHOD_FULL_OBJECT_FROM_CURSOR_POSITION = "fullObjectFromCursorPosition";
   public static final String METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION = "shallowObjectFromCursorPosition";
+  public static final String METHOD_CACHED_OBJECT_FROM_CURSOR_POSITION = "cachedObjectFromCursorPosition";
   public static final String METHOD_CREATE_VIEW = "createView";
   public static final String METHOD_SET_ID = "setId";
   public static final String METHOD_GET_ID = "getId";
@@ -44,21 +52,30 @@ public final class NameConst {
   public static final String METHOD_BIND_TO_UPDATE_STATEMENT = "bindToUpdateStatement";
   public static final String METHOD_BIND_TO_UPDATE_STATEMENT_WITH_COMPLEX_COLUMNS = "bindToUpdateStatementWithComplexColumns";
   public static final String METHOD_BIND_TO_INSERT_STATEMENT = "bindToInsertStatement";
+  public static final String METHOD_BIND_TO_BATCH_INSERT_STATEMENT = "bindToBatchInsertStatement";
+  public static final String METHOD_BIND_TO_UPSERT_STATEMENT = "bindToUpsertStatement";
+  public static final String METHOD_BIND_TO_DIRTY_UPDATE_STATEMENT = "bindToDirtyUpdateStatement";
   public static final String METHOD_BIND_TO_NOT_NULL_CONTENT_VALUES = "bindNotNullToContentValues";
   public static final String METHOD_BIND_TO_CONTENT_VALUES = "bindAllToContentValues";
-  public static final String METHOD_BIND_TO_CONTENT_VALUES_EXCEPT_ID = "bindAllExceptIdToContentValues";
   public static final String METHOD_DELETE = "delete";
   public static final String METHOD_DELETE_TABLE = "deleteTable";
   public static final String METHOD_GET_INSERT_STATEMENT = "getInsertStatement";
+  public static final String METHOD_GET_BATCH_INSERT_STATEMENT = "getBatchInsertStatement";
+  public static final String METHOD_GET_UPSERT_STATEMENT = "getUpsertStatement";
+  public static final String METHOD_GET_DIRTY_UPDATE_STATEMENT = "getDirtyUpdateStatement";
+  public static final String METHOD_GET_BULK_DELETE_STATEMENT = "getBulkDeleteStatement";
   public static final String METHOD_INSERT = "insert";
   public static final String METHOD_INSERT_WITH_CONFLICT_ALGORITHM = "insertWithConflictAlgorithm";
   public static final String METHOD_GET_UPDATE_STATEMENT = "getUpdateStatement";
+  public static final String METHOD_QUEUE_WRITE = "queueWrite";
   public static final String METHOD_UPDATE = "update";
   public static final String METHOD_UPDATE_WITH_CONFLICT_ALGORITHM = "updateWithConflictAlgorithm";
   public static final String METHOD_UPDATE_INTERNAL = "updateInternal";
   public static final String METHOD_INSERT_INTERNAL = "insertInternal";
   public static final String METHOD_INSERT_WITH_CONFLICT_ALGORITHM_INTERNAL = "internalInsertWithConflictAlgorithm";
   public static final String METHOD_EXECUTE_INSERT = "executeInsert";
+  public static final String METHOD_EXECUTE_BATCH_INSERT = "executeBatchInsert";
+  public static final String METHOD_EXECUTE_UPSERT = "executeUpsert";
   public static final String METHOD_UPDATE_WITH_CONFLICT_ALGORITHM_INTERNAL = "updateWithConflictAlgorithmInternal";
   public static final String METHOD_PERSIST = "persist";
   public static final String METHOD_PERSIST_IGNORE_NULL = "persistIgnoringNullValues";
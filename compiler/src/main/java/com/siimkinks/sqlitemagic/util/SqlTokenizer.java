@@ -0,0 +1,184 @@
+package com.siimkinks.sqlitemagic.util;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimal SQLite tokenizer for compile time query validation.
+ */
+public final class SqlTokenizer {
+  public static final ImmutableSet<String> KEYWORDS = ImmutableSet.of(
+      "ABORT", "ACTION", "ADD", "AFTER", "ALL", "ALTER", "ANALYZE", "AND", "AS", "ASC",
+      "ATTACH", "AUTOINCREMENT", "BEFORE", "BEGIN", "BETWEEN", "BY", "CASCADE", "CASE", "CAST",
+      "CHECK", "COLLATE", "COLUMN", "COMMIT", "CONFLICT", "CONSTRAINT", "CREATE", "CROSS",
+      "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "DATABASE", "DEFAULT", "DEFERRABLE",
+      "DEFERRED", "DELETE", "DESC", "DETACH", "DISTINCT", "DROP", "EACH", "ELSE", "END", "ESCAPE",
+      "EXCEPT", "EXCLUSIVE", "EXISTS", "EXPLAIN", "FAIL", "FOR", "FOREIGN", "FROM", "FULL", "GLOB",
+      "GROUP", "HAVING", "IF", "IGNORE", "IMMEDIATE", "IN", "INDEX", "INDEXED", "INITIALLY",
+      "INNER", "INSERT", "INSTEAD", "INTERSECT", "INTO", "IS", "ISNULL", "JOIN", "KEY", "LEFT",
+      "LIKE", "LIMIT", "MATCH", "NATURAL", "NO", "NOT", "NOTNULL", "NULL", "OF", "OFFSET", "ON",
+      "OR", "ORDER", "OUTER", "PLAN", "PRAGMA", "PRIMARY", "QUERY", "RAISE", "RECURSIVE",
+      "REFERENCES", "REGEXP", "REINDEX", "RELEASE", "RENAME", "REPLACE", "RESTRICT", "RIGHT",
+      "ROLLBACK", "ROW", "SAVEPOINT", "SELECT", "SET", "TABLE", "TEMP", "TEMPORARY", "THEN", "TO",
+      "TRANSACTION", "TRIGGER", "UNION", "UNIQUE", "UPDATE", "USING", "VACUUM", "VALUES", "VIEW",
+      "VIRTUAL", "WHEN", "WHERE", "WITH", "WITHOUT");
+
+  private SqlTokenizer() {
+    throw new AssertionError("no instances");
+  }
+
+  /**
+   * Split SQL into tokens. Whitespace and comments are dropped; string literals, quoted
+   * identifiers and numbers are kept as single tokens.
+   *
+   * @throws IllegalArgumentException if SQL contains unterminated literal or comment
+   */
+  @NonNull
+  @CheckResult
+  public static List<String> tokenize(@NonNull String sql) {
+    final ArrayList<String> tokens = new ArrayList<>();
+    final int len = sql.length();
+    int i = 0;
+    while (i < len) {
+      final char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '-' && i + 1 < len && sql.charAt(i + 1) == '-') {
+        final int end = sql.indexOf('\n', i);
+        i = end == -1 ? len : end + 1;
+      } else if (c == '/' && i + 1 < len && sql.charAt(i + 1) == '*') {
+        final int end = sql.indexOf("*/", i + 2);
+        if (end == -1) {
+          throw new IllegalArgumentException("Unterminated comment");
+        }
+        i = end + 2;
+      } else if (c == '\'' || c == '"' || c == '`' || c == '[') {
+        final int end = quotedEnd(sql, i, c == '[' ? ']' : c);
+        tokens.add(sql.substring(i, end));
+        i = end;
+      } else if ((c == 'x' || c == 'X') && i + 1 < len && sql.charAt(i + 1) == '\'') {
+        final int end = quotedEnd(sql, i + 1, '\'');
+        tokens.add(sql.substring(i, end));
+        i = end;
+      } else if (Character.isDigit(c) || (c == '.' && i + 1 < len && Character.isDigit(sql.charAt(i + 1)))) {
+        int end = i + 1;
+        while (end < len && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '.')) {
+          end++;
+        }
+        tokens.add(sql.substring(i, end));
+        i = end;
+      } else if (isIdentifierStart(c)) {
+        int end = i + 1;
+        while (end < len && isIdentifierPart(sql.charAt(end))) {
+          end++;
+        }
+        tokens.add(sql.substring(i, end));
+        i = end;
+      } else if (i + 1 < len && isTwoCharOperator(c, sql.charAt(i + 1))) {
+        tokens.add(sql.substring(i, i + 2));
+        i += 2;
+      } else {
+        tokens.add(String.valueOf(c));
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Join tokens back into SQL with normalized whitespace and upper case keywords.
+   */
+  @NonNull
+  @CheckResult
+  public static String join(@NonNull List<String> tokens) {
+    final StringBuilder sb = new StringBuilder();
+    String prev = null;
+    for (String token : tokens) {
+      if (prev != null
+          && !".".equals(prev) && !"(".equals(prev)
+          && !".".equals(token) && !",".equals(token) && !")".equals(token)
+          && !("(".equals(token) && isIdentifier(prev))) {
+        sb.append(' ');
+      }
+      sb.append(isKeyword(token) ? token.toUpperCase(Locale.US) : token);
+      prev = token;
+    }
+    return sb.toString();
+  }
+
+  public static boolean isKeyword(@NonNull String token) {
+    return KEYWORDS.contains(token.toUpperCase(Locale.US));
+  }
+
+  public static boolean isKeyword(@NonNull String token, @NonNull String keyword) {
+    return keyword.equalsIgnoreCase(token);
+  }
+
+  /**
+   * @return Whether token is plain or quoted identifier
+   */
+  public static boolean isIdentifier(@NonNull String token) {
+    final char c = token.charAt(0);
+    return (isIdentifierStart(c) || c == '"' || c == '`' || c == '[') && !isKeyword(token);
+  }
+
+  /**
+   * @return Identifier without quotes
+   */
+  @NonNull
+  @CheckResult
+  public static String unquote(@NonNull String identifier) {
+    final char c = identifier.charAt(0);
+    if (c == '"' || c == '`' || c == '[') {
+      return identifier.substring(1, identifier.length() - 1);
+    }
+    return identifier;
+  }
+
+  private static int quotedEnd(@NonNull String sql, int start, char quote) {
+    final int len = sql.length();
+    int i = start + 1;
+    while (i < len) {
+      if (sql.charAt(i) == quote) {
+        // doubled quote is an escaped quote
+        if (quote != ']' && i + 1 < len && sql.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i + 1;
+      }
+      i++;
+    }
+    throw new IllegalArgumentException("Unterminated quoted literal");
+  }
+
+  private static boolean isIdentifierStart(char c) {
+    return Character.isLetter(c) || c == '_';
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  private static boolean isTwoCharOperator(char first, char second) {
+    switch (first) {
+      case '<':
+        return second == '=' || second == '>' || second == '<';
+      case '>':
+        return second == '=' || second == '>';
+      case '!':
+      case '=':
+        return second == '=';
+      case '|':
+        return second == '|';
+      default:
+        return false;
+    }
+  }
+}
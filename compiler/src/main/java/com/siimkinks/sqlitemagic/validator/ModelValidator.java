@@ -6,13 +6,21 @@ import com.siimkinks.sqlitemagic.Const;
 import com.siimkinks.sqlitemagic.Environment;
 import com.siimkinks.sqlitemagic.annotation.Column;
 import com.siimkinks.sqlitemagic.annotation.Id;
+import com.siimkinks.sqlitemagic.annotation.Index;
 import com.siimkinks.sqlitemagic.annotation.Table;
 import com.siimkinks.sqlitemagic.element.ColumnElement;
 import com.siimkinks.sqlitemagic.element.ExtendedTypeElement;
 import com.siimkinks.sqlitemagic.element.FieldColumnElement;
+import com.siimkinks.sqlitemagic.element.IndexElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
+import com.siimkinks.sqlitemagic.entity.DirtyTrackable;
 import com.siimkinks.sqlitemagic.util.Utils;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.lang.model.element.Element;
@@ -20,6 +28,9 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 
 import lombok.NoArgsConstructor;
 
@@ -35,6 +46,17 @@ public class ModelValidator {
   public static final String ERR_COLUMN_ANNOTATION_MISPLACEMENT = String.format("@%s annotation is misplaced", Column.class.getSimpleName());
   public static final String ERR_ID_COLUMN_WRONG_TYPE = String.format("@%s must be either %s or %s", Id.class.getSimpleName(), Long.class.getName(), long.class.getName());
   public static final String ERR_MISSING_NO_ARGS_CONSTRUCTOR = String.format("Mutable classes with @%s annotation must have no args constructor", Table.class.getSimpleName());
+  public static final String ERR_INDEX_MISSING_COLUMNS = String.format("@%s defined in @%s must have at least one column", Index.class.getSimpleName(), Table.class.getSimpleName());
+  public static final String ERR_INDEX_COLUMNS_ON_COLUMN = String.format("@%s on column must not define columns - use @%s indexes for composite indexes", Index.class.getSimpleName(), Table.class.getSimpleName());
+  public static final String ERR_INDEX_ON_ID_COLUMN = String.format("@%s column is already indexed", Id.class.getSimpleName());
+  public static final String ERR_INDEX_UNKNOWN_COLUMN = "Index %s references unknown column %s";
+  public static final String ERR_INDEX_DUPLICATE_NAME = "Duplicate index name %s";
+  public static final String ERR_INDEX_TABLE_NAME = "Index name %s is already used by a table";
+  public static final String ERR_DIRTY_TRACKING_IMMUTABLE = "Dirty column tracking is supported only on mutable objects";
+  public static final String ERR_DIRTY_TRACKING_COMPLEX_COLUMNS = "Dirty column tracking is not supported on objects with persisted complex columns";
+  public static final String ERR_DIRTY_TRACKING_TOO_MANY_COLUMNS = "Dirty column tracking supports at most 64 non-id columns";
+  public static final String ERR_DIRTY_TRACKING_HAND_IMPLEMENTED = String.format("Dirty column tracking is generated - objects with dirty column tracking must not implement %s", DirtyTrackable.class.getCanonicalName());
+  public static final String ERR_DIRTY_TRACKING_INHERITED_COLUMN = "Dirty column tracking requires columns to be declared in the tracked class - %s is inherited";
   private final Environment environment;
 
   @Inject
@@ -59,12 +81,111 @@ public class ModelValidator {
       environment.error(rawElement, ERR_MISSING_COLUMNS);
       return false;
     }
+    if (tableElement.hasIndexes() && !isIndexesValid(tableElement, rawElement)) {
+      return false;
+    }
+    if (tableElement.trackDirtyColumns() && !isDirtyTrackingValid(tableElement, rawElement)) {
+      return false;
+    }
     if (tableElement.isImmutable()) {
       return isImmutableTableElementValid(tableElement, rawElement);
     }
     return isRegularTableElementValid(rawElement);
   }
 
+  private boolean isIndexesValid(TableElement tableElement, TypeElement rawElement) {
+    final Set<String> columnNames = new HashSet<>();
+    for (ColumnElement columnElement : tableElement.getAllColumns()) {
+      columnNames.add(columnElement.getColumnName());
+    }
+    for (IndexElement index : tableElement.getIndexes()) {
+      if (index.isColumnIndex()) {
+        if (index.isColumnsDefined()) {
+          environment.error(rawElement, ERR_INDEX_COLUMNS_ON_COLUMN);
+          return false;
+        }
+        if (tableElement.getIdColumn().getColumnName().equals(index.getColumnNames().get(0))) {
+          environment.error(rawElement, ERR_INDEX_ON_ID_COLUMN);
+          return false;
+        }
+      } else {
+        if (index.getColumnNames().isEmpty()) {
+          environment.error(rawElement, ERR_INDEX_MISSING_COLUMNS);
+          return false;
+        }
+        for (String columnName : index.getColumnNames()) {
+          if (!columnNames.contains(columnName)) {
+            environment.error(rawElement, ERR_INDEX_UNKNOWN_COLUMN, index.getIndexName(), columnName);
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Index names share one namespace with table names across the whole database,
+   * so they are validated after all tables are collected.
+   *
+   * @param allTableElements All table elements of the database
+   * @return True if index names clash neither with each other nor with table names
+   */
+  public boolean isIndexNamesUnique(Collection<TableElement> allTableElements) {
+    final Set<String> tableNames = new HashSet<>();
+    for (TableElement tableElement : allTableElements) {
+      tableNames.add(tableElement.getTableName().toLowerCase(Locale.US));
+    }
+    final Set<String> indexNames = new HashSet<>();
+    boolean valid = true;
+    for (TableElement tableElement : allTableElements) {
+      for (IndexElement index : tableElement.getIndexes()) {
+        // SQLite schema object names are case insensitive
+        final String indexName = index.getIndexName().toLowerCase(Locale.US);
+        if (tableNames.contains(indexName)) {
+          environment.error(tableElement.getTableElement(), ERR_INDEX_TABLE_NAME, index.getIndexName());
+          valid = false;
+        } else if (!indexNames.add(indexName)) {
+          environment.error(tableElement.getTableElement(), ERR_INDEX_DUPLICATE_NAME, index.getIndexName());
+          valid = false;
+        }
+      }
+    }
+    return valid;
+  }
+
+  private boolean isDirtyTrackingValid(TableElement tableElement, TypeElement rawElement) {
+    if (tableElement.isImmutable()) {
+      environment.error(rawElement, ERR_DIRTY_TRACKING_IMMUTABLE);
+      return false;
+    }
+    if (tableElement.hasAnyPersistedComplexColumns()) {
+      environment.error(rawElement, ERR_DIRTY_TRACKING_COMPLEX_COLUMNS);
+      return false;
+    }
+    if (tableElement.getColumnsExceptId().size() > 64) {
+      environment.error(rawElement, ERR_DIRTY_TRACKING_TOO_MANY_COLUMNS);
+      return false;
+    }
+    final TypeMirror dirtyTrackableType = environment.getTypeElement(DirtyTrackable.class).asType();
+    if (environment.getTypeUtils().isAssignable(rawElement.asType(), dirtyTrackableType)) {
+      environment.error(rawElement, ERR_DIRTY_TRACKING_HAND_IMPLEMENTED);
+      return false;
+    }
+    // writes are instrumented only in fields declared by the tracked class
+    final Set<String> declaredFields = new HashSet<>();
+    for (VariableElement field : ElementFilter.fieldsIn(rawElement.getEnclosedElements())) {
+      declaredFields.add(field.getSimpleName().toString());
+    }
+    for (ColumnElement columnElement : tableElement.getColumnsExceptId()) {
+      if (!declaredFields.contains(columnElement.getElementName())) {
+        environment.error(rawElement, ERR_DIRTY_TRACKING_INHERITED_COLUMN, columnElement.getElementName());
+        return false;
+      }
+    }
+    return true;
+  }
+
   private boolean isImmutableTableElementValid(TableElement tableElement, TypeElement rawElement) {
     if (!tableElement.hasId()) {
       environment.error(rawElement, ERR_VALUE_ELEMENT_MISSING_ID_COLUMN);
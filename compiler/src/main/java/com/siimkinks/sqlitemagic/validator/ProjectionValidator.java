@@ -0,0 +1,84 @@
+package com.siimkinks.sqlitemagic.validator;
+
+import com.siimkinks.sqlitemagic.Const;
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.annotation.Projection;
+import com.siimkinks.sqlitemagic.element.ColumnElement;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
+import com.siimkinks.sqlitemagic.element.TableElement;
+import com.siimkinks.sqlitemagic.element.ViewColumnElement;
+
+import java.lang.annotation.Annotation;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+
+@Singleton
+public final class ProjectionValidator {
+  public static final String ERR_UNKNOWN_TABLE = String.format("@%s references unknown table \"%%s\"", Projection.class.getSimpleName());
+  public static final String ERR_MISSING_COLUMNS = "Projection objects must have at least one column";
+  public static final String ERR_UNKNOWN_COLUMN = "Projected table \"%s\" has no column \"%s\"";
+  public static final String ERR_COMPLEX_COLUMN = "Projection column \"%s\" cannot be a complex column";
+  public static final String ERR_UNSUPPORTED_TYPE = "Projection column \"%s\" type %s is not any of sql types and does not have transformer";
+  public static final String ERR_DUPLICATE_COLUMN = "Duplicate projection column \"%s\"";
+  public static final String ERR_WRONG_TYPE = String.format("@%s must be on either interface or value class (abstract class that is annotated with @%%s)",
+      Projection.class.getSimpleName());
+
+  private final Environment environment;
+
+  @Inject
+  public ProjectionValidator(Environment environment) {
+    this.environment = environment;
+  }
+
+  public boolean isProjectionElementValid(ProjectionElement projectionElement) {
+    final TypeElement rawElement = projectionElement.getProjectionElement();
+    final TableElement projectedTable = projectionElement.getProjectedTable();
+    if (projectedTable == null) {
+      environment.error(rawElement, ERR_UNKNOWN_TABLE, projectionElement.getTableName());
+      return false;
+    }
+    if (projectionElement.getAllColumnsCount() == 0) {
+      environment.error(rawElement, ERR_MISSING_COLUMNS);
+      return false;
+    }
+    if (!projectionElement.isInterface()) {
+      final Set<Modifier> modifiers = rawElement.getModifiers();
+      final Class<? extends Annotation> autoValueAnnotation = environment.getAutoValueAnnotation();
+      if (!modifiers.contains(Modifier.ABSTRACT) || rawElement.getAnnotation(autoValueAnnotation) == null) {
+        environment.error(rawElement, String.format(ERR_WRONG_TYPE, autoValueAnnotation.getSimpleName()));
+        return false;
+      }
+    }
+    final Set<String> tableColumnNames = new HashSet<>();
+    for (ColumnElement columnElement : projectedTable.getAllColumns()) {
+      tableColumnNames.add(columnElement.getColumnName());
+    }
+    final Set<String> projectedColumnNames = new HashSet<>();
+    for (ViewColumnElement columnElement : projectionElement.getColumns()) {
+      final String columnName = columnElement.getColumnName();
+      if (columnElement.isComplex()) {
+        environment.error(columnElement.getElement(), ERR_COMPLEX_COLUMN, columnName);
+        return false;
+      }
+      final String typeName = columnElement.getDeserializedType().getQualifiedName();
+      if (!Const.SQL_TYPE_MAP.containsKey(typeName) && !columnElement.hasTransformer()) {
+        environment.error(columnElement.getElement(), ERR_UNSUPPORTED_TYPE, columnName, typeName);
+        return false;
+      }
+      if (!tableColumnNames.contains(columnName)) {
+        environment.error(columnElement.getElement(), ERR_UNKNOWN_COLUMN, projectionElement.getTableName(), columnName);
+        return false;
+      }
+      if (!projectedColumnNames.add(columnName)) {
+        environment.error(columnElement.getElement(), ERR_DUPLICATE_COLUMN, columnName);
+        return false;
+      }
+    }
+    return true;
+  }
+}
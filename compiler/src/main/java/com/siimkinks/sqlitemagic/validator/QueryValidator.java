@@ -0,0 +1,231 @@
+package com.siimkinks.sqlitemagic.validator;
+
+import com.google.common.collect.ImmutableSet;
+import com.siimkinks.sqlitemagic.CompiledSelect;
+import com.siimkinks.sqlitemagic.Const;
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.Select;
+import com.siimkinks.sqlitemagic.annotation.Query;
+import com.siimkinks.sqlitemagic.element.ColumnElement;
+import com.siimkinks.sqlitemagic.element.QueryElement;
+import com.siimkinks.sqlitemagic.element.QueryMethodElement;
+import com.siimkinks.sqlitemagic.element.QueryMethodElement.QueryParameter;
+import com.siimkinks.sqlitemagic.element.TableElement;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+
+import static com.siimkinks.sqlitemagic.Const.COMPILED_SELECT;
+import static com.siimkinks.sqlitemagic.util.SqlTokenizer.isIdentifier;
+import static com.siimkinks.sqlitemagic.util.SqlTokenizer.isKeyword;
+import static com.siimkinks.sqlitemagic.util.SqlTokenizer.unquote;
+
+@Singleton
+public final class QueryValidator {
+  public static final String ERR_NOT_INTERFACE = String.format("@%s methods must be declared in an interface", Query.class.getSimpleName());
+  public static final String ERR_MISSING_QUERY = String.format("Method \"%%s\" must be annotated with @%s", Query.class.getSimpleName());
+  public static final String ERR_OVERLOADED_METHOD = String.format("@%s methods cannot be overloaded", Query.class.getSimpleName());
+  public static final String ERR_INVALID_SQL = "Invalid query SQL: %s";
+  public static final String ERR_NOT_SELECT = "Query must be a SELECT statement";
+  public static final String ERR_MISSING_FROM = "Query must select from a table";
+  public static final String ERR_SUBQUERY_SOURCE = "Query cannot select from a subquery";
+  public static final String ERR_UNKNOWN_TABLE = "Query references unknown table \"%s\"";
+  public static final String ERR_UNKNOWN_QUALIFIER = "Query references unknown table or alias \"%s\"";
+  public static final String ERR_UNKNOWN_COLUMN = "Query references unknown column \"%s\"";
+  public static final String ERR_WRONG_RETURN_TYPE = String.format("@%s methods must return %s<T, %s.%s> where T is a table",
+      Query.class.getSimpleName(), CompiledSelect.class.getSimpleName(),
+      Select.class.getSimpleName(), Select.SelectN.class.getSimpleName());
+  public static final String ERR_RESULT_COLUMNS = "Query must select all columns of \"%s\" table with \"%s.*\" or with \"*\" when it selects from a single table";
+  public static final String ERR_NAMED_PARAMETERS = "Query can only have anonymous \"?\" parameters";
+  public static final String ERR_PARAMETER_COUNT = "Query has %d \"?\" parameters, but method has %d parameters";
+  public static final String ERR_UNSUPPORTED_PARAMETER_TYPE = "Query parameter \"%s\" type %s is not any of sql types and does not have transformer";
+
+  /**
+   * Identifiers that are not keywords, but are not column references either.
+   */
+  private static final ImmutableSet<String> NON_COLUMN_IDENTIFIERS = ImmutableSet.of("TRUE", "FALSE", "ROWID", "OID", "_ROWID_");
+
+  private final Environment environment;
+
+  @Inject
+  public QueryValidator(Environment environment) {
+    this.environment = environment;
+  }
+
+  public boolean isQueryElementValid(QueryElement queryElement) {
+    if (!queryElement.isInterface()) {
+      environment.error(queryElement.getQueryElement(), ERR_NOT_INTERFACE);
+      return false;
+    }
+    for (ExecutableElement method : queryElement.getUnannotatedMethods()) {
+      environment.error(method, ERR_MISSING_QUERY, method.getSimpleName());
+      return false;
+    }
+    boolean valid = true;
+    final Set<String> methodNames = new HashSet<>();
+    for (QueryMethodElement queryMethod : queryElement.getQueryMethods()) {
+      if (!methodNames.add(queryMethod.getMethodName())) {
+        environment.error(queryMethod.getMethod(), ERR_OVERLOADED_METHOD);
+        valid = false;
+        continue;
+      }
+      valid &= isQueryMethodValid(queryMethod);
+    }
+    return valid;
+  }
+
+  private boolean isQueryMethodValid(QueryMethodElement queryMethod) {
+    final ExecutableElement method = queryMethod.getMethod();
+    final List<String> tokens = queryMethod.getTokens();
+    if (tokens == null) {
+      environment.error(method, ERR_INVALID_SQL, queryMethod.getTokenizeError());
+      return false;
+    }
+    if (tokens.isEmpty() || !isKeyword(tokens.get(0), "SELECT")) {
+      environment.error(method, ERR_NOT_SELECT);
+      return false;
+    }
+    if (queryMethod.isHasSubquerySource()) {
+      environment.error(method, ERR_SUBQUERY_SOURCE);
+      return false;
+    }
+    if (queryMethod.getSources().isEmpty()) {
+      environment.error(method, ERR_MISSING_FROM);
+      return false;
+    }
+    if (!isReturnTypeValid(queryMethod)) {
+      environment.error(method, ERR_WRONG_RETURN_TYPE);
+      return false;
+    }
+    for (String tableName : queryMethod.getSourceTableNames()) {
+      if (environment.getTableElementByTableName(tableName) == null) {
+        environment.error(method, ERR_UNKNOWN_TABLE, tableName);
+        return false;
+      }
+    }
+    if (!areResultColumnsValid(queryMethod)) {
+      //noinspection ConstantConditions -- checked in return type validation
+      final String resultTableName = queryMethod.getResultTable().getTableName();
+      environment.error(method, ERR_RESULT_COLUMNS, resultTableName, resultTableName);
+      return false;
+    }
+    if (!areColumnReferencesValid(queryMethod, tokens)) {
+      return false;
+    }
+    if (queryMethod.isHasNamedParameters()) {
+      environment.error(method, ERR_NAMED_PARAMETERS);
+      return false;
+    }
+    final List<QueryParameter> parameters = queryMethod.getParameters();
+    if (queryMethod.getPlaceholderCount() != parameters.size()) {
+      environment.error(method, ERR_PARAMETER_COUNT, queryMethod.getPlaceholderCount(), parameters.size());
+      return false;
+    }
+    for (QueryParameter parameter : parameters) {
+      final String typeName = parameter.getType().getQualifiedName();
+      if (!Const.SQL_TYPE_MAP.containsKey(typeName) && parameter.getTransformer() == null) {
+        environment.error(parameter.getElement(), ERR_UNSUPPORTED_PARAMETER_TYPE, parameter.getName(), typeName);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isReturnTypeValid(QueryMethodElement queryMethod) {
+    final List<? extends TypeMirror> typeArguments = queryMethod.getReturnTypeArguments();
+    if (typeArguments == null || queryMethod.getResultTable() == null) {
+      return false;
+    }
+    final Types typeUtils = environment.getTypeUtils();
+    return typeUtils.isSameType(typeUtils.erasure(queryMethod.getMethod().getReturnType()), typeUtils.erasure(COMPILED_SELECT))
+        && Select.SelectN.class.getCanonicalName().equals(typeArguments.get(1).toString());
+  }
+
+  private static boolean areResultColumnsValid(QueryMethodElement queryMethod) {
+    final List<String> resultColumns = queryMethod.getResultColumnTokens();
+    final Map<String, String> sources = queryMethod.getSources();
+    //noinspection ConstantConditions -- checked in return type validation
+    final String resultTableName = queryMethod.getResultTable().getTableName();
+    if (resultColumns.size() == 1 && "*".equals(resultColumns.get(0))) {
+      // with joins a bare "*" also selects columns of the joined tables
+      return sources.size() == 1 && resultTableName.equals(sources.get(queryMethod.getFirstSourceName()));
+    }
+    if (resultColumns.size() == 3 && ".".equals(resultColumns.get(1)) && "*".equals(resultColumns.get(2))) {
+      return resultTableName.equals(sources.get(unquote(resultColumns.get(0))));
+    }
+    return false;
+  }
+
+  private boolean areColumnReferencesValid(QueryMethodElement queryMethod, List<String> tokens) {
+    final Map<String, String> sources = queryMethod.getSources();
+    final int size = tokens.size();
+    for (int i = 0; i < size; i++) {
+      final String token = tokens.get(i);
+      if (!isIdentifier(token)) {
+        continue;
+      }
+      final String prev = i > 0 ? tokens.get(i - 1) : "";
+      final String next = i + 1 < size ? tokens.get(i + 1) : "";
+      if (".".equals(prev) || "(".equals(next) || isKeyword(prev, "AS") || isKeyword(prev, "COLLATE")) {
+        continue;
+      }
+      final String name = unquote(token);
+      if (".".equals(next)) {
+        final String tableName = sources.get(name);
+        if (tableName == null) {
+          environment.error(queryMethod.getMethod(), ERR_UNKNOWN_QUALIFIER, name);
+          return false;
+        }
+        final String column = i + 2 < size ? tokens.get(i + 2) : "";
+        if (!"*".equals(column) && !hasColumn(tableName, unquote(column))) {
+          environment.error(queryMethod.getMethod(), ERR_UNKNOWN_COLUMN, name + "." + unquote(column));
+          return false;
+        }
+        continue;
+      }
+      if (sources.containsKey(name)
+          || queryMethod.getSourceTableNames().contains(name)
+          || queryMethod.getResultAliases().contains(name)
+          || NON_COLUMN_IDENTIFIERS.contains(name.toUpperCase(Locale.US))) {
+        continue;
+      }
+      boolean found = false;
+      for (String tableName : queryMethod.getSourceTableNames()) {
+        if (hasColumn(tableName, name)) {
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        environment.error(queryMethod.getMethod(), ERR_UNKNOWN_COLUMN, name);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean hasColumn(String tableName, String columnName) {
+    final TableElement tableElement = environment.getTableElementByTableName(tableName);
+    if (tableElement == null) {
+      return false;
+    }
+    if (NON_COLUMN_IDENTIFIERS.contains(columnName.toUpperCase(Locale.US))) {
+      return true;
+    }
+    for (ColumnElement columnElement : tableElement.getAllColumns()) {
+      if (columnElement.getColumnName().equalsIgnoreCase(columnName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -143,36 +143,21 @@ public final class ColumnClassWriter {
         .addAnnotation(NON_NULL)
         .addAnnotation(Override.class)
         .addParameter(notNullParameter(deserializedTypeName, VAL_VARIABLE))
-        .returns(String.class);
+        .returns(Object.class);
     if (initBlock != null) {
       builder.addCode(initBlock);
     }
+    // serialized values are passed as is so that they can be bound with typed bind methods
     if (nullable) {
       builder.addStatement(String.format("final $T sqlVal = %s", valueGetter.getFormat()),
           valueGetter.getWithOtherArgsBefore(serializedType.getTypeElement()))
           .beginControlFlow("if (sqlVal == null)")
           .addStatement("throw new $T($S)", NullPointerException.class, "SQL argument cannot be null")
-          .endControlFlow();
-      if (serializedType.isPrimitiveElement()) {
-        final TypeName boxedType = TypeName.get(serializedType.getTypeMirror()).box();
-        builder.addStatement("return $T.toString(sqlVal)", boxedType);
-      } else if (serializedType.isStringType(environment)) {
-        builder.addStatement("return sqlVal");
-      } else {
-        builder.addStatement("return sqlVal.toString()");
-      }
+          .endControlFlow()
+          .addStatement("return sqlVal");
     } else {
-      if (serializedType.isPrimitiveElement()) {
-        final TypeName boxedType = TypeName.get(serializedType.getTypeMirror()).box();
-        builder.addStatement(String.format("return $T.toString(%s)", valueGetter.getFormat()),
-            valueGetter.getWithOtherArgsBefore(boxedType));
-      } else if (serializedType.isStringType(environment)) {
-        builder.addStatement(String.format("return %s", valueGetter.getFormat()),
-            valueGetter.getArgs());
-      } else {
-        builder.addStatement(String.format("return %s.toString()", valueGetter.getFormat()),
-            valueGetter.getArgs());
-      }
+      builder.addStatement(String.format("return %s", valueGetter.getFormat()),
+          valueGetter.getArgs());
     }
     return builder.build();
   }
@@ -2,6 +2,7 @@ package com.siimkinks.sqlitemagic.writer;
 
 import com.siimkinks.sqlitemagic.WriterUtil;
 import com.siimkinks.sqlitemagic.element.ColumnElement;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
 import com.siimkinks.sqlitemagic.element.ViewElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.util.FormatData;
@@ -221,6 +222,10 @@ public class EntityEnvironment {
     return ClassName.get(viewElement.getPackageName(), getGeneratedDaoClassNameString(viewElement.getViewElement()));
   }
 
+  public static ClassName getGeneratedDaoClassName(ProjectionElement projectionElement) {
+    return ClassName.get(projectionElement.getPackageName(), getGeneratedDaoClassNameString(projectionElement.getProjectionElement()));
+  }
+
   public static ClassName getGeneratedHandlerClassName(TableElement tableElement) {
     return ClassName.get(PACKAGE_ROOT, getGeneratedHandlerClassNameString(tableElement));
   }
@@ -4,15 +4,18 @@ import com.siimkinks.sqlitemagic.Environment;
 import com.siimkinks.sqlitemagic.WriterUtil;
 import com.siimkinks.sqlitemagic.element.ColumnElement;
 import com.siimkinks.sqlitemagic.element.ExtendedTypeElement;
+import com.siimkinks.sqlitemagic.element.IndexElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.element.TransformerElement;
 import com.siimkinks.sqlitemagic.element.ViewElement;
 import com.siimkinks.sqlitemagic.processing.GenClassesManagerStep;
 import com.siimkinks.sqlitemagic.structure.ColumnStructure;
+import com.siimkinks.sqlitemagic.structure.IndexStructure;
 import com.siimkinks.sqlitemagic.structure.TableStructure;
 import com.siimkinks.sqlitemagic.util.FormatData;
 import com.siimkinks.sqlitemagic.util.JsonConfig;
 import com.siimkinks.sqlitemagic.util.TopsortTables;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
@@ -44,7 +47,9 @@ import static com.siimkinks.sqlitemagic.GlobalConst.METHOD_CREATE_TABLES;
 import static com.siimkinks.sqlitemagic.GlobalConst.METHOD_GET_DB_NAME;
 import static com.siimkinks.sqlitemagic.GlobalConst.METHOD_GET_DB_VERSION;
 import static com.siimkinks.sqlitemagic.GlobalConst.METHOD_GET_NR_OF_TABLES;
+import static com.siimkinks.sqlitemagic.GlobalConst.METHOD_GET_TABLE_NAMES;
 import static com.siimkinks.sqlitemagic.WriterUtil.COLUMN;
+import static com.siimkinks.sqlitemagic.WriterUtil.COLUMN_POSITIONS;
 import static com.siimkinks.sqlitemagic.WriterUtil.COMPILED_N_COLUMNS_SELECT;
 import static com.siimkinks.sqlitemagic.WriterUtil.COMPILED_N_COLUMNS_SELECT_IMPL;
 import static com.siimkinks.sqlitemagic.WriterUtil.FAST_CURSOR;
@@ -57,10 +62,12 @@ import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_DATABASE;
 import static com.siimkinks.sqlitemagic.WriterUtil.STRING;
 import static com.siimkinks.sqlitemagic.WriterUtil.STRING_ARRAY_SET;
 import static com.siimkinks.sqlitemagic.WriterUtil.TABLE;
+import static com.siimkinks.sqlitemagic.WriterUtil.TABLE_GRAPH_NODE;
 import static com.siimkinks.sqlitemagic.WriterUtil.UTIL;
 import static com.siimkinks.sqlitemagic.WriterUtil.anyWildcardTypeName;
 import static com.siimkinks.sqlitemagic.WriterUtil.createMagicInvokableMethod;
 import static com.siimkinks.sqlitemagic.WriterUtil.notNullParameter;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_INDEX_SCHEMAS;
 import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_TABLE_SCHEMA;
 import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_VIEW_QUERY;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CREATE_VIEW;
@@ -88,6 +95,7 @@ public class GenClassesManagerWriter {
           .addMethod(databaseSchemaCreator(environment, managerStep, executeViewCreate))
           .addMethod(executeViewCreate)
           .addMethod(nrOfTables(environment))
+          .addMethod(tableNames(environment))
           .addMethod(dbVersion(environment))
           .addMethod(dbName(environment))
           .addMethod(columnForValue(environment, managerStep));
@@ -105,7 +113,12 @@ public class GenClassesManagerWriter {
       for (ColumnElement columnElement : allColumns) {
         columns.add(ColumnStructure.create(columnElement));
       }
-      structure.put(tableElement.getTableName(), TableStructure.create(tableElement, columns));
+      final List<IndexElement> allIndexes = tableElement.getIndexes();
+      final ArrayList<IndexStructure> indexes = new ArrayList<>(allIndexes.size());
+      for (IndexElement indexElement : allIndexes) {
+        indexes.add(IndexStructure.create(indexElement));
+      }
+      structure.put(tableElement.getTableName(), TableStructure.create(tableElement, columns, indexes));
     }
     try {
       final File latestStructDir = new File(System.getProperty("PROJECT_DIR"), "db");
@@ -171,7 +184,7 @@ public class GenClassesManagerWriter {
         .addParameter(notNullParameter(STRING, "viewName"))
         .addStatement("final $1T queryImpl = ($1T) query",
             COMPILED_N_COLUMNS_SELECT_IMPL)
-        .addStatement("final String[] args = queryImpl.args")
+        .addStatement("final Object[] args = queryImpl.args")
         .beginControlFlow("if (args != null)")
         .addStatement("db.execSQL(\"CREATE VIEW IF NOT EXISTS \" + viewName + \" AS \" + queryImpl.sql, args)")
         .nextControlFlow("else")
@@ -187,6 +200,14 @@ public class GenClassesManagerWriter {
       ClassName modelHandler = getGeneratedHandlerClassName(tableElement);
       builder.addStatement("db.execSQL($T.$L)", modelHandler, FIELD_TABLE_SCHEMA);
     }
+    for (TableElement tableElement : environment.getAllTableElements()) {
+      if (tableElement.hasIndexes()) {
+        ClassName modelHandler = getGeneratedHandlerClassName(tableElement);
+        builder.beginControlFlow("for ($T indexSchema : $T.$L)", String.class, modelHandler, FIELD_INDEX_SCHEMAS)
+            .addStatement("db.execSQL(indexSchema)")
+            .endControlFlow();
+      }
+    }
     return builder.build();
   }
 
@@ -198,6 +219,23 @@ public class GenClassesManagerWriter {
         .build();
   }
 
+  private MethodSpec tableNames(Environment environment) {
+    final CodeBlock.Builder names = CodeBlock.builder();
+    boolean first = true;
+    for (TableElement tableElement : environment.getAllTableElements()) {
+      if (!first) {
+        names.add(", ");
+      }
+      names.add("$S", tableElement.getTableName());
+      first = false;
+    }
+    return createMagicInvokableMethod(CLASS_NAME_GENERATED_CLASSES_MANAGER, METHOD_GET_TABLE_NAMES)
+        .addModifiers(STATIC_METHOD_MODIFIERS)
+        .returns(ArrayTypeName.of(String.class))
+        .addStatement("return new $T[]{$L}", String.class, names.build())
+        .build();
+  }
+
   private MethodSpec dbVersion(Environment environment) {
     final Integer dbVersion = environment.getDbVersion();
     return createMagicInvokableMethod(CLASS_NAME_GENERATED_CLASSES_MANAGER, METHOD_GET_DB_VERSION)
@@ -281,12 +319,17 @@ public class GenClassesManagerWriter {
   }
 
   static ParameterSpec columnsParam() {
-    return ParameterSpec.builder(ParameterizedTypeName.get(SIMPLE_ARRAY_MAP, STRING, TypeName.INT.box()),
-        "columns")
+    return ParameterSpec.builder(COLUMN_POSITIONS, "columns")
         .addAnnotation(NULLABLE)
         .build();
   }
 
+  static ParameterSpec tableGraphNodeParam() {
+    return ParameterSpec.builder(TABLE_GRAPH_NODE, "node")
+        .addAnnotation(NON_NULL)
+        .build();
+  }
+
   static ParameterSpec columnOffsetParam() {
     return ParameterSpec.builder(MUTABLE_INT, "columnOffset")
         .addAnnotation(NON_NULL)
@@ -5,8 +5,10 @@ import com.siimkinks.sqlitemagic.element.ColumnElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.util.Callback;
 import com.siimkinks.sqlitemagic.util.ReturnCallback;
+import com.siimkinks.sqlitemagic.util.ReturnCallback2;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -21,11 +23,13 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.Builder;
 
+import static com.siimkinks.sqlitemagic.Const.PRIVATE_STATIC_FINAL;
 import static com.siimkinks.sqlitemagic.Const.STATIC_METHOD_MODIFIERS;
 import static com.siimkinks.sqlitemagic.GlobalConst.ERROR_UNSUBSCRIBED_UNEXPECTEDLY;
 import static com.siimkinks.sqlitemagic.GlobalConst.FAILED_TO_INSERT_ERR_MSG;
 import static com.siimkinks.sqlitemagic.SqliteMagicProcessor.GENERATE_LOGGING;
-import static com.siimkinks.sqlitemagic.WriterUtil.CONTENT_VALUES;
+import static com.siimkinks.sqlitemagic.WriterUtil.ARRAY_LIST;
+import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_DB_MANAGER;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_BULK_INSERT_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_INSERT_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.LOG_UTIL;
@@ -45,35 +49,41 @@ import static com.siimkinks.sqlitemagic.WriterUtil.entityDbVariablesForOperation
 import static com.siimkinks.sqlitemagic.WriterUtil.entityParameter;
 import static com.siimkinks.sqlitemagic.WriterUtil.ifSubscriberUnsubscribed;
 import static com.siimkinks.sqlitemagic.WriterUtil.insertStatementVariable;
+import static com.siimkinks.sqlitemagic.WriterUtil.insertStatementWithConflictAlgorithmVariable;
+import static com.siimkinks.sqlitemagic.WriterUtil.notNullParameter;
 import static com.siimkinks.sqlitemagic.WriterUtil.operationBuilderInnerClassSkeleton;
 import static com.siimkinks.sqlitemagic.WriterUtil.operationRxSingleMethod;
 import static com.siimkinks.sqlitemagic.WriterUtil.typedIterable;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_BULK_INSERT;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_INSERT;
-import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_CONTENT_VALUES;
-import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_CONTENT_VALUES_EXCEPT_ID;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_INSERT_SQL;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_MAX_BATCH_INSERT_ROWS;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_BATCH_INSERT_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_INSERT_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CALL_INTERNAL_INSERT_ON_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CALL_INTERNAL_INSERT_WITH_CONFLICT_ALGORITHM_ON_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE_BATCH_INSERT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE_INSERT;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_BATCH_INSERT_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_INSERT_INTERNAL;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_INSERT_WITH_CONFLICT_ALGORITHM_INTERNAL;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SET_ID;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.COMPLEX_COLUMN_PARAM_TO_ENTITY_DB_MANAGER;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addBindColumnFromProvidedIdsBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addBindColumnToStatementBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addCallToComplexColumnsOperationWithContentValuesIfNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addCheckIdValidity;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addImmutableIdsParameterIfNeeded;
-import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addInlineExecuteInsertWithCheckIdValidity;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addMethodInternalCallOnComplexColumnsIfNeeded;
+import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addRevertibleIdWriteIfNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addRxSingleTransactionEndBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addSetIdStatementIfNeeded;
+import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addThrowOperationFailedExceptionWithEntityVariable;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addTopMethodEndBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addTopMethodStartBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addTransactionEndBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addTransactionStartBlock;
-import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.contentValuesAndDbVariables;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.isIdSettingNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.statementWithImmutableIdsIfNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.CONFLICT_ALGORITHM_VARIABLE;
@@ -110,6 +120,9 @@ public class InsertWriter implements OperationWriter {
   @Override
   public void writeDao(TypeSpec.Builder classBuilder) {
     classBuilder.addMethod(bindToInsertStatement());
+    if (isBatchInsertSupported()) {
+      classBuilder.addMethod(bindToBatchInsertStatement());
+    }
     addInsertMethodInternalCallOnComplexColumnsIfNeeded(classBuilder);
     addInsertWithConflictAlgorithmMethodInternalCallOnComplexColumnsIfNeeded(classBuilder);
   }
@@ -120,8 +133,30 @@ public class InsertWriter implements OperationWriter {
     final MethodSpec internalInsertWithConflictAlgorithm = insertWithConflictAlgorithmInternal();
     classBuilder.addMethod(executeInsert)
         .addMethod(internalInsertWithConflictAlgorithm)
-        .addType(insert(internalInsert, internalInsertWithConflictAlgorithm))
-        .addType(bulkInsert());
+        .addType(insert(internalInsert, internalInsertWithConflictAlgorithm));
+    if (isBatchInsertSupported()) {
+      classBuilder.addField(maxBatchInsertRowsField())
+          .addMethod(executeBatchInsert());
+    }
+    classBuilder.addType(bulkInsert());
+  }
+
+  /**
+   * Bulk inserts of tables without persisted complex columns insert multiple rows with
+   * one statement.
+   */
+  private boolean isBatchInsertSupported() {
+    return !tableElement.hasAnyPersistedComplexColumns() && getInsertColumnCount() > 0;
+  }
+
+  private int getInsertColumnCount() {
+    int count = 0;
+    for (ColumnElement columnElement : tableElement.getAllColumns()) {
+      if (!columnElement.isId() || !columnElement.isAutoincrementId()) {
+        count++;
+      }
+    }
+    return count;
   }
 
   // -------------------------------------------
@@ -152,6 +187,23 @@ public class InsertWriter implements OperationWriter {
     return builder.build();
   }
 
+  private MethodSpec bindToBatchInsertStatement() {
+    final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_BIND_TO_BATCH_INSERT_STATEMENT)
+        .addModifiers(STATIC_METHOD_MODIFIERS)
+        .addParameter(SQLITE_STATEMENT, "statement")
+        .addParameter(TypeName.INT, "offset")
+        .addParameter(entityParameter(tableElementTypeName));
+    int colPos = 1;
+    for (ColumnElement columnElement : tableElement.getAllColumns()) {
+      if (columnElement.isId() && columnElement.isAutoincrementId()) {
+        continue;
+      }
+      addBindColumnToStatementBlock(builder, "offset + " + colPos, columnElement);
+      colPos++;
+    }
+    return builder.build();
+  }
+
   private void addInsertMethodInternalCallOnComplexColumnsIfNeeded(TypeSpec.Builder daoClassBuilder) {
     addMethodInternalCallOnComplexColumnsIfNeeded(daoClassBuilder, entityEnvironment, METHOD_CALL_INTERNAL_INSERT_ON_COMPLEX_COLUMNS,
         COMPLEX_COLUMN_PARAM_TO_ENTITY_DB_MANAGER,
@@ -165,14 +217,23 @@ public class InsertWriter implements OperationWriter {
   }
 
   private void addInsertWithConflictAlgorithmMethodInternalCallOnComplexColumnsIfNeeded(TypeSpec.Builder daoClassBuilder) {
-    addMethodInternalCallOnComplexColumnsIfNeeded(daoClassBuilder, entityEnvironment, METHOD_CALL_INTERNAL_INSERT_WITH_CONFLICT_ALGORITHM_ON_COMPLEX_COLUMNS, new ReturnCallback<String, ColumnElement>() {
+    addMethodInternalCallOnComplexColumnsIfNeeded(daoClassBuilder, entityEnvironment, METHOD_CALL_INTERNAL_INSERT_WITH_CONFLICT_ALGORITHM_ON_COMPLEX_COLUMNS,
+        new ReturnCallback2<String, ParameterSpec, ColumnElement>() {
+          @Override
+          public String call(ParameterSpec param, ColumnElement columnElement) {
+            if (CONFLICT_ALGORITHM_VARIABLE.equals(param.name)) {
+              return param.name;
+            }
+            return COMPLEX_COLUMN_PARAM_TO_ENTITY_DB_MANAGER.call(param, columnElement);
+          }
+        },
+        new ReturnCallback<String, ColumnElement>() {
           @Override
           public String call(ColumnElement columnElement) {
             return METHOD_INSERT_WITH_CONFLICT_ALGORITHM_INTERNAL;
           }
         },
-        ParameterSpec.builder(CONTENT_VALUES, "values").build(),
-        ParameterSpec.builder(SQLITE_DATABASE, "db").build(),
+        connectionImplParameter(),
         conflictAlgorithmParameter());
   }
 
@@ -218,6 +279,52 @@ public class InsertWriter implements OperationWriter {
         ENTITY_VARIABLE));
   }
 
+  private FieldSpec maxBatchInsertRowsField() {
+    return FieldSpec.builder(TypeName.INT, FIELD_MAX_BATCH_INSERT_ROWS)
+        .addModifiers(PRIVATE_STATIC_FINAL)
+        .initializer("$T.maxBatchInsertRows($L)", ENTITY_DB_MANAGER, getInsertColumnCount())
+        .build();
+  }
+
+  private MethodSpec executeBatchInsert() {
+    final int columnCount = getInsertColumnCount();
+    final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_EXECUTE_BATCH_INSERT)
+        .addModifiers(STATIC_METHOD_MODIFIERS)
+        .addParameter(notNullParameter(ParameterizedTypeName.get(ARRAY_LIST, tableElementTypeName), "batch"))
+        .addParameter(entityDbManagerParameter())
+        .addStatement("final int size = batch.size()")
+        .addStatement("int start = 0")
+        .beginControlFlow("while (start < size)")
+        .addStatement("final int rowCount = $T.batchInsertRows(size - start, $L)", ENTITY_DB_MANAGER, FIELD_MAX_BATCH_INSERT_ROWS)
+        .addStatement("final $T stm = $L.$L($L, rowCount)", SQLITE_STATEMENT, MANAGER_VARIABLE, METHOD_GET_BATCH_INSERT_STATEMENT, FIELD_INSERT_SQL)
+        .addStatement("final long lastId")
+        .beginControlFlow("synchronized (stm)")
+        .addStatement("stm.clearBindings()")
+        .beginControlFlow("for (int i = 0; i < rowCount; i++)")
+        .addStatement("$T.$L(stm, i * $L, batch.get(start + i))", daoClassName, METHOD_BIND_TO_BATCH_INSERT_STATEMENT, columnCount)
+        .endControlFlow()
+        .addStatement("lastId = stm.executeInsert()")
+        .endControlFlow();
+    if (GENERATE_LOGGING) {
+      builder.addStatement("if ($T.LOGGING_ENABLED) $T.logDebug(\"INSERT %s rows, last id: %s\", rowCount, lastId)", SQLITE_MAGIC, LOG_UTIL);
+    }
+    builder.beginControlFlow("if (lastId == -1)")
+        // the statement fails as a whole, so report the whole chunk of rows
+        .addStatement("throw new $T(String.format(\"$L batch rows %d..%d of %d, from %s to %s\", start, start + rowCount - 1, size, batch.get(start), batch.get(start + rowCount - 1)))",
+            OPERATION_FAILED_EXCEPTION, FAILED_TO_INSERT_ERR_MSG)
+        .endControlFlow();
+    if (isIdSettingNeeded(tableElement)) {
+      // rows inserted by one statement get consecutive AUTOINCREMENT ids
+      builder.addStatement("long id = lastId - rowCount + 1")
+          .beginControlFlow("for (int i = 0; i < rowCount; i++)")
+          .addStatement("$T.$L(batch.get(start + i), id++)", daoClassName, METHOD_SET_ID)
+          .endControlFlow();
+    }
+    return builder.addStatement("start += rowCount")
+        .endControlFlow()
+        .build();
+  }
+
   private MethodSpec insertInternal(MethodSpec executeInsert) {
     final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_INSERT_INTERNAL)
         .addModifiers(STATIC_METHOD_MODIFIERS)
@@ -233,17 +340,19 @@ public class InsertWriter implements OperationWriter {
     final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_INSERT_WITH_CONFLICT_ALGORITHM_INTERNAL)
         .addModifiers(STATIC_METHOD_MODIFIERS)
         .addParameter(entityParameter(tableElementTypeName))
-        .addParameter(CONTENT_VALUES, "values")
-        .addParameter(SQLITE_DATABASE, "db")
+        .addParameter(entityDbManagerParameter())
         .addParameter(conflictAlgorithmParameter())
         .returns(TypeName.LONG);
     addCallToComplexColumnsOperationWithContentValuesIfNeeded(builder, entityEnvironment,
         METHOD_CALL_INTERNAL_INSERT_WITH_CONFLICT_ALGORITHM_ON_COMPLEX_COLUMNS,
-        "values", "db", "conflictAlgorithm");
+        MANAGER_VARIABLE + ".getDbConnection()", CONFLICT_ALGORITHM_VARIABLE);
     addInsertLoggingStatement(builder, tableElement);
-    final String bindMethodName = tableElement.getIdColumn().isAutoincrementId() ? METHOD_BIND_TO_CONTENT_VALUES_EXCEPT_ID : METHOD_BIND_TO_CONTENT_VALUES;
-    builder.addCode(statementWithImmutableIdsIfNeeded(tableElement, "$T.$L($L, values", daoClassName, bindMethodName, ENTITY_VARIABLE))
-        .addStatement("final long id = db.insertWithOnConflict($S, null, values, conflictAlgorithm)", tableElement.getTableName());
+    builder.addStatement("final long id")
+        .addCode(insertStatementWithConflictAlgorithmVariable())
+        .beginControlFlow("synchronized (stm)");
+    addBindToInsertStatement(builder, tableElement, daoClassName, "stm");
+    builder.addStatement("id = stm.executeInsert()")
+        .endControlFlow();
     addAfterInsertLoggingStatement(builder);
     addCheckIdValidity(builder, FAILED_TO_INSERT_ERR_MSG);
     addSetIdStatementIfNeeded(tableElement, daoClassName, builder);
@@ -255,6 +364,7 @@ public class InsertWriter implements OperationWriter {
     final MethodSpec insertExecute = insertExecute(insert, insertWithConflictAlgorithm);
     final TypeSpec.Builder builder = operationBuilderInnerClassSkeleton(entityEnvironment, CLASS_INSERT, ENTITY_INSERT_BUILDER, tableElementTypeName, ENTITY_VARIABLE);
     addConflictAlgorithmToOperationBuilder(builder, ENTITY_INSERT_BUILDER);
+    addRevertibleIdWriteIfNeeded(builder, entityEnvironment);
     return builder.addSuperinterface(ENTITY_INSERT_BUILDER)
         .addMethod(insertExecute)
         .addMethod(insertObserve(builder, insertExecute))
@@ -276,13 +386,16 @@ public class InsertWriter implements OperationWriter {
             CONFLICT_ALGORITHM_VARIABLE, CONFLICT_ALGORITHM_VARIABLE)
         .addStatement("id = $N($L, $L)", insert, ENTITY_VARIABLE, MANAGER_VARIABLE)
         .nextControlFlow("else")
-        .addCode(contentValuesAndDbVariables())
-        .addStatement("id = $N($L, values, db, conflictAlgorithm)", insertWithConflictAlgorithm, ENTITY_VARIABLE)
+        .addStatement("id = $N($L, $L, $L)", insertWithConflictAlgorithm, ENTITY_VARIABLE, MANAGER_VARIABLE, CONFLICT_ALGORITHM_VARIABLE)
         .endControlFlow();
 
     final String returnStatement = "return id";
     final String failReturnStatement = "return -1";
-    addTopMethodEndBlock(builder, allTableTriggers, hasAnyPersistedComplexColumns, returnStatement, failReturnStatement);
+    // replacing conflict algorithm might delete other rows
+    final CodeBlock rowId = CodeBlock.builder()
+        .add("$N != SQLiteDatabase.CONFLICT_REPLACE ? id : null", CONFLICT_ALGORITHM_VARIABLE)
+        .build();
+    addTopMethodEndBlock(builder, allTableTriggers, hasAnyPersistedComplexColumns, tableElement, rowId, returnStatement, failReturnStatement);
 
     return builder.build();
   }
@@ -308,6 +421,7 @@ public class InsertWriter implements OperationWriter {
   private TypeSpec bulkInsert() {
     final ParameterizedTypeName interfaceType = ParameterizedTypeName.get(ENTITY_BULK_INSERT_BUILDER, tableElementTypeName);
     final TypeSpec.Builder builder = operationBuilderInnerClassSkeleton(entityEnvironment, CLASS_BULK_INSERT, interfaceType, iterable, OBJECTS_VARIABLE);
+    addConflictAlgorithmToOperationBuilder(builder, interfaceType);
     return builder
         .addSuperinterface(interfaceType)
         .addMethod(bulkInsertExecute())
@@ -325,21 +439,7 @@ public class InsertWriter implements OperationWriter {
       public void call(MethodSpec.Builder builder) {
         builder.addCode(entityDbVariablesForOperationBuilder(tableElement));
         addTransactionStartBlock(builder);
-        builder.addCode(insertStatementVariable())
-            .beginControlFlow("synchronized (stm)")
-            .beginControlFlow("for ($T $L : $L)", tableElementTypeName, ENTITY_VARIABLE, OBJECTS_VARIABLE);
-        addInsertLoggingStatement(builder, tableElement);
-        addCallToInternalInsertOnComplexColumnsIfNeeded(entityEnvironment, builder);
-        addBindToInsertStatement(builder, tableElement, daoClassName, "stm");
-        builder.addStatement("final long id = stm.executeInsert()");
-        addAfterInsertLoggingStatement(builder);
-        addCheckIdValidity(builder, FAILED_TO_INSERT_ERR_MSG);
-        addSetIdStatementIfNeeded(tableElement, daoClassName, builder);
-        builder.beginControlFlow(ifSubscriberUnsubscribed())
-            .addStatement("throw new $T($S)", OPERATION_FAILED_EXCEPTION, ERROR_UNSUBSCRIBED_UNEXPECTEDLY)
-            .endControlFlow()
-            .endControlFlow()
-            .endControlFlow();
+        addBulkInsertLoop(builder, true);
         addRxSingleTransactionEndBlock(builder, allTableTriggers, "Boolean.TRUE");
       }
     });
@@ -353,24 +453,71 @@ public class InsertWriter implements OperationWriter {
         .returns(TypeName.BOOLEAN)
         .addCode(entityDbVariablesForOperationBuilder(tableElement));
     addTransactionStartBlock(builder);
-    builder.addCode(insertStatementVariable())
+    addBulkInsertLoop(builder, false);
+    addTransactionEndBlock(builder, allTableTriggers, "return true", "return false");
+    return builder.build();
+  }
+
+  private void addBulkInsertLoop(MethodSpec.Builder builder, boolean checkUnsubscribed) {
+    if (!isBatchInsertSupported()) {
+      addSingleRowInsertLoop(builder, checkUnsubscribed);
+      return;
+    }
+    // conflict clause might skip or replace rows, which breaks consecutive ids of batches
+    builder.beginControlFlow("if ($N == $T.CONFLICT_NONE || $N == $T.CONFLICT_ABORT)",
+        CONFLICT_ALGORITHM_VARIABLE, SQLITE_DATABASE, CONFLICT_ALGORITHM_VARIABLE, SQLITE_DATABASE);
+    addBatchInsertLoop(builder, checkUnsubscribed);
+    builder.nextControlFlow("else");
+    addSingleRowInsertLoop(builder, checkUnsubscribed);
+    builder.endControlFlow();
+  }
+
+  private void addSingleRowInsertLoop(MethodSpec.Builder builder, boolean checkUnsubscribed) {
+    builder.addCode(insertStatementWithConflictAlgorithmVariable())
         .beginControlFlow("synchronized (stm)")
         .beginControlFlow("for ($T $L : $L)", tableElementTypeName, ENTITY_VARIABLE, OBJECTS_VARIABLE);
     addInsertLoggingStatement(builder, tableElement);
     addCallToInternalInsertOnComplexColumnsIfNeeded(entityEnvironment, builder);
-    builder.addCode(statementWithImmutableIdsIfNeeded(tableElement, "$T.$L(stm, entity", daoClassName, METHOD_BIND_TO_INSERT_STATEMENT));
-    if (!GENERATE_LOGGING && !isIdSettingNeeded(tableElement)) {
-      addInlineExecuteInsertWithCheckIdValidity(builder, "stm", FAILED_TO_INSERT_ERR_MSG);
-    } else {
-      builder.addStatement("final long id = stm.executeInsert()");
-      addAfterInsertLoggingStatement(builder);
-      addCheckIdValidity(builder, FAILED_TO_INSERT_ERR_MSG);
+    addBindToInsertStatement(builder, tableElement, daoClassName, "stm");
+    builder.addStatement("final long id = stm.executeInsert()");
+    addAfterInsertLoggingStatement(builder);
+    // ignored conflicts skip the row without inserting it
+    builder.beginControlFlow("if (id == -1 && $N != $T.CONFLICT_IGNORE)", CONFLICT_ALGORITHM_VARIABLE, SQLITE_DATABASE);
+    addThrowOperationFailedExceptionWithEntityVariable(builder, FAILED_TO_INSERT_ERR_MSG);
+    builder.endControlFlow();
+    if (isIdSettingNeeded(tableElement)) {
+      builder.beginControlFlow("if (id != -1)");
       addSetIdStatementIfNeeded(tableElement, daoClassName, builder);
+      builder.endControlFlow();
+    }
+    if (checkUnsubscribed) {
+      builder.beginControlFlow(ifSubscriberUnsubscribed())
+          .addStatement("throw new $T($S)", OPERATION_FAILED_EXCEPTION, ERROR_UNSUBSCRIBED_UNEXPECTEDLY)
+          .endControlFlow();
     }
     builder.endControlFlow()
         .endControlFlow();
-    addTransactionEndBlock(builder, allTableTriggers, "return true", "return false");
-    return builder.build();
+  }
+
+  private void addBatchInsertLoop(MethodSpec.Builder builder, boolean checkUnsubscribed) {
+    final TypeName batchType = ParameterizedTypeName.get(ARRAY_LIST, tableElementTypeName);
+    builder.addStatement("final $T batch = new $T($L)", batchType, batchType, FIELD_MAX_BATCH_INSERT_ROWS)
+        .beginControlFlow("for ($T $L : $L)", tableElementTypeName, ENTITY_VARIABLE, OBJECTS_VARIABLE);
+    addInsertLoggingStatement(builder, tableElement);
+    builder.addStatement("batch.add($L)", ENTITY_VARIABLE)
+        .beginControlFlow("if (batch.size() == $L)", FIELD_MAX_BATCH_INSERT_ROWS)
+        .addStatement("$L(batch, $L)", METHOD_EXECUTE_BATCH_INSERT, MANAGER_VARIABLE)
+        .addStatement("batch.clear()")
+        .endControlFlow();
+    if (checkUnsubscribed) {
+      builder.beginControlFlow(ifSubscriberUnsubscribed())
+          .addStatement("throw new $T($S)", OPERATION_FAILED_EXCEPTION, ERROR_UNSUBSCRIBED_UNEXPECTEDLY)
+          .endControlFlow();
+    }
+    builder.endControlFlow()
+        .beginControlFlow("if (!batch.isEmpty())")
+        .addStatement("$L(batch, $L)", METHOD_EXECUTE_BATCH_INSERT, MANAGER_VARIABLE)
+        .endControlFlow();
   }
 
   public MethodSpec getExecuteInsert() {
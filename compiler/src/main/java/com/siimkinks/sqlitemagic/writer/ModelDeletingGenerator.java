@@ -12,6 +12,7 @@ import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
 import java.util.Collections;
+import java.util.Iterator;
 
 import javax.lang.model.element.Modifier;
 
@@ -20,17 +21,20 @@ import static com.siimkinks.sqlitemagic.Const.STATIC_METHOD_MODIFIERS;
 import static com.siimkinks.sqlitemagic.WriterUtil.CHECK_RESULT;
 import static com.siimkinks.sqlitemagic.WriterUtil.DB_CONNECTION_IMPL;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_BULK_DELETE_BUILDER;
+import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_DB_MANAGER;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_DELETE_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_DELETE_TABLE_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.NULLABLE;
 import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_STATEMENT;
-import static com.siimkinks.sqlitemagic.WriterUtil.STRING_BUILDER;
+import static com.siimkinks.sqlitemagic.WriterUtil.TRANSACTION;
 import static com.siimkinks.sqlitemagic.WriterUtil.addCallableToType;
 import static com.siimkinks.sqlitemagic.WriterUtil.addRxSingleCreateFromCallableParentClass;
+import static com.siimkinks.sqlitemagic.WriterUtil.addRowTriggerSendingStatement;
 import static com.siimkinks.sqlitemagic.WriterUtil.addTableTriggersSendingStatement;
 import static com.siimkinks.sqlitemagic.WriterUtil.connectionProviderMethod;
 import static com.siimkinks.sqlitemagic.WriterUtil.dbConnectionVariable;
 import static com.siimkinks.sqlitemagic.WriterUtil.dbVariableFromPresentConnectionVariable;
+import static com.siimkinks.sqlitemagic.WriterUtil.entityDbVariablesForOperationBuilder;
 import static com.siimkinks.sqlitemagic.WriterUtil.getHandlerInnerClassName;
 import static com.siimkinks.sqlitemagic.WriterUtil.operationBuilderInnerClassSkeleton;
 import static com.siimkinks.sqlitemagic.WriterUtil.operationRxSingleMethod;
@@ -40,9 +44,12 @@ import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_DELETE;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_DELETE_TABLE;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CREATE;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_BULK_DELETE_STATEMENT;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.DB_CONNECTION_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.ENTITY_VARIABLE;
+import static com.siimkinks.sqlitemagic.writer.ModelWriter.MANAGER_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.OBJECTS_VARIABLE;
+import static com.siimkinks.sqlitemagic.writer.ModelWriter.TRANSACTION_VARIABLE;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 
@@ -78,7 +85,9 @@ public class ModelDeletingGenerator implements ModelPartGenerator {
         .addStatement(String.format("final int affectedRows = db.delete($S, %s)", whereIdStatementPart.getFormat()),
             whereIdStatementPart.getWithOtherArgsBefore(tableElement.getTableName()))
         .beginControlFlow("if (affectedRows > 0)");
-    addTableTriggersSendingStatement(builder, Collections.singleton(tableElement));
+    final CodeBlock.Builder rowId = CodeBlock.builder();
+    entityEnvironment.addInlineIdVariable(rowId);
+    addRowTriggerSendingStatement(builder, Collections.singleton(tableElement), tableElement, rowId.build());
     builder.endControlFlow()
         .addStatement("return affectedRows");
     return builder.build();
@@ -119,36 +128,38 @@ public class ModelDeletingGenerator implements ModelPartGenerator {
         " WHERE " +
         tableElement.getIdColumn().getColumnName() +
         " IN (";
+    final TypeName tableElementTypeName = entityEnvironment.getTableElementTypeName();
+    // ids are deleted in power of two sized chunks whose statements are cached
     final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_EXECUTE)
         .addAnnotation(Override.class)
         .addModifiers(PUBLIC)
         .returns(TypeName.INT)
-        .addCode(dbConnectionVariable())
-        .addCode(dbVariableFromPresentConnectionVariable())
-        .addStatement("final int size = $L.size()", OBJECTS_VARIABLE)
-        .addStatement("final $1T sb = new $1T(size * 2 + $2L)", STRING_BUILDER, deleteStatement.length() + 1)
-        .addStatement("sb.append($S)", deleteStatement)
-        .addStatement("boolean first = true")
-        .beginControlFlow("for (int i = 0; i < size; i++)")
-        .beginControlFlow("if (first)")
-        .addStatement("first = false")
-        .addStatement("sb.append(\"?\")")
-        .nextControlFlow("else")
-        .addStatement("sb.append(\",?\")")
-        .endControlFlow()
-        .endControlFlow()
-        .addStatement("sb.append(\")\")")
-        .addStatement("final $T stm = db.compileStatement(sb.toString())", SQLITE_STATEMENT)
-        .addStatement("int i = 1")
-        .beginControlFlow("for ($T $L : $L)", entityEnvironment.getTableElementTypeName(), ENTITY_VARIABLE, OBJECTS_VARIABLE);
+        .addCode(entityDbVariablesForOperationBuilder(tableElement))
+        .addStatement("final $T<$T> iterator = $L.iterator()", Iterator.class, tableElementTypeName, OBJECTS_VARIABLE)
+        .addStatement("int remaining = $L.size()", OBJECTS_VARIABLE)
+        .addStatement("int affectedRows = 0")
+        .addStatement("final $T $L = $L.newTransaction()", TRANSACTION, TRANSACTION_VARIABLE, DB_CONNECTION_VARIABLE)
+        .beginControlFlow("try")
+        .beginControlFlow("while (remaining > 0)")
+        .addStatement("final int idCount = $T.bulkDeleteIds(remaining)", ENTITY_DB_MANAGER)
+        .addStatement("final $T stm = $L.$L($S, idCount)", SQLITE_STATEMENT, MANAGER_VARIABLE, METHOD_GET_BULK_DELETE_STATEMENT, deleteStatement)
+        .beginControlFlow("synchronized (stm)")
+        .beginControlFlow("for (int i = 1; i <= idCount; i++)")
+        .addStatement("final $T $L = iterator.next()", tableElementTypeName, ENTITY_VARIABLE);
     final CodeBlock.Builder bindIdsBuilder = CodeBlock.builder()
         .add("stm.bindLong(i, ");
     entityEnvironment.addInlineIdVariable(bindIdsBuilder);
     bindIdsBuilder.add(");\n");
     builder.addCode(bindIdsBuilder.build())
-        .addStatement("i++")
         .endControlFlow()
-        .addStatement("final int affectedRows = stm.executeUpdateDelete()")
+        .addStatement("affectedRows += stm.executeUpdateDelete()")
+        .endControlFlow()
+        .addStatement("remaining -= idCount")
+        .endControlFlow()
+        .addStatement("$L.markSuccessful()", TRANSACTION_VARIABLE)
+        .nextControlFlow("finally")
+        .addStatement("$L.end()", TRANSACTION_VARIABLE)
+        .endControlFlow()
         .beginControlFlow("if (affectedRows > 0)");
     addTableTriggersSendingStatement(builder, Collections.singleton(tableElement));
     builder.endControlFlow()
@@ -6,6 +6,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.siimkinks.sqlitemagic.WriterUtil;
 import com.siimkinks.sqlitemagic.element.ColumnElement;
+import com.siimkinks.sqlitemagic.element.IndexElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.util.Callback2;
 import com.siimkinks.sqlitemagic.util.FormatData;
@@ -23,6 +24,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import javax.lang.model.element.Modifier;
+
 import static com.siimkinks.sqlitemagic.Const.PUBLIC_STATIC_FINAL;
 import static com.siimkinks.sqlitemagic.Const.STATEMENT_METHOD_MAP;
 import static com.siimkinks.sqlitemagic.Const.STATIC_METHOD_MODIFIERS;
@@ -30,8 +33,10 @@ import static com.siimkinks.sqlitemagic.SqliteMagicProcessor.GENERATE_LOGGING;
 import static com.siimkinks.sqlitemagic.WriterUtil.CONTENT_VALUES;
 import static com.siimkinks.sqlitemagic.WriterUtil.LOG_UTIL;
 import static com.siimkinks.sqlitemagic.WriterUtil.OPERATION_FAILED_EXCEPTION;
+import static com.siimkinks.sqlitemagic.WriterUtil.REVERTIBLE_WRITE;
 import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_MAGIC;
 import static com.siimkinks.sqlitemagic.WriterUtil.TRANSACTION;
+import static com.siimkinks.sqlitemagic.WriterUtil.addRowTriggerSendingStatement;
 import static com.siimkinks.sqlitemagic.WriterUtil.addTableTriggersSendingStatement;
 import static com.siimkinks.sqlitemagic.WriterUtil.codeBlockEnd;
 import static com.siimkinks.sqlitemagic.WriterUtil.dbVariableFromPresentConnectionVariable;
@@ -39,11 +44,11 @@ import static com.siimkinks.sqlitemagic.WriterUtil.ifNotSubscriberUnsubscribed;
 import static com.siimkinks.sqlitemagic.WriterUtil.subscriberOnCompleted;
 import static com.siimkinks.sqlitemagic.WriterUtil.subscriberOnError;
 import static com.siimkinks.sqlitemagic.WriterUtil.subscriberOnSuccess;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_INDEX_SCHEMAS;
 import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_INSERT_SQL;
 import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_TABLE_SCHEMA;
 import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_UPDATE_SQL;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_CONTENT_VALUES;
-import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_CONTENT_VALUES_EXCEPT_ID;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_NOT_NULL_CONTENT_VALUES;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SET_ID;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.DB_CONNECTION_VARIABLE;
@@ -79,9 +84,6 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
     if (tableElement.hasIdSetter()) {
       daoClassBuilder.addMethod(entityEnvironment.getEntityIdSetter());
     }
-    if (tableElement.getIdColumn().isAutoincrementId()) {
-      daoClassBuilder.addMethod(bindAllExceptIdToContentValues(entityEnvironment));
-    }
     if (tableElement.hasAnyPersistedImmutableComplexColumns()) {
       daoClassBuilder.addMethod(bindAllToContentValuesWithImmutableComplexColumns(entityEnvironment));
     }
@@ -94,6 +96,9 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
     handlerClassBuilder.addField(schema(tableElement))
         .addField(insertSqlField(tableElement))
         .addField(updateSqlField(tableElement));
+    if (tableElement.hasIndexes()) {
+      handlerClassBuilder.addField(indexSchemas(tableElement));
+    }
   }
 
   // -------------------------------------------
@@ -113,14 +118,6 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
     return builder.build();
   }
 
-  private MethodSpec bindAllExceptIdToContentValues(EntityEnvironment entityEnvironment) {
-    final TableElement tableElement = entityEnvironment.getTableElement();
-    CodeBlock.Builder valuesGatherBlock = buildAllValuesGatheringBlockWithImmutableComplexColumns(tableElement.getColumnsExceptId());
-    final MethodSpec.Builder builder = bindToContentValues(entityEnvironment, METHOD_BIND_TO_CONTENT_VALUES_EXCEPT_ID, valuesGatherBlock);
-    addImmutableIdsParameterIfNeeded(builder, tableElement);
-    return builder.build();
-  }
-
   private MethodSpec bindToNotNullContentValues(EntityEnvironment entityEnvironment) {
     final CodeBlock.Builder valuesGatherBlock = buildNotNullValuesGatheringBlock(entityEnvironment.getTableElement());
     MethodSpec.Builder builder = bindToContentValues(entityEnvironment, METHOD_BIND_TO_NOT_NULL_CONTENT_VALUES, valuesGatherBlock);
@@ -218,7 +215,7 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
     }
   }
 
-  static void addBindColumnToStatementBlock(MethodSpec.Builder builder, final int colPos, final ColumnElement columnElement) {
+  static void addBindColumnToStatementBlock(MethodSpec.Builder builder, final Object colPos, final ColumnElement columnElement) {
     builder.addCode(createBindBlockWithChecks(columnElement, new Callback2<CodeBlock.Builder, FormatData>() {
       @Override
       public void call(CodeBlock.Builder builder, FormatData serializedValueGetter) {
@@ -369,6 +366,22 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
         .build();
   }
 
+  private FieldSpec indexSchemas(TableElement tableElement) {
+    final List<IndexElement> indexes = tableElement.getIndexes();
+    final CodeBlock.Builder initializer = CodeBlock.builder()
+        .add("new $T[]{", String.class);
+    for (int i = 0, size = indexes.size(); i < size; i++) {
+      if (i > 0) {
+        initializer.add(", ");
+      }
+      initializer.add("$S", indexes.get(i).getSchema());
+    }
+    return FieldSpec.builder(String[].class, FIELD_INDEX_SCHEMAS)
+        .addModifiers(PUBLIC_STATIC_FINAL)
+        .initializer(initializer.add("}").build())
+        .build();
+  }
+
   static void addIdNullCheck(MethodSpec.Builder builder, String errMsg) {
     builder.beginControlFlow("if (id == null)")
         .addStatement("throw new NullPointerException($S)", errMsg)
@@ -429,6 +442,30 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
     return !tableElement.isImmutable() && tableElement.getIdColumn().isAutoincrementId();
   }
 
+  /**
+   * Queued single entity writes which set the entity id restore the previous id when their
+   * group commit is rolled back, so that the retried write sees the original entity.
+   */
+  static void addRevertibleIdWriteIfNeeded(TypeSpec.Builder builder, EntityEnvironment entityEnvironment) {
+    final TableElement tableElement = entityEnvironment.getTableElement();
+    if (!isIdSettingNeeded(tableElement)) {
+      return;
+    }
+    final ClassName daoClassName = entityEnvironment.getDaoClassName();
+    builder.addSuperinterface(REVERTIBLE_WRITE)
+        .addField(tableElement.getIdColumn().getDeserializedTypeName(), "snapshotId", Modifier.PRIVATE)
+        .addMethod(MethodSpec.methodBuilder("snapshot")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("snapshotId = $T.$N($L)", daoClassName, entityEnvironment.getEntityIdGetter(), ENTITY_VARIABLE)
+            .build())
+        .addMethod(MethodSpec.methodBuilder("revert")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("$T.$L($L, snapshotId)", daoClassName, METHOD_SET_ID, ENTITY_VARIABLE)
+            .build());
+  }
+
   static void addTopMethodStartBlock(MethodSpec.Builder builder, boolean hasComplexColumns) {
     if (hasComplexColumns) {
       addTransactionStartBlock(builder);
@@ -442,16 +479,18 @@ public class ModelPersistingGenerator implements ModelPartGenerator {
   }
 
   static void addTopMethodEndBlock(@NonNull MethodSpec.Builder builder, @NonNull Set<TableElement> allTableTriggers, boolean hasComplexColumns,
+                                   @NonNull TableElement tableElement, @NonNull CodeBlock rowId,
                                    @NonNull String returnStatement, @NonNull String failReturnStatement) {
-    addTopMethodEndBlock(builder, allTableTriggers, hasComplexColumns, CodeBlock.builder().addStatement(returnStatement).build(), failReturnStatement);
+    addTopMethodEndBlock(builder, allTableTriggers, hasComplexColumns, tableElement, rowId, CodeBlock.builder().addStatement(returnStatement).build(), failReturnStatement);
   }
 
   static void addTopMethodEndBlock(MethodSpec.Builder builder, Set<TableElement> allTableTriggers, boolean hasComplexColumns,
+                                   TableElement tableElement, CodeBlock rowId,
                                    CodeBlock returnStatement, String failReturnStatement) {
     if (hasComplexColumns) {
       addTransactionEndBlock(builder, allTableTriggers, returnStatement, failReturnStatement);
     } else {
-      addTableTriggersSendingStatement(builder, allTableTriggers);
+      addRowTriggerSendingStatement(builder, allTableTriggers, tableElement, rowId);
       builder.addCode(returnStatement)
           .nextControlFlow("catch ($T e)", OPERATION_FAILED_EXCEPTION)
           .addStatement(failReturnStatement)
@@ -8,8 +8,10 @@ import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.util.Callback;
 import com.siimkinks.sqlitemagic.util.FormatData;
 import com.siimkinks.sqlitemagic.util.ReturnCallback;
+import com.siimkinks.sqlitemagic.util.StringUtil;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -24,6 +26,7 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.Builder;
 
+import static com.siimkinks.sqlitemagic.Const.PUBLIC_STATIC_FINAL;
 import static com.siimkinks.sqlitemagic.Const.STATIC_METHOD_MODIFIERS;
 import static com.siimkinks.sqlitemagic.GlobalConst.ERROR_UNSUBSCRIBED_UNEXPECTEDLY;
 import static com.siimkinks.sqlitemagic.GlobalConst.FAILED_TO_INSERT_ERR_MSG;
@@ -31,12 +34,14 @@ import static com.siimkinks.sqlitemagic.GlobalConst.FAILED_TO_PERSIST_ERR_MSG;
 import static com.siimkinks.sqlitemagic.WriterUtil.CHECK_RESULT;
 import static com.siimkinks.sqlitemagic.WriterUtil.CONTENT_VALUES;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_BULK_PERSIST_BUILDER;
+import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_DB_MANAGER;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_PERSIST_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.LOG_UTIL;
 import static com.siimkinks.sqlitemagic.WriterUtil.NON_NULL;
 import static com.siimkinks.sqlitemagic.WriterUtil.OPERATION_FAILED_EXCEPTION;
 import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_DATABASE;
 import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_MAGIC;
+import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_STATEMENT;
 import static com.siimkinks.sqlitemagic.WriterUtil.addCallableToType;
 import static com.siimkinks.sqlitemagic.WriterUtil.addRxSingleCreateFromCallableParentClass;
 import static com.siimkinks.sqlitemagic.WriterUtil.addRxSingleCreateFromParentClass;
@@ -56,22 +61,28 @@ import static com.siimkinks.sqlitemagic.WriterUtil.typedIterable;
 import static com.siimkinks.sqlitemagic.WriterUtil.updateStatementVariable;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_BULK_PERSIST;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_PERSIST;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_UPSERT_SQL;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_NOT_NULL_CONTENT_VALUES;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_UPDATE_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_UPDATE_STATEMENT_WITH_COMPLEX_COLUMNS;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_UPSERT_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CALL_INTERNAL_PERSIST_IGNORING_NULL_VALUES_ON_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CALL_INTERNAL_PERSIST_ON_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE_UPSERT;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_UPSERT_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_PERSIST_IGNORE_NULL_INTERNAL;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_PERSIST_INTERNAL;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SET_IGNORE_NULL_VALUES;
 import static com.siimkinks.sqlitemagic.writer.InsertWriter.addBindToInsertStatement;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.COMPLEX_COLUMN_PARAM_TO_ENTITY_DB_MANAGER;
+import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addBindColumnToStatementBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addCallToComplexColumnsOperationWithContentValuesIfNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addCheckIdValidity;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addContentValuesAndDbVariables;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addInlineExecuteInsertWithCheckIdValidity;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addMethodInternalCallOnComplexColumnsIfNeeded;
+import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addRevertibleIdWriteIfNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addRxSingleTransactionEndBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addSetIdStatementIfNeeded;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addThrowOperationFailedExceptionWithEntityVariable;
@@ -117,10 +128,17 @@ public class PersistWriter implements OperationWriter {
   public void writeDao(TypeSpec.Builder classBuilder) {
     addPersistIgnoringNullValuesMethodInternalCallOnComplexColumnsIdNeeded(classBuilder);
     addPersistMethodInternalCallOnComplexColumnsIdNeeded(classBuilder);
+    if (isUpsertSupported()) {
+      classBuilder.addMethod(bindToUpsertStatement());
+    }
   }
 
   @Override
   public void writeHandler(TypeSpec.Builder classBuilder) {
+    if (isUpsertSupported()) {
+      classBuilder.addField(upsertSqlField())
+          .addMethod(executeUpsert());
+    }
     final MethodSpec internalPersist = persistInternal();
     final MethodSpec internalPersistIgnoringNull = persistIgnoringNullInternal();
     classBuilder.addMethod(internalPersistIgnoringNull)
@@ -129,10 +147,70 @@ public class PersistWriter implements OperationWriter {
         .addType(bulkPersist());
   }
 
+  /**
+   * Persist is done with a single UPSERT statement only when it gives the same result as
+   * UPDATE followed by INSERT &mdash; id must be provided by the user. An autoincrement id
+   * that is set to a missing row is inserted with a new id by the UPDATE and INSERT path,
+   * but UPSERT would keep it.
+   */
+  private boolean isUpsertSupported() {
+    final ColumnElement idColumn = tableElement.getIdColumn();
+    final TypeName idType = idColumn.getDeserializedTypeName();
+    return !tableElement.hasAnyPersistedImmutableComplexColumns()
+        && !tableElement.getColumnsExceptId().isEmpty()
+        && !idColumn.hasTransformer()
+        && (TypeName.LONG.equals(idType) || TypeName.LONG.box().equals(idType))
+        && !idColumn.isAutoincrementId();
+  }
+
+  private FieldSpec upsertSqlField() {
+    final StringBuilder upsertSql = new StringBuilder();
+    upsertSql.append("INSERT INTO ")
+        .append(tableElement.getTableName())
+        .append(" (");
+    StringUtil.join(", ", tableElement.getAllColumns(), upsertSql, new StringUtil.AppendCallback<ColumnElement>() {
+      @Override
+      public void append(@NonNull StringBuilder sb, @NonNull ColumnElement column) {
+        sb.append(column.getColumnName());
+      }
+    });
+    upsertSql.append(") VALUES (");
+    StringUtil.append(", ", "?", tableElement.getAllColumns().size(), upsertSql);
+    upsertSql.append(") ON CONFLICT(")
+        .append(tableElement.getIdColumn().getColumnName())
+        .append(") DO UPDATE SET ");
+    StringUtil.join(", ", tableElement.getColumnsExceptId(), upsertSql, new StringUtil.AppendCallback<ColumnElement>() {
+      @Override
+      public void append(@NonNull StringBuilder sb, @NonNull ColumnElement column) {
+        sb.append(column.getColumnName())
+            .append("=excluded.")
+            .append(column.getColumnName());
+      }
+    });
+    return FieldSpec.builder(String.class, FIELD_UPSERT_SQL)
+        .addModifiers(PUBLIC_STATIC_FINAL)
+        .initializer("$S", upsertSql.toString())
+        .build();
+  }
+
   // -------------------------------------------
   //                  DAO methods
   // -------------------------------------------
 
+  private MethodSpec bindToUpsertStatement() {
+    final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_BIND_TO_UPSERT_STATEMENT)
+        .addModifiers(STATIC_METHOD_MODIFIERS)
+        .addParameter(SQLITE_STATEMENT, "statement")
+        .addParameter(entityParameter(tableElementTypeName))
+        .addStatement("statement.clearBindings()");
+    int colPos = 1;
+    for (ColumnElement columnElement : tableElement.getAllColumns()) {
+      addBindColumnToStatementBlock(builder, colPos, columnElement);
+      colPos++;
+    }
+    return builder.build();
+  }
+
   private void addPersistIgnoringNullValuesMethodInternalCallOnComplexColumnsIdNeeded(TypeSpec.Builder daoClassBuilder) {
     addMethodInternalCallOnComplexColumnsIfNeeded(daoClassBuilder, entityEnvironment, METHOD_CALL_INTERNAL_PERSIST_IGNORING_NULL_VALUES_ON_COMPLEX_COLUMNS,
         new ReturnCallback<String, ColumnElement>() {
@@ -164,6 +242,7 @@ public class PersistWriter implements OperationWriter {
   private TypeSpec persist(MethodSpec persist, MethodSpec persistIgnoringNull) {
     final MethodSpec persistExecute = persistExecute(persist, persistIgnoringNull);
     final TypeSpec.Builder builder = operationBuilderInnerClassSkeleton(entityEnvironment, CLASS_PERSIST, ENTITY_PERSIST_BUILDER, tableElementTypeName, ENTITY_VARIABLE);
+    addRevertibleIdWriteIfNeeded(builder, entityEnvironment);
     return builder
         .addSuperinterface(ENTITY_PERSIST_BUILDER)
         .addField(boolean.class, IGNORE_NULL_VALUES_VARIABLE, Modifier.PRIVATE)
@@ -202,7 +281,8 @@ public class PersistWriter implements OperationWriter {
 
     final String returnStatement = "return id";
     final String failReturnStatement = "return -1";
-    addTopMethodEndBlock(builder, allTableTriggers, hasComplexColumns, returnStatement, failReturnStatement);
+    final CodeBlock rowId = CodeBlock.builder().add("id").build();
+    addTopMethodEndBlock(builder, allTableTriggers, hasComplexColumns, tableElement, rowId, returnStatement, failReturnStatement);
     return builder.build();
   }
 
@@ -236,6 +316,41 @@ public class PersistWriter implements OperationWriter {
         .build();
   }
 
+  /**
+   * Generated method returns the entity id when it was set. Otherwise the row was inserted
+   * and its id is the last inserted row id returned by the statement. Last inserted row id
+   * is not changed by the update branch, so it must not be used when the entity already
+   * has an id.
+   */
+  private MethodSpec executeUpsert() {
+    final boolean idColumnNullable = tableElement.getIdColumn().isNullable();
+    final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_EXECUTE_UPSERT)
+        .addModifiers(STATIC_METHOD_MODIFIERS)
+        .addParameter(entityParameter(tableElementTypeName))
+        .addParameter(entityDbManagerParameter())
+        .returns(TypeName.LONG)
+        .addCode(entityEnvironment.getFinalIdVariable())
+        .addStatement("final $T stm = $L.$L($L)", SQLITE_STATEMENT, MANAGER_VARIABLE, METHOD_GET_UPSERT_STATEMENT, FIELD_UPSERT_SQL)
+        .addStatement("final long rowId")
+        .beginControlFlow("synchronized (stm)")
+        .addStatement("$T.$L(stm, $L)", daoClassName, METHOD_BIND_TO_UPSERT_STATEMENT, ENTITY_VARIABLE)
+        .addStatement("rowId = stm.executeInsert()")
+        .endControlFlow()
+        .beginControlFlow("if (rowId == -1)");
+    addThrowOperationFailedExceptionWithEntityVariable(builder, FAILED_TO_PERSIST_ERR_MSG);
+    builder.endControlFlow();
+    if (!idColumnNullable) {
+      return builder.addStatement("return id")
+          .build();
+    }
+    // last inserted row id is not changed when existing row is updated
+    builder.beginControlFlow("if (id != null)")
+        .addStatement("return id")
+        .endControlFlow();
+    return builder.addStatement("return rowId")
+        .build();
+  }
+
   private MethodSpec persistInternal() {
     final MethodSpec executeInsert = insertWriter.getExecuteInsert();
     final boolean idColumnNullable = tableElement.getIdColumn().isNullable();
@@ -252,6 +367,14 @@ public class PersistWriter implements OperationWriter {
     }
     addCallToComplexColumnsPersistIfNeeded(builder);
     addPersistLoggingStatement(builder);
+    if (isUpsertSupported()) {
+      builder.beginControlFlow("if ($T.UPSERT_SUPPORTED)", ENTITY_DB_MANAGER)
+          .addStatement("$L$L($L, $L)", returnStatement, METHOD_EXECUTE_UPSERT, ENTITY_VARIABLE, MANAGER_VARIABLE);
+      if (!tableElement.isImmutable()) {
+        builder.addStatement("return");
+      }
+      builder.endControlFlow();
+    }
     builder.addStatement("int rowsAffected = 0");
     if (idColumnNullable) {
       builder.addCode(entityEnvironment.getFinalIdVariable())
@@ -361,6 +484,9 @@ public class PersistWriter implements OperationWriter {
         addBulkPersistOnNext(builder);
         builder.endControlFlow();
 
+        if (isUpsertSupported()) {
+          addBulkUpsertBlock(builder, true);
+        }
         builder.nextControlFlow("else");
         final boolean idColumnNullable = tableElement.getIdColumn().isNullable();
         builder.addCode(entityDbManagerVariableFromDbConnection(tableElement))
@@ -413,6 +539,9 @@ public class PersistWriter implements OperationWriter {
     builder.endControlFlow()
         .endControlFlow();
 
+    if (isUpsertSupported()) {
+      addBulkUpsertBlock(builder, false);
+    }
     builder.nextControlFlow("else");
 
     builder.addCode(entityDbManagerVariableFromDbConnection(tableElement))
@@ -438,6 +567,19 @@ public class PersistWriter implements OperationWriter {
     return builder.build();
   }
 
+  private void addBulkUpsertBlock(MethodSpec.Builder builder, boolean checkUnsubscribed) {
+    builder.nextControlFlow("else if ($T.UPSERT_SUPPORTED)", ENTITY_DB_MANAGER)
+        .addCode(entityDbManagerVariableFromDbConnection(tableElement))
+        .beginControlFlow("for ($T $L : $L)", tableElementTypeName, ENTITY_VARIABLE, OBJECTS_VARIABLE);
+    addCallToComplexColumnsPersistIfNeeded(builder);
+    addPersistLoggingStatement(builder);
+    builder.addStatement("$L($L, $L)", METHOD_EXECUTE_UPSERT, ENTITY_VARIABLE, MANAGER_VARIABLE)
+        .endControlFlow();
+    if (checkUnsubscribed) {
+      addBulkPersistOnNext(builder);
+    }
+  }
+
   private void addBulkPersistIgnoreNullInsertBlock(MethodSpec.Builder builder, boolean idInSeparateVariable) {
     CodeBlock.Builder insertBuilder = CodeBlock.builder();
     if (idInSeparateVariable) {
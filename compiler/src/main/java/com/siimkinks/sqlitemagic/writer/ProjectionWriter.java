@@ -0,0 +1,99 @@
+package com.siimkinks.sqlitemagic.writer;
+
+import com.siimkinks.sqlitemagic.Environment;
+import com.siimkinks.sqlitemagic.WriterUtil;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.io.IOException;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static com.siimkinks.sqlitemagic.Const.CLASS_MODIFIERS;
+import static com.siimkinks.sqlitemagic.Const.INNER_ABSTRACT_CLASS_MODIFIERS;
+import static com.siimkinks.sqlitemagic.WriterUtil.ARRAY_LIST;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_SELECTION_COLUMNS;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FROM_CURSOR_POSITION;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION;
+import static com.siimkinks.sqlitemagic.writer.EntityEnvironment.getGeneratedDaoClassNameString;
+import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.columnOffsetParam;
+import static com.siimkinks.sqlitemagic.writer.RetrieveWriter.allFromCursorBuilder;
+import static com.siimkinks.sqlitemagic.writer.RetrieveWriter.firstFromCursor;
+import static com.siimkinks.sqlitemagic.writer.RetrieveWriter.loadFromCursorMethodBuilder;
+import static com.siimkinks.sqlitemagic.writer.RetrieveWriter.objectFromCursorPositionBaseMethodBuilder;
+import static com.siimkinks.sqlitemagic.writer.RetrieveWriter.selectionColumnsField;
+
+@Singleton
+public final class ProjectionWriter {
+  private final Environment environment;
+
+  @Inject
+  public ProjectionWriter(Environment environment) {
+    this.environment = environment;
+  }
+
+  public void writeSource(Filer filer, ProjectionElement projectionElement) throws IOException {
+    final ClassName daoClassName = EntityEnvironment.getGeneratedDaoClassName(projectionElement);
+    final RetrieveMethodsBodyBuilder retrieveMethodsBodyBuilder = RetrieveMethodsBodyBuilder.create(projectionElement);
+
+    final MethodSpec getFromCurrentPosition = getFromCurrentPosition(projectionElement, daoClassName);
+    final TypeSpec.Builder daoClassBuilder = TypeSpec.classBuilder(getGeneratedDaoClassNameString(projectionElement.getProjectionElement()))
+        .addModifiers(CLASS_MODIFIERS)
+        .addField(selectionColumnsField(projectionElement.getColumns()))
+        .addMethod(allFromCursor(projectionElement, daoClassName))
+        .addMethod(firstFromCursor(getFromCurrentPosition, projectionElement.getProjectionElementTypeName()))
+        .addMethod(getFromCurrentPosition)
+        .addMethod(objectFromCursorPosition(projectionElement, retrieveMethodsBodyBuilder));
+
+    if (projectionElement.isInterface()) {
+      daoClassBuilder.addType(interfaceImplementation(projectionElement));
+    }
+
+    WriterUtil.writeSource(filer, daoClassBuilder.build(), projectionElement.getPackageName());
+
+    StructureWriter.from(projectionElement, environment).write(filer);
+  }
+
+  private TypeSpec interfaceImplementation(ProjectionElement projectionElement) {
+    return TypeSpec.classBuilder(String.format("%sImpl", projectionElement.getProjectionElementName()))
+        .addModifiers(INNER_ABSTRACT_CLASS_MODIFIERS)
+        .addSuperinterface(Environment.getTypeName(projectionElement.getProjectionElement()))
+        .addAnnotation(environment.getAutoValueAnnotation())
+        .build();
+  }
+
+  private MethodSpec allFromCursor(ProjectionElement projectionElement, ClassName daoClassName) {
+    final ParameterizedTypeName returnType = ParameterizedTypeName.get(ARRAY_LIST, projectionElement.getProjectionElementTypeName());
+    // projected column positions are the same for every row
+    return allFromCursorBuilder(returnType)
+        .addStatement("final int[] plan = columns.rootNode(tableGraphNodeNames).plan($S, $L)",
+            projectionElement.getTableName(), FIELD_SELECTION_COLUMNS)
+        .beginControlFlow("while (cursor.moveToNext() && !subscription.isUnsubscribed())")
+        .addStatement("values.add($T.$L(cursor, plan))", daoClassName, METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION)
+        .endControlFlow()
+        .addStatement("return values")
+        .build();
+  }
+
+  private MethodSpec getFromCurrentPosition(ProjectionElement projectionElement, ClassName daoClassName) {
+    return loadFromCursorMethodBuilder(METHOD_FROM_CURSOR_POSITION, projectionElement.getProjectionElementTypeName())
+        .addParameter(columnOffsetParam())
+        .addStatement("return $T.$L(cursor, columns.rootNode(tableGraphNodeNames).plan($S, $L))",
+            daoClassName, METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION,
+            projectionElement.getTableName(), FIELD_SELECTION_COLUMNS)
+        .build();
+  }
+
+  private MethodSpec objectFromCursorPosition(ProjectionElement projectionElement, RetrieveMethodsBodyBuilder retrieveMethodsBodyBuilder) {
+    return objectFromCursorPositionBaseMethodBuilder(METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION, projectionElement.getProjectionElementTypeName())
+        .addParameter(TypeName.get(int[].class), "plan")
+        .addCode(retrieveMethodsBodyBuilder.getForProjection())
+        .build();
+  }
+}
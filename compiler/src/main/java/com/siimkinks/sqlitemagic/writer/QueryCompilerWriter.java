@@ -338,10 +338,11 @@ public final class QueryCompilerWriter implements OperationWriter {
     final TableElement referencedTable = columnElement.getReferencedTable();
     final String referencedTableName = referencedTable.getTableName();
     if (renameTable) {
-      builder.addStatement("final $T joinedTableAlias = $L.internalAlias($T.randomTableName())",
+      builder.addStatement("final $T joinedTableAlias = $L.internalAlias($T.joinedTableAlias(tableAlias, $S))",
           ParameterizedTypeName.get(TABLE, referencedTable.getTableElementTypeName()),
           referencedTableName,
-          UTIL);
+          UTIL,
+          columnElement.getColumnName());
       if (fromSelection) {
         builder.addStatement("final $T addedAlias = $T.addTableAlias(joinedTableAlias, systemRenamedTables)", String.class, UTIL)
             .addStatement("tableGraphNodeNames.put(thisNodeName, addedAlias)");
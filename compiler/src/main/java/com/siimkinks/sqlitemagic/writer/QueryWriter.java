@@ -0,0 +1,171 @@
+package com.siimkinks.sqlitemagic.writer;
+
+import com.siimkinks.sqlitemagic.element.QueryElement;
+import com.siimkinks.sqlitemagic.element.QueryMethodElement;
+import com.siimkinks.sqlitemagic.element.QueryMethodElement.QueryParameter;
+import com.siimkinks.sqlitemagic.element.TableElement;
+import com.siimkinks.sqlitemagic.element.TransformerElement;
+import com.siimkinks.sqlitemagic.util.FormatData;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static com.siimkinks.sqlitemagic.Const.CLASS_MODIFIERS;
+import static com.siimkinks.sqlitemagic.Const.PUBLIC_STATIC_FINAL;
+import static com.siimkinks.sqlitemagic.WriterUtil.CHECK_RESULT;
+import static com.siimkinks.sqlitemagic.WriterUtil.COMPILED_N_COLUMNS_SELECT_IMPL;
+import static com.siimkinks.sqlitemagic.WriterUtil.DB_CONNECTION;
+import static com.siimkinks.sqlitemagic.WriterUtil.DB_CONNECTION_IMPL;
+import static com.siimkinks.sqlitemagic.WriterUtil.NON_NULL;
+import static com.siimkinks.sqlitemagic.WriterUtil.SQLITE_MAGIC;
+import static com.siimkinks.sqlitemagic.WriterUtil.STRING;
+import static com.siimkinks.sqlitemagic.WriterUtil.notNullParameter;
+import static com.siimkinks.sqlitemagic.WriterUtil.writeSource;
+import static com.siimkinks.sqlitemagic.util.NameConst.PACKAGE_ROOT;
+import static com.siimkinks.sqlitemagic.writer.EntityEnvironment.getGeneratedTableStructureInterfaceNameString;
+import static com.siimkinks.sqlitemagic.writer.StructureWriter.structureFieldName;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Writes {@link com.siimkinks.sqlitemagic.annotation.Query} interface implementation.
+ * <p>
+ * SQL is validated and normalized at compile time and all selected columns are read
+ * positionally, so queries skip runtime SQL building and column position resolving.
+ */
+@Singleton
+public final class QueryWriter {
+  private static final String FIELD_DB_CONNECTION = "dbConnection";
+
+  @Inject
+  public QueryWriter() {
+  }
+
+  public void writeSource(Filer filer, QueryElement queryElement) throws IOException {
+    final ClassName implementationClassName = queryElement.getImplementationClassName();
+    final TypeSpec.Builder classBuilder = TypeSpec.classBuilder(implementationClassName.simpleName())
+        .addModifiers(CLASS_MODIFIERS)
+        .addSuperinterface(queryElement.getQueryElementTypeName())
+        .addField(FieldSpec.builder(DB_CONNECTION_IMPL, FIELD_DB_CONNECTION, PRIVATE, FINAL)
+            .addAnnotation(NON_NULL)
+            .build())
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PUBLIC)
+            .addStatement("this.$L = $T.getDefaultDbConnection()", FIELD_DB_CONNECTION, SQLITE_MAGIC)
+            .build())
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PUBLIC)
+            .addParameter(notNullParameter(DB_CONNECTION, "connection"))
+            .addStatement("this.$L = ($T) connection", FIELD_DB_CONNECTION, DB_CONNECTION_IMPL)
+            .build());
+    for (QueryMethodElement queryMethod : queryElement.getQueryMethods()) {
+      classBuilder.addField(sqlConstant(queryMethod))
+          .addField(observedTablesConstant(queryMethod))
+          .addMethod(queryMethod(queryMethod));
+    }
+    writeSource(filer, classBuilder.build());
+  }
+
+  private static FieldSpec sqlConstant(QueryMethodElement queryMethod) {
+    return FieldSpec.builder(STRING, sqlConstantName(queryMethod), PUBLIC_STATIC_FINAL)
+        .initializer("$S", queryMethod.getCompiledSql())
+        .build();
+  }
+
+  private static FieldSpec observedTablesConstant(QueryMethodElement queryMethod) {
+    final Set<String> tableNames = queryMethod.getSourceTableNames();
+    final CodeBlock.Builder initializer = CodeBlock.builder().add("{");
+    boolean first = true;
+    for (String tableName : tableNames) {
+      if (first) {
+        first = false;
+      } else {
+        initializer.add(", ");
+      }
+      initializer.add("$S", tableName);
+    }
+    return FieldSpec.builder(ArrayTypeName.of(STRING), observedTablesConstantName(queryMethod))
+        .addModifiers(PRIVATE, STATIC, FINAL)
+        .initializer(initializer.add("}").build())
+        .build();
+  }
+
+  private static MethodSpec queryMethod(QueryMethodElement queryMethod) {
+    final TableElement resultTable = queryMethod.getResultTable();
+    //noinspection ConstantConditions -- validated
+    final ClassName structureClassName = ClassName.get(PACKAGE_ROOT, getGeneratedTableStructureInterfaceNameString(resultTable));
+    final ParameterizedTypeName returnType = (ParameterizedTypeName) queryMethod.getReturnTypeName();
+    final MethodSpec.Builder builder = MethodSpec.methodBuilder(queryMethod.getMethodName())
+        .addAnnotation(Override.class)
+        .addAnnotation(NON_NULL)
+        .addAnnotation(CHECK_RESULT)
+        .addModifiers(PUBLIC)
+        .returns(returnType);
+    final List<QueryParameter> parameters = queryMethod.getParameters();
+    final String args;
+    if (parameters.isEmpty()) {
+      args = "null";
+    } else {
+      args = "args";
+      final CodeBlock.Builder argsBlock = CodeBlock.builder()
+          .add("final $T[] args = new $T[]{", Object.class, Object.class);
+      boolean first = true;
+      for (QueryParameter parameter : parameters) {
+        final String name = parameter.getName();
+        builder.addParameter(ParameterSpec.get(parameter.getElement()));
+        if (first) {
+          first = false;
+        } else {
+          argsBlock.add(", ");
+        }
+        final TransformerElement transformer = parameter.getTransformer();
+        if (transformer == null) {
+          argsBlock.add("$L", name);
+        } else {
+          final FormatData serializedValue = transformer.serializedValueGetter(name);
+          if (transformer.cannotTransformNullValues() && !parameter.getType().isPrimitiveElement()) {
+            argsBlock.add("$L != null ? ", name)
+                .add(serializedValue.getFormat(), serializedValue.getArgs())
+                .add(" : null");
+          } else {
+            argsBlock.add(serializedValue.getFormat(), serializedValue.getArgs());
+          }
+        }
+      }
+      builder.addCode(argsBlock.add("};\n").build());
+    }
+    final List<TypeName> typeArguments = returnType.typeArguments;
+    return builder.addStatement("return new $T<$T, $T>($L, $L, null, $T.$L, $L, $L, null, null, false, null)",
+        COMPILED_N_COLUMNS_SELECT_IMPL, typeArguments.get(0), typeArguments.get(1),
+        sqlConstantName(queryMethod),
+        args,
+        structureClassName, structureFieldName(resultTable),
+        FIELD_DB_CONNECTION,
+        observedTablesConstantName(queryMethod))
+        .build();
+  }
+
+  private static String sqlConstantName(QueryMethodElement queryMethod) {
+    return structureFieldName(queryMethod.getMethodName()) + "_SQL";
+  }
+
+  private static String observedTablesConstantName(QueryMethodElement queryMethod) {
+    return structureFieldName(queryMethod.getMethodName()) + "_TABLES";
+  }
+}
@@ -6,6 +6,7 @@ import android.support.annotation.Nullable;
 
 import com.siimkinks.sqlitemagic.element.BaseColumnElement;
 import com.siimkinks.sqlitemagic.element.ColumnElement;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.element.ViewElement;
 import com.siimkinks.sqlitemagic.util.Callback;
@@ -20,10 +21,12 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.Builder;
 
+import static com.siimkinks.sqlitemagic.WriterUtil.DIRTY_TRACKABLE;
 import static com.siimkinks.sqlitemagic.WriterUtil.SQL_EXCEPTION;
 import static com.siimkinks.sqlitemagic.WriterUtil.getDefaultValue;
 import static com.siimkinks.sqlitemagic.WriterUtil.typeName;
 import static com.siimkinks.sqlitemagic.util.ConditionCallback.ALWAYS_TRUE;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_SELECTION_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FULL_OBJECT_FROM_CURSOR_POSITION;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_NEW_INSTANCE_WITH_ONLY_ID;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION;
@@ -41,6 +44,7 @@ public class RetrieveMethodsBodyBuilder {
   private final boolean forBuilder;
   private final int allColumnsCount;
   private final ValueWriter valueWriter;
+  private final List<? extends BaseColumnElement> selectionColumns;
 
   private final CodeBlock.Builder fullObjectBuilder = CodeBlock.builder();
   private final CodeBlock.Builder fullObjectFromSelectionBuilder = CodeBlock.builder();
@@ -88,6 +92,7 @@ public class RetrieveMethodsBodyBuilder {
         .forBuilder(tableElement.hasBuilder())
         .allColumnsCount(tableElement.getAllColumnsCount())
         .valueWriter(tableElement.getValueWriter())
+        .selectionColumns(tableElement.getAllColumns())
         .build();
     retrieveMethodsBodyBuilder.preBuild();
     return retrieveMethodsBodyBuilder;
@@ -107,6 +112,20 @@ public class RetrieveMethodsBodyBuilder {
     return retrieveMethodsBodyBuilder;
   }
 
+  public static RetrieveMethodsBodyBuilder create(ProjectionElement projectionElement) {
+    final RetrieveMethodsBodyBuilder retrieveMethodsBodyBuilder = builder()
+        .forImmutable(true)
+        .tableElementTypeName(projectionElement.getProjectionElementTypeName())
+        .tableName(projectionElement.getTableName())
+        .forBuilder(projectionElement.hasBuilder())
+        .allColumnsCount(projectionElement.getAllColumnsCount())
+        .valueWriter(projectionElement.getValueWriter())
+        .selectionColumns(projectionElement.getColumns())
+        .build();
+    retrieveMethodsBodyBuilder.buildForProjection();
+    return retrieveMethodsBodyBuilder;
+  }
+
   public CodeBlock getForFullObject() {
     return buildHeader()
         .add(fullObjectBuilder.build())
@@ -149,6 +168,16 @@ public class RetrieveMethodsBodyBuilder {
         .build();
   }
 
+  public CodeBlock getForProjection() {
+    final CodeBlock.Builder builder = CodeBlock.builder();
+    if (forBuilder) {
+      builder.addStatement("int pos");
+    }
+    return builder
+        .add(shallowObjectFromSelectionBuilder.build())
+        .build();
+  }
+
   private void preBuild() {
     if (forImmutable) {
       buildForImmutableObject();
@@ -170,15 +199,13 @@ public class RetrieveMethodsBodyBuilder {
 
   private CodeBlock.Builder buildHeaderForSelection() {
     CodeBlock.Builder builder = CodeBlock.builder();
-    builder.addStatement("String thisTableName = tableGraphNodeNames.get(nodeName)")
-        .beginControlFlow("if (thisTableName == null)")
-        .beginControlFlow("if (nodeName.length() > 0)")
+    builder.addStatement("final int[] plan = node.plan($S, $L)",
+        tableName, FIELD_SELECTION_COLUMNS)
+        .beginControlFlow("if (plan == null)")
         .addStatement("return null")
         .endControlFlow()
-        .addStatement("thisTableName = $S", tableName)
-        .endControlFlow()
-        .addStatement("$T pos = columns.get(thisTableName)", TypeName.INT.box())
-        .beginControlFlow("if (pos != null)")
+        .addStatement("int pos = plan[0]")
+        .beginControlFlow("if (pos != -1)")
         .addStatement("int thisTableOffset = pos");
     return builder;
   }
@@ -186,7 +213,7 @@ public class RetrieveMethodsBodyBuilder {
   private CodeBlock.Builder buildHeaderForViewWithSelection() {
     final CodeBlock.Builder builder = CodeBlock.builder();
     if (forBuilder) {
-      builder.addStatement("$T pos", TypeName.INT.box());
+      builder.addStatement("int pos");
     }
     return builder;
   }
@@ -237,6 +264,17 @@ public class RetrieveMethodsBodyBuilder {
     shallowObjectFromSelectionBuilder.add(valueWriter.buildAllValuesReturningSetter(shallowObjectValuesRetrieverFromSelection));
   }
 
+  private void buildForProjection() {
+    final ValueWriter.Callback valuesRetrieverFromSelection = immutableValuesRetriever(ImmutableObjectBuilderMetadata
+        .builder()
+        .shallow(true)
+        .fromSelection(true)
+        .isNeededCallback(ALWAYS_TRUE)
+        .complexMethodName(METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION)
+        .build());
+    shallowObjectFromSelectionBuilder.add(valueWriter.buildAllValuesReturningSetter(valuesRetrieverFromSelection));
+  }
+
   @SuppressWarnings("unchecked")
   private void buildForImmutableObject() {
     final ValueWriter valueWriter = this.valueWriter;
@@ -303,14 +341,14 @@ public class RetrieveMethodsBodyBuilder {
           } else {
             offsetString = columnElement.getElementName() + "Pos";
             preCodeBuilder.addStatement("final $T $L = $L",
-                TypeName.INT.box(), offsetString, fromSelectionPositionGetter(columnElement, metadata));
+                TypeName.INT, offsetString, fromSelectionPositionGetter(columnElement, metadata));
             if (!columnElement.isReferencedColumn()) {
               if (columnElement.isNullable()) {
-                valueSetterFormat = FormatData.create(String.format(offsetString + " == null || cursor.isNull(" + offsetString + ") ? null : %s",
+                valueSetterFormat = FormatData.create(String.format(offsetString + " == -1 || cursor.isNull(" + offsetString + ") ? null : %s",
                     valueSetterFormat.getFormat()), valueSetterFormat.getArgs());
               } else if (columnElement.hasNullableAnnotation()) {
                 final String defaultValue = getDefaultValue(typeName(columnElement.getDeserializedType()));
-                valueSetterFormat = FormatData.create(String.format(offsetString + " == null ? %s : %s",
+                valueSetterFormat = FormatData.create(String.format(offsetString + " == -1 ? %s : %s",
                     defaultValue, valueSetterFormat.getFormat()), valueSetterFormat.getArgs());
               }
             }
@@ -378,7 +416,7 @@ public class RetrieveMethodsBodyBuilder {
     final FormatData complexCall = callToComplexColumnRetrieve(metadata.complexMethodName, columnElement, complexCallArgs);
     final boolean columnElementNullable = columnElement.isNullable();
     if (metadata.fromSelection) {
-      builder.beginControlFlow("if ($L != null)", offsetString);
+      builder.beginControlFlow("if ($L != -1)", offsetString);
       if (columnElementNullable) {
         builder.beginControlFlow("if (!cursor.isNull($L))", offsetString);
       }
@@ -428,7 +466,7 @@ public class RetrieveMethodsBodyBuilder {
     if (metadata.fromSelection) {
       final TableElement referencedTable = columnElement.getReferencedTable();
       preCodeBuilder.addStatement("$T $L$L", referencedTableTypeName, columnElementName, columnElementNullable ? " = null" : "")
-          .beginControlFlow("if ($L != null)", offsetString);
+          .beginControlFlow("if ($L != -1)", offsetString);
       if (columnElementNullable) {
         preCodeBuilder.beginControlFlow("if (!cursor.isNull($L))", offsetString);
       }
@@ -506,7 +544,7 @@ public class RetrieveMethodsBodyBuilder {
     } else {
       preCodeBuilder.addStatement("$T $L = null", referencedTable.getTableElementTypeName(), columnElementName);
       if (fromSelection) {
-        preCodeBuilder.beginControlFlow("if ($1L != null && !cursor.isNull($1L))", offsetString);
+        preCodeBuilder.beginControlFlow("if ($1L != -1 && !cursor.isNull($1L))", offsetString);
       } else {
         preCodeBuilder.beginControlFlow("if (!cursor.isNull($L))", offsetString);
       }
@@ -525,9 +563,9 @@ public class RetrieveMethodsBodyBuilder {
     if (fromSelection) {
       if (forBuilder) {
         if (columnElement.isNullable()) {
-          builder.beginControlFlow("if ($1L != null && !cursor.isNull($1L))", offsetString);
+          builder.beginControlFlow("if ($1L != -1 && !cursor.isNull($1L))", offsetString);
         } else if (columnElement.hasNullableAnnotation()) {
-          builder.beginControlFlow("if ($1L != null)", offsetString);
+          builder.beginControlFlow("if ($1L != -1)", offsetString);
         } else {
           addColumnMissingFromSelectionException(builder, columnElement, offsetString, parentTableName);
         }
@@ -559,7 +597,7 @@ public class RetrieveMethodsBodyBuilder {
 
   static void addColumnMissingFromSelectionException(CodeBlock.Builder builder, BaseColumnElement columnElement, String offsetString, String parentTableName) {
     if (!columnElement.hasNullableAnnotation()) {
-      builder.beginControlFlow("if ($L == null)", offsetString);
+      builder.beginControlFlow("if ($L == -1)", offsetString);
       addColumnMissingFromSelectionExceptionStatement(builder, columnElement, parentTableName);
       builder.endControlFlow();
     }
@@ -585,9 +623,14 @@ public class RetrieveMethodsBodyBuilder {
       buildForAllValuesRetrievingMutableObject(columnElement, i, columnsCount);
       buildForSelectionValuesRetrievingMutableObject(columnElement);
     }
+    final boolean trackDirtyColumns = tableElement.trackDirtyColumns();
     forAllBuilders(new Callback<CodeBlock.Builder>() {
       @Override
       public void call(CodeBlock.Builder builder) {
+        if (trackDirtyColumns) {
+          // retrieved values are not changes
+          builder.addStatement("(($T) ($T) $L).clearDirtyColumns()", DIRTY_TRACKABLE, Object.class, ENTITY_VARIABLE);
+        }
         builder.addStatement("return $L", ENTITY_VARIABLE);
       }
     });
@@ -671,16 +714,16 @@ public class RetrieveMethodsBodyBuilder {
 
   private String fromSelectionPositionGetter(BaseColumnElement columnElement, ImmutableObjectBuilderMetadata metadata) {
     if (metadata.respectOnlyUserProvidedColumnName) {
-      return "columns.get(\"" + columnElement.getColumnName() + "\")";
+      return "node.columns.positionOf(\"" + columnElement.getColumnName() + "\")";
     }
-    return "columns.get(thisTableName + \"." + columnElement.getColumnName() + "\")";
+    return "plan[" + (selectionColumns.indexOf(columnElement) + 1) + "]";
   }
 
   private void addFromSelectionAddCheck(CodeBlock.Builder builder, ColumnElement columnElement) {
     if (columnElement.isHandledRecursively()) {
-      builder.beginControlFlow("if (pos != null)");
+      builder.beginControlFlow("if (pos != -1)");
     } else {
-      builder.beginControlFlow("if (pos != null && !cursor.isNull(pos))");
+      builder.beginControlFlow("if (pos != -1 && !cursor.isNull(pos))");
     }
   }
 
@@ -729,8 +772,14 @@ public class RetrieveMethodsBodyBuilder {
   }
 
   private void addSelectAllFromTableNextControlFlowCheck(CodeBlock.Builder builder, BaseColumnElement columnElement) {
-    builder.nextControlFlow("else if (columns.get(tableGraphNodeNames.get(nodeName + $S)) != null)",
-        columnElement.getColumnName());
+    builder.nextControlFlow("else if ($L.isTableSelected())", childNode(columnElement));
+  }
+
+  /**
+   * @return Expression of the selection graph node that the complex column references
+   */
+  private String childNode(BaseColumnElement columnElement) {
+    return "node.child(" + selectionColumns.indexOf(columnElement) + ", \"" + columnElement.getColumnName() + "\")";
   }
 
   @NonNull
@@ -813,9 +862,9 @@ public class RetrieveMethodsBodyBuilder {
   @NonNull
   private String[] complexColumnRetrieveFromSelectionParams(BaseColumnElement columnElement, ImmutableObjectBuilderMetadata metadata) {
     if (metadata.respectOnlyUserProvidedColumnName) {
-      return new String[]{"columns", "tableGraphNodeNames", "nodeName"};
+      return new String[]{"node"};
     }
-    return new String[]{"columns", "tableGraphNodeNames", ("nodeName + \"" + columnElement.getColumnName() + "\"")};
+    return new String[]{childNode(columnElement)};
   }
 
   @NonNull
@@ -2,38 +2,47 @@ package com.siimkinks.sqlitemagic.writer;
 
 import android.support.annotation.NonNull;
 
+import com.siimkinks.sqlitemagic.element.BaseColumnElement;
 import com.siimkinks.sqlitemagic.element.ColumnElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.util.Callback;
 import com.siimkinks.sqlitemagic.util.FormatData;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
+import java.util.List;
+
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.Builder;
 
+import static com.siimkinks.sqlitemagic.Const.PRIVATE_STATIC_FINAL;
 import static com.siimkinks.sqlitemagic.Const.STATIC_METHOD_MODIFIERS;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_ENTITY_CACHE;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_SELECTION_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_ALL_FROM_CURSOR;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CACHED_OBJECT_FROM_CURSOR_POSITION;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FIRST_FROM_CURSOR;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FROM_CURSOR_POSITION;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FULL_OBJECT_FROM_CURSOR_POSITION;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_NEW_INSTANCE_WITH_ONLY_ID;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION;
 import static com.siimkinks.sqlitemagic.WriterUtil.ARRAY_LIST;
+import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_CACHE;
 import static com.siimkinks.sqlitemagic.WriterUtil.FAST_CURSOR;
 import static com.siimkinks.sqlitemagic.WriterUtil.MUTABLE_INT;
+import static com.siimkinks.sqlitemagic.WriterUtil.TABLE_GRAPH_NODE;
 import static com.siimkinks.sqlitemagic.WriterUtil.codeBlockEnd;
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.addLoadFromCursorMethodParams;
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.columnOffsetParam;
-import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.columnsParam;
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.loadFromCursorMethodParams;
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.subscriptionParam;
-import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.tableGraphNodeNamesParam;
+import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.tableGraphNodeParam;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.ENTITY_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.MANAGER_VARIABLE;
 
@@ -60,6 +69,7 @@ public class RetrieveWriter implements OperationWriter {
 
   @Override
   public void writeDao(TypeSpec.Builder daoClassBuilder) {
+    daoClassBuilder.addField(selectionColumnsField(tableElement.getAllColumns()));
     if (tableElement.canBeInstantiatedWithOnlyId()) {
       daoClassBuilder.addMethod(newInstanceWithOnlyId(tableElement));
     }
@@ -75,6 +85,9 @@ public class RetrieveWriter implements OperationWriter {
   @Override
   public void writeHandler(TypeSpec.Builder handlerClassBuilder) {
     final MethodSpec fromCurrentCursorPosition = getFromCurrentCursorPosition();
+    if (tableElement.isEntityCacheable()) {
+      handlerClassBuilder.addMethod(cachedObjectFromCursorPosition());
+    }
     handlerClassBuilder
         .addMethod(allFromCursor())
         .addMethod(firstFromCursor(fromCurrentCursorPosition, tableElementTypeName))
@@ -85,6 +98,24 @@ public class RetrieveWriter implements OperationWriter {
   //                  DAO methods
   // -------------------------------------------
 
+  static FieldSpec selectionColumnsField(List<? extends BaseColumnElement> columns) {
+    final CodeBlock.Builder initializer = CodeBlock.builder()
+        .add("new $T[]{", String.class);
+    boolean first = true;
+    for (BaseColumnElement columnElement : columns) {
+      if (first) {
+        first = false;
+      } else {
+        initializer.add(", ");
+      }
+      initializer.add("$S", columnElement.getColumnName());
+    }
+    return FieldSpec.builder(String[].class, FIELD_SELECTION_COLUMNS)
+        .addModifiers(PRIVATE_STATIC_FINAL)
+        .initializer(initializer.add("}").build())
+        .build();
+  }
+
   private MethodSpec newInstanceWithOnlyId(TableElement tableElement) {
     final ColumnElement idColumn = tableElement.getIdColumn();
     final TypeName tableElementTypeName = tableElement.getTableElementTypeName();
@@ -134,9 +165,7 @@ public class RetrieveWriter implements OperationWriter {
 
   static MethodSpec.Builder selectedObjectValuesFromCursorPositionMethodBuilder(String methodName, TypeName typeName) {
     return objectFromCursorPositionBaseMethodBuilder(methodName, typeName)
-        .addParameter(columnsParam())
-        .addParameter(tableGraphNodeNamesParam())
-        .addParameter(String.class, "nodeName");
+        .addParameter(tableGraphNodeParam());
   }
 
   private MethodSpec objectFromCursorPosition(String methodName, boolean shallow) {
@@ -163,6 +192,26 @@ public class RetrieveWriter implements OperationWriter {
   //                  Handler methods
   // -------------------------------------------
 
+  private MethodSpec cachedObjectFromCursorPosition() {
+    return allObjectValuesFromCursorPositionMethodBuilder(METHOD_CACHED_OBJECT_FROM_CURSOR_POSITION, tableElementTypeName)
+        .addStatement("final $T $L = cursor.entityCache($S)",
+            ParameterizedTypeName.get(ENTITY_CACHE, tableElementTypeName), FIELD_ENTITY_CACHE, tableElement.getTableName())
+        .addStatement("final int idPos = columnOffset.value + $L", tableElement.getIdColumnPos())
+        .beginControlFlow("if ($L != null && !cursor.isNull(idPos))", FIELD_ENTITY_CACHE)
+        .addStatement("final long id = cursor.getLong(idPos)")
+        .addStatement("$T entity = $L.get(cursor, id)", tableElementTypeName, FIELD_ENTITY_CACHE)
+        .beginControlFlow("if (entity == null)")
+        .addStatement("entity = $T.$L(cursor, columnOffset)", daoClassName, METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION)
+        .addStatement("$L.put(cursor, id, entity)", FIELD_ENTITY_CACHE)
+        .nextControlFlow("else")
+        .addStatement("columnOffset.value += $L", tableElement.getAllColumnsCount())
+        .endControlFlow()
+        .addStatement("return entity")
+        .endControlFlow()
+        .addStatement("return $T.$L(cursor, columnOffset)", daoClassName, METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION)
+        .build();
+  }
+
   private MethodSpec allFromCursor() {
     final ParameterizedTypeName returnType = ParameterizedTypeName.get(ARRAY_LIST, tableElementTypeName);
     final MethodSpec.Builder builder = allFromCursorBuilder(returnType)
@@ -191,7 +240,13 @@ public class RetrieveWriter implements OperationWriter {
   private void addAllValuesGatheringBlock(MethodSpec.Builder builder, boolean fromSelection) {
     addValuesGatheringBlock(builder, tableElement.hasAnyPersistedComplexColumns(),
         cursorRowAdder(METHOD_FULL_OBJECT_FROM_CURSOR_POSITION, daoClassName, fromSelection),
-        cursorRowAdder(METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION, daoClassName, fromSelection));
+        useEntityCache(fromSelection) ?
+            cursorRowAdder(METHOD_CACHED_OBJECT_FROM_CURSOR_POSITION, entityEnvironment.getHandlerClassName(), false) :
+            cursorRowAdder(METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION, daoClassName, fromSelection));
+  }
+
+  private boolean useEntityCache(boolean fromSelection) {
+    return !fromSelection && tableElement.isEntityCacheable();
   }
 
   static MethodSpec firstFromCursor(MethodSpec getFromCurrentCursorPosition, TypeName tableElementTypeName) {
@@ -217,7 +272,9 @@ public class RetrieveWriter implements OperationWriter {
   private void addFirstValueGatheringBlock(MethodSpec.Builder builder, boolean fromSelection) {
     addValuesGatheringBlock(builder, tableElement.hasAnyPersistedComplexColumns(),
         cursorRowReturner(METHOD_FULL_OBJECT_FROM_CURSOR_POSITION, daoClassName, fromSelection),
-        cursorRowReturner(METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION, daoClassName, fromSelection));
+        useEntityCache(fromSelection) ?
+            cursorRowReturner(METHOD_CACHED_OBJECT_FROM_CURSOR_POSITION, entityEnvironment.getHandlerClassName(), false) :
+            cursorRowReturner(METHOD_SHALLOW_OBJECT_FROM_CURSOR_POSITION, daoClassName, fromSelection));
   }
 
   @NonNull
@@ -256,7 +313,9 @@ public class RetrieveWriter implements OperationWriter {
                 daoClassName,
                 callableMethodName);
         if (fromSelection) {
-          codeBuilder.add("columns, tableGraphNodeNames, $S", "");
+          codeBuilder.add("node");
+          // selection graph is resolved once per query, not for every row
+          builder.addStatement("final $T node = columns.rootNode(tableGraphNodeNames)", TABLE_GRAPH_NODE);
         } else {
           codeBuilder.add("columnOffset");
         }
@@ -284,7 +343,7 @@ public class RetrieveWriter implements OperationWriter {
                 daoClassName,
                 callableMethodName);
         if (fromSelection) {
-          codeBuilder.add("columns, tableGraphNodeNames, $S", "");
+          codeBuilder.add("columns.rootNode(tableGraphNodeNames)");
         } else {
           codeBuilder.add("columnOffset == null ? new $T() : columnOffset", MUTABLE_INT);
         }
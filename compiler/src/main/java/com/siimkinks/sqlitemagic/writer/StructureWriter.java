@@ -4,10 +4,14 @@ import android.support.annotation.NonNull;
 
 import com.siimkinks.sqlitemagic.Environment;
 import com.siimkinks.sqlitemagic.element.BaseColumnElement;
+import com.siimkinks.sqlitemagic.element.ColumnElement;
+import com.siimkinks.sqlitemagic.element.ProjectionElement;
 import com.siimkinks.sqlitemagic.element.TableElement;
 import com.siimkinks.sqlitemagic.element.ViewElement;
 import com.siimkinks.sqlitemagic.util.FormatData;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -40,6 +44,8 @@ import static com.siimkinks.sqlitemagic.WriterUtil.SIMPLE_ARRAY_MAP;
 import static com.siimkinks.sqlitemagic.WriterUtil.STRING;
 import static com.siimkinks.sqlitemagic.WriterUtil.TABLE;
 import static com.siimkinks.sqlitemagic.WriterUtil.UTIL;
+import static com.siimkinks.sqlitemagic.WriterUtil.anyWildcardTypeName;
+import static com.siimkinks.sqlitemagic.WriterUtil.codeBlockEnd;
 import static com.siimkinks.sqlitemagic.WriterUtil.notNullParameter;
 import static com.siimkinks.sqlitemagic.WriterUtil.nullableParameter;
 import static com.siimkinks.sqlitemagic.WriterUtil.writeSource;
@@ -49,6 +55,7 @@ import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_ADD_SHALLOW_QUERY_
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_ALL_FROM_CURSOR;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FIRST_FROM_CURSOR;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_FROM_CURSOR_POSITION;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_ID;
 import static com.siimkinks.sqlitemagic.util.NameConst.PACKAGE_ROOT;
 import static com.siimkinks.sqlitemagic.util.StringUtil.replaceCamelCaseWithUnderscore;
 import static com.siimkinks.sqlitemagic.writer.EntityEnvironment.getGeneratedDaoClassName;
@@ -61,6 +68,7 @@ import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.select1Pa
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.selectFromTablesParam;
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.subscriptionParam;
 import static com.siimkinks.sqlitemagic.writer.GenClassesManagerWriter.tableGraphNodeNamesParam;
+import static com.siimkinks.sqlitemagic.writer.ModelWriter.ENTITY_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.QueryCompilerWriter.queryPartsAddMethodSignature;
 import static com.squareup.javapoet.TypeName.BOOLEAN;
 import static com.squareup.javapoet.TypeName.INT;
@@ -81,9 +89,14 @@ public final class StructureWriter {
   private final List<BaseColumnElement> columns;
   private final Set<TableElement> allTableTriggers;
   private final ClassName handlerClassName;
+  private final ClassName daoClassName;
+  private final boolean hasEntityId;
+  private final String rowTriggerIdColumnName;
   private final boolean hasAnyPersistedComplexColumns;
   private final boolean isQueryPartNeededForShallowQuery;
   private final boolean isView;
+  private final boolean isProjection;
+  private final List<ColumnElement> dirtyTrackedColumns;
 
   public static StructureWriter from(@NonNull EntityEnvironment entityEnvironment,
                                      @NonNull Environment environment) {
@@ -99,8 +112,12 @@ public final class StructureWriter {
         .columns(new ArrayList<BaseColumnElement>(tableElement.getAllColumns()))
         .allTableTriggers(tableElement.getAllTableTriggers())
         .handlerClassName(entityEnvironment.getHandlerClassName())
+        .daoClassName(entityEnvironment.getDaoClassName())
+        .hasEntityId(tableElement.hasId() || !tableElement.isImmutable())
+        .rowTriggerIdColumnName(tableElement.sendsRowTriggers() ? tableElement.getIdColumn().getColumnName() : null)
         .hasAnyPersistedComplexColumns(tableElement.hasAnyPersistedComplexColumns())
         .isQueryPartNeededForShallowQuery(tableElement.isQueryPartNeededForShallowQuery())
+        .dirtyTrackedColumns(tableElement.trackDirtyColumns() ? tableElement.getColumnsExceptId() : null)
         .environment(environment)
         .build();
   }
@@ -124,6 +141,23 @@ public final class StructureWriter {
         .build();
   }
 
+  public static StructureWriter from(@NonNull ProjectionElement projectionElement,
+                                     @NonNull Environment environment) {
+    final String className = getGeneratedTableStructureInterfaceNameString(projectionElement.getProjectionElementName());
+    return builder()
+        .className(className)
+        .classType(ClassName.get(PACKAGE_ROOT, className))
+        .environment(environment)
+        .structureElementName(projectionElement.getProjectionElementName())
+        .structureElementTypeName(projectionElement.getProjectionElementTypeName())
+        .structureName(projectionElement.getTableName())
+        .columnsCount(projectionElement.getAllColumnsCount())
+        .columns(new ArrayList<BaseColumnElement>(projectionElement.getColumns()))
+        .handlerClassName(getGeneratedDaoClassName(projectionElement))
+        .isProjection(true)
+        .build();
+  }
+
   public void write(@NonNull Filer filer) throws IOException {
     final TypeSpec.Builder classBuilder = classBuilder(className)
         .addModifiers(PUBLIC_FINAL)
@@ -141,9 +175,21 @@ public final class StructureWriter {
         classBuilder.addMethod(queryPartsAddOverride(METHOD_ADD_SHALLOW_QUERY_PARTS));
       }
     }
+    if (hasEntityId && !isView) {
+      classBuilder.addMethod(idGetterOverride());
+    }
+    if (rowTriggerIdColumnName != null && !isView) {
+      classBuilder.addMethod(idColumnNameOverride());
+    }
     if (isView) {
       classBuilder.addMethod(perfectSelectionOverride());
     }
+    if (isProjection) {
+      classBuilder.addMethod(defaultSelectionOverride());
+    }
+    if (dirtyTrackedColumns != null) {
+      classBuilder.addFields(dirtyColumnFields());
+    }
     writeSource(filer, classBuilder.build());
   }
 
@@ -214,6 +260,20 @@ public final class StructureWriter {
     return columnFields;
   }
 
+  private Iterable<FieldSpec> dirtyColumnFields() {
+    final ArrayList<FieldSpec> dirtyColumnFields = new ArrayList<>(dirtyTrackedColumns.size());
+    int bit = 0;
+    for (ColumnElement columnElement : dirtyTrackedColumns) {
+      dirtyColumnFields.add(FieldSpec
+          .builder(TypeName.LONG, dirtyColumnFieldName(columnElement))
+          .addModifiers(PUBLIC_STATIC_FINAL)
+          .initializer("1L << $L", bit)
+          .build());
+      bit++;
+    }
+    return dirtyColumnFields;
+  }
+
   private String getColumnName(BaseColumnElement columnElement) {
     final String columnName = columnElement.getColumnName();
     if (isView) {
@@ -232,6 +292,11 @@ public final class StructureWriter {
         .replaceAll("\\.", "_");
   }
 
+  @NonNull
+  public static String dirtyColumnFieldName(@NonNull BaseColumnElement columnElement) {
+    return "DIRTY_" + columnFieldName(columnElement);
+  }
+
   private MethodSpec aliasOverride() {
     return MethodSpec.methodBuilder("as")
         .addAnnotation(NON_NULL)
@@ -264,6 +329,25 @@ public final class StructureWriter {
     return builder.build();
   }
 
+  private MethodSpec idGetterOverride() {
+    return MethodSpec.methodBuilder(METHOD_GET_ID)
+        .addAnnotation(Override.class)
+        .addAnnotation(NULLABLE)
+        .returns(Object.class)
+        .addParameter(notNullParameter(structureElementTypeName, ENTITY_VARIABLE))
+        .addStatement("return $T.$L($L)", daoClassName, METHOD_GET_ID, ENTITY_VARIABLE)
+        .build();
+  }
+
+  private MethodSpec idColumnNameOverride() {
+    return MethodSpec.methodBuilder("getIdColumnName")
+        .addAnnotation(Override.class)
+        .addAnnotation(NULLABLE)
+        .returns(String.class)
+        .addStatement("return $S", rowTriggerIdColumnName)
+        .build();
+  }
+
   private MethodSpec queryPartsAddOverride(@NonNull String methodName) {
     return queryPartsAddMethodSignature(methodName)
         .addAnnotation(Override.class)
@@ -273,6 +357,28 @@ public final class StructureWriter {
         .build();
   }
 
+  private MethodSpec defaultSelectionOverride() {
+    final ArrayTypeName returnType = ArrayTypeName.of(ParameterizedTypeName.get(COLUMN,
+        anyWildcardTypeName(), anyWildcardTypeName(), anyWildcardTypeName(), anyWildcardTypeName()));
+    final CodeBlock.Builder selection = CodeBlock.builder()
+        .add("return new $T{", returnType);
+    boolean first = true;
+    for (BaseColumnElement columnElement : columns) {
+      if (first) {
+        first = false;
+      } else {
+        selection.add(", ");
+      }
+      selection.add("$L", columnFieldName(columnElement));
+    }
+    return MethodSpec.methodBuilder("defaultSelection")
+        .addAnnotation(Override.class)
+        .addAnnotation(NON_NULL)
+        .returns(returnType)
+        .addCode(selection.add("}").add(codeBlockEnd()).build())
+        .build();
+  }
+
   private MethodSpec perfectSelectionOverride() {
     return MethodSpec.methodBuilder("perfectSelection")
         .returns(BOOLEAN)
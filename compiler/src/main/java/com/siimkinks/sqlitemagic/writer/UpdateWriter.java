@@ -7,6 +7,7 @@ import com.siimkinks.sqlitemagic.util.FormatData;
 import com.siimkinks.sqlitemagic.util.ReturnCallback2;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -22,12 +23,16 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.experimental.Builder;
 
+import static com.siimkinks.sqlitemagic.Const.PRIVATE_STATIC_FINAL;
+import static com.siimkinks.sqlitemagic.Const.PUBLIC_STATIC_FINAL;
 import static com.siimkinks.sqlitemagic.Const.STATEMENT_METHOD_MAP;
 import static com.siimkinks.sqlitemagic.Const.STATIC_METHOD_MODIFIERS;
 import static com.siimkinks.sqlitemagic.GlobalConst.ERROR_UNSUBSCRIBED_UNEXPECTEDLY;
 import static com.siimkinks.sqlitemagic.GlobalConst.FAILED_TO_UPDATE_ERR_MSG;
 import static com.siimkinks.sqlitemagic.SqliteMagicProcessor.GENERATE_LOGGING;
 import static com.siimkinks.sqlitemagic.WriterUtil.CONTENT_VALUES;
+import static com.siimkinks.sqlitemagic.WriterUtil.ARRAY_LIST;
+import static com.siimkinks.sqlitemagic.WriterUtil.DIRTY_COLUMN_GROUPS;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_BULK_UPDATE_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.ENTITY_UPDATE_BUILDER;
 import static com.siimkinks.sqlitemagic.WriterUtil.LOG_UTIL;
@@ -40,6 +45,7 @@ import static com.siimkinks.sqlitemagic.WriterUtil.addConflictAlgorithmToOperati
 import static com.siimkinks.sqlitemagic.WriterUtil.addRxSingleCreateFromCallableParentClass;
 import static com.siimkinks.sqlitemagic.WriterUtil.addRxSingleCreateFromParentClass;
 import static com.siimkinks.sqlitemagic.WriterUtil.addRxSingleOnSubscribeToType;
+import static com.siimkinks.sqlitemagic.WriterUtil.addRowTriggerSendingStatement;
 import static com.siimkinks.sqlitemagic.WriterUtil.addTableTriggersSendingStatement;
 import static com.siimkinks.sqlitemagic.WriterUtil.conflictAlgorithmParameter;
 import static com.siimkinks.sqlitemagic.WriterUtil.connectionImplParameter;
@@ -53,12 +59,16 @@ import static com.siimkinks.sqlitemagic.WriterUtil.typedIterable;
 import static com.siimkinks.sqlitemagic.WriterUtil.updateStatementVariable;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_BULK_UPDATE;
 import static com.siimkinks.sqlitemagic.util.NameConst.CLASS_UPDATE;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_DIRTY_COLUMNS;
+import static com.siimkinks.sqlitemagic.util.NameConst.FIELD_DIRTY_TRACKED_FIELDS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_CONTENT_VALUES;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_DIRTY_UPDATE_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_UPDATE_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_BIND_TO_UPDATE_STATEMENT_WITH_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CALL_INTERNAL_UPDATE_ON_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_CALL_INTERNAL_UPDATE_WITH_CONFLICT_ALGORITHM_ON_COMPLEX_COLUMNS;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_EXECUTE;
+import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_GET_DIRTY_UPDATE_STATEMENT;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_UPDATE_INTERNAL;
 import static com.siimkinks.sqlitemagic.util.NameConst.METHOD_UPDATE_WITH_CONFLICT_ALGORITHM_INTERNAL;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.COMPLEX_COLUMN_PARAM_TO_ENTITY_DB_MANAGER;
@@ -72,6 +82,7 @@ import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addTrans
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.addTransactionStartBlock;
 import static com.siimkinks.sqlitemagic.writer.ModelPersistingGenerator.contentValuesAndDbVariables;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.CONFLICT_ALGORITHM_VARIABLE;
+import static com.siimkinks.sqlitemagic.writer.ModelWriter.DB_CONNECTION_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.ENTITY_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.MANAGER_VARIABLE;
 import static com.siimkinks.sqlitemagic.writer.ModelWriter.OBJECTS_VARIABLE;
@@ -108,6 +119,11 @@ public class UpdateWriter implements OperationWriter {
       classBuilder.addMethod(bindToUpdateStatementWithComplexColumns());
     }
 
+    if (tableElement.trackDirtyColumns()) {
+      classBuilder.addField(dirtyTrackedFieldsField())
+          .addMethod(bindToDirtyUpdateStatement());
+    }
+
     addUpdateMethodInternalCallOnComplexColumnsIfNeeded(classBuilder);
     addUpdateWithConflictAlgorithmInternalCallOnComplexColumnsIfNeeded(classBuilder);
   }
@@ -116,6 +132,9 @@ public class UpdateWriter implements OperationWriter {
   public void writeHandler(TypeSpec.Builder classBuilder) {
     final MethodSpec internalUpdateWithConflictAlgorithm = updateWithConflictAlgorithmInternal();
     final MethodSpec internalUpdate = updateInternal();
+    if (tableElement.trackDirtyColumns()) {
+      classBuilder.addField(dirtyColumnsField());
+    }
     classBuilder.addMethod(internalUpdateWithConflictAlgorithm)
         .addMethod(internalUpdate)
         .addType(update(internalUpdate, internalUpdateWithConflictAlgorithm))
@@ -179,7 +198,38 @@ public class UpdateWriter implements OperationWriter {
     return builder.build();
   }
 
-  private void addBindIdColumnToStatementBlock(MethodSpec.Builder builder, int colPos) {
+  /**
+   * Binds only changed columns followed by the id.
+   */
+  private MethodSpec bindToDirtyUpdateStatement() {
+    final boolean idColumnNullable = isIdColumnNullable();
+    final MethodSpec.Builder builder = MethodSpec.methodBuilder(METHOD_BIND_TO_DIRTY_UPDATE_STATEMENT)
+        .addModifiers(STATIC_METHOD_MODIFIERS)
+        .addParameter(SQLITE_STATEMENT, "statement")
+        .addParameter(tableElementTypeName, ENTITY_VARIABLE)
+        .addParameter(TypeName.LONG, "dirtyColumns")
+        .addStatement("statement.clearBindings()");
+    if (idColumnNullable) {
+      builder.addParameter(TypeName.LONG.box(), "id");
+    }
+    builder.addStatement("int pos = 1");
+    int bit = 0;
+    for (ColumnElement columnElement : tableElement.getColumnsExceptId()) {
+      builder.beginControlFlow("if ((dirtyColumns & (1L << $L)) != 0)", bit);
+      addBindColumnToStatementBlock(builder, "pos", columnElement);
+      builder.addStatement("pos++")
+          .endControlFlow();
+      bit++;
+    }
+    if (idColumnNullable) {
+      addBindIdColumnToStatementBlock(builder, "pos");
+    } else {
+      addBindColumnToStatementBlock(builder, "pos", tableElement.getIdColumn());
+    }
+    return builder.build();
+  }
+
+  private void addBindIdColumnToStatementBlock(MethodSpec.Builder builder, Object colPos) {
     final ColumnElement idColumn = tableElement.getIdColumn();
     final String bindMethod = STATEMENT_METHOD_MAP.get(idColumn.getSerializedType().getQualifiedName());
     builder.addStatement("statement.$L($L, id)", bindMethod, colPos);
@@ -302,7 +352,7 @@ public class UpdateWriter implements OperationWriter {
     if (hasComplexColumns) {
       addCallToInternalUpdateWithTransactionHandling(builder, internalMethodCall);
     } else {
-      addCallToInternalUpdate(builder, allTableTriggers, internalMethodCall);
+      addCallToInternalUpdate(builder, allTableTriggers, internalMethodCall, entityIdBlock());
     }
 
     builder.endControlFlow();
@@ -312,7 +362,13 @@ public class UpdateWriter implements OperationWriter {
     if (hasComplexColumns) {
       addCallToInternalUpdateWithTransactionHandling(builder, internalMethodCall);
     } else {
-      addCallToInternalUpdate(builder, allTableTriggers, internalMethodCall);
+      // replacing conflict algorithm might delete other rows
+      final CodeBlock rowId = CodeBlock.builder()
+          .add("$N != SQLiteDatabase.CONFLICT_REPLACE ? ", CONFLICT_ALGORITHM_VARIABLE)
+          .add(entityIdBlock())
+          .add(" : null")
+          .build();
+      addCallToInternalUpdate(builder, allTableTriggers, internalMethodCall, rowId);
     }
 
     if (hasComplexColumns) {
@@ -451,9 +507,16 @@ public class UpdateWriter implements OperationWriter {
         .addStatement("return false");
   }
 
-  private void addCallToInternalUpdate(MethodSpec.Builder builder, Set<TableElement> allTableTriggers, FormatData internalMethodCall) {
+  private CodeBlock entityIdBlock() {
+    final CodeBlock.Builder builder = CodeBlock.builder();
+    entityEnvironment.addInlineIdVariable(builder);
+    return builder.build();
+  }
+
+  private void addCallToInternalUpdate(MethodSpec.Builder builder, Set<TableElement> allTableTriggers,
+                                       FormatData internalMethodCall, CodeBlock rowId) {
     builder.beginControlFlow(String.format("if (%s)", internalMethodCall.getFormat()), internalMethodCall.getArgs());
-    addTableTriggersSendingStatement(builder, allTableTriggers);
+    addRowTriggerSendingStatement(builder, allTableTriggers, tableElement, rowId);
     builder.addStatement("return true")
         .endControlFlow()
         .addStatement("return false");
@@ -489,12 +552,16 @@ public class UpdateWriter implements OperationWriter {
       public void call(MethodSpec.Builder builder) {
         builder.addCode(entityDbVariablesForOperationBuilder(tableElement));
         addTransactionStartBlock(builder);
-        addBulkUpdateTopBlock(builder);
-        builder.nextControlFlow("else $L", ifSubscriberUnsubscribed())
-            .addStatement("throw new $T($S)", OPERATION_FAILED_EXCEPTION, ERROR_UNSUBSCRIBED_UNEXPECTEDLY)
-            .endControlFlow()
-            .endControlFlow()
-            .endControlFlow();
+        if (tableElement.trackDirtyColumns()) {
+          addDirtyBulkUpdateBlock(builder, true);
+        } else {
+          addBulkUpdateTopBlock(builder);
+          builder.nextControlFlow("else $L", ifSubscriberUnsubscribed())
+              .addStatement("throw new $T($S)", OPERATION_FAILED_EXCEPTION, ERROR_UNSUBSCRIBED_UNEXPECTEDLY)
+              .endControlFlow()
+              .endControlFlow()
+              .endControlFlow();
+        }
         addRxSingleTransactionEndBlock(builder, allTableTriggers, "Boolean.TRUE");
       }
     });
@@ -508,12 +575,93 @@ public class UpdateWriter implements OperationWriter {
         .returns(TypeName.BOOLEAN)
         .addCode(entityDbVariablesForOperationBuilder(tableElement));
     addTransactionStartBlock(builder);
-    addBulkUpdateTopBlock(builder);
+    if (tableElement.trackDirtyColumns()) {
+      addDirtyBulkUpdateBlock(builder, false);
+    } else {
+      addBulkUpdateTopBlock(builder);
+      builder.endControlFlow()
+          .endControlFlow()
+          .endControlFlow();
+    }
+    addTransactionEndBlock(builder, allTableTriggers, "return true", "return false");
+    return builder.build();
+  }
+
+  private FieldSpec dirtyColumnsField() {
+    final CodeBlock.Builder initializer = CodeBlock.builder()
+        .add("new $T[]{", String.class);
+    boolean first = true;
+    for (ColumnElement columnElement : tableElement.getColumnsExceptId()) {
+      if (first) {
+        first = false;
+      } else {
+        initializer.add(", ");
+      }
+      initializer.add("$S", columnElement.getColumnName());
+    }
+    return FieldSpec.builder(String[].class, FIELD_DIRTY_COLUMNS)
+        .addModifiers(PRIVATE_STATIC_FINAL)
+        .initializer(initializer.add("}").build())
+        .build();
+  }
+
+  /**
+   * Names of the fields that the gradle plugin instruments, in the order of their dirty bits.
+   * Plugin reads this constant from the compiled DAO, so it must stay a compile time constant.
+   */
+  private FieldSpec dirtyTrackedFieldsField() {
+    final StringBuilder fields = new StringBuilder();
+    for (ColumnElement columnElement : tableElement.getColumnsExceptId()) {
+      if (fields.length() > 0) {
+        fields.append(',');
+      }
+      fields.append(columnElement.getElementName());
+    }
+    return FieldSpec.builder(String.class, FIELD_DIRTY_TRACKED_FIELDS)
+        .addModifiers(PUBLIC_STATIC_FINAL)
+        .initializer("$S", fields.toString())
+        .build();
+  }
+
+  /**
+   * Entities are grouped by their changed columns and each group is written with one
+   * statement. Changed columns are cleared only after all groups are written and restored
+   * if the transaction is rolled back.
+   */
+  private void addDirtyBulkUpdateBlock(MethodSpec.Builder builder, boolean checkUnsubscribed) {
+    final boolean idColumnNullable = isIdColumnNullable();
+    final TypeName groupsType = ParameterizedTypeName.get(DIRTY_COLUMN_GROUPS, tableElementTypeName);
+    final TypeName entitiesType = ParameterizedTypeName.get(ARRAY_LIST, tableElementTypeName);
+    builder.addStatement("final $T groups = $T.of($L)", groupsType, DIRTY_COLUMN_GROUPS, OBJECTS_VARIABLE)
+        .beginControlFlow("for (int g = 0, groupCount = groups.size(); g < groupCount; g++)")
+        .addStatement("final long dirtyColumns = groups.dirtyColumnsAt(g)")
+        .addStatement("final $T entities = groups.entitiesAt(g)", entitiesType)
+        // unchanged entities are still updated, so that missing rows fail the operation
+        .addStatement("final $T stm = $L.$L($S, $S, $L, dirtyColumns)", SQLITE_STATEMENT, MANAGER_VARIABLE,
+            METHOD_GET_DIRTY_UPDATE_STATEMENT, tableElement.getTableName(), tableElement.getIdColumn().getColumnName(), FIELD_DIRTY_COLUMNS)
+        .beginControlFlow("try")
+        .beginControlFlow("synchronized (stm)")
+        .beginControlFlow("for (int i = 0, size = entities.size(); i < size; i++)")
+        .addStatement("final $T $L = entities.get(i)", tableElementTypeName, ENTITY_VARIABLE);
+    addUpdateLoggingStatement(builder);
+    addIdColumnNullCheckIfNeeded(builder);
+    builder.addStatement("$T.$L(stm, $L, dirtyColumns$L)", daoClassName, METHOD_BIND_TO_DIRTY_UPDATE_STATEMENT, ENTITY_VARIABLE,
+        idColumnNullable ? ", id" : "")
+        .beginControlFlow("if (stm.executeUpdateDelete() <= 0)");
+    addThrowOperationFailedExceptionWithEntityVariable(builder, "Failed to update");
     builder.endControlFlow()
         .endControlFlow()
+        .endControlFlow()
+        .nextControlFlow("finally")
+        .addStatement("stm.releaseReference()")
         .endControlFlow();
-    addTransactionEndBlock(builder, allTableTriggers, "return true", "return false");
-    return builder.build();
+    if (checkUnsubscribed) {
+      builder.beginControlFlow(ifSubscriberUnsubscribed())
+          .addStatement("throw new $T($S)", OPERATION_FAILED_EXCEPTION, ERROR_UNSUBSCRIBED_UNEXPECTEDLY)
+          .endControlFlow();
+    }
+    builder.endControlFlow()
+        .addStatement("groups.clearDirtyColumns($L)", DB_CONNECTION_VARIABLE);
   }
 
   private void addBulkUpdateTopBlock(MethodSpec.Builder builder) {
@@ -0,0 +1,98 @@
+package com.siimkinks.sqlitemagic.validator;
+
+import com.google.testing.compile.JavaFileObjects;
+import com.siimkinks.sqlitemagic.SqliteMagicProcessor;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public final class DirtyTrackingValidationTest {
+  @Test
+  public void handImplementedTrackingIsRejected() {
+    final JavaFileObject model = JavaFileObjects.forSourceLines("test.Tracked",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "import com.siimkinks.sqlitemagic.entity.DirtyTrackable;",
+        "",
+        "@Table(trackDirtyColumns = true)",
+        "public class Tracked implements DirtyTrackable {",
+        "  @Column String name;",
+        "  public long dirtyColumns() { return 0; }",
+        "  public void markDirtyColumns(long columns) {}",
+        "  public void clearDirtyColumns() {}",
+        "}");
+
+    assertAbout(javaSource())
+        .that(model)
+        .processedWith(new SqliteMagicProcessor())
+        .failsToCompile()
+        .withErrorContaining(ModelValidator.ERR_DIRTY_TRACKING_HAND_IMPLEMENTED);
+  }
+
+  @Test
+  public void inheritedColumnIsRejected() {
+    final JavaFileObject base = JavaFileObjects.forSourceLines("test.Base",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "",
+        "public class Base {",
+        "  @Column String baseName;",
+        "}");
+    final JavaFileObject model = JavaFileObjects.forSourceLines("test.Tracked",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table(trackDirtyColumns = true)",
+        "public class Tracked extends Base {",
+        "  @Column String name;",
+        "}");
+
+    assertAbout(javaSources())
+        .that(Arrays.asList(base, model))
+        .processedWith(new SqliteMagicProcessor())
+        .failsToCompile()
+        .withErrorContaining(String.format(ModelValidator.ERR_DIRTY_TRACKING_INHERITED_COLUMN, "baseName"));
+  }
+
+  @Test
+  public void complexColumnIsRejected() {
+    final JavaFileObject child = JavaFileObjects.forSourceLines("test.Child",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table",
+        "public class Child {",
+        "  @Column String name;",
+        "}");
+    final JavaFileObject model = JavaFileObjects.forSourceLines("test.Tracked",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table(trackDirtyColumns = true)",
+        "public class Tracked {",
+        "  @Column Child child;",
+        "}");
+
+    assertAbout(javaSources())
+        .that(Arrays.asList(child, model))
+        .processedWith(new SqliteMagicProcessor())
+        .failsToCompile()
+        .withErrorContaining(ModelValidator.ERR_DIRTY_TRACKING_COMPLEX_COLUMNS);
+  }
+}
@@ -0,0 +1,78 @@
+package com.siimkinks.sqlitemagic.validator;
+
+import com.google.testing.compile.JavaFileObjects;
+import com.siimkinks.sqlitemagic.SqliteMagicProcessor;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public final class IndexValidationTest {
+  @Test
+  public void duplicateIndexNameAcrossTablesIsRejected() {
+    final JavaFileObject first = JavaFileObjects.forSourceLines("test.First",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Index;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table",
+        "public class First {",
+        "  @Column @Index(\"by_name\") String name;",
+        "}");
+    final JavaFileObject second = JavaFileObjects.forSourceLines("test.Second",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Index;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table",
+        "public class Second {",
+        "  @Column @Index(\"by_name\") String name;",
+        "}");
+
+    assertAbout(javaSources())
+        .that(Arrays.asList(first, second))
+        .processedWith(new SqliteMagicProcessor())
+        .failsToCompile()
+        .withErrorContaining(String.format(ModelValidator.ERR_INDEX_DUPLICATE_NAME, "by_name"));
+  }
+
+  @Test
+  public void indexNamedAfterTableIsRejected() {
+    final JavaFileObject first = JavaFileObjects.forSourceLines("test.First",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table",
+        "public class First {",
+        "  @Column String name;",
+        "}");
+    final JavaFileObject second = JavaFileObjects.forSourceLines("test.Second",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.annotation.Column;",
+        "import com.siimkinks.sqlitemagic.annotation.Index;",
+        "import com.siimkinks.sqlitemagic.annotation.Table;",
+        "",
+        "@Table",
+        "public class Second {",
+        "  @Column @Index(\"first\") String name;",
+        "}");
+
+    assertAbout(javaSources())
+        .that(Arrays.asList(first, second))
+        .processedWith(new SqliteMagicProcessor())
+        .failsToCompile()
+        .withErrorContaining(String.format(ModelValidator.ERR_INDEX_TABLE_NAME, "first"));
+  }
+}
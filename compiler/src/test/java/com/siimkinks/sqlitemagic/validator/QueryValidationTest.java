@@ -0,0 +1,62 @@
+package com.siimkinks.sqlitemagic.validator;
+
+import com.google.testing.compile.JavaFileObjects;
+import com.siimkinks.sqlitemagic.SqliteMagicProcessor;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public final class QueryValidationTest {
+  private static final JavaFileObject AUTHOR = JavaFileObjects.forSourceLines("test.Author",
+      "package test;",
+      "",
+      "import com.siimkinks.sqlitemagic.annotation.Column;",
+      "import com.siimkinks.sqlitemagic.annotation.Id;",
+      "import com.siimkinks.sqlitemagic.annotation.Table;",
+      "",
+      "@Table",
+      "public class Author {",
+      "  @Id @Column Long id;",
+      "  @Column String name;",
+      "}");
+  private static final JavaFileObject BOOK = JavaFileObjects.forSourceLines("test.Book",
+      "package test;",
+      "",
+      "import com.siimkinks.sqlitemagic.annotation.Column;",
+      "import com.siimkinks.sqlitemagic.annotation.Id;",
+      "import com.siimkinks.sqlitemagic.annotation.Table;",
+      "",
+      "@Table",
+      "public class Book {",
+      "  @Id @Column Long id;",
+      "  @Column String title;",
+      "  @Column Author author;",
+      "}");
+
+  @Test
+  public void bareStarWithJoinIsRejected() {
+    final JavaFileObject queries = JavaFileObjects.forSourceLines("test.AuthorQueries",
+        "package test;",
+        "",
+        "import com.siimkinks.sqlitemagic.CompiledSelect;",
+        "import com.siimkinks.sqlitemagic.Select;",
+        "import com.siimkinks.sqlitemagic.annotation.Query;",
+        "",
+        "public interface AuthorQueries {",
+        "  @Query(\"SELECT * FROM author JOIN book ON book.author = author.id\")",
+        "  CompiledSelect<Author, Select.SelectN> withBooks();",
+        "}");
+
+    assertAbout(javaSources())
+        .that(Arrays.asList(AUTHOR, BOOK, queries))
+        .processedWith(new SqliteMagicProcessor())
+        .failsToCompile()
+        .withErrorContaining(String.format(QueryValidator.ERR_RESULT_COLUMNS, "author", "author"));
+  }
+}
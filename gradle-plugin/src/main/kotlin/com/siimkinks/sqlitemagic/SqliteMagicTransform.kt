@@ -5,6 +5,7 @@ import com.android.build.api.transform.QualifiedContent.DefaultContentType.CLASS
 import com.android.build.api.transform.QualifiedContent.Scope.*
 import com.android.build.gradle.BaseExtension
 import com.android.build.gradle.api.BaseVariant
+import com.siimkinks.sqlitemagic.task.DirtyTrackingTransformation
 import com.siimkinks.sqlitemagic.task.InvokeTransformation
 import org.gradle.api.Project
 import org.gradle.api.file.FileCollection
@@ -40,8 +41,12 @@ class SqliteMagicTransform(val project: Project,
     input.directoryInputs.forEach {
       val classpath = transformInvocation.classpath(it.file)
           .plus(project.files(it.file))
+      // unchanged classes that write tracked fields would keep stale dirty bits
+      val trackedFieldsChanged = incremental && it.changedFiles.any {
+        DirtyTrackingTransformation.changesTrackedFields(it.key, it.value == Status.REMOVED)
+      }
       val sources =
-          if (incremental) {
+          if (incremental && !trackedFieldsChanged) {
             it.changedFiles
                 .filter { it.value != Status.REMOVED }
                 .map { it.key.absolutePath }
@@ -50,10 +55,22 @@ class SqliteMagicTransform(val project: Project,
             it.file.getAllClassFilePaths()
           }
 
+      // dirty tracking output is the input of invoke transformation
+      val dirtyTrackingOutput = File(transformInvocation.context.temporaryDir, "dirtyTracking")
+      if (dirtyTrackingOutput.exists()) {
+        dirtyTrackingOutput.deleteRecursively()
+      }
+      DirtyTrackingTransformation(
+          destinationDir = dirtyTrackingOutput,
+          classpath = classpath,
+          sources = project.files(sources),
+          debug = sqlitemagic.debugBytecodeProcessor)
+          .exec()
+
       InvokeTransformation(
           destinationDir = projectFilesOutput,
           classpath = classpath,
-          sources = project.files(sources),
+          sources = project.files(dirtyTrackingOutput.getAllClassFilePaths()),
           debug = sqlitemagic.debugBytecodeProcessor)
           .exec()
     }
@@ -0,0 +1,163 @@
+package com.siimkinks.sqlitemagic.task
+
+import com.siimkinks.sqlitemagic.annotation.Table
+import javassist.CtClass
+import javassist.CtField
+import javassist.CtNewMethod
+import javassist.Modifier
+import javassist.NotFoundException
+import javassist.bytecode.AnnotationsAttribute
+import javassist.bytecode.ClassFile
+import javassist.bytecode.FieldInfo
+import javassist.bytecode.annotation.BooleanMemberValue
+import javassist.expr.ExprEditor
+import javassist.expr.FieldAccess
+import org.gradle.api.GradleException
+import org.gradle.api.file.FileCollection
+import org.gradle.api.logging.Logging
+import java.io.DataInputStream
+import java.io.File
+import java.util.*
+
+private const val DIRTY_TRACKABLE = "com.siimkinks.sqlitemagic.entity.DirtyTrackable"
+private const val DIRTY_TRACKED_FIELDS = "DIRTY_TRACKED_FIELDS"
+private const val DIRTY_COLUMNS_FIELD = "sqlitemagicDirtyColumns"
+private const val GENERATED_CLASS_PREFIX = "SqliteMagic_"
+
+/**
+ * Implements dirty column tracking of models annotated with `@Table(trackDirtyColumns = true)`.
+ *
+ * Tracked models get a field that holds their changed columns and implement `DirtyTrackable`.
+ * Every write to a tracked column field outside of the generated code marks its column as
+ * changed. Column bits are read from the `DIRTY_TRACKED_FIELDS` constant of the generated DAO.
+ *
+ * Bits are inlined into every instrumented write, so incremental builds must instrument all
+ * classes again when a DAO of a tracked model changes - see [changesTrackedFields].
+ */
+class DirtyTrackingTransformation(destinationDir: File,
+                                  sources: FileCollection,
+                                  classpath: FileCollection,
+                                  debug: Boolean = false) : BaseTransformation(destinationDir, sources, classpath, debug) {
+  override val LOG = Logging.getLogger(DirtyTrackingTransformation::class.java)
+  private val TABLE_ANNOTATION = Table::class.java.canonicalName
+  /**
+   * Bits of tracked fields keyed by their declaring class name. `null` if class is not tracked.
+   */
+  private val trackedClasses = HashMap<String, Map<String, Long>?>()
+
+  override fun shouldTransform(candidateClass: CtClass): Boolean {
+    if (candidateClass.isInterface || candidateClass.isGenerated()) {
+      return false
+    }
+    if (candidateClass.trackedFields() != null) {
+      return true
+    }
+    var writesTrackedFields = false
+    candidateClass.instrument(object : ExprEditor() {
+      override fun edit(f: FieldAccess) {
+        if (!writesTrackedFields && trackedFieldBit(f) != null) {
+          writesTrackedFields = true
+        }
+      }
+    })
+    return writesTrackedFields
+  }
+
+  override fun applyTransform(clazz: CtClass) {
+    logInfo("Instrumenting dirty column tracking in ${clazz.name}")
+    clazz.instrument(object : ExprEditor() {
+      override fun edit(f: FieldAccess) {
+        val bit = trackedFieldBit(f) ?: return
+        f.replace("{ \$proceed(\$\$); (($DIRTY_TRACKABLE) \$0).markDirtyColumns(${bit}L); }")
+      }
+    })
+    if (clazz.trackedFields() != null) {
+      clazz.implementDirtyTracking()
+    }
+  }
+
+  private fun trackedFieldBit(f: FieldAccess): Long? {
+    if (!f.isWriter || f.isStatic) {
+      return null
+    }
+    val field = try {
+      f.field
+    } catch (e: NotFoundException) {
+      return null
+    }
+    return field.declaringClass.trackedFields()?.get(field.name)
+  }
+
+  private fun CtClass.implementDirtyTracking() {
+    if (interfaces.any { it.name == DIRTY_TRACKABLE }) {
+      return
+    }
+    addInterface(classPool.get(DIRTY_TRACKABLE))
+    val dirtyColumns = CtField(CtClass.longType, DIRTY_COLUMNS_FIELD, this)
+    dirtyColumns.modifiers = Modifier.PRIVATE or Modifier.TRANSIENT
+    addField(dirtyColumns)
+    addMethod(CtNewMethod.make("public long dirtyColumns() { return $DIRTY_COLUMNS_FIELD; }", this))
+    addMethod(CtNewMethod.make("public void markDirtyColumns(long columns) { $DIRTY_COLUMNS_FIELD |= columns; }", this))
+    addMethod(CtNewMethod.make("public void clearDirtyColumns() { $DIRTY_COLUMNS_FIELD = 0L; }", this))
+  }
+
+  private fun CtClass.trackedFields(): Map<String, Long>? {
+    if (trackedClasses.containsKey(name)) {
+      return trackedClasses[name]
+    }
+    val fields = if (isDirtyTracked()) daoTrackedFields() else null
+    trackedClasses.put(name, fields)
+    return fields
+  }
+
+  private fun CtClass.isDirtyTracked(): Boolean {
+    val annotations = classFile.getAttribute(AnnotationsAttribute.invisibleTag) as AnnotationsAttribute? ?: return false
+    val table = annotations.getAnnotation(TABLE_ANNOTATION) ?: return false
+    return (table.getMemberValue("trackDirtyColumns") as BooleanMemberValue?)?.value ?: false
+  }
+
+  /**
+   * Generated code casts tracked models to `DirtyTrackable`, so a model that cannot be
+   * instrumented fails the build instead of failing at runtime.
+   */
+  private fun CtClass.daoTrackedFields(): Map<String, Long> {
+    val daoSimpleName = "$GENERATED_CLASS_PREFIX${simpleName.substringAfterLast('$')}_Dao"
+    val daoName = if (packageName.isNullOrEmpty()) daoSimpleName else "$packageName.$daoSimpleName"
+    val fieldNames = try {
+      classPool.get(daoName).getField(DIRTY_TRACKED_FIELDS).constantValue as String?
+    } catch (e: NotFoundException) {
+      null
+    }
+    if (fieldNames == null) {
+      throw GradleException("Cannot track dirty columns of $name - missing $DIRTY_TRACKED_FIELDS in $daoName")
+    }
+    val bits = HashMap<String, Long>()
+    fieldNames.split(',')
+        .filter { it.isNotEmpty() }
+        .forEachIndexed { i, fieldName -> bits.put(fieldName, 1L shl i) }
+    return bits
+  }
+
+  private fun CtClass.isGenerated() = simpleName.startsWith(GENERATED_CLASS_PREFIX)
+
+  companion object {
+    /**
+     * Whether a changed class file might change the bits of tracked fields. This is the case
+     * for DAOs of tracked models and for removed DAOs.
+     *
+     * @param classFile Changed class file
+     * @param removed Whether the class file was removed
+     */
+    fun changesTrackedFields(classFile: File, removed: Boolean): Boolean {
+      val name = classFile.name
+      if (!name.startsWith(GENERATED_CLASS_PREFIX) || !name.endsWith("_Dao.class")) {
+        return false
+      }
+      if (removed || !classFile.exists()) {
+        return true
+      }
+      val daoClass = DataInputStream(classFile.inputStream().buffered()).use { ClassFile(it) }
+      return daoClass.fields.any { (it as FieldInfo).name == DIRTY_TRACKED_FIELDS }
+    }
+  }
+}
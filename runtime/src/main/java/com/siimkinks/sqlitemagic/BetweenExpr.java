@@ -10,17 +10,17 @@ import java.util.LinkedList;
 
 final class BetweenExpr extends Expr {
   @Nullable
-  private final String firstVal;
+  private final Object firstVal;
   @Nullable
-  private final String secondVal;
+  private final Object secondVal;
   @Nullable
   private final Column<?, ?, ?, ?> firstColumn;
   @Nullable
   private final Column<?, ?, ?, ?> secondColumn;
 
   BetweenExpr(Column<?, ?, ?, ?> column,
-              @Nullable String firstVal,
-              @Nullable String secondVal,
+              @Nullable Object firstVal,
+              @Nullable Object secondVal,
               @Nullable Column<?, ?, ?, ?> firstColumn,
               @Nullable Column<?, ?, ?, ?> secondColumn,
               boolean not) {
@@ -78,7 +78,7 @@ final class BetweenExpr extends Expr {
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     super.addArgs(args);
     if (firstVal != null) {
       args.add(firstVal);
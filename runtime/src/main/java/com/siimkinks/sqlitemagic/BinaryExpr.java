@@ -1,6 +1,7 @@
 package com.siimkinks.sqlitemagic;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
 
@@ -21,7 +22,7 @@ final class BinaryExpr extends Expr {
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     lhs.addArgs(args);
     rhs.addArgs(args);
   }
@@ -48,4 +49,31 @@ final class BinaryExpr extends Expr {
   boolean containsColumn(@NonNull Column<?, ?, ?, ?> column) {
     return lhs.containsColumn(column) || rhs.containsColumn(column);
   }
+
+  @Nullable
+  @Override
+  int[] rowIdArgs(@NonNull Table<?> table, int argsStart) {
+    final boolean and = " AND ".equals(expr);
+    if (!and && !" OR ".equals(expr)) {
+      return null;
+    }
+    final int[] lhsRowIdArgs = lhs.rowIdArgs(table, argsStart);
+    if (and && lhsRowIdArgs != null) {
+      return lhsRowIdArgs;
+    }
+    final ArrayList<Object> lhsArgs = new ArrayList<>();
+    lhs.addArgs(lhsArgs);
+    final int[] rhsRowIdArgs = rhs.rowIdArgs(table, argsStart + lhsArgs.size());
+    if (and || rhsRowIdArgs == null) {
+      return rhsRowIdArgs;
+    }
+    if (lhsRowIdArgs == null) {
+      return null;
+    }
+    // rows of OR expression are restricted only if both sides are restricted
+    final int[] rowIdArgs = new int[lhsRowIdArgs.length + rhsRowIdArgs.length];
+    System.arraycopy(lhsRowIdArgs, 0, rowIdArgs, 0, lhsRowIdArgs.length);
+    System.arraycopy(rhsRowIdArgs, 0, rowIdArgs, lhsRowIdArgs.length, rhsRowIdArgs.length);
+    return rowIdArgs;
+  }
 }
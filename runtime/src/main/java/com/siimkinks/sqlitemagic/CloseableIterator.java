@@ -0,0 +1,20 @@
+package com.siimkinks.sqlitemagic;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Iterator over query results that holds an open cursor.
+ * <p>
+ * The underlying cursor is closed automatically after the last element is iterated.
+ * If iteration is stopped before that, caller is responsible for closing the iterator.
+ *
+ * @param <T> Element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+  /**
+   * Close the underlying cursor. Calling this method more than once has no effect.
+   */
+  @Override
+  void close();
+}
@@ -122,7 +122,7 @@ public class Column<T, R, ET, P> {
     result.add(table.name);
   }
 
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
   }
 
   /**
@@ -240,8 +240,8 @@ public class Column<T, R, ET, P> {
   }
 
   @NonNull
-  String toSqlArg(@NonNull T val) {
-    return val.toString();
+  Object toSqlArg(@NonNull T val) {
+    return val;
   }
 
   @SuppressWarnings("unchecked")
@@ -276,7 +276,7 @@ public class Column<T, R, ET, P> {
     return new Column<T, R, ET, P>(newTable, column.name, column.allFromTable, column.valueParser, column.nullable, column.alias) {
       @NonNull
       @Override
-      public String toSqlArg(@NonNull T val) {
+      public Object toSqlArg(@NonNull T val) {
         return column.toSqlArg(val);
       }
 
@@ -472,6 +472,19 @@ public class Column<T, R, ET, P> {
     return new Expr1(this, "=?", toSqlArg(value));
   }
 
+  /**
+   * This column = parameter.
+   *
+   * @param param Parameter placeholder which value is bound before execution
+   * @return Expression
+   * @see Param
+   */
+  @NonNull
+  @CheckResult
+  public final Expr is(@NonNull Param<T> param) {
+    return new Expr1(this, "=?", new ParamSlots.Placeholder(this));
+  }
+
   /**
    * This column = column.
    *
@@ -509,6 +522,19 @@ public class Column<T, R, ET, P> {
     return new Expr1(this, "!=?", toSqlArg(value));
   }
 
+  /**
+   * This column != parameter.
+   *
+   * @param param Parameter placeholder which value is bound before execution
+   * @return Expression
+   * @see Param
+   */
+  @NonNull
+  @CheckResult
+  public final Expr isNot(@NonNull Param<T> param) {
+    return new Expr1(this, "!=?", new ParamSlots.Placeholder(this));
+  }
+
   /**
    * This column != column.
    *
@@ -635,7 +661,7 @@ public class Column<T, R, ET, P> {
     if (length == 0) {
       throw new SQLException("Empty IN clause values");
     }
-    final String[] args = new String[length];
+    final Object[] args = new Object[length];
     final StringBuilder sb = new StringBuilder(6 + (length << 1));
     sb.append(" IN (");
     final Iterator<T> iterator = values.iterator();
@@ -666,7 +692,7 @@ public class Column<T, R, ET, P> {
     if (length == 0) {
       throw new SQLException("Empty IN clause values");
     }
-    final String[] args = new String[length];
+    final Object[] args = new Object[length];
     final StringBuilder sb = new StringBuilder(6 + (length << 1));
     sb.append(" IN (");
     for (int i = 0; i < length; i++) {
@@ -710,7 +736,7 @@ public class Column<T, R, ET, P> {
     if (length == 0) {
       throw new SQLException("Empty IN clause values");
     }
-    final String[] args = new String[length];
+    final Object[] args = new Object[length];
     final StringBuilder sb = new StringBuilder(10 + (length << 1));
     sb.append(" NOT IN (");
     final Iterator<T> iterator = values.iterator();
@@ -741,7 +767,7 @@ public class Column<T, R, ET, P> {
     if (length == 0) {
       throw new SQLException("Empty IN clause values");
     }
-    final String[] args = new String[length];
+    final Object[] args = new Object[length];
     final StringBuilder sb = new StringBuilder(10 + (length << 1));
     sb.append(" NOT IN (");
     for (int i = 0; i < length; i++) {
@@ -15,16 +15,20 @@ import rx.Single;
  */
 public final class CompiledDelete {
   @NonNull
-  private final SQLiteStatement deleteStm;
+  private final String sql;
+  @NonNull
+  private final Object[] args;
   @NonNull
   private final String tableName;
   @NonNull
   private final DbConnectionImpl dbConnection;
 
-  CompiledDelete(@NonNull SQLiteStatement deleteStm,
+  CompiledDelete(@NonNull String sql,
+                 @NonNull Object[] args,
                  @NonNull String tableName,
                  @NonNull DbConnectionImpl dbConnection) {
-    this.deleteStm = deleteStm;
+    this.sql = sql;
+    this.args = args;
     this.tableName = tableName;
     this.dbConnection = dbConnection;
   }
@@ -39,8 +43,14 @@ public final class CompiledDelete {
   @WorkerThread
   public int execute() {
     final int affectedRows;
-    synchronized (deleteStm) {
-      affectedRows = deleteStm.executeUpdateDelete();
+    final SQLiteStatement stm = dbConnection.acquireStatement(sql);
+    try {
+      synchronized (stm) {
+        SqlArgs.bindAll(stm, args);
+        affectedRows = stm.executeUpdateDelete();
+      }
+    } finally {
+      stm.releaseReference();
     }
     if (affectedRows > 0) {
       dbConnection.sendTableTrigger(tableName);
@@ -59,7 +69,7 @@ public final class CompiledDelete {
   @NonNull
   @CheckResult
   public Single<Integer> observe() {
-    return Single.fromCallable(new Callable<Integer>() {
+    return dbConnection.queueWrite(new Callable<Integer>() {
       @Override
       public Integer call() throws Exception {
         return execute();
@@ -71,16 +81,14 @@ public final class CompiledDelete {
     DeleteSqlNode sqlTreeRoot;
     int sqlNodeCount;
     Delete.From<?> from;
-    final ArrayList<String> args = new ArrayList<>();
+    final ArrayList<Object> args = new ArrayList<>();
     DbConnectionImpl dbConnection = SqliteMagic.getDefaultDbConnection();
 
     @NonNull
     @CheckResult
     CompiledDelete build() {
       final String sql = SqlCreator.getSql(sqlTreeRoot, sqlNodeCount);
-      final SQLiteStatement stm = dbConnection.compileStatement(sql);
-      stm.bindAllArgsAsStrings(args.toArray(new String[args.size()]));
-      return new CompiledDelete(stm, from.table.nameInQuery, dbConnection);
+      return new CompiledDelete(sql, ParamSlots.toArgsWithoutParams(args), from.table.nameInQuery, dbConnection);
     }
   }
 }
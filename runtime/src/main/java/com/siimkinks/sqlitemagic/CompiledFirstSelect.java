@@ -51,4 +51,19 @@ public interface CompiledFirstSelect<T, S> {
   @NonNull
   @CheckResult
   QueryObservable<T> observe();
+
+  /**
+   * Bind {@link Param parameter} values to this compiled select statement.
+   * <p>
+   * Values are bound positionally -- in the order parameters appear in the SQL statement.
+   * This compiled statement is not modified, so it can be used as a template that is
+   * compiled once and executed many times with different values.
+   *
+   * @param values Parameter values; their number must match the number of parameters
+   * @return Compiled select statement with bound parameter values
+   * @throws IllegalStateException if this statement has no parameters
+   */
+  @NonNull
+  @CheckResult
+  CompiledFirstSelect<T, S> bind(@NonNull Object... values);
 }
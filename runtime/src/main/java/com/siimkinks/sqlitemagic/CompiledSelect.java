@@ -6,6 +6,8 @@ import android.support.annotation.WorkerThread;
 
 import java.util.List;
 
+import rx.Observable;
+
 /**
  * Compiled SQL select statement.
  *
@@ -47,12 +49,54 @@ public interface CompiledSelect<T, S> {
    * One might want to explore the returned type methods for convenience query related
    * operators.
    * <p>
+   * If the connection {@linkplain com.siimkinks.sqlitemagic.SqliteMagic.DatabaseSetupBuilder#withSharedLiveQueries()
+   * shares live queries}, observers of equal queries share one query execution per change, so
+   * all of them, including a single observer, receive the same <b>unmodifiable</b> result list.
+   * <p>
    * <b>Warning:</b> this method does not perform the query! Only by subscribing to the returned
    * {@link rx.Observable} will the operation occur.
    */
   @NonNull
   @CheckResult
-  QueryObservable<List<T>> observe();
+  ListQueryObservable<T> observe();
+
+  /**
+   * Execute this compiled select statement against a database and return a lazy iterator
+   * over the result set.
+   * <p>
+   * Unlike {@link #execute()}, rows are parsed only when they are iterated, so memory usage
+   * is bounded by the cursor window rather than by the size of the result set.
+   * The returned iterator holds an open cursor which is closed after the last row is
+   * iterated. If iteration is stopped early, caller is responsible for closing the iterator.<br>
+   * This method runs synchronously in the calling thread.
+   *
+   * @return Lazy iterator over the query result
+   */
+  @NonNull
+  @CheckResult
+  @WorkerThread
+  CloseableIterator<T> iterate();
+
+  /**
+   * Creates {@link Observable} that when subscribed to executes this query against a
+   * database and emits the result rows one by one.
+   * <p>
+   * Rows are parsed only when downstream requests them, so the returned observable supports
+   * backpressure and memory usage is bounded by the cursor window rather than by the size of
+   * the result set. The underlying cursor is closed when the observable completes, errors or
+   * is unsubscribed from.
+   * <dl>
+   * <dt><b>Scheduler:</b></dt>
+   * <dd>{@code stream} does not operate by default on a particular {@link rx.Scheduler}.</dd>
+   * </dl>
+   *
+   * @return Deferred {@link Observable} that when subscribed to executes the query and emits
+   * its result rows to downstream
+   * @see #iterate()
+   */
+  @NonNull
+  @CheckResult
+  Observable<T> stream();
 
   /**
    * Compile select builder and instruct it to take only the first element from the
@@ -107,4 +151,19 @@ public interface CompiledSelect<T, S> {
   @NonNull
   @CheckResult
   CompiledCursorSelect<T, S> toCursor();
+
+  /**
+   * Bind {@link Param parameter} values to this compiled select statement.
+   * <p>
+   * Values are bound positionally -- in the order parameters appear in the SQL statement.
+   * This compiled statement is not modified, so it can be used as a template that is
+   * compiled once and executed many times with different values.
+   *
+   * @param values Parameter values; their number must match the number of parameters
+   * @return Compiled select statement with bound parameter values
+   * @throws IllegalStateException if this statement has no parameters
+   */
+  @NonNull
+  @CheckResult
+  CompiledSelect<T, S> bind(@NonNull Object... values);
 }
@@ -9,46 +9,80 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import rx.Observable;
 import rx.Subscription;
 
 import static com.siimkinks.sqlitemagic.CompiledSelectImpl.CompiledFirstSelectImpl.addTakeFirstLimitClauseIfNeeded;
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.createLiveQueryObservable;
 import static com.siimkinks.sqlitemagic.CompiledSelectImpl.createQueryObservable;
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.createStreamObservable;
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.queryCursor;
 import static java.lang.System.nanoTime;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
-final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements CompiledSelect<T, S> {
+final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements CompiledSelect<T, S>,
+    PageSource.PagedSelect<T>, QueryResultCache.Loader<List<T>> {
   @NonNull
   final String sql;
   @Nullable
-  final String[] args;
+  final Object[] args;
+  @Nullable
+  final ParamSlots params;
   @NonNull
   final Column<?, T, ?, ?> selectedColumn;
   @NonNull
   final String[] observedTables;
+  /**
+   * Positions of arguments which restrict selected rows to a set of ids.
+   */
+  @Nullable
+  final int[] rowIdArgs;
 
   CompiledSelect1Impl(@NonNull String sql,
-                      @Nullable String[] args,
+                      @Nullable Object[] args,
+                      @Nullable ParamSlots params,
                       @NonNull DbConnectionImpl dbConnection,
                       @NonNull Column<?, T, ?, ?> selectedColumn,
-                      @NonNull String[] observedTables) {
+                      @NonNull String[] observedTables,
+                      @Nullable int[] rowIdArgs) {
     super(dbConnection);
     this.sql = sql;
     this.args = args;
+    this.params = params;
     this.selectedColumn = selectedColumn;
     this.observedTables = observedTables;
+    this.rowIdArgs = rowIdArgs;
   }
 
   @NonNull
   @Override
   List<T> runImpl(@NonNull Subscription subscription, boolean inStream) {
     super.runImpl(subscription, inStream);
+    ParamSlots.checkAllBound(params);
+    final QueryResultCache resultCache = dbConnection.resultCacheForQuery();
+    if (resultCache != null) {
+      //noinspection ConstantConditions -- list results are never null
+      return resultCache.get(sql, args, selectedColumn, observedTables, this);
+    }
+    return queryDatabase(subscription);
+  }
+
+  @NonNull
+  @Override
+  public List<T> loadShared() {
+    return Collections.unmodifiableList(queryDatabase(INFINITE_SUBSCRIPTION));
+  }
+
+  @NonNull
+  private List<T> queryDatabase(@NonNull Subscription subscription) {
     final SQLiteDatabase db = dbConnection.getReadableDatabase();
     SqliteMagicCursor androidCursor = null;
     try {
       final long startNanos = nanoTime();
-      androidCursor = (SqliteMagicCursor) db.rawQueryWithFactory(null, sql, args, null, null);
+      androidCursor = (SqliteMagicCursor) db.rawQueryWithFactory(SqlArgs.cursorFactory(dbConnection, args), sql, null, null, null);
       if (SqliteMagic.LOGGING_ENABLED) {
         final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
         LogUtil.logQueryTime(queryTimeInMillis, observedTables, sql, args);
@@ -84,8 +118,53 @@ final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements Compiled
 
   @NonNull
   @Override
-  public QueryObservable<List<T>> observe() {
-    return new QueryObservable<>(createQueryObservable(observedTables, (Query<List<T>>) this));
+  public ListQueryObservable<T> observe() {
+    return new ListQueryObservable<>(createLiveQueryObservable(observedTables, (Query<List<T>>) this, sql, args, selectedColumn),
+        ListQueryObservable.IDENTITY);
+  }
+
+  @Nullable
+  @Override
+  long[] observedRowIds() {
+    return rowIdsFromArgs(rowIdArgs, args);
+  }
+
+  @NonNull
+  @Override
+  public CloseableIterator<T> iterate() {
+    ParamSlots.checkAllBound(params);
+    return iterate(sql, args);
+  }
+
+  @NonNull
+  @Override
+  public CursorIterator<T> iterate(@NonNull String sql, @Nullable Object[] args) {
+    final SqliteMagicCursor cursor = queryCursor(dbConnection, sql, args, observedTables);
+    final Column<?, T, ?, ?> selectedColumn = this.selectedColumn;
+    return new CursorIterator<T>(cursor) {
+      @Override
+      T fromCurrentPosition(@NonNull FastCursor cursor) {
+        return selectedColumn.getFromCursor(cursor);
+      }
+    };
+  }
+
+  @NonNull
+  @Override
+  public Observable<T> stream() {
+    return createStreamObservable(this, dbConnection);
+  }
+
+  @NonNull
+  @Override
+  public CompiledSelect<T, S> bind(@NonNull Object... values) {
+    final ParamSlots params = this.params;
+    if (params == null) {
+      throw new IllegalStateException("Select statement has no parameters to bind");
+    }
+    //noinspection ConstantConditions -- there are args if there are params
+    return new CompiledSelect1Impl<>(sql, params.bind(args, values), null, dbConnection,
+        selectedColumn, observedTables, rowIdArgs);
   }
 
   @NonNull
@@ -97,49 +176,80 @@ final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements Compiled
   @NonNull
   @Override
   public CompiledCountSelect<S> count() {
-    return new CompiledSelectImpl.CompiledCountSelectImpl<>(sql, args, dbConnection, observedTables);
+    ParamSlots.checkAllBound(params);
+    return new CompiledSelectImpl.CompiledCountSelectImpl<>(sql, args, dbConnection, observedTables, rowIdArgs);
   }
 
   @NonNull
   @Override
   public CompiledCursorSelect<T, S> toCursor() {
+    ParamSlots.checkAllBound(params);
     return new CompiledCursorSelect1Impl<>(this, dbConnection);
   }
 
-  static final class CompiledFirstSelect1Impl<T, S> extends Query<T> implements CompiledFirstSelect<T, S> {
-    @NonNull
-    private final SQLiteStatement selectStm;
+  static final class CompiledFirstSelect1Impl<T, S> extends Query<T> implements CompiledFirstSelect<T, S>,
+      QueryResultCache.Loader<T> {
     @NonNull
     final String sql;
     @Nullable
-    final String[] args;
+    final Object[] args;
+    @Nullable
+    final ParamSlots params;
     @NonNull
     final Column<?, T, ?, ?> selectedColumn;
     @NonNull
     final String[] observedTables;
+    @Nullable
+    final int[] rowIdArgs;
 
     CompiledFirstSelect1Impl(@NonNull CompiledSelect1Impl<T, S> compiledSelect,
                              @NonNull DbConnectionImpl dbConnection) {
       super(dbConnection);
       final String sql = addTakeFirstLimitClauseIfNeeded(compiledSelect.sql);
-      final String[] args = compiledSelect.args;
-      final SQLiteStatement selectStm = dbConnection.compileStatement(sql);
-      selectStm.bindAllArgsAsStrings(args);
-      this.selectStm = selectStm;
       this.sql = sql;
-      this.args = args;
+      this.args = compiledSelect.args;
+      this.params = compiledSelect.params;
       this.selectedColumn = compiledSelect.selectedColumn;
       this.observedTables = compiledSelect.observedTables;
+      this.rowIdArgs = compiledSelect.rowIdArgs;
+    }
+
+    private CompiledFirstSelect1Impl(@NonNull CompiledFirstSelect1Impl<T, S> template,
+                                     @NonNull Object[] boundArgs) {
+      super(template.dbConnection);
+      this.sql = template.sql;
+      this.args = boundArgs;
+      this.params = null;
+      this.selectedColumn = template.selectedColumn;
+      this.observedTables = template.observedTables;
+      this.rowIdArgs = template.rowIdArgs;
     }
 
     @Override
     T runImpl(@NonNull Subscription subscriber, boolean inStream) {
       super.runImpl(subscriber, inStream);
+      ParamSlots.checkAllBound(params);
+      final QueryResultCache resultCache = dbConnection.resultCacheForQuery();
+      if (resultCache != null) {
+        return resultCache.get(sql, args, selectedColumn, observedTables, this);
+      }
+      return loadShared();
+    }
+
+    @Nullable
+    @Override
+    public T loadShared() {
       final T val;
       final long startNanos;
-      synchronized (selectStm) {
-        startNanos = nanoTime();
-        val = selectedColumn.getFromStatement(selectStm);
+      final SQLiteStatement selectStm = dbConnection.acquireStatement(sql);
+      try {
+        synchronized (selectStm) {
+          startNanos = nanoTime();
+          SqlArgs.bindAll(selectStm, args);
+          val = selectedColumn.getFromStatement(selectStm);
+        }
+      } finally {
+        selectStm.releaseReference();
       }
       if (SqliteMagic.LOGGING_ENABLED) {
         final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
@@ -161,11 +271,29 @@ final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements Compiled
       return runImpl(INFINITE_SUBSCRIPTION, false);
     }
 
+    @NonNull
+    @CheckResult
+    @Override
+    public CompiledFirstSelect<T, S> bind(@NonNull Object... values) {
+      final ParamSlots params = this.params;
+      if (params == null) {
+        throw new IllegalStateException("Select statement has no parameters to bind");
+      }
+      //noinspection ConstantConditions -- there are args if there are params
+      return new CompiledFirstSelect1Impl<>(this, params.bind(args, values));
+    }
+
     @NonNull
     @CheckResult
     @Override
     public QueryObservable<T> observe() {
-      return new QueryObservable<>(createQueryObservable(observedTables, (Query<T>) this));
+      return new QueryObservable<>(createLiveQueryObservable(observedTables, (Query<T>) this, sql, args, selectedColumn));
+    }
+
+    @Nullable
+    @Override
+    long[] observedRowIds() {
+      return rowIdsFromArgs(rowIdArgs, args);
     }
   }
 
@@ -173,7 +301,7 @@ final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements Compiled
     @NonNull
     private final String sql;
     @Nullable
-    private final String[] args;
+    private final Object[] args;
     @NonNull
     final Column<?, T, ?, ?> selectedColumn;
     @NonNull
@@ -203,7 +331,7 @@ final class CompiledSelect1Impl<T, S> extends Query<List<T>> implements Compiled
       super.runImpl(subscriber, inStream);
       final SQLiteDatabase db = dbConnection.getReadableDatabase();
       final long startNanos = nanoTime();
-      final Cursor cursor = db.rawQueryWithFactory(null, sql, args, null, null);
+      final Cursor cursor = db.rawQueryWithFactory(SqlArgs.cursorFactory(dbConnection, args), sql, null, null, null);
       if (SqliteMagic.LOGGING_ENABLED) {
         final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
         LogUtil.logQueryTime(queryTimeInMillis, observedTables, sql, args);
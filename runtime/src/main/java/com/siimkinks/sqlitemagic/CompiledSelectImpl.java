@@ -9,52 +9,69 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
 import com.siimkinks.sqlitemagic.internal.MutableInt;
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
 import rx.Observable;
 import rx.Subscription;
 import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
 import static java.lang.System.nanoTime;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 // TODO optimize string allocations
-final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledSelect<T, S> {
+final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledSelect<T, S>,
+    PageSource.PagedSelect<T>, QueryResultCache.Loader<List<T>> {
   @NonNull
   final String sql;
   @Nullable
-  final String[] args;
+  final Object[] args;
+  @Nullable
+  final ParamSlots params;
   @NonNull
   final Table<T> table;
   @NonNull
   final String[] observedTables;
   @Nullable
-  final SimpleArrayMap<String, Integer> columns;
+  final ColumnPositions columns;
   @Nullable
   final SimpleArrayMap<String, String> tableGraphNodeNames;
   final boolean queryDeep;
+  /**
+   * Positions of arguments which restrict selected rows to a set of ids.
+   */
+  @Nullable
+  final int[] rowIdArgs;
 
   CompiledSelectImpl(@NonNull String sql,
-                     @Nullable String[] args,
+                     @Nullable Object[] args,
+                     @Nullable ParamSlots params,
                      @NonNull Table<T> table,
                      @NonNull DbConnectionImpl dbConnection,
                      @NonNull String[] observedTables,
-                     @Nullable SimpleArrayMap<String, Integer> columns,
+                     @Nullable ColumnPositions columns,
                      @Nullable SimpleArrayMap<String, String> tableGraphNodeNames,
-                     boolean queryDeep) {
+                     boolean queryDeep,
+                     @Nullable int[] rowIdArgs) {
     super(dbConnection);
     this.sql = sql;
     this.args = args;
+    this.params = params;
     this.table = table;
     this.observedTables = observedTables;
     this.columns = columns;
     this.tableGraphNodeNames = tableGraphNodeNames;
     this.queryDeep = queryDeep;
+    this.rowIdArgs = rowIdArgs;
   }
 
   @NonNull
@@ -62,11 +79,28 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
   @Override
   List<T> runImpl(@NonNull Subscription subscription, boolean inStream) {
     super.runImpl(subscription, inStream);
+    ParamSlots.checkAllBound(params);
+    final QueryResultCache resultCache = dbConnection.resultCacheForQuery();
+    if (resultCache != null) {
+      //noinspection ConstantConditions -- list results are never null
+      return resultCache.get(sql, args, table, observedTables, this);
+    }
+    return queryDatabase(subscription);
+  }
+
+  @NonNull
+  @Override
+  public List<T> loadShared() {
+    return Collections.unmodifiableList(queryDatabase(INFINITE_SUBSCRIPTION));
+  }
+
+  @NonNull
+  private List<T> queryDatabase(@NonNull Subscription subscription) {
     final SQLiteDatabase db = dbConnection.getReadableDatabase();
     SqliteMagicCursor cursor = null;
     try {
       final long startNanos = nanoTime();
-      cursor = (SqliteMagicCursor) db.rawQueryWithFactory(null, sql, args, null, null);
+      cursor = (SqliteMagicCursor) db.rawQueryWithFactory(SqlArgs.cursorFactory(dbConnection, args), sql, null, null, null);
       if (SqliteMagic.LOGGING_ENABLED) {
         final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
         LogUtil.logQueryTime(queryTimeInMillis, observedTables, sql, args);
@@ -95,8 +129,69 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
   @NonNull
   @CheckResult
   @Override
-  public QueryObservable<List<T>> observe() {
-    return new QueryObservable<>(createQueryObservable(observedTables, (Query<List<T>>) this));
+  public ListQueryObservable<T> observe() {
+    final Table<T> table = this.table;
+    return new ListQueryObservable<>(createLiveQueryObservable(observedTables, (Query<List<T>>) this, sql, args, table),
+        new Func1<T, Object>() {
+          @Override
+          public Object call(T item) {
+            final Object id = table.getId(item);
+            return id != null ? id : item;
+          }
+        });
+  }
+
+  @Nullable
+  @Override
+  long[] observedRowIds() {
+    return rowIdsFromArgs(rowIdArgs, args);
+  }
+
+  @NonNull
+  @CheckResult
+  @WorkerThread
+  @Override
+  public CloseableIterator<T> iterate() {
+    ParamSlots.checkAllBound(params);
+    return iterate(sql, args);
+  }
+
+  @NonNull
+  @Override
+  public CursorIterator<T> iterate(@NonNull String sql, @Nullable Object[] args) {
+    final SqliteMagicCursor cursor = queryCursor(dbConnection, sql, args, observedTables);
+    final Table<T> table = this.table;
+    final ColumnPositions columns = this.columns;
+    final SimpleArrayMap<String, String> tableGraphNodeNames = this.tableGraphNodeNames;
+    final boolean queryDeep = this.queryDeep;
+    final MutableInt columnOffset = new MutableInt();
+    return new CursorIterator<T>(cursor) {
+      @Override
+      T fromCurrentPosition(@NonNull FastCursor cursor) {
+        columnOffset.value = 0;
+        return table.fromCurrentCursorPosition(cursor, columns, tableGraphNodeNames, queryDeep, columnOffset);
+      }
+    };
+  }
+
+  @NonNull
+  @CheckResult
+  @Override
+  public Observable<T> stream() {
+    return createStreamObservable(this, dbConnection);
+  }
+
+  @NonNull
+  @CheckResult
+  @Override
+  public CompiledSelect<T, S> bind(@NonNull Object... values) {
+    final ParamSlots params = this.params;
+    if (params == null) {
+      throw new IllegalStateException("Select statement has no parameters to bind");
+    }
+    //noinspection ConstantConditions -- there are args if there are params
+    return new CompiledSelectImpl<>(sql, params.bind(args, values), null, table, dbConnection,
+        observedTables, columns, tableGraphNodeNames, queryDeep, rowIdArgs);
   }
 
   @NonNull
@@ -110,38 +205,39 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
   @CheckResult
   @Override
   public CompiledCountSelect<S> count() {
-    return new CompiledCountSelectImpl<>(sql, args, dbConnection, observedTables);
+    ParamSlots.checkAllBound(params);
+    return new CompiledCountSelectImpl<>(sql, args, dbConnection, observedTables, rowIdArgs);
   }
 
   @NonNull
   @CheckResult
   @Override
   public CompiledCursorSelect<T, S> toCursor() {
+    ParamSlots.checkAllBound(params);
     return new CompiledCursorSelectImpl<>(this, dbConnection);
   }
 
-  static final class CompiledCountSelectImpl<S> extends Query<Long> implements CompiledCountSelect<S> {
-    @NonNull
-    private final SQLiteStatement countStm;
+  static final class CompiledCountSelectImpl<S> extends Query<Long> implements CompiledCountSelect<S>,
+      QueryResultCache.Loader<Long> {
     @NonNull
     private final String sql;
     @NonNull
     private final String[] observedTables;
     @Nullable
-    private final String[] args;
+    private final Object[] args;
+    @Nullable
+    private final int[] rowIdArgs;
 
     CompiledCountSelectImpl(@NonNull String parentSql,
-                            @Nullable String[] args,
+                            @Nullable Object[] args,
                             @NonNull DbConnectionImpl dbConnection,
-                            @NonNull String[] observedTables) {
+                            @NonNull String[] observedTables,
+                            @Nullable int[] rowIdArgs) {
       super(dbConnection);
-      final String sql = addCountFunction(parentSql);
-      final SQLiteStatement countStm = dbConnection.compileStatement(sql);
-      countStm.bindAllArgsAsStrings(args);
-      this.countStm = countStm;
-      this.sql = sql;
+      this.sql = addCountFunction(parentSql);
       this.observedTables = observedTables;
       this.args = args;
+      this.rowIdArgs = rowIdArgs;
     }
 
     @NonNull
@@ -166,11 +262,32 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
     @WorkerThread
     @Override
     public long execute() {
+      final QueryResultCache resultCache = dbConnection.resultCacheForQuery();
+      if (resultCache != null) {
+        //noinspection ConstantConditions -- count is never null
+        return resultCache.get(sql, args, null, observedTables, this);
+      }
+      return queryDatabase();
+    }
+
+    @NonNull
+    @Override
+    public Long loadShared() {
+      return queryDatabase();
+    }
+
+    private long queryDatabase() {
       final long count;
       final long startNanos;
-      synchronized (countStm) {
-        startNanos = nanoTime();
-        count = countStm.simpleQueryForLong();
+      final SQLiteStatement countStm = dbConnection.acquireStatement(sql);
+      try {
+        synchronized (countStm) {
+          startNanos = nanoTime();
+          SqlArgs.bindAll(countStm, args);
+          count = countStm.simpleQueryForLong();
+        }
+      } finally {
+        countStm.releaseReference();
       }
       if (SqliteMagic.LOGGING_ENABLED) {
         final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
@@ -183,7 +300,13 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
     @CheckResult
     @Override
     public CountQueryObservable observe() {
-      return new CountQueryObservable(createQueryObservable(observedTables, (Query<Long>) this));
+      return new CountQueryObservable(createLiveQueryObservable(observedTables, (Query<Long>) this, sql, args, null));
+    }
+
+    @Nullable
+    @Override
+    long[] observedRowIds() {
+      return rowIdsFromArgs(rowIdArgs, args);
     }
 
     @Override
@@ -196,13 +319,13 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
     @NonNull
     private final String sql;
     @Nullable
-    private final String[] args;
+    private final Object[] args;
     @NonNull
     private final Table<T> table;
     @NonNull
     private final String[] observedTables;
     @Nullable
-    private final SimpleArrayMap<String, Integer> columns;
+    private final ColumnPositions columns;
     @Nullable
     private final SimpleArrayMap<String, String> tableGraphNodeNames;
     private final boolean queryDeep;
@@ -236,7 +359,7 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
       super.runImpl(subscriber, inStream);
       final SQLiteDatabase db = dbConnection.getReadableDatabase();
       final long startNanos = nanoTime();
-      final Cursor cursor = db.rawQueryWithFactory(null, sql, args, null, null);
+      final Cursor cursor = db.rawQueryWithFactory(SqlArgs.cursorFactory(dbConnection, args), sql, null, null, null);
       if (SqliteMagic.LOGGING_ENABLED) {
         final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
         LogUtil.logQueryTime(queryTimeInMillis, observedTables, sql, args);
@@ -265,31 +388,52 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
     }
   }
 
-  static final class CompiledFirstSelectImpl<T, S> extends Query<T> implements CompiledFirstSelect<T, S> {
+  static final class CompiledFirstSelectImpl<T, S> extends Query<T> implements CompiledFirstSelect<T, S>,
+      QueryResultCache.Loader<T> {
     @NonNull
     final String sql;
     @Nullable
-    final String[] args;
+    final Object[] args;
+    @Nullable
+    final ParamSlots params;
     @NonNull
     final Table<T> table;
     @NonNull
     final String[] observedTables;
     @Nullable
-    final SimpleArrayMap<String, Integer> columns;
+    final ColumnPositions columns;
     @Nullable
     final SimpleArrayMap<String, String> tableGraphNodeNames;
     final boolean queryDeep;
+    @Nullable
+    final int[] rowIdArgs;
 
     CompiledFirstSelectImpl(@NonNull CompiledSelectImpl<T, S> compiledSelect,
                             @NonNull DbConnectionImpl dbConnection) {
       super(dbConnection);
       this.sql = addTakeFirstLimitClauseIfNeeded(compiledSelect.sql);
       this.args = compiledSelect.args;
+      this.params = compiledSelect.params;
       this.table = compiledSelect.table;
       this.observedTables = compiledSelect.observedTables;
       this.columns = compiledSelect.columns;
       this.tableGraphNodeNames = compiledSelect.tableGraphNodeNames;
       this.queryDeep = compiledSelect.queryDeep;
+      this.rowIdArgs = compiledSelect.rowIdArgs;
+    }
+
+    private CompiledFirstSelectImpl(@NonNull CompiledFirstSelectImpl<T, S> template,
+                                    @NonNull Object[] boundArgs) {
+      super(template.dbConnection);
+      this.sql = template.sql;
+      this.args = boundArgs;
+      this.params = null;
+      this.table = template.table;
+      this.observedTables = template.observedTables;
+      this.columns = template.columns;
+      this.tableGraphNodeNames = template.tableGraphNodeNames;
+      this.queryDeep = template.queryDeep;
+      this.rowIdArgs = template.rowIdArgs;
     }
 
     @NonNull
@@ -309,11 +453,22 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
     @Override
     T runImpl(@NonNull Subscription subscriber, boolean inStream) {
       super.runImpl(subscriber, inStream);
+      ParamSlots.checkAllBound(params);
+      final QueryResultCache resultCache = dbConnection.resultCacheForQuery();
+      if (resultCache != null) {
+        return resultCache.get(sql, args, table, observedTables, this);
+      }
+      return loadShared();
+    }
+
+    @Nullable
+    @Override
+    public T loadShared() {
       final SQLiteDatabase db = dbConnection.getReadableDatabase();
       SqliteMagicCursor cursor = null;
       try {
         final long startNanos = nanoTime();
-        cursor = (SqliteMagicCursor) db.rawQueryWithFactory(null, sql, args, null, null);
+        cursor = (SqliteMagicCursor) db.rawQueryWithFactory(SqlArgs.cursorFactory(dbConnection, args), sql, null, null, null);
         if (SqliteMagic.LOGGING_ENABLED) {
           final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
           LogUtil.logQueryTime(queryTimeInMillis, observedTables, sql, args);
@@ -334,11 +489,29 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
       return runImpl(INFINITE_SUBSCRIPTION, false);
     }
 
+    @NonNull
+    @CheckResult
+    @Override
+    public CompiledFirstSelect<T, S> bind(@NonNull Object... values) {
+      final ParamSlots params = this.params;
+      if (params == null) {
+        throw new IllegalStateException("Select statement has no parameters to bind");
+      }
+      //noinspection ConstantConditions -- there are args if there are params
+      return new CompiledFirstSelectImpl<>(this, params.bind(args, values));
+    }
+
     @NonNull
     @CheckResult
     @Override
     public QueryObservable<T> observe() {
-      return new QueryObservable<>(createQueryObservable(observedTables, (Query<T>) this));
+      return new QueryObservable<>(createLiveQueryObservable(observedTables, (Query<T>) this, sql, args, table));
+    }
+
+    @Nullable
+    @Override
+    long[] observedRowIds() {
+      return rowIdsFromArgs(rowIdArgs, args);
     }
 
     @Override
@@ -347,29 +520,136 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
     }
   }
 
+  @NonNull
+  static SqliteMagicCursor queryCursor(@NonNull DbConnectionImpl dbConnection,
+                                       @NonNull String sql,
+                                       @Nullable Object[] args,
+                                       @NonNull String[] observedTables) {
+    final SQLiteDatabase db = dbConnection.getReadableDatabase();
+    final long startNanos = nanoTime();
+    final SqliteMagicCursor cursor = (SqliteMagicCursor) db.rawQueryWithFactory(SqlArgs.cursorFactory(dbConnection, args), sql, null, null, null);
+    if (SqliteMagic.LOGGING_ENABLED) {
+      final long queryTimeInMillis = NANOSECONDS.toMillis(nanoTime() - startNanos);
+      LogUtil.logQueryTime(queryTimeInMillis, observedTables, sql, args);
+    }
+    return cursor;
+  }
+
+  @NonNull
+  @CheckResult
+  static <T> Observable<T> createStreamObservable(@NonNull final CompiledSelect<T, ?> select,
+                                                  @NonNull final DbConnectionImpl dbConnection) {
+    return Observable.<T, CloseableIterator<T>>using(
+        new Func0<CloseableIterator<T>>() {
+          @Override
+          public CloseableIterator<T> call() {
+            if (dbConnection.transactions.get() != null) {
+              throw new IllegalStateException("Cannot execute observable query in a transaction.");
+            }
+            return select.iterate();
+          }
+        },
+        new Func1<CloseableIterator<T>, Observable<T>>() {
+          @Override
+          public Observable<T> call(final CloseableIterator<T> iterator) {
+            return Observable.from(new Iterable<T>() {
+              @Override
+              public Iterator<T> iterator() {
+                return iterator;
+              }
+            });
+          }
+        },
+        new Action1<CloseableIterator<T>>() {
+          @Override
+          public void call(CloseableIterator<T> iterator) {
+            iterator.close();
+          }
+        });
+  }
+
   @NonNull
   @CheckResult
   static <Q extends Query> Observable<Q> createQueryObservable(@NonNull final String[] observedTables,
                                                                @NonNull final Q query) {
+    return onQueryScheduler(createTriggeredQueryObservable(observedTables, query), query.dbConnection)
+        .doOnSubscribe(failIfInTransaction(query.dbConnection));
+  }
+
+  /**
+   * Create an observable of the query which is shared with all equal queries if the
+   * connection {@linkplain SqliteMagic.DatabaseSetupBuilder#withSharedLiveQueries() shares}
+   * live queries.
+   *
+   * @param observedTables Tables which changes trigger the query
+   * @param query          Query to run
+   * @param sql            Query SQL
+   * @param args           Query arguments
+   * @param projection     Object that describes how query result rows are parsed
+   */
+  @NonNull
+  @CheckResult
+  static <T> Observable<Query<T>> createLiveQueryObservable(@NonNull String[] observedTables,
+                                                            @NonNull Query<T> query,
+                                                            @NonNull String sql,
+                                                            @Nullable Object[] args,
+                                                            @Nullable Object projection) {
+    final LiveQueryRegistry liveQueries = query.dbConnection.liveQueries;
+    if (liveQueries != null) {
+      return liveQueries.observe(observedTables, query, sql, args, projection);
+    }
+    return createQueryObservable(observedTables, query);
+  }
+
+  /**
+   * Moves emitted queries to the query scheduler, so that subscribers run them there.
+   */
+  @NonNull
+  @CheckResult
+  static <Q extends Query> Observable<Q> onQueryScheduler(@NonNull Observable<Q> queries,
+                                                         @NonNull DbConnectionImpl dbConnection) {
+    return queries
+        .observeOn(dbConnection.queryScheduler)
+        .onBackpressureLatest(); // Guard against uncontrollable frequency of scheduler executions.
+  }
+
+  /**
+   * Create an observable which emits the query on subscribe and every time any of the
+   * observed tables change. Queries are emitted on the thread that sent the trigger.
+   */
+  @NonNull
+  @CheckResult
+  static <Q extends Query> Observable<Q> createTriggeredQueryObservable(@NonNull final String[] observedTables,
+                                                                        @NonNull final Q query) {
+    // connection sends RowTriggerSets which are matched by table id bits; other sets by names
+    final long[] observedTableBits = TableIds.bitsOf(observedTables);
+    final long[] rowIds = observedTables.length == 1 ? query.observedRowIds() : null;
     final Func1<Set<String>, Boolean> tableFilter;
-    if (observedTables.length > 1) {
+    if (rowIds != null) {
+      final String table = observedTables[0];
       tableFilter = new Func1<Set<String>, Boolean>() {
         @Override
         public Boolean call(Set<String> triggers) {
-          for (String table : observedTables) {
-            if (triggers.contains(table)) {
-              return Boolean.TRUE;
-            }
+          if (triggers instanceof RowTriggerSet) {
+            final RowTriggerSet rowTriggers = (RowTriggerSet) triggers;
+            return rowTriggers.containsAny(observedTableBits) && rowTriggers.affectsRows(table, rowIds);
           }
-          return Boolean.FALSE;
+          return triggers.contains(table);
         }
       };
     } else {
-      final String table = observedTables[0];
       tableFilter = new Func1<Set<String>, Boolean>() {
         @Override
         public Boolean call(Set<String> triggers) {
-          return triggers.contains(table);
+          if (triggers instanceof RowTriggerSet) {
+            return ((RowTriggerSet) triggers).containsAny(observedTableBits);
+          }
+          for (String table : observedTables) {
+            if (triggers.contains(table)) {
+              return Boolean.TRUE;
+            }
+          }
+          return Boolean.FALSE;
         }
       };
     }
@@ -383,16 +663,18 @@ final class CompiledSelectImpl<T, S> extends Query<List<T>> implements CompiledS
           }
         })
         .onBackpressureLatest() // Guard against uncontrollable frequency of upstream emissions.
-        .startWith(query)
-        .observeOn(dbConnectionImpl.queryScheduler)
-        .onBackpressureLatest() // Guard against uncontrollable frequency of scheduler executions.
-        .doOnSubscribe(new Action0() {
-          @Override
-          public void call() {
-            if (dbConnectionImpl.transactions.get() != null) {
-              throw new IllegalStateException("Cannot subscribe to observable query in a transaction.");
-            }
-          }
-        });
+        .startWith(query);
+  }
+
+  @NonNull
+  static Action0 failIfInTransaction(@NonNull final DbConnectionImpl dbConnection) {
+    return new Action0() {
+      @Override
+      public void call() {
+        if (dbConnection.transactions.get() != null) {
+          throw new IllegalStateException("Cannot subscribe to observable query in a transaction.");
+        }
+      }
+    };
   }
 }
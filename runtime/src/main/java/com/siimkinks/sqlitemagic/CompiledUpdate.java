@@ -15,16 +15,20 @@ import rx.Single;
  */
 public final class CompiledUpdate {
   @NonNull
-  private final SQLiteStatement updateStm;
+  private final String sql;
+  @NonNull
+  private final Object[] args;
   @NonNull
   private final String tableName;
   @NonNull
   private final DbConnectionImpl dbConnection;
 
-  CompiledUpdate(@NonNull SQLiteStatement updateStm,
+  CompiledUpdate(@NonNull String sql,
+                 @NonNull Object[] args,
                  @NonNull String tableName,
                  @NonNull DbConnectionImpl dbConnection) {
-    this.updateStm = updateStm;
+    this.sql = sql;
+    this.args = args;
     this.tableName = tableName;
     this.dbConnection = dbConnection;
   }
@@ -39,8 +43,14 @@ public final class CompiledUpdate {
   @WorkerThread
   public int execute() {
     final int affectedRows;
-    synchronized (updateStm) {
-      affectedRows = updateStm.executeUpdateDelete();
+    final SQLiteStatement stm = dbConnection.acquireStatement(sql);
+    try {
+      synchronized (stm) {
+        SqlArgs.bindAll(stm, args);
+        affectedRows = stm.executeUpdateDelete();
+      }
+    } finally {
+      stm.releaseReference();
     }
     if (affectedRows > 0) {
       dbConnection.sendTableTrigger(tableName);
@@ -59,7 +69,7 @@ public final class CompiledUpdate {
   @NonNull
   @CheckResult
   public Single<Integer> observe() {
-    return Single.fromCallable(new Callable<Integer>() {
+    return dbConnection.queueWrite(new Callable<Integer>() {
       @Override
       public Integer call() throws Exception {
         return execute();
@@ -71,16 +81,14 @@ public final class CompiledUpdate {
     UpdateSqlNode sqlTreeRoot;
     int sqlNodeCount;
     Update.TableNode tableNode;
-    final ArrayList<String> args = new ArrayList<>();
+    final ArrayList<Object> args = new ArrayList<>();
     DbConnectionImpl dbConnection = SqliteMagic.getDefaultDbConnection();
 
     @NonNull
     @CheckResult
     CompiledUpdate build() {
       final String sql = SqlCreator.getSql(sqlTreeRoot, sqlNodeCount);
-      final SQLiteStatement stm = dbConnection.compileStatement(sql);
-      stm.bindAllArgsAsStrings(args.toArray(new String[args.size()]));
-      return new CompiledUpdate(stm, tableNode.table.nameInQuery, dbConnection);
+      return new CompiledUpdate(sql, ParamSlots.toArgsWithoutParams(args), tableNode.table.nameInQuery, dbConnection);
     }
   }
 }
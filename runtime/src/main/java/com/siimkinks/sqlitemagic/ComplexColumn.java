@@ -31,7 +31,7 @@ class ComplexColumn<
   @NonNull
   @CheckResult
   public final Expr is(long value) {
-    return new Expr1(this, "=?", Long.toString(value));
+    return new Expr1(this, "=?", value);
   }
 
   /**
@@ -43,7 +43,7 @@ class ComplexColumn<
   @NonNull
   @CheckResult
   public final Expr isNot(long value) {
-    return new Expr1(this, "!=?", Long.toString(value));
+    return new Expr1(this, "!=?", value);
   }
 
   /**
@@ -61,7 +61,7 @@ class ComplexColumn<
     if (length == 0) {
       throw new SQLException("Empty IN clause values");
     }
-    final String[] args = new String[length];
+    final Object[] args = new Object[length];
     final StringBuilder sb = new StringBuilder(6 + (length << 1));
     sb.append(" IN (");
     for (int i = 0; i < length; i++) {
@@ -69,7 +69,7 @@ class ComplexColumn<
         sb.append(',');
       }
       sb.append('?');
-      args[i] = Long.toString(values[i]);
+      args[i] = values[i];
     }
     sb.append(')');
     return new ExprN(this, sb.toString(), args);
@@ -90,7 +90,7 @@ class ComplexColumn<
     if (!iterator.hasNext()) {
       throw new SQLException("Empty IN clause values");
     }
-    final ArrayList<String> args = new ArrayList<>();
+    final ArrayList<Object> args = new ArrayList<>();
     final StringBuilder sb = new StringBuilder();
     sb.append(" IN (");
 
@@ -102,10 +102,10 @@ class ComplexColumn<
         sb.append(',');
       }
       sb.append('?');
-      args.add(iterator.next().toString());
+      args.add(iterator.next());
     }
     sb.append(')');
-    return new ExprN(this, sb.toString(), args.toArray(new String[args.size()]));
+    return new ExprN(this, sb.toString(), args.toArray());
   }
 
   /**
@@ -123,7 +123,7 @@ class ComplexColumn<
     if (length == 0) {
       throw new SQLException("Empty IN clause values");
     }
-    final String[] args = new String[length];
+    final Object[] args = new Object[length];
     final StringBuilder sb = new StringBuilder(10 + (length << 1));
     sb.append(" NOT IN (");
     for (int i = 0; i < length; i++) {
@@ -131,7 +131,7 @@ class ComplexColumn<
         sb.append(',');
       }
       sb.append('?');
-      args[i] = Long.toString(values[i]);
+      args[i] = values[i];
     }
     sb.append(')');
     return new ExprN(this, sb.toString(), args);
@@ -152,7 +152,7 @@ class ComplexColumn<
     if (!iterator.hasNext()) {
       throw new SQLException("Empty IN clause values");
     }
-    final ArrayList<String> args = new ArrayList<>();
+    final ArrayList<Object> args = new ArrayList<>();
     final StringBuilder sb = new StringBuilder();
     sb.append(" NOT IN (");
 
@@ -164,10 +164,10 @@ class ComplexColumn<
         sb.append(',');
       }
       sb.append('?');
-      args.add(iterator.next().toString());
+      args.add(iterator.next());
     }
     sb.append(')');
-    return new ExprN(this, sb.toString(), args.toArray(new String[args.size()]));
+    return new ExprN(this, sb.toString(), args.toArray());
   }
 
   /**
@@ -179,7 +179,7 @@ class ComplexColumn<
   @NonNull
   @CheckResult
   public final Expr greaterThan(long value) {
-    return new Expr1(this, ">?", Long.toString(value));
+    return new Expr1(this, ">?", value);
   }
 
   /**
@@ -191,7 +191,7 @@ class ComplexColumn<
   @NonNull
   @CheckResult
   public final Expr greaterOrEqual(long value) {
-    return new Expr1(this, ">=?", Long.toString(value));
+    return new Expr1(this, ">=?", value);
   }
 
   /**
@@ -203,7 +203,7 @@ class ComplexColumn<
   @NonNull
   @CheckResult
   public final Expr lessThan(long value) {
-    return new Expr1(this, "<?", Long.toString(value));
+    return new Expr1(this, "<?", value);
   }
 
   /**
@@ -215,6 +215,6 @@ class ComplexColumn<
   @NonNull
   @CheckResult
   public final Expr lessOrEqual(long value) {
-    return new Expr1(this, "<=?", Long.toString(value));
+    return new Expr1(this, "<=?", value);
   }
 }
@@ -0,0 +1,77 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy iterator that parses result rows as they are requested.
+ * <p>
+ * Rows are read through {@link FastCursor}, so only the current cursor window is kept
+ * in memory instead of the whole result set.
+ */
+abstract class CursorIterator<T> implements CloseableIterator<T> {
+  @NonNull
+  private final SqliteMagicCursor cursor;
+  @NonNull
+  private final FastCursor fastCursor;
+  private boolean closed;
+
+  CursorIterator(@NonNull SqliteMagicCursor cursor) {
+    this.cursor = cursor;
+    this.fastCursor = cursor.getFastCursor();
+  }
+
+  abstract T fromCurrentPosition(@NonNull FastCursor cursor);
+
+  @Override
+  public synchronized boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    final FastCursor cursor = this.fastCursor;
+    if (cursor.getPosition() < cursor.getCount() - 1) {
+      return true;
+    }
+    close();
+    return false;
+  }
+
+  @Override
+  public synchronized T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final FastCursor cursor = this.fastCursor;
+    cursor.moveToNext();
+    return fromCurrentPosition(cursor);
+  }
+
+  /**
+   * Read values of the last {@code count} columns of the row that was returned by the
+   * last {@link #next()} call.
+   */
+  @NonNull
+  synchronized Object[] lastColumnValues(int count) {
+    final FastCursor cursor = this.fastCursor;
+    final Object[] values = new Object[count];
+    final int offset = cursor.getColumnCount() - count;
+    for (int i = 0; i < count; i++) {
+      values[i] = SqlArgs.fromCursor(cursor, offset + i);
+    }
+    return values;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      cursor.close();
+    }
+  }
+}
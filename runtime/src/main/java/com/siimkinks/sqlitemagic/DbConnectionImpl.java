@@ -7,16 +7,21 @@ import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.siimkinks.sqlitemagic.SqliteMagic.DatabaseSetupBuilder;
 import com.siimkinks.sqlitemagic.internal.StringArraySet;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 import rx.Scheduler;
+import rx.Single;
+import rx.schedulers.Schedulers;
 import rx.subjects.PublishSubject;
 
 import static com.siimkinks.sqlitemagic.SqlUtil.getNrOfTables;
+import static com.siimkinks.sqlitemagic.SqlUtil.getTableNames;
 
 /**
  * Note: some parts are forked from <a href="https://github.com/square/sqlbrite">sqlbrite</a>
@@ -33,6 +38,26 @@ public class DbConnectionImpl implements DbConnection {
   @Nullable
   private volatile SQLiteDatabase writableDatabase;
   private final Object databaseLock = new Object();
+  /**
+   * LRU cache of prepared statements of the writer connection.
+   */
+  @NonNull
+  final StatementCache statementCache;
+  /**
+   * Cache of query results. Null when query results are not cached.
+   */
+  @Nullable
+  final QueryResultCache queryResultCache;
+  /**
+   * Read-only connections for queries. Null when reads share the writer connection.
+   */
+  @Nullable
+  final ReaderConnectionPool readerPool;
+  /**
+   * Single writer thread for queued writes. Null when writes run on the subscribing thread.
+   */
+  @Nullable
+  final GroupCommitWriter groupCommitWriter;
 
   final EntityDbManager[] entityDbManagers;
   final ThreadLocal<SqliteTransaction> transactions = new ThreadLocal<>();
@@ -40,6 +65,24 @@ public class DbConnectionImpl implements DbConnection {
    * Publishes sets of tables which have changed.
    */
   final PublishSubject<Set<String>> triggers = PublishSubject.create();
+  /**
+   * Merges trigger bursts before publishing them. Null when triggers are published immediately.
+   */
+  @Nullable
+  final TriggerCoalescer triggerCoalescer;
+  /**
+   * Observed queries shared between subscribers. Null when each subscriber runs its own query.
+   */
+  @Nullable
+  final LiveQueryRegistry liveQueries;
+  /**
+   * Entity caches of this connection.
+   */
+  final EntityCache.Registry entityCaches = new EntityCache.Registry();
+  /**
+   * Cursor factory for queries without arguments.
+   */
+  final SQLiteDatabase.CursorFactory cursorFactory = new SqlArgs.BindingCursorFactory(entityCaches, null);
 
   private final Transaction transaction = new Transaction() {
     @Override
@@ -67,10 +110,19 @@ public class DbConnectionImpl implements DbConnection {
       final SqliteTransaction newTransaction = transaction.parent;
       transactions.set(newTransaction);
       if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TXN END %s", transaction);
-      getWritableDatabase().endTransaction();
-      // Send the triggers after ending the transaction in the DB.
-      if (transaction.commit && !transaction.isEmpty()) {
-        sendTableTriggers(transaction);
+      try {
+        getWritableDatabase().endTransaction();
+        transaction.endRollbackActions();
+        // Send the triggers after ending the transaction in the DB.
+        if (transaction.commit && !transaction.isEmpty()) {
+          sendTableTriggers(transaction);
+        }
+      } finally {
+        final TriggerCoalescer triggerCoalescer = DbConnectionImpl.this.triggerCoalescer;
+        if (newTransaction == null && triggerCoalescer != null) {
+          final GroupCommitWriter groupCommitWriter = DbConnectionImpl.this.groupCommitWriter;
+          triggerCoalescer.transactionEnded(groupCommitWriter != null && groupCommitWriter.hasQueuedWrites());
+        }
       }
     }
 
@@ -80,9 +132,25 @@ public class DbConnectionImpl implements DbConnection {
     }
   };
 
-  DbConnectionImpl(@NonNull DbHelper dbHelper, @NonNull Scheduler queryScheduler) {
+  DbConnectionImpl(@NonNull DbHelper dbHelper, @NonNull DatabaseSetupBuilder setup) {
     this.dbHelper = dbHelper;
-    this.queryScheduler = queryScheduler;
+    this.queryScheduler = setup.queryScheduler;
+    this.statementCache = new StatementCache(this, setup.statementCacheSize);
+    this.queryResultCache = setup.queryResultCacheRows > 0 ? new QueryResultCache(setup.queryResultCacheRows) : null;
+    // in-memory database cannot be shared between connections
+    final int readerConnections = dbHelper.getDatabaseName() != null ? setup.readerConnections : 0;
+    if (readerConnections > 0) {
+      dbHelper.setWriteAheadLoggingEnabled(true);
+      this.readerPool = new ReaderConnectionPool(this, readerConnections);
+    } else {
+      this.readerPool = null;
+    }
+    this.groupCommitWriter = setup.groupCommitSize > 0 ?
+        new GroupCommitWriter(this, setup.groupCommitSize, setup.groupCommitWindowNanos, Schedulers.io()) : null;
+    this.liveQueries = setup.shareLiveQueries ? new LiveQueryRegistry() : null;
+    this.triggerCoalescer = setup.triggerCoalescingWindowNanos > 0 ?
+        new TriggerCoalescer(triggers, Schedulers.computation(), setup.triggerCoalescingWindowNanos) : null;
+    TableIds.init(getTableNames());
     final int nrOfTables = getNrOfTables();
     final EntityDbManager[] cachedEntityData = new EntityDbManager[nrOfTables];
     for (int i = 0; i < nrOfTables; i++) {
@@ -96,13 +164,23 @@ public class DbConnectionImpl implements DbConnection {
     if (triggers.hasCompleted()) {
       return;
     }
+    if (triggerCoalescer != null) {
+      triggerCoalescer.close();
+    }
     triggers.onCompleted();
+    if (groupCommitWriter != null) {
+      groupCommitWriter.close();
+    }
     synchronized (databaseLock) {
       final EntityDbManager[] cachedEntityData = this.entityDbManagers;
       for (int i = 0, length = cachedEntityData.length; i < length; i++) {
         cachedEntityData[i].close();
         cachedEntityData[i] = null;
       }
+      statementCache.close();
+      if (readerPool != null) {
+        readerPool.close();
+      }
       readableDatabase = null;
       writableDatabase = null;
       dbHelper.close();
@@ -117,18 +195,29 @@ public class DbConnectionImpl implements DbConnection {
     transactions.set(transaction);
     if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TXN BEGIN %s", transaction);
     getWritableDatabase().beginTransactionWithListener(transaction);
+    final TriggerCoalescer triggerCoalescer = this.triggerCoalescer;
+    if (transaction.parent == null && triggerCoalescer != null) {
+      triggerCoalescer.transactionStarted();
+    }
 
     return this.transaction;
   }
 
   SQLiteDatabase getReadableDatabase() {
+    final ReaderConnectionPool readerPool = this.readerPool;
+    // queries inside transaction must see its uncommitted changes
+    if (readerPool != null && transactions.get() == null) {
+      return readerPool.acquire();
+    }
     SQLiteDatabase db = readableDatabase;
     if (db == null) {
       synchronized (databaseLock) {
         db = readableDatabase;
         if (db == null) {
           if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("Creating readable database");
-          db = readableDatabase = dbHelper.getReadableDatabase();
+          db = dbHelper.getReadableDatabase();
+          db.setMaxSqlCacheSize(getSqlCacheSize());
+          readableDatabase = db;
         }
       }
     }
@@ -142,7 +231,9 @@ public class DbConnectionImpl implements DbConnection {
         db = writableDatabase;
         if (db == null) {
           if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("Creating writable database");
-          db = writableDatabase = dbHelper.getWritableDatabase();
+          db = dbHelper.getWritableDatabase();
+          db.setMaxSqlCacheSize(getSqlCacheSize());
+          writableDatabase = db;
         }
       }
     }
@@ -159,14 +250,155 @@ public class DbConnectionImpl implements DbConnection {
     return getWritableDatabase().compileStatement(sql);
   }
 
+  /**
+   * Get cached prepared statement for the provided SQL. Returned statement must be
+   * released with {@link SQLiteStatement#releaseReference()} after use.
+   */
+  @NonNull
+  SQLiteStatement acquireStatement(@NonNull final String sql) {
+    return statementCache.acquire(sql);
+  }
+
+  /**
+   * Size of the SQLite prepared statement cache of each underlying database handle.
+   * Queries returning cursors cannot use {@link SQLiteStatement} objects, so they
+   * rely on this cache to skip SQLite's prepare step.
+   */
+  int getSqlCacheSize() {
+    return Math.min(statementCache.maxSize(), SQLiteDatabase.MAX_SQL_CACHE_SIZE);
+  }
+
+  /**
+   * Get prepared statement cache of this connection.
+   *
+   * @return Prepared statement cache with its hit and miss statistics
+   */
+  @NonNull
+  @CheckResult
+  public final StatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Get query result cache of this connection.
+   *
+   * @return Query result cache with its hit and miss statistics or {@code null} if query
+   * results are not cached
+   * @see DatabaseSetupBuilder#withQueryResultCache(int)
+   */
+  @Nullable
+  @CheckResult
+  public final QueryResultCache getQueryResultCache() {
+    return queryResultCache;
+  }
+
+  /**
+   * Get trigger coalescer of this connection.
+   *
+   * @return Trigger coalescer with its merge statistics or {@code null} if table triggers
+   * are published immediately
+   * @see DatabaseSetupBuilder#withTriggerCoalescing(long, TimeUnit)
+   */
+  @Nullable
+  @CheckResult
+  public final TriggerCoalescer getTriggerCoalescer() {
+    return triggerCoalescer;
+  }
+
+  /**
+   * Query result cache to use in the calling thread.
+   *
+   * @return Query result cache or {@code null} if results are not cached or the calling
+   * thread is in a transaction
+   */
+  @Nullable
+  QueryResultCache resultCacheForQuery() {
+    final QueryResultCache queryResultCache = this.queryResultCache;
+    if (queryResultCache == null || transactions.get() != null) {
+      return null;
+    }
+    return queryResultCache;
+  }
+
+  /**
+   * Creates a {@link Single} that when subscribed to runs the provided write operation.
+   * <p>
+   * If group commit is enabled the write is queued to the writer thread and the
+   * returned single emits after the group containing it is committed. Otherwise the
+   * write runs on the subscribing thread.
+   */
+  @NonNull
+  @CheckResult
+  <T> Single<T> queueWrite(@NonNull Callable<T> write) {
+    final GroupCommitWriter groupCommitWriter = this.groupCommitWriter;
+    if (groupCommitWriter != null) {
+      return groupCommitWriter.submit(write);
+    }
+    return Single.fromCallable(write);
+  }
+
+  /**
+   * Run the provided action if the transaction of the calling thread is rolled back.
+   * <p>
+   * Actions undo in-memory changes that were made together with the transaction's writes.
+   * Actions of a nested transaction run only when its outermost transaction is rolled back.
+   * Outside of a transaction this does nothing, since there is nothing to roll back.
+   *
+   * @param action Action to run on rollback
+   */
+  void runOnRollback(@NonNull Runnable action) {
+    final SqliteTransaction transaction = transactions.get();
+    if (transaction != null) {
+      transaction.addRollbackAction(action);
+    }
+  }
+
   void sendTableTrigger(@NonNull String table) {
+    sendTableTrigger(table, TableIds.idOf(table));
+  }
+
+  /**
+   * Send trigger for a changed table.
+   *
+   * @param table   Changed table
+   * @param tableId {@linkplain TableIds Id} of the changed table
+   */
+  void sendTableTrigger(@NonNull String table, int tableId) {
     final SqliteTransaction transaction = transactions.get();
     if (transaction != null) {
-      transaction.add(table);
+      transaction.add(table, tableId);
     } else {
-      final Set<String> tablesCollection = Collections.singleton(table);
+      final RowTriggerSet tablesCollection = new RowTriggerSet();
+      tablesCollection.add(table, tableId);
       if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TRIGGER %s", tablesCollection);
-      triggers.onNext(tablesCollection);
+      invalidateCaches(tablesCollection);
+      publishTriggers(tablesCollection);
+    }
+  }
+
+  /**
+   * Send trigger for a single changed row of the table.
+   * <p>
+   * Observed queries which select only rows by id re-run only when one of their rows change.
+   *
+   * @param table   Changed table
+   * @param tableId {@linkplain TableIds Id} of the changed table
+   * @param rowId   Id of the changed row or {@code null} if changed rows are unknown
+   */
+  void sendRowTrigger(@NonNull String table, int tableId, @Nullable Long rowId) {
+    if (rowId == null) {
+      sendTableTrigger(table, tableId);
+      return;
+    }
+    final SqliteTransaction transaction = transactions.get();
+    if (transaction != null) {
+      transaction.addRow(table, tableId, rowId);
+    } else {
+      final RowTriggerSet tablesCollection = new RowTriggerSet();
+      tablesCollection.addRow(table, tableId, rowId);
+      if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TRIGGER %s row %s", tablesCollection, rowId);
+      invalidateCaches(tablesCollection);
+      publishTriggers(tablesCollection);
     }
   }
 
@@ -175,9 +407,30 @@ public class DbConnectionImpl implements DbConnection {
     if (transaction != null) {
       transaction.addAll(tables);
     } else {
-      final StringArraySet tablesCollection = new StringArraySet(tables);
+      final RowTriggerSet tablesCollection = new RowTriggerSet();
+      tablesCollection.addAll(tables);
       if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TRIGGER %s", tablesCollection);
-      triggers.onNext(tablesCollection);
+      invalidateCaches(tablesCollection);
+      publishTriggers(tablesCollection);
+    }
+  }
+
+  /**
+   * Send triggers for changed tables.
+   *
+   * @param tableIds {@linkplain TableIds Ids} of the changed tables in the same order as names
+   * @param tables   Changed tables
+   */
+  void sendTableTriggers(@NonNull int[] tableIds, @NonNull String... tables) {
+    final SqliteTransaction transaction = transactions.get();
+    if (transaction != null) {
+      transaction.addAll(tables, tableIds);
+    } else {
+      final RowTriggerSet tablesCollection = new RowTriggerSet();
+      tablesCollection.addAll(tables, tableIds);
+      if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TRIGGER %s", tablesCollection);
+      invalidateCaches(tablesCollection);
+      publishTriggers(tablesCollection);
     }
   }
 
@@ -186,19 +439,79 @@ public class DbConnectionImpl implements DbConnection {
     if (transaction != null) {
       transaction.addAll(tables);
     } else {
-      if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TRIGGER %s", tables);
+      final RowTriggerSet tablesCollection;
+      if (tables instanceof RowTriggerSet) {
+        tablesCollection = (RowTriggerSet) tables;
+      } else {
+        tablesCollection = new RowTriggerSet();
+        tablesCollection.addAll(tables);
+      }
+      if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("TRIGGER %s", tablesCollection);
+      invalidateCaches(tablesCollection);
+      publishTriggers(tablesCollection);
+    }
+  }
+
+  private void publishTriggers(@NonNull Set<String> tables) {
+    final TriggerCoalescer triggerCoalescer = this.triggerCoalescer;
+    if (triggerCoalescer != null) {
+      triggerCoalescer.add(tables);
+    } else {
       triggers.onNext(tables);
     }
   }
 
-  private static final class SqliteTransaction extends StringArraySet implements SQLiteTransactionListener {
+  private void invalidateCaches(@NonNull RowTriggerSet tables) {
+    entityCaches.invalidate(tables);
+    final QueryResultCache queryResultCache = this.queryResultCache;
+    if (queryResultCache != null) {
+      queryResultCache.invalidate(tables);
+    }
+  }
+
+  static final class SqliteTransaction extends RowTriggerSet implements SQLiteTransactionListener {
     final SqliteTransaction parent;
     boolean commit;
+    @Nullable
+    private ArrayList<Runnable> rollbackActions;
 
     SqliteTransaction(SqliteTransaction parent) {
       this.parent = parent;
     }
 
+    void addRollbackAction(@NonNull Runnable action) {
+      ArrayList<Runnable> actions = rollbackActions;
+      if (actions == null) {
+        actions = new ArrayList<>();
+        rollbackActions = actions;
+      }
+      actions.add(action);
+    }
+
+    /**
+     * Called after this transaction has ended in the DB. Committed nested transaction is still
+     * rolled back together with its parent, so its rollback actions are handed over to the parent.
+     * Rolled back transaction runs its actions in reverse order.
+     */
+    void endRollbackActions() {
+      final ArrayList<Runnable> actions = rollbackActions;
+      if (actions == null) {
+        return;
+      }
+      rollbackActions = null;
+      if (commit) {
+        if (parent != null) {
+          for (int i = 0, size = actions.size(); i < size; i++) {
+            parent.addRollbackAction(actions.get(i));
+          }
+        }
+        return;
+      }
+      for (int i = actions.size() - 1; i >= 0; i--) {
+        actions.get(i).run();
+      }
+    }
+
     @Override
     public void onBegin() {
     }
@@ -0,0 +1,94 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+import com.siimkinks.sqlitemagic.entity.DirtyTrackable;
+import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
+
+import java.util.ArrayList;
+
+/**
+ * For internal use.
+ * <p>
+ * Dirty tracked entities of a bulk update grouped by their changed columns, so that each
+ * group is written with one update statement.
+ * <p>
+ * Changed columns are cleared only after all groups have been written and they are marked
+ * changed again if the transaction of the update is rolled back.
+ *
+ * @param <T> Table Java object type
+ */
+final class DirtyColumnGroups<T> implements Runnable {
+  @NonNull
+  private final SimpleArrayMap<Long, ArrayList<T>> groups;
+
+  private DirtyColumnGroups(@NonNull SimpleArrayMap<Long, ArrayList<T>> groups) {
+    this.groups = groups;
+  }
+
+  @NonNull
+  @CheckResult
+  static <T> DirtyColumnGroups<T> of(@NonNull Iterable<T> entities) {
+    final SimpleArrayMap<Long, ArrayList<T>> groups = new SimpleArrayMap<>();
+    for (T entity : entities) {
+      final long dirtyColumns = ((DirtyTrackable) entity).dirtyColumns();
+      ArrayList<T> group = groups.get(dirtyColumns);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(dirtyColumns, group);
+      }
+      group.add(entity);
+    }
+    return new DirtyColumnGroups<>(groups);
+  }
+
+  int size() {
+    return groups.size();
+  }
+
+  /**
+   * @param index Group index
+   * @return Bitmask of changed columns shared by all entities in the group
+   */
+  long dirtyColumnsAt(int index) {
+    return groups.keyAt(index);
+  }
+
+  @NonNull
+  ArrayList<T> entitiesAt(int index) {
+    return groups.valueAt(index);
+  }
+
+  /**
+   * Mark all entities unchanged after their changed columns have been written.
+   * Changed columns are restored if the current transaction is rolled back.
+   *
+   * @param dbConnection Connection of the current transaction
+   */
+  void clearDirtyColumns(@NonNull DbConnectionImpl dbConnection) {
+    final SimpleArrayMap<Long, ArrayList<T>> groups = this.groups;
+    for (int i = 0, size = groups.size(); i < size; i++) {
+      final ArrayList<T> group = groups.valueAt(i);
+      for (int j = 0, groupSize = group.size(); j < groupSize; j++) {
+        ((DirtyTrackable) group.get(j)).clearDirtyColumns();
+      }
+    }
+    dbConnection.runOnRollback(this);
+  }
+
+  /**
+   * Restores changed columns after rollback. Columns changed after the update are kept.
+   */
+  @Override
+  public void run() {
+    final SimpleArrayMap<Long, ArrayList<T>> groups = this.groups;
+    for (int i = 0, size = groups.size(); i < size; i++) {
+      final long dirtyColumns = groups.keyAt(i);
+      final ArrayList<T> group = groups.valueAt(i);
+      for (int j = 0, groupSize = group.size(); j < groupSize; j++) {
+        ((DirtyTrackable) group.get(j)).markDirtyColumns(dirtyColumns);
+      }
+    }
+  }
+}
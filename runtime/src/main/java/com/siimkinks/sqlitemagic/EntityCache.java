@@ -0,0 +1,380 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-table identity map of queried entities keyed by their id.
+ * <p>
+ * When enabled, rows that are read from the database are looked up from the cache by id
+ * before they are parsed, so that repeatedly queried rows are shared instead of being
+ * allocated again. Since cached instances are shared, only immutable models without
+ * complex columns and with an integer id are cached. For all other tables enabling the
+ * cache has no effect.
+ * <p>
+ * Each DB connection has its own caches. Cache is invalidated through the table triggers
+ * of its connection &mdash; changed rows are dropped from the cache and if the changed
+ * rows are not known, the whole cache is cleared. Queries that run inside a transaction
+ * bypass the cache.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * EntityCache.of(AUTHOR).enable(EntityCache.Policy.LRU, 500);
+ * }</pre>
+ *
+ * @param <T> Table Java object type
+ */
+public final class EntityCache<T> {
+  /**
+   * Entity cache eviction policy.
+   */
+  public enum Policy {
+    /**
+     * Keep strong references to at most {@code maxSize} least recently used entities.
+     */
+    LRU,
+    /**
+     * Keep weak references to at most {@code maxSize} entities &mdash; entities are evicted
+     * as soon as they are not referenced anywhere else.
+     */
+    WEAK,
+    /**
+     * Keep soft references to at most {@code maxSize} entities &mdash; entities are evicted
+     * when memory is running low.
+     */
+    SOFT
+  }
+
+  static final int NO_CACHE = -1;
+
+  @NonNull
+  private final Registry registry;
+  @NonNull
+  private final String tableName;
+  @NonNull
+  private final LinkedHashMap<Long, Object> entries;
+  @NonNull
+  private final ReferenceQueue<T> referenceQueue = new ReferenceQueue<>();
+  @Nullable
+  private volatile Policy policy;
+  private int maxSize;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  private EntityCache(@NonNull Registry registry, @NonNull String tableName) {
+    this.registry = registry;
+    this.tableName = tableName;
+    this.entries = new LinkedHashMap<Long, Object>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+        if (size() > maxSize) {
+          evictionCount++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Get entity cache of the provided table in the default DB connection.
+   *
+   * @param table Table which entity cache to get. This param must be one of annotation
+   *              processor generated table objects that corresponds to table in a database
+   * @param <T>   Table Java object type
+   * @return Entity cache of the table
+   */
+  @NonNull
+  @CheckResult
+  public static <T> EntityCache<T> of(@NonNull Table<T> table) {
+    return of(table, SqliteMagic.getDefaultDbConnection());
+  }
+
+  /**
+   * Get entity cache of the provided table in the provided DB connection.
+   *
+   * @param table      Table which entity cache to get. This param must be one of annotation
+   *                   processor generated table objects that corresponds to table in a database
+   * @param connection DB connection which entity cache to get
+   * @param <T>        Table Java object type
+   * @return Entity cache of the table
+   */
+  @NonNull
+  @CheckResult
+  public static <T> EntityCache<T> of(@NonNull Table<T> table, @NonNull DbConnection connection) {
+    return ((DbConnectionImpl) connection).entityCaches.forTable(table.name);
+  }
+
+  /**
+   * Enable this cache.
+   * <p>
+   * If this cache is already enabled, it is cleared and reconfigured.
+   *
+   * @param policy  Eviction policy
+   * @param maxSize Maximum number of cached entities
+   * @return This cache
+   */
+  @NonNull
+  public EntityCache<T> enable(@NonNull Policy policy, int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Entity cache size must be positive");
+    }
+    synchronized (this) {
+      entries.clear();
+      this.maxSize = maxSize;
+      this.policy = policy;
+    }
+    return this;
+  }
+
+  /**
+   * Disable this cache and drop all cached entities.
+   */
+  public void disable() {
+    synchronized (this) {
+      policy = null;
+      entries.clear();
+    }
+  }
+
+  /**
+   * @return Whether this cache is enabled
+   */
+  public boolean isEnabled() {
+    return policy != null;
+  }
+
+  /**
+   * Drop all cached entities.
+   */
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Drop changed entities.
+   *
+   * @param rowIds Changed row ids or {@code null} if any row might have changed
+   */
+  synchronized void invalidate(@Nullable HashSet<Long> rowIds) {
+    if (rowIds == null) {
+      entries.clear();
+      return;
+    }
+    for (Long rowId : rowIds) {
+      entries.remove(rowId);
+    }
+  }
+
+  @Nullable
+  T get(@NonNull FastCursor cursor, long id) {
+    if (policy == null || cursor.entityCacheGeneration() == NO_CACHE) {
+      return null;
+    }
+    synchronized (this) {
+      final Object entry = entries.get(id);
+      final T value;
+      if (entry instanceof Reference) {
+        //noinspection unchecked
+        value = ((Reference<T>) entry).get();
+        if (value == null) {
+          entries.remove(id);
+        }
+      } else {
+        //noinspection unchecked
+        value = (T) entry;
+      }
+      if (value != null) {
+        hitCount++;
+      } else {
+        missCount++;
+      }
+      return value;
+    }
+  }
+
+  void put(@NonNull FastCursor cursor, long id, @NonNull T value) {
+    final Policy policy = this.policy;
+    final int cursorGeneration = cursor.entityCacheGeneration();
+    if (policy == null || cursorGeneration == NO_CACHE) {
+      return;
+    }
+    synchronized (this) {
+      if (cursorGeneration != registry.generation()) {
+        return;
+      }
+      purgeClearedReferences();
+      switch (policy) {
+        case WEAK:
+          entries.put(id, new WeakEntry<>(id, value, referenceQueue));
+          break;
+        case SOFT:
+          entries.put(id, new SoftEntry<>(id, value, referenceQueue));
+          break;
+        default:
+          entries.put(id, value);
+          break;
+      }
+    }
+  }
+
+  private void purgeClearedReferences() {
+    Reference<? extends T> ref;
+    while ((ref = referenceQueue.poll()) != null) {
+      final long id = ref instanceof WeakEntry ? ((WeakEntry) ref).id : ((SoftEntry) ref).id;
+      if (entries.get(id) == ref) {
+        entries.remove(id);
+        evictionCount++;
+      }
+    }
+  }
+
+  /**
+   * @return Number of times an entity was found in this cache
+   */
+  public synchronized long hitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return Number of times an entity had to be parsed because it was not in this cache
+   */
+  public synchronized long missCount() {
+    return missCount;
+  }
+
+  /**
+   * @return Ratio of lookups that were found in this cache or 0 if there were no lookups
+   */
+  public synchronized double hitRate() {
+    final long lookups = hitCount + missCount;
+    return lookups == 0 ? 0 : (double) hitCount / lookups;
+  }
+
+  /**
+   * @return Number of entities evicted from this cache
+   */
+  public synchronized long evictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return Number of currently cached entities
+   */
+  public synchronized int size() {
+    purgeClearedReferences();
+    return entries.size();
+  }
+
+  /**
+   * @return Maximum number of cached entities
+   */
+  public synchronized int maxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "EntityCache[table=" + tableName + ", policy=" + policy + ", size=" + entries.size() +
+        ", maxSize=" + maxSize + ", hits=" + hitCount + ", misses=" + missCount +
+        ", evictions=" + evictionCount + "]";
+  }
+
+  /**
+   * Entity caches of one DB connection.
+   */
+  static final class Registry {
+    private final HashMap<String, EntityCache<?>> caches = new HashMap<>();
+    /**
+     * Incremented on every invalidation. Rows are cached only if no invalidation happened
+     * since their query was started, so that rows read from an old snapshot do not end up
+     * in the cache.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    @NonNull
+    <T> EntityCache<T> forTable(@NonNull String tableName) {
+      synchronized (caches) {
+        EntityCache<?> cache = caches.get(tableName);
+        if (cache == null) {
+          cache = new EntityCache<>(this, tableName);
+          caches.put(tableName, cache);
+        }
+        //noinspection unchecked
+        return (EntityCache<T>) cache;
+      }
+    }
+
+    /**
+     * @return Enabled entity cache of the table or {@code null} if it is not enabled
+     */
+    @Nullable
+    <T> EntityCache<T> enabledCache(@NonNull String tableName) {
+      final EntityCache<?> cache;
+      synchronized (caches) {
+        if (caches.isEmpty()) {
+          return null;
+        }
+        cache = caches.get(tableName);
+      }
+      if (cache == null || !cache.isEnabled()) {
+        return null;
+      }
+      //noinspection unchecked
+      return (EntityCache<T>) cache;
+    }
+
+    int generation() {
+      return generation.get();
+    }
+
+    /**
+     * Drop changed entities from the caches of the changed tables.
+     */
+    void invalidate(@NonNull RowTriggerSet tables) {
+      generation.incrementAndGet();
+      synchronized (caches) {
+        if (caches.isEmpty()) {
+          return;
+        }
+        for (int i = 0, size = tables.size(); i < size; i++) {
+          final String table = tables.valueAt(i);
+          final EntityCache<?> cache = caches.get(table);
+          if (cache != null) {
+            cache.invalidate(tables.changedRows(table));
+          }
+        }
+      }
+    }
+  }
+
+  private static final class WeakEntry<T> extends WeakReference<T> {
+    final long id;
+
+    WeakEntry(long id, T referent, ReferenceQueue<? super T> queue) {
+      super(referent, queue);
+      this.id = id;
+    }
+  }
+
+  private static final class SoftEntry<T> extends SoftReference<T> {
+    final long id;
+
+    SoftEntry(long id, T referent, ReferenceQueue<? super T> queue) {
+      super(referent, queue);
+      this.id = id;
+    }
+  }
+}
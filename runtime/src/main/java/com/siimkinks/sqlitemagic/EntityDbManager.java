@@ -1,15 +1,80 @@
 package com.siimkinks.sqlitemagic;
 
+import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.siimkinks.sqlitemagic.ConflictAlgorithm.CONFLICT_VALUES;
 
 final class EntityDbManager {
+  /**
+   * Default maximum number of host parameters in a single SQLite statement.
+   */
+  static final int MAX_VARIABLE_NUMBER = 999;
+  /**
+   * Default maximum number of rows in a multi-row VALUES clause.
+   */
+  static final int MAX_COMPOUND_ROWS = 500;
+  /**
+   * Maximum number of ids deleted with one bulk delete statement &mdash; largest power
+   * of two that fits into {@link #MAX_VARIABLE_NUMBER}.
+   */
+  static final int MAX_BULK_DELETE_IDS = Integer.highestOneBit(MAX_VARIABLE_NUMBER);
+  /**
+   * Multi-row VALUES clause is supported since SQLite 3.7.11.
+   */
+  static final boolean BATCH_INSERT_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+  /**
+   * UPSERT clause is supported since SQLite 3.24 which ships with API 30.
+   */
+  static final boolean UPSERT_SUPPORTED = Build.VERSION.SDK_INT >= 30;
+  /**
+   * Max number of cached update statements of changed columns per table.
+   */
+  static final int MAX_DIRTY_UPDATE_STATEMENTS = 16;
+
   private final AtomicReference<SQLiteStatement> insertStatement = new AtomicReference<>();
   private final AtomicReference<SQLiteStatement> updateStatement = new AtomicReference<>();
+  private final AtomicReference<SQLiteStatement> upsertStatement = new AtomicReference<>();
+  /**
+   * Insert statements with conflict clause indexed by their conflict algorithm.
+   */
+  private final AtomicReferenceArray<SQLiteStatement> conflictInsertStatements = new AtomicReferenceArray<>(CONFLICT_VALUES.length);
+  /**
+   * Multi-row insert statements keyed by their row count.
+   */
+  private final SimpleArrayMap<Integer, SQLiteStatement> batchInsertStatements = new SimpleArrayMap<>();
+  /**
+   * Bulk delete statements keyed by their id count.
+   */
+  private final SimpleArrayMap<Integer, SQLiteStatement> bulkDeleteStatements = new SimpleArrayMap<>();
+  /**
+   * Update statements of changed columns keyed by their changed columns bitmask.
+   * Least recently used statements are closed when there are more than
+   * {@link #MAX_DIRTY_UPDATE_STATEMENTS} different sets of changed columns &mdash;
+   * statements that are still in use are freed once their user releases them.
+   */
+  private final LinkedHashMap<Long, SQLiteStatement> dirtyUpdateStatements =
+      new LinkedHashMap<Long, SQLiteStatement>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, SQLiteStatement> eldest) {
+          if (size() > MAX_DIRTY_UPDATE_STATEMENTS) {
+            eldest.getValue().close();
+            return true;
+          }
+          return false;
+        }
+      };
   @Nullable
   private DbConnectionImpl dbConnection;
 
@@ -26,6 +91,34 @@ final class EntityDbManager {
     if (updateStm != null) {
       updateStm.close();
     }
+    final SQLiteStatement upsertStm = upsertStatement.getAndSet(null);
+    if (upsertStm != null) {
+      upsertStm.close();
+    }
+    for (int i = 0, length = conflictInsertStatements.length(); i < length; i++) {
+      final SQLiteStatement stm = conflictInsertStatements.getAndSet(i, null);
+      if (stm != null) {
+        stm.close();
+      }
+    }
+    synchronized (batchInsertStatements) {
+      for (int i = 0, size = batchInsertStatements.size(); i < size; i++) {
+        batchInsertStatements.valueAt(i).close();
+      }
+      batchInsertStatements.clear();
+    }
+    synchronized (bulkDeleteStatements) {
+      for (int i = 0, size = bulkDeleteStatements.size(); i < size; i++) {
+        bulkDeleteStatements.valueAt(i).close();
+      }
+      bulkDeleteStatements.clear();
+    }
+    synchronized (dirtyUpdateStatements) {
+      for (SQLiteStatement stm : dirtyUpdateStatements.values()) {
+        stm.close();
+      }
+      dirtyUpdateStatements.clear();
+    }
     dbConnection = null;
   }
 
@@ -53,6 +146,42 @@ final class EntityDbManager {
     return stm;
   }
 
+  /**
+   * Get insert statement which resolves constraint conflicts with the provided
+   * conflict algorithm.
+   *
+   * @param insertSql         Insert SQL without conflict clause
+   * @param conflictAlgorithm One of {@link android.database.sqlite.SQLiteDatabase}
+   *                          CONFLICT_* constant values
+   * @return Compiled statement
+   */
+  @NonNull
+  @CheckResult
+  SQLiteStatement getInsertStatement(@NonNull String insertSql, @ConflictAlgorithm int conflictAlgorithm) {
+    if (conflictAlgorithm == SQLiteDatabase.CONFLICT_NONE) {
+      return getInsertStatement(insertSql);
+    }
+    SQLiteStatement stm = conflictInsertStatements.get(conflictAlgorithm);
+    if (stm == null) {
+      if (dbConnection == null) {
+        throw new IllegalStateException("DB connection closed");
+      }
+      stm = dbConnection.compileStatement(conflictInsertSql(insertSql, conflictAlgorithm));
+      if (!conflictInsertStatements.compareAndSet(conflictAlgorithm, null, stm)) {
+        // another thread compiled the same statement first
+        stm.close();
+        return conflictInsertStatements.get(conflictAlgorithm);
+      }
+    }
+    return stm;
+  }
+
+  @NonNull
+  static String conflictInsertSql(@NonNull String insertSql, @ConflictAlgorithm int conflictAlgorithm) {
+    // "INSERT" + " OR REPLACE" + " INTO ..."
+    return "INSERT " + CONFLICT_VALUES[conflictAlgorithm] + insertSql.substring(6);
+  }
+
   @NonNull
   @CheckResult
   SQLiteStatement getUpdateStatement(@NonNull String updateSql) {
@@ -67,4 +196,198 @@ final class EntityDbManager {
     }
     return stm;
   }
+
+  @NonNull
+  @CheckResult
+  SQLiteStatement getUpsertStatement(@NonNull String upsertSql) {
+    SQLiteStatement stm = upsertStatement.get();
+    if (stm == null) {
+      if (dbConnection == null) {
+        throw new IllegalStateException("DB connection closed");
+      }
+      stm = dbConnection.compileStatement(upsertSql);
+      upsertStatement.set(stm);
+      return stm;
+    }
+    return stm;
+  }
+
+  /**
+   * Get insert statement which inserts multiple rows at once.
+   * <p>
+   * Statements are cached by their row count, so callers should use only a few different
+   * row counts &mdash; see {@link #batchInsertRows(int, int)}.
+   *
+   * @param insertSql Single row insert SQL
+   * @param rowCount  Number of rows the statement inserts
+   * @return Compiled statement where each row takes the same number of parameters as
+   * the single row statement
+   */
+  @NonNull
+  @CheckResult
+  SQLiteStatement getBatchInsertStatement(@NonNull String insertSql, int rowCount) {
+    if (rowCount == 1) {
+      return getInsertStatement(insertSql);
+    }
+    synchronized (batchInsertStatements) {
+      SQLiteStatement stm = batchInsertStatements.get(rowCount);
+      if (stm == null) {
+        if (dbConnection == null) {
+          throw new IllegalStateException("DB connection closed");
+        }
+        stm = dbConnection.compileStatement(batchInsertSql(insertSql, rowCount));
+        batchInsertStatements.put(rowCount, stm);
+      }
+      return stm;
+    }
+  }
+
+  @NonNull
+  static String batchInsertSql(@NonNull String insertSql, int rowCount) {
+    final String valuesRow = insertSql.substring(insertSql.lastIndexOf(" VALUES ") + 8);
+    final StringBuilder sb = new StringBuilder(insertSql.length() + (valuesRow.length() + 1) * (rowCount - 1));
+    sb.append(insertSql);
+    for (int i = 1; i < rowCount; i++) {
+      sb.append(',')
+          .append(valuesRow);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Get statement which deletes rows by their ids.
+   * <p>
+   * Statements are cached by their id count, so callers should use only a few different
+   * id counts &mdash; see {@link #bulkDeleteIds(int)}.
+   *
+   * @param deleteSql Delete SQL up to the opening parenthesis of the id list
+   * @param idCount   Number of ids the statement takes
+   * @return Compiled statement
+   */
+  @NonNull
+  @CheckResult
+  SQLiteStatement getBulkDeleteStatement(@NonNull String deleteSql, int idCount) {
+    synchronized (bulkDeleteStatements) {
+      SQLiteStatement stm = bulkDeleteStatements.get(idCount);
+      if (stm == null) {
+        if (dbConnection == null) {
+          throw new IllegalStateException("DB connection closed");
+        }
+        stm = dbConnection.compileStatement(bulkDeleteSql(deleteSql, idCount));
+        bulkDeleteStatements.put(idCount, stm);
+      }
+      return stm;
+    }
+  }
+
+  @NonNull
+  static String bulkDeleteSql(@NonNull String deleteSql, int idCount) {
+    final StringBuilder sb = new StringBuilder(deleteSql.length() + idCount * 2);
+    sb.append(deleteSql)
+        .append('?');
+    for (int i = 1; i < idCount; i++) {
+      sb.append(",?");
+    }
+    return sb.append(')').toString();
+  }
+
+  /**
+   * Number of ids to delete with the next statement. Large deletes are split into
+   * statements of {@link #MAX_BULK_DELETE_IDS} ids and the rest into power of two sized
+   * statements, so that only a few different statements get cached.
+   *
+   * @param remainingIds Number of ids left to delete
+   * @return Number of ids to delete with the next statement
+   */
+  static int bulkDeleteIds(int remainingIds) {
+    return remainingIds >= MAX_BULK_DELETE_IDS ? MAX_BULK_DELETE_IDS : Integer.highestOneBit(remainingIds);
+  }
+
+  /**
+   * Get statement which updates only changed columns.
+   * <p>
+   * Statements are cached by their changed columns, so all entities with the same
+   * set of changed columns share one statement. Statement of an entity without changed
+   * columns writes only the id, so that missing rows are still reported.
+   * <p>
+   * Returned statement must be released with {@link SQLiteStatement#releaseReference()}
+   * after use.
+   *
+   * @param table        Table name
+   * @param idColumn     Id column name
+   * @param columns      Non-id column names in the order of their dirty bits
+   * @param dirtyColumns Bitmask of changed columns
+   * @return Compiled statement where changed columns are followed by the id
+   */
+  @NonNull
+  @CheckResult
+  SQLiteStatement getDirtyUpdateStatement(@NonNull String table, @NonNull String idColumn,
+                                          @NonNull String[] columns, long dirtyColumns) {
+    synchronized (dirtyUpdateStatements) {
+      SQLiteStatement stm = dirtyUpdateStatements.get(dirtyColumns);
+      if (stm == null) {
+        if (dbConnection == null) {
+          throw new IllegalStateException("DB connection closed");
+        }
+        stm = dbConnection.compileStatement(dirtyUpdateSql(table, idColumn, columns, dirtyColumns));
+        dirtyUpdateStatements.put(dirtyColumns, stm);
+      }
+      stm.acquireReference();
+      return stm;
+    }
+  }
+
+  @NonNull
+  static String dirtyUpdateSql(@NonNull String table, @NonNull String idColumn,
+                               @NonNull String[] columns, long dirtyColumns) {
+    final StringBuilder sb = new StringBuilder(64);
+    sb.append("UPDATE ")
+        .append(table)
+        .append(" SET ");
+    boolean first = true;
+    for (int i = 0, length = columns.length; i < length; i++) {
+      if ((dirtyColumns & (1L << i)) != 0) {
+        if (first) {
+          first = false;
+        } else {
+          sb.append(',');
+        }
+        sb.append(columns[i])
+            .append("=?");
+      }
+    }
+    if (first) {
+      sb.append(idColumn)
+          .append('=')
+          .append(idColumn);
+    }
+    return sb.append(" WHERE ")
+        .append(idColumn)
+        .append("=?")
+        .toString();
+  }
+
+  /**
+   * @param columnCount Number of bound columns in a single inserted row
+   * @return Maximum number of rows that fit into one insert statement
+   */
+  static int maxBatchInsertRows(int columnCount) {
+    if (!BATCH_INSERT_SUPPORTED) {
+      return 1;
+    }
+    return Math.max(1, Math.min(MAX_COMPOUND_ROWS, MAX_VARIABLE_NUMBER / columnCount));
+  }
+
+  /**
+   * Number of rows to insert with the next statement. Full batches use the maximum
+   * row count and the rest is split into power of two sized statements, so that only
+   * a few different statements get cached.
+   *
+   * @param remainingRows Number of rows left to insert
+   * @param maxRows       Maximum number of rows in one statement
+   * @return Number of rows to insert with the next statement
+   */
+  static int batchInsertRows(int remainingRows, int maxRows) {
+    return remainingRows >= maxRows ? maxRows : Integer.highestOneBit(remainingRows);
+  }
 }
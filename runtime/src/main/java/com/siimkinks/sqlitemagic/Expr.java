@@ -2,6 +2,7 @@ package com.siimkinks.sqlitemagic;
 
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.siimkinks.sqlitemagic.Select.OrderingTerm;
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
@@ -17,7 +18,7 @@ import static com.siimkinks.sqlitemagic.Select.OrderingTerm.DESC;
  */
 public class Expr {
   @NonNull
-  private final Column<?, ?, ?, ?> column;
+  final Column<?, ?, ?, ?> column;
   @NonNull
   final String expr;
 
@@ -26,7 +27,7 @@ public class Expr {
     this.expr = expr;
   }
 
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
   }
 
   void addObservedTables(@NonNull ArrayList<String> tables) {
@@ -46,6 +47,24 @@ public class Expr {
     return column.equals(this.column);
   }
 
+  /**
+   * Find arguments that restrict selected rows of the table to a set of ids.
+   *
+   * @param table     Selected table
+   * @param argsStart Position of this expression first argument in the query arguments
+   * @return Positions of the id arguments or {@code null} if this expression does not
+   * restrict rows to a set of ids
+   */
+  @Nullable
+  int[] rowIdArgs(@NonNull Table<?> table, int argsStart) {
+    return null;
+  }
+
+  final boolean isIdColumnOf(@NonNull Table<?> table) {
+    final String idColumnName = table.getIdColumnName();
+    return idColumnName != null && idColumnName.equals(column.name) && table.equals(column.table);
+  }
+
   /**
    * Create ORDER BY ordering term.
    * <p>
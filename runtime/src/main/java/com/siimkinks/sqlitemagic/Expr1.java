@@ -1,20 +1,30 @@
 package com.siimkinks.sqlitemagic;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 
 final class Expr1 extends Expr {
   @NonNull
-  private final String evalArg;
+  private final Object evalArg;
 
-  Expr1(@NonNull Column<?, ?, ?, ?> column, @NonNull String expr, @NonNull String evalArg) {
+  Expr1(@NonNull Column<?, ?, ?, ?> column, @NonNull String expr, @NonNull Object evalArg) {
     super(column, expr);
     this.evalArg = evalArg;
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     args.add(evalArg);
   }
+
+  @Nullable
+  @Override
+  int[] rowIdArgs(@NonNull Table<?> table, int argsStart) {
+    if ("=?".equals(expr) && isIdColumnOf(table)) {
+      return new int[]{argsStart};
+    }
+    return null;
+  }
 }
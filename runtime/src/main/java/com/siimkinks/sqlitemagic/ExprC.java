@@ -17,7 +17,7 @@ final class ExprC extends Expr {
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     super.addArgs(args);
     exprColumn.addArgs(args);
   }
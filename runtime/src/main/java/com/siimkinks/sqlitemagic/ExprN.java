@@ -1,21 +1,36 @@
 package com.siimkinks.sqlitemagic;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
 
 final class ExprN extends Expr {
   @NonNull
-  private final String[] evalArgs;
+  private final Object[] evalArgs;
 
-  ExprN(@NonNull Column<?, ?, ?, ?> column, @NonNull String expr, @NonNull String[] evalArgs) {
+  ExprN(@NonNull Column<?, ?, ?, ?> column, @NonNull String expr, @NonNull Object[] evalArgs) {
     super(column, expr);
     this.evalArgs = evalArgs;
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     Collections.addAll(args, evalArgs);
   }
+
+  @Nullable
+  @Override
+  int[] rowIdArgs(@NonNull Table<?> table, int argsStart) {
+    if (expr.startsWith(" IN (") && isIdColumnOf(table)) {
+      final int count = evalArgs.length;
+      final int[] positions = new int[count];
+      for (int i = 0; i < count; i++) {
+        positions[i] = argsStart + i;
+      }
+      return positions;
+    }
+    return null;
+  }
 }
@@ -22,7 +22,7 @@ final class ExprS extends Expr {
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     super.addArgs(args);
     args.addAll(selectBuilder.args);
   }
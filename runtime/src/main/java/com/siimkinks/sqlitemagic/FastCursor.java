@@ -9,6 +9,7 @@ import android.database.DataSetObserver;
 import android.net.Uri;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 /**
  * For internal use.
@@ -24,6 +25,10 @@ public final class FastCursor implements Cursor {
 
   private int position;
   private int count;
+  @Nullable
+  private String lastEntityCacheTable;
+  @Nullable
+  private EntityCache<?> lastEntityCache;
 
   private FastCursor(@NonNull SqliteMagicCursor cursor) {
     backingCursor = cursor;
@@ -38,6 +43,33 @@ public final class FastCursor implements Cursor {
     return new FastCursor(cursor);
   }
 
+  int entityCacheGeneration() {
+    return backingCursor.entityCacheGeneration;
+  }
+
+  /**
+   * Get enabled entity cache of the table for rows of this cursor.
+   * <p>
+   * Last looked up cache is remembered, so that reading rows of the same table does not
+   * look up the cache again for every row.
+   *
+   * @param tableName Table name constant
+   * @return Entity cache or {@code null} if rows of the table are not cached
+   */
+  @Nullable
+  <T> EntityCache<T> entityCache(@NonNull String tableName) {
+    final EntityCache.Registry entityCaches = backingCursor.entityCaches;
+    if (entityCaches == null) {
+      return null;
+    }
+    if (tableName != lastEntityCacheTable) {
+      lastEntityCache = entityCaches.enabledCache(tableName);
+      lastEntityCacheTable = tableName;
+    }
+    //noinspection unchecked
+    return (EntityCache<T>) lastEntityCache;
+  }
+
   void syncWith(@NonNull SqliteMagicCursor cursor) {
     final int position = cursor.getPosition();
     moveWindowIfNeeded(this.position, position);
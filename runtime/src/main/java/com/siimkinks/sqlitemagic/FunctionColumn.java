@@ -94,7 +94,7 @@ final class FunctionColumn<
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     final Column[] wrappedColumns = this.wrappedColumns;
     final int length = this.wrappedColumns.length;
     for (int i = 0; i < length; i++) {
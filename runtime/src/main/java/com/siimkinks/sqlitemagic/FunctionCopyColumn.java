@@ -39,7 +39,7 @@ final class FunctionCopyColumn<
 
   @NonNull
   @Override
-  String toSqlArg(@NonNull T val) {
+  Object toSqlArg(@NonNull T val) {
     return wrappedColumn.toSqlArg(val);
   }
 
@@ -75,7 +75,7 @@ final class FunctionCopyColumn<
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     wrappedColumn.addArgs(args);
   }
 
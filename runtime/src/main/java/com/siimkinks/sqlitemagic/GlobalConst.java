@@ -9,6 +9,7 @@ public final class GlobalConst {
   public static final String METHOD_GET_DB_NAME = "getDbName";
   public static final String METHOD_CONFIGURE_DATABASE = "configureDatabase";
   public static final String METHOD_GET_NR_OF_TABLES = "getNrOfTables";
+  public static final String METHOD_GET_TABLE_NAMES = "getTableNames";
   public static final String METHOD_COLUMN_FOR_VALUE = "columnForValue";
 
   public static final String INVOCATION_METHOD_CREATE_TABLES = CLASS_GENERATED_CLASSES_MANAGER + "#" + METHOD_CREATE_TABLES;
@@ -16,6 +17,7 @@ public final class GlobalConst {
   public static final String INVOCATION_METHOD_GET_DB_NAME = CLASS_GENERATED_CLASSES_MANAGER + "#" + METHOD_GET_DB_NAME;
   public static final String INVOCATION_METHOD_CONFIGURE_DATABASE = CLASS_GENERATED_CLASSES_MANAGER + "#" + METHOD_CONFIGURE_DATABASE;
   public static final String INVOCATION_METHOD_GET_NR_OF_TABLES = CLASS_GENERATED_CLASSES_MANAGER + "#" + METHOD_GET_NR_OF_TABLES;
+  public static final String INVOCATION_METHOD_GET_TABLE_NAMES = CLASS_GENERATED_CLASSES_MANAGER + "#" + METHOD_GET_TABLE_NAMES;
   public static final String INVOCATION_METHOD_COLUMN_FOR_VALUE = CLASS_GENERATED_CLASSES_MANAGER + "#" + METHOD_COLUMN_FOR_VALUE;
 
   public static final String ERROR_PROCESSOR_DID_NOT_RUN = "Looks like SqliteMagic gradle plugin processor did not run. Please make sure that project is configured correctly";
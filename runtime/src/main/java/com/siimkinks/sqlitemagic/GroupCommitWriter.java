@@ -0,0 +1,312 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.DbConnectionImpl.SqliteTransaction;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import rx.Scheduler;
+import rx.Single;
+import rx.SingleSubscriber;
+import rx.functions.Action0;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Single writer thread that commits queued writes in groups.
+ * <p>
+ * Writes from all threads are queued and executed on one dedicated thread. Queued writes
+ * are collected into a group until either the maximum group size is reached or the
+ * group window elapses, and the whole group is executed in one transaction. This way
+ * many small writes share one commit and the union of their table triggers is sent only once.
+ * <p>
+ * If the group transaction fails, its writes are executed again one by one so that
+ * a single failing write does not fail the others. Before that, in-memory side effects of
+ * the failed attempt are undone &mdash; {@link RevertibleWrite Revertible writes} restore
+ * their entities and transaction rollback actions restore changed column flags. Entity and
+ * query result caches are changed only by table triggers, which are sent after a commit,
+ * so the failed attempt leaves them untouched.
+ * <p>
+ * Results are delivered on the delivery scheduler, so that slow subscribers do not stall
+ * the queue and subscribers can wait for other queued writes. Writes that are submitted
+ * from inside a transaction or from the writer thread itself run in place.
+ */
+final class GroupCommitWriter implements Runnable {
+  @NonNull
+  private final DbConnectionImpl dbConnection;
+  private final int maxGroupSize;
+  private final long windowNanos;
+  @NonNull
+  private final Scheduler deliveryScheduler;
+  private final LinkedBlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+  private final Object lock = new Object();
+  @Nullable
+  private Thread writerThread;
+  private boolean closed;
+
+  GroupCommitWriter(@NonNull DbConnectionImpl dbConnection,
+                    int maxGroupSize,
+                    long windowNanos,
+                    @NonNull Scheduler deliveryScheduler) {
+    this.dbConnection = dbConnection;
+    this.maxGroupSize = maxGroupSize;
+    this.windowNanos = windowNanos;
+    this.deliveryScheduler = deliveryScheduler;
+  }
+
+  @NonNull
+  <T> Single<T> submit(@NonNull final Callable<T> write) {
+    return Single.create(new Single.OnSubscribe<T>() {
+      @Override
+      public void call(SingleSubscriber<? super T> subscriber) {
+        if (dbConnection.transactions.get() != null || isWriterThread()) {
+          // writer thread would wait for this transaction or write to end which
+          // in turn might wait for this write -- run it in place
+          new PendingWrite<>(write, subscriber, null).runAndComplete();
+          return;
+        }
+        enqueue(new PendingWrite<>(write, subscriber, deliveryScheduler));
+      }
+    });
+  }
+
+  /**
+   * @return Whether there are submitted writes waiting for the next group
+   */
+  boolean hasQueuedWrites() {
+    return !queue.isEmpty();
+  }
+
+  private boolean isWriterThread() {
+    synchronized (lock) {
+      return writerThread == Thread.currentThread();
+    }
+  }
+
+  private void enqueue(@NonNull PendingWrite<?> pendingWrite) {
+    synchronized (lock) {
+      if (closed) {
+        pendingWrite.fail(new IllegalStateException("DB connection closed"));
+        return;
+      }
+      if (writerThread == null) {
+        final Thread thread = new Thread(this, "SqliteMagic-writer");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+      }
+      queue.add(pendingWrite);
+    }
+  }
+
+  @Override
+  public void run() {
+    final ArrayList<PendingWrite<?>> group = new ArrayList<>(maxGroupSize);
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        group.add(queue.take());
+        final long deadline = System.nanoTime() + windowNanos;
+        while (group.size() < maxGroupSize) {
+          final long remaining = deadline - System.nanoTime();
+          final PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          group.add(next);
+        }
+        commitGroup(group);
+        group.clear();
+      }
+    } catch (InterruptedException e) {
+      // connection is closing
+    }
+    final IllegalStateException closedError = new IllegalStateException("DB connection closed");
+    for (int i = 0, size = group.size(); i < size; i++) {
+      group.get(i).fail(closedError);
+    }
+    PendingWrite<?> pendingWrite;
+    while ((pendingWrite = queue.poll()) != null) {
+      pendingWrite.fail(closedError);
+    }
+  }
+
+  private void commitGroup(@NonNull ArrayList<PendingWrite<?>> group) {
+    final int size = group.size();
+    if (size == 1) {
+      group.get(0).runAndComplete();
+      return;
+    }
+    if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("Committing group of %s writes", size);
+    for (int i = 0; i < size; i++) {
+      group.get(i).snapshot();
+    }
+    final Transaction transaction = dbConnection.newTransaction();
+    final SqliteTransaction groupTransaction = dbConnection.transactions.get();
+    boolean committed = false;
+    try {
+      for (int i = 0; i < size; i++) {
+        group.get(i).run();
+      }
+      transaction.markSuccessful();
+      committed = true;
+    } catch (Throwable e) {
+      if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("Group commit failed: %s", e);
+    } finally {
+      try {
+        transaction.end();
+      } catch (Throwable e) {
+        LogUtil.logError("Error ending group transaction: %s", e);
+        committed = false;
+      }
+    }
+    // nested transaction failures roll back the group without throwing
+    if (committed && groupTransaction.commit) {
+      for (int i = 0; i < size; i++) {
+        group.get(i).complete();
+      }
+    } else {
+      if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("Group rolled back, retrying %s writes one by one", size);
+      for (int i = 0; i < size; i++) {
+        group.get(i).revert();
+      }
+      for (int i = 0; i < size; i++) {
+        group.get(i).runAndComplete();
+      }
+    }
+  }
+
+  void close() {
+    final Thread thread;
+    synchronized (lock) {
+      closed = true;
+      thread = writerThread;
+      writerThread = null;
+    }
+    if (thread != null && thread != Thread.currentThread()) {
+      thread.interrupt();
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * For internal use.
+   * <p>
+   * Queued write which changes its entity in memory, for example sets the id of an
+   * inserted entity. If the group of the write is rolled back, the entity is restored
+   * before the write is retried.
+   */
+  interface RevertibleWrite {
+    /**
+     * Remember the entity state before the write runs in a group.
+     */
+    void snapshot();
+
+    /**
+     * Restore the entity state remembered by {@link #snapshot()}.
+     */
+    void revert();
+  }
+
+  private static final class PendingWrite<T> implements Action0 {
+    @NonNull
+    final Callable<T> write;
+    @NonNull
+    final SingleSubscriber<? super T> subscriber;
+    /**
+     * Scheduler to deliver result on or {@code null} if result is delivered in place.
+     */
+    @Nullable
+    final Scheduler deliveryScheduler;
+    T result;
+    @Nullable
+    Throwable error;
+
+    PendingWrite(@NonNull Callable<T> write,
+                 @NonNull SingleSubscriber<? super T> subscriber,
+                 @Nullable Scheduler deliveryScheduler) {
+      this.write = write;
+      this.subscriber = subscriber;
+      this.deliveryScheduler = deliveryScheduler;
+    }
+
+    void run() throws Exception {
+      if (!subscriber.isUnsubscribed()) {
+        result = write.call();
+      }
+    }
+
+    void snapshot() {
+      if (write instanceof RevertibleWrite) {
+        ((RevertibleWrite) write).snapshot();
+      }
+    }
+
+    void revert() {
+      if (write instanceof RevertibleWrite) {
+        ((RevertibleWrite) write).revert();
+      }
+    }
+
+    void runAndComplete() {
+      try {
+        run();
+      } catch (Throwable e) {
+        fail(e);
+        return;
+      }
+      complete();
+    }
+
+    void complete() {
+      deliver();
+    }
+
+    void fail(@NonNull Throwable e) {
+      error = e;
+      deliver();
+    }
+
+    private void deliver() {
+      if (subscriber.isUnsubscribed()) {
+        return;
+      }
+      final Scheduler deliveryScheduler = this.deliveryScheduler;
+      if (deliveryScheduler == null) {
+        call();
+        return;
+      }
+      final Scheduler.Worker worker = deliveryScheduler.createWorker();
+      worker.schedule(new Action0() {
+        @Override
+        public void call() {
+          try {
+            PendingWrite.this.call();
+          } finally {
+            worker.unsubscribe();
+          }
+        }
+      });
+    }
+
+    @Override
+    public void call() {
+      if (subscriber.isUnsubscribed()) {
+        return;
+      }
+      final Throwable error = this.error;
+      if (error != null) {
+        subscriber.onError(error);
+      } else {
+        subscriber.onSuccess(result);
+      }
+    }
+  }
+}
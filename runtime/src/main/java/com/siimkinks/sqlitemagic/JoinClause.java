@@ -62,7 +62,7 @@ public class JoinClause extends SqlClause {
     return true;
   }
 
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
   }
 
   static int indexOf(@NonNull Table<?> table,
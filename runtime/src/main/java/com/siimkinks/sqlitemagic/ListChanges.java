@@ -0,0 +1,255 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import rx.functions.Func1;
+
+/**
+ * Changes between two consecutive results of an observed list query.
+ * <p>
+ * Rows are matched by their id &mdash; rows with equal ids are considered to be the same row.
+ * Matched rows that are {@linkplain Object#equals(Object) equal} to their previous version
+ * are unchanged and {@link #getList()} contains their previous instances, so unchanged
+ * rows keep their identity between emissions.
+ * <p>
+ * Positions of removed rows refer to the previous list; positions of inserted, moved and
+ * changed rows refer to the new list. Minimal set of rows is reported as moved &mdash; rows
+ * whose relative order is kept are not reported.
+ *
+ * @param <T> List item type
+ */
+public final class ListChanges<T> {
+  private static final int[] NO_POSITIONS = new int[0];
+
+  @NonNull
+  private final List<T> list;
+  @NonNull
+  private final int[] removed;
+  @NonNull
+  private final int[] inserted;
+  @NonNull
+  private final int[] movedFrom;
+  @NonNull
+  private final int[] movedTo;
+  @NonNull
+  private final int[] changed;
+
+  private ListChanges(@NonNull List<T> list,
+                      @NonNull int[] removed,
+                      @NonNull int[] inserted,
+                      @NonNull int[] movedFrom,
+                      @NonNull int[] movedTo,
+                      @NonNull int[] changed) {
+    this.list = list;
+    this.removed = removed;
+    this.inserted = inserted;
+    this.movedFrom = movedFrom;
+    this.movedTo = movedTo;
+    this.changed = changed;
+  }
+
+  /**
+   * Compute changes between two consecutive query results.
+   *
+   * @param previous Previous result or {@code null} if this is the first result
+   * @param current  New result
+   * @param idGetter Function which returns row id
+   * @param <T>      List item type
+   * @return Changes where new list reuses unchanged instances from the previous list
+   */
+  @NonNull
+  static <T> ListChanges<T> compute(@Nullable List<T> previous,
+                                    @NonNull List<T> current,
+                                    @NonNull Func1<? super T, ?> idGetter) {
+    final int newSize = current.size();
+    if (previous == null || previous.isEmpty()) {
+      final int[] inserted = new int[newSize];
+      for (int i = 0; i < newSize; i++) {
+        inserted[i] = i;
+      }
+      return new ListChanges<>(current, NO_POSITIONS, inserted, NO_POSITIONS, NO_POSITIONS, NO_POSITIONS);
+    }
+    final int oldSize = previous.size();
+    final HashMap<Object, Integer> oldPositions = new HashMap<>(oldSize * 4 / 3 + 1);
+    for (int i = oldSize - 1; i >= 0; i--) {
+      oldPositions.put(idGetter.call(previous.get(i)), i);
+    }
+    final boolean[] matched = new boolean[oldSize];
+    // old position of each new row or -1 if row is inserted
+    final int[] oldPositionOfNew = new int[newSize];
+    final ArrayList<T> list = new ArrayList<>(newSize);
+    final int[] inserted = new int[newSize];
+    final int[] changed = new int[newSize];
+    int insertedCount = 0;
+    int changedCount = 0;
+    int matchedCount = 0;
+    boolean listChanged = oldSize != newSize;
+    for (int i = 0; i < newSize; i++) {
+      final T item = current.get(i);
+      final Integer oldPos = oldPositions.get(idGetter.call(item));
+      if (oldPos == null || matched[oldPos]) {
+        oldPositionOfNew[i] = -1;
+        inserted[insertedCount++] = i;
+        list.add(item);
+        continue;
+      }
+      matched[oldPos] = true;
+      matchedCount++;
+      oldPositionOfNew[i] = oldPos;
+      final T oldItem = previous.get(oldPos);
+      if (oldItem == item || (oldItem != null && oldItem.equals(item))) {
+        list.add(oldItem);
+      } else {
+        changed[changedCount++] = i;
+        list.add(item);
+      }
+    }
+    final int[] removed = new int[oldSize - matchedCount];
+    for (int i = 0, r = 0; i < oldSize; i++) {
+      if (!matched[i]) {
+        removed[r++] = i;
+      }
+    }
+    final boolean[] kept = longestIncreasingSubsequence(oldPositionOfNew);
+    int movedCount = 0;
+    for (int i = 0; i < newSize; i++) {
+      if (oldPositionOfNew[i] != -1 && !kept[i]) {
+        movedCount++;
+      }
+    }
+    final int[] movedFrom = movedCount == 0 ? NO_POSITIONS : new int[movedCount];
+    final int[] movedTo = movedCount == 0 ? NO_POSITIONS : new int[movedCount];
+    for (int i = 0, m = 0; i < newSize; i++) {
+      if (oldPositionOfNew[i] != -1 && !kept[i]) {
+        movedFrom[m] = oldPositionOfNew[i];
+        movedTo[m++] = i;
+      }
+    }
+    listChanged |= insertedCount > 0 || changedCount > 0 || removed.length > 0 || movedCount > 0;
+    return new ListChanges<>(
+        listChanged ? Collections.unmodifiableList(list) : previous,
+        removed.length == 0 ? NO_POSITIONS : removed,
+        insertedCount == 0 ? NO_POSITIONS : Arrays.copyOf(inserted, insertedCount),
+        movedFrom,
+        movedTo,
+        changedCount == 0 ? NO_POSITIONS : Arrays.copyOf(changed, changedCount));
+  }
+
+  /**
+   * Find rows that keep their relative order.
+   *
+   * @param oldPositions Old position of each new row or -1 if row is new
+   * @return Flags of new rows that belong to the longest run of increasing old positions
+   */
+  @NonNull
+  private static boolean[] longestIncreasingSubsequence(@NonNull int[] oldPositions) {
+    final int size = oldPositions.length;
+    final boolean[] kept = new boolean[size];
+    // tails[k] is the index of the smallest tail of all increasing runs of length k + 1
+    final int[] tails = new int[size];
+    final int[] predecessors = new int[size];
+    int length = 0;
+    for (int i = 0; i < size; i++) {
+      final int value = oldPositions[i];
+      if (value == -1) {
+        continue;
+      }
+      int low = 0;
+      int high = length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (oldPositions[tails[mid]] < value) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      predecessors[i] = low > 0 ? tails[low - 1] : -1;
+      tails[low] = i;
+      if (low == length) {
+        length++;
+      }
+    }
+    for (int i = length > 0 ? tails[length - 1] : -1; i != -1; i = predecessors[i]) {
+      kept[i] = true;
+    }
+    return kept;
+  }
+
+  /**
+   * @return New query result. Unchanged rows are the same instances as in the previous result
+   */
+  @NonNull
+  public List<T> getList() {
+    return list;
+  }
+
+  /**
+   * @return Ascending positions of removed rows in the previous list
+   */
+  @NonNull
+  public int[] getRemoved() {
+    return removed;
+  }
+
+  /**
+   * @return Ascending positions of inserted rows in the new list
+   */
+  @NonNull
+  public int[] getInserted() {
+    return inserted;
+  }
+
+  /**
+   * @return Positions of moved rows in the previous list. Each position corresponds to
+   * the position with the same index in {@link #getMovedTo()}
+   */
+  @NonNull
+  public int[] getMovedFrom() {
+    return movedFrom;
+  }
+
+  /**
+   * @return Ascending positions of moved rows in the new list. Each position corresponds to
+   * the position with the same index in {@link #getMovedFrom()}
+   */
+  @NonNull
+  public int[] getMovedTo() {
+    return movedTo;
+  }
+
+  /**
+   * @return Ascending positions of rows in the new list whose columns changed
+   */
+  @NonNull
+  public int[] getChanged() {
+    return changed;
+  }
+
+  /**
+   * @return Whether there are no changes compared to the previous result
+   */
+  public boolean isEmpty() {
+    return removed.length == 0
+        && inserted.length == 0
+        && movedTo.length == 0
+        && changed.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ListChanges[size=" + list.size() +
+        ", removed=" + Arrays.toString(removed) +
+        ", inserted=" + Arrays.toString(inserted) +
+        ", movedFrom=" + Arrays.toString(movedFrom) +
+        ", movedTo=" + Arrays.toString(movedTo) +
+        ", changed=" + Arrays.toString(changed) + "]";
+  }
+}
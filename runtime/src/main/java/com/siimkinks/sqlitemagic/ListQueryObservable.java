@@ -0,0 +1,52 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+import rx.Observable;
+import rx.functions.Func1;
+
+/**
+ * An {@link Observable} of {@link Query} which offers list query specific convenience operators.
+ *
+ * @param <T> List item type
+ */
+public final class ListQueryObservable<T> extends QueryObservable<List<T>> {
+  /**
+   * Id getter which matches rows by equality.
+   */
+  static final Func1<Object, Object> IDENTITY = new Func1<Object, Object>() {
+    @Override
+    public Object call(Object item) {
+      return item;
+    }
+  };
+
+  @NonNull
+  private final Func1<? super T, ?> idGetter;
+
+  ListQueryObservable(@NonNull Observable<Query<List<T>>> o, @NonNull Func1<? super T, ?> idGetter) {
+    super(o);
+    this.idGetter = idGetter;
+  }
+
+  /**
+   * Runs each emitted {@link Query} and propagates the {@linkplain ListChanges changes}
+   * compared to the previous result to downstream.
+   * <p>
+   * Rows are matched by their id column. Rows of tables without id and single column
+   * values are matched by equality. Changes are computed on the same thread the query runs,
+   * so when observed list is big or changes often the diffing does not burden the thread
+   * that consumes the changes. Rows that did not change keep their previous instances.
+   * <p>
+   * First query result is emitted as all rows being inserted. Subsequent results that do
+   * not differ from the previous result are not emitted.
+   */
+  @NonNull
+  @CheckResult
+  public final Observable<ListChanges<T>> runQueryChanges() {
+    return lift(new OperatorListChanges<T>(idGetter));
+  }
+}
@@ -0,0 +1,151 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.QueryResultCache.Key;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import rx.Observable;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.createTriggeredQueryObservable;
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.failIfInTransaction;
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.onQueryScheduler;
+
+/**
+ * Registry of live queries of a DB connection which
+ * {@linkplain SqliteMagic.DatabaseSetupBuilder#withSharedLiveQueries() shares} them.
+ * <p>
+ * Observed queries with equal SQL, arguments and projection share one hot stream.
+ * Projections must also be of the same type, since a projection table renders the
+ * same SQL as its base table.
+ * The stream is connected while it has subscribers and replays the latest query
+ * to late subscribers. Each emitted query is run against a database only once &mdash;
+ * all subscribers receive the same result instance, so returned lists are unmodifiable.
+ */
+final class LiveQueryRegistry {
+  @NonNull
+  private final HashMap<Key, Observable<?>> queries = new HashMap<>();
+
+  /**
+   * Create an observable which shares its emissions with all other observables
+   * of equal query.
+   *
+   * @param observedTables Tables which changes trigger the query
+   * @param query          Query to run
+   * @param sql            Query SQL
+   * @param args           Query arguments
+   * @param projection     Object that describes how query result rows are parsed
+   */
+  @NonNull
+  <T> Observable<Query<T>> observe(@NonNull final String[] observedTables,
+                                   @NonNull final Query<T> query,
+                                   @NonNull String sql,
+                                   @Nullable Object[] args,
+                                   @Nullable Object projection) {
+    final Key key = new Key(query.getClass(), sql, args, projection);
+    final Observable<Query<T>> shared = Observable.defer(new Func0<Observable<Query<T>>>() {
+      @Override
+      public Observable<Query<T>> call() {
+        return getShared(key, observedTables, query);
+      }
+    });
+    // each subscriber runs queries on the query scheduler, also the latest query that
+    // is replayed to it on the subscribing thread
+    return onQueryScheduler(shared, query.dbConnection)
+        .doOnSubscribe(failIfInTransaction(query.dbConnection));
+  }
+
+  @NonNull
+  private synchronized <T> Observable<Query<T>> getShared(@NonNull final Key key,
+                                                          @NonNull String[] observedTables,
+                                                          @NonNull Query<T> query) {
+    //noinspection unchecked
+    Observable<Query<T>> shared = (Observable<Query<T>>) queries.get(key);
+    if (shared == null) {
+      final Observable<?>[] holder = new Observable<?>[1];
+      shared = createTriggeredQueryObservable(observedTables, query)
+          .map(new Func1<Query<T>, Query<T>>() {
+            @Override
+            public Query<T> call(Query<T> query) {
+              return new SharedQuery<>(query);
+            }
+          })
+          .doOnUnsubscribe(new Action0() {
+            @Override
+            public void call() {
+              remove(key, holder[0]);
+            }
+          })
+          .replay(1)
+          .refCount();
+      holder[0] = shared;
+      queries.put(key, shared);
+    }
+    return shared;
+  }
+
+  private synchronized void remove(@NonNull Key key, @Nullable Observable<?> shared) {
+    if (queries.get(key) == shared) {
+      queries.remove(key);
+    }
+  }
+
+  /**
+   * @return Number of live shared queries
+   */
+  synchronized int size() {
+    return queries.size();
+  }
+
+  /**
+   * Query emission that is run against a database only once for all subscribers.
+   */
+  static final class SharedQuery<T> extends Query<T> {
+    @NonNull
+    private final Query<T> query;
+    private boolean loaded;
+    @Nullable
+    private T result;
+
+    SharedQuery(@NonNull Query<T> query) {
+      super(query.dbConnection);
+      this.query = query;
+    }
+
+    @Nullable
+    @Override
+    T runImpl(@NonNull Subscription subscriber, boolean inStream) {
+      super.runImpl(subscriber, inStream);
+      synchronized (this) {
+        if (!loaded) {
+          // result is shared, so query must not be cut short by any single subscriber
+          result = shareable(query.runImpl(INFINITE_SUBSCRIPTION, inStream));
+          loaded = true;
+        }
+        return result;
+      }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> T shareable(@Nullable T result) {
+      if (result instanceof List) {
+        return (T) Collections.unmodifiableList((List<?>) result);
+      }
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return query.toString();
+    }
+  }
+}
@@ -24,8 +24,8 @@ public final class LogUtil {
   public static void logQueryTime(long queryTimeInMillis,
                                   @NonNull String[] observedTables,
                                   @NonNull String sql,
-                                  @Nullable String[] args) {
-    SqliteMagic.LOGGER.logQueryTime(queryTimeInMillis, observedTables, sql, args);
+                                  @Nullable Object[] args) {
+    SqliteMagic.LOGGER.logQueryTime(queryTimeInMillis, observedTables, sql, SqlArgs.toStrings(args));
   }
 
   public static void logDebug(@NonNull String msg, Object... args) {
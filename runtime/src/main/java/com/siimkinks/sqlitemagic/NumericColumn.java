@@ -49,6 +49,19 @@ public class NumericColumn<T, R, ET, P> extends Column<T, R, ET, P> {
     return new Expr1(this, ">?", toSqlArg(value));
   }
 
+  /**
+   * This column &gt; parameter.
+   *
+   * @param param Parameter placeholder which value is bound before execution
+   * @return Expression
+   * @see Param
+   */
+  @NonNull
+  @CheckResult
+  public final Expr greaterThan(@NonNull Param<T> param) {
+    return new Expr1(this, ">?", new ParamSlots.Placeholder(this));
+  }
+
   /**
    * This column &gt; column.
    *
@@ -87,6 +100,19 @@ public class NumericColumn<T, R, ET, P> extends Column<T, R, ET, P> {
     return new Expr1(this, ">=?", toSqlArg(value));
   }
 
+  /**
+   * This column &gt;= parameter.
+   *
+   * @param param Parameter placeholder which value is bound before execution
+   * @return Expression
+   * @see Param
+   */
+  @NonNull
+  @CheckResult
+  public final Expr greaterOrEqual(@NonNull Param<T> param) {
+    return new Expr1(this, ">=?", new ParamSlots.Placeholder(this));
+  }
+
   /**
    * This column &gt;= column.
    *
@@ -125,6 +151,19 @@ public class NumericColumn<T, R, ET, P> extends Column<T, R, ET, P> {
     return new Expr1(this, "<?", toSqlArg(value));
   }
 
+  /**
+   * This column &lt; parameter.
+   *
+   * @param param Parameter placeholder which value is bound before execution
+   * @return Expression
+   * @see Param
+   */
+  @NonNull
+  @CheckResult
+  public final Expr lessThan(@NonNull Param<T> param) {
+    return new Expr1(this, "<?", new ParamSlots.Placeholder(this));
+  }
+
   /**
    * This column &lt; column.
    *
@@ -163,6 +202,19 @@ public class NumericColumn<T, R, ET, P> extends Column<T, R, ET, P> {
     return new Expr1(this, "<=?", toSqlArg(value));
   }
 
+  /**
+   * This column &lt;= parameter.
+   *
+   * @param param Parameter placeholder which value is bound before execution
+   * @return Expression
+   * @see Param
+   */
+  @NonNull
+  @CheckResult
+  public final Expr lessOrEqual(@NonNull Param<T> param) {
+    return new Expr1(this, "<=?", new ParamSlots.Placeholder(this));
+  }
+
   /**
    * This column &lt;= column.
    *
@@ -0,0 +1,60 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+import rx.functions.Func1;
+
+final class OperatorListChanges<T> implements Observable.Operator<ListChanges<T>, Query<List<T>>> {
+  @NonNull
+  final Func1<? super T, ?> idGetter;
+
+  OperatorListChanges(@NonNull Func1<? super T, ?> idGetter) {
+    this.idGetter = idGetter;
+  }
+
+  @Override
+  public Subscriber<? super Query<List<T>>> call(final Subscriber<? super ListChanges<T>> subscriber) {
+    return new Subscriber<Query<List<T>>>(subscriber) {
+      private List<T> previous;
+
+      @Override
+      public void onNext(Query<List<T>> query) {
+        try {
+          final List<T> result = query.runImpl(subscriber, true);
+          if (subscriber.isUnsubscribed()) {
+            return;
+          }
+          if (result == null) {
+            request(1);
+            return;
+          }
+          final List<T> previous = this.previous;
+          final ListChanges<T> changes = ListChanges.compute(previous, result, idGetter);
+          if (previous != null && changes.isEmpty()) {
+            request(1);
+            return;
+          }
+          this.previous = changes.getList();
+          subscriber.onNext(changes);
+        } catch (Throwable e) {
+          Exceptions.throwOrReport(e, this, query.toString());
+        }
+      }
+
+      @Override
+      public void onCompleted() {
+        subscriber.onCompleted();
+      }
+
+      @Override
+      public void onError(Throwable e) {
+        subscriber.onError(e);
+      }
+    };
+  }
+}
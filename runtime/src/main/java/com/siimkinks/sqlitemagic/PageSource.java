@@ -0,0 +1,370 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+
+import static com.siimkinks.sqlitemagic.CompiledSelectImpl.createQueryObservable;
+
+/**
+ * Source of query result pages.
+ * <p>
+ * Pages are loaded with keyset (seek) pagination &mdash; each page continues from the
+ * ordering key of the previous page's last row, so loading a page takes the same time
+ * no matter how deep in the result set it is.
+ * <p>
+ * When a page is loaded, the next page is prefetched on the {@link rx.Scheduler} supplied to
+ * {@link com.siimkinks.sqlitemagic.SqliteMagic.DatabaseSetupBuilder#scheduleRxQueriesOn}.
+ * <p>
+ * Page source is immutable object which can be shared across multiple threads
+ * without side effects.
+ *
+ * @param <T> Selection return type
+ * @see Select.OrderBy#paged(int)
+ */
+public final class PageSource<T> {
+  /**
+   * Compiled select which can be executed with keyset paging SQL.
+   */
+  interface PagedSelect<T> {
+    @NonNull
+    CursorIterator<T> iterate(@NonNull String sql, @Nullable Object[] args);
+  }
+
+  @NonNull
+  private final PagedSelect<T> select;
+  @NonNull
+  private final DbConnectionImpl dbConnection;
+  @NonNull
+  final String firstPageSql;
+  @NonNull
+  final String nextPageSql;
+  @Nullable
+  final Object[] args;
+  @NonNull
+  private final String[] observedTables;
+  private final int pageSize;
+  private final int keyCount;
+  /**
+   * Pages loaded in previous generations are invalidated.
+   */
+  private final AtomicInteger generation = new AtomicInteger();
+  @NonNull
+  private final FirstPageQuery firstPageQuery;
+
+  PageSource(@NonNull PagedSelect<T> select,
+             @NonNull DbConnectionImpl dbConnection,
+             @NonNull String firstPageSql,
+             @NonNull String nextPageSql,
+             @Nullable Object[] args,
+             @NonNull String[] observedTables,
+             int pageSize,
+             int keyCount) {
+    this.select = select;
+    this.dbConnection = dbConnection;
+    this.firstPageSql = firstPageSql;
+    this.nextPageSql = nextPageSql;
+    this.args = args;
+    this.observedTables = observedTables;
+    this.pageSize = pageSize;
+    this.keyCount = keyCount;
+    this.firstPageQuery = new FirstPageQuery(dbConnection);
+  }
+
+  /**
+   * @return Maximum number of rows in a page
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Load the first page of the query result.
+   * <p>
+   * This method runs synchronously in the calling thread.
+   *
+   * @return First page
+   */
+  @NonNull
+  @CheckResult
+  @WorkerThread
+  public Page<T> firstPage() {
+    return loadFirstPage(generation.get());
+  }
+
+  /**
+   * Create an observable which will notify subscribers with a {@linkplain Query query} for
+   * the first page.
+   * <p>
+   * Subscribers will receive an immediate notification for initial data as well as subsequent
+   * notifications for when the queried tables data changes through the SqliteMagic
+   * provided model operations. Each notification invalidates all previously loaded pages
+   * and their prefetched next pages. Following pages are loaded with {@link Page#next()}.
+   * Unsubscribe when you no longer want updates to a query.
+   * <p>
+   * Items emitted from the returned observable use the {@link rx.Scheduler} supplied to
+   * {@link com.siimkinks.sqlitemagic.SqliteMagic.DatabaseSetupBuilder#scheduleRxQueriesOn}.
+   * <p>
+   * <b>Warning:</b> this method does not perform the query! Only by subscribing to the returned
+   * {@link rx.Observable} will the operation occur.
+   */
+  @NonNull
+  @CheckResult
+  public QueryObservable<Page<T>> observe() {
+    return new QueryObservable<>(createQueryObservable(observedTables, (Query<Page<T>>) firstPageQuery));
+  }
+
+  @NonNull
+  Page<T> loadFirstPage(int generation) {
+    final Page<T> page = loadPage(null, generation);
+    page.prefetchNext();
+    return page;
+  }
+
+  @NonNull
+  Page<T> loadPage(@Nullable Object[] key, int generation) {
+    final String sql;
+    final Object[] args;
+    if (key == null) {
+      sql = firstPageSql;
+      args = this.args;
+    } else {
+      sql = nextPageSql;
+      args = seekArgs(key);
+    }
+    final int pageSize = this.pageSize;
+    final ArrayList<T> items = new ArrayList<>(pageSize);
+    Object[] nextKey = null;
+    final CursorIterator<T> iterator = select.iterate(sql, args);
+    try {
+      while (items.size() < pageSize && iterator.hasNext()) {
+        items.add(iterator.next());
+      }
+      if (items.size() == pageSize && iterator.hasNext()) {
+        nextKey = iterator.lastColumnValues(keyCount);
+      }
+    } finally {
+      iterator.close();
+    }
+    return new Page<>(this, Collections.unmodifiableList(items), nextKey, generation);
+  }
+
+  /**
+   * Arguments for the next page query -- query arguments followed by the seek condition
+   * arguments.
+   */
+  @NonNull
+  private Object[] seekArgs(@NonNull Object[] key) {
+    final Object[] args = this.args;
+    final int argsCount = args != null ? args.length : 0;
+    final int keyCount = key.length;
+    final Object[] result = new Object[argsCount + keyCount * 2 - 1];
+    if (args != null) {
+      System.arraycopy(args, 0, result, 0, argsCount);
+    }
+    for (int i = 0, pos = argsCount; i < keyCount; i++) {
+      result[pos++] = key[i];
+      if (i < keyCount - 1) {
+        result[pos++] = key[i];
+      }
+    }
+    return result;
+  }
+
+  boolean isInvalidated(int generation) {
+    return generation != this.generation.get();
+  }
+
+  @Nullable
+  FutureTask<Page<T>> prefetch(@NonNull final Object[] key, final int generation) {
+    if (isInvalidated(generation) || dbConnection.transactions.get() != null) {
+      return null;
+    }
+    final FutureTask<Page<T>> task = new FutureTask<>(new Callable<Page<T>>() {
+      @Override
+      public Page<T> call() throws Exception {
+        return loadPage(key, generation);
+      }
+    });
+    final Scheduler.Worker worker = dbConnection.queryScheduler.createWorker();
+    worker.schedule(new Action0() {
+      @Override
+      public void call() {
+        try {
+          task.run();
+        } finally {
+          worker.unsubscribe();
+        }
+      }
+    });
+    return task;
+  }
+
+  /**
+   * Wait for prefetched page.
+   *
+   * @return Prefetched page or {@code null} if it has to be loaded in the calling thread
+   */
+  @Nullable
+  Page<T> awaitPrefetch(@NonNull FutureTask<Page<T>> task) {
+    if (task.isCancelled()) {
+      return null;
+    }
+    if (!task.isDone() && dbConnection.transactions.get() != null) {
+      // prefetch could be waiting for the connection held by this thread
+      task.cancel(false);
+      return null;
+    }
+    // runs the prefetch in the calling thread if it has not been started yet
+    task.run();
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (CancellationException e) {
+      return null;
+    } catch (ExecutionException e) {
+      // retry in the calling thread, so that errors surface there
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "[PAGED; pageSize=" + pageSize + ";sql=" + firstPageSql + "]";
+  }
+
+  final class FirstPageQuery extends Query<Page<T>> {
+    FirstPageQuery(@NonNull DbConnectionImpl dbConnection) {
+      super(dbConnection);
+    }
+
+    @NonNull
+    @Override
+    Page<T> runImpl(@NonNull Subscription subscriber, boolean inStream) {
+      super.runImpl(subscriber, inStream);
+      return loadFirstPage(generation.incrementAndGet());
+    }
+
+    @Override
+    public String toString() {
+      return PageSource.this.toString();
+    }
+  }
+
+  /**
+   * Page of query result.
+   *
+   * @param <T> Selection return type
+   */
+  public static final class Page<T> {
+    @NonNull
+    private final PageSource<T> source;
+    @NonNull
+    private final List<T> items;
+    @Nullable
+    private final Object[] nextKey;
+    private final int generation;
+    @Nullable
+    private FutureTask<Page<T>> prefetch;
+
+    Page(@NonNull PageSource<T> source,
+         @NonNull List<T> items,
+         @Nullable Object[] nextKey,
+         int generation) {
+      this.source = source;
+      this.items = items;
+      this.nextKey = nextKey;
+      this.generation = generation;
+    }
+
+    /**
+     * @return Unmodifiable list of rows in this page
+     */
+    @NonNull
+    public List<T> getItems() {
+      return items;
+    }
+
+    /**
+     * @return Whether there are more rows after this page
+     */
+    public boolean hasNext() {
+      return nextKey != null;
+    }
+
+    /**
+     * Whether this page is invalidated.
+     * <p>
+     * Pages are invalidated when queried tables change while the first page is
+     * {@linkplain PageSource#observe() observed}. Invalidated page can still be used to load
+     * following pages, but they are not prefetched.
+     *
+     * @return {@code true} if this page is invalidated
+     */
+    public boolean isInvalidated() {
+      return source.isInvalidated(generation);
+    }
+
+    /**
+     * Load the page that follows this page.
+     * <p>
+     * If the next page is already prefetched it is returned without querying the database,
+     * otherwise this method runs synchronously in the calling thread.
+     *
+     * @return Next page
+     * @throws NoSuchElementException if this is the last page
+     */
+    @NonNull
+    @CheckResult
+    @WorkerThread
+    public Page<T> next() {
+      final Object[] nextKey = this.nextKey;
+      if (nextKey == null) {
+        throw new NoSuchElementException();
+      }
+      final FutureTask<Page<T>> prefetch;
+      synchronized (this) {
+        prefetch = this.prefetch;
+      }
+      final PageSource<T> source = this.source;
+      Page<T> page = null;
+      if (prefetch != null && !isInvalidated()) {
+        page = source.awaitPrefetch(prefetch);
+      }
+      if (page == null) {
+        page = source.loadPage(nextKey, generation);
+      }
+      page.prefetchNext();
+      return page;
+    }
+
+    synchronized void prefetchNext() {
+      final Object[] nextKey = this.nextKey;
+      if (prefetch == null && nextKey != null) {
+        prefetch = source.prefetch(nextKey, generation);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "Page{items=" + items.size() + ", hasNext=" + hasNext() + "}";
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+/**
+ * Placeholder for a value that is bound after the statement is compiled.
+ * <p>
+ * Parameters make it possible to compile a select statement once and execute it
+ * many times with different values. Parameter values are bound positionally -- in the
+ * order parameters appear in the SQL statement -- with
+ * {@link CompiledSelect#bind(Object...)} or {@link CompiledFirstSelect#bind(Object...)}.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * CompiledFirstSelect<Author, SelectN> authorById = Select
+ *     .from(AUTHOR)
+ *     .where(AUTHOR.ID.is(Param.<Long>create()))
+ *     .takeFirst();
+ *
+ * Author author = authorById.bind(id).execute();
+ * }</pre>
+ *
+ * @param <T> Parameter value type
+ */
+public final class Param<T> {
+  private Param() {
+  }
+
+  /**
+   * Create a new parameter placeholder.
+   *
+   * @param <T> Parameter value type
+   * @return New parameter placeholder
+   */
+  @NonNull
+  @CheckResult
+  public static <T> Param<T> create() {
+    return new Param<>();
+  }
+}
@@ -0,0 +1,132 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * Positions of {@link Param} placeholders in compiled statement arguments.
+ */
+final class ParamSlots {
+  @NonNull
+  private final int[] positions;
+  @NonNull
+  private final Column<?, ?, ?, ?>[] columns;
+
+  private ParamSlots(@NonNull int[] positions, @NonNull Column<?, ?, ?, ?>[] columns) {
+    this.positions = positions;
+    this.columns = columns;
+  }
+
+  /**
+   * Collect parameter placeholders from builder arguments.
+   *
+   * @return Parameter slots or {@code null} if there are no parameters
+   */
+  @Nullable
+  static ParamSlots from(@NonNull ArrayList<Object> args) {
+    int count = 0;
+    final int size = args.size();
+    for (int i = 0; i < size; i++) {
+      if (args.get(i) instanceof Placeholder) {
+        count++;
+      }
+    }
+    if (count == 0) {
+      return null;
+    }
+    final int[] positions = new int[count];
+    final Column<?, ?, ?, ?>[] columns = new Column<?, ?, ?, ?>[count];
+    for (int i = 0, pos = 0; i < size; i++) {
+      final Object arg = args.get(i);
+      if (arg instanceof Placeholder) {
+        positions[pos] = i;
+        columns[pos] = ((Placeholder) arg).column;
+        pos++;
+      }
+    }
+    return new ParamSlots(positions, columns);
+  }
+
+  /**
+   * Convert builder arguments to statement arguments. Parameter slots are left empty.
+   *
+   * @return Statement arguments or {@code null} if there are no arguments
+   */
+  @Nullable
+  static Object[] toArgs(@NonNull ArrayList<Object> args) {
+    final int size = args.size();
+    if (size == 0) {
+      return null;
+    }
+    final Object[] result = new Object[size];
+    for (int i = 0; i < size; i++) {
+      final Object arg = args.get(i);
+      if (!(arg instanceof Placeholder)) {
+        result[i] = arg;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Convert builder arguments to statement arguments for statements that do not
+   * support parameters.
+   */
+  @NonNull
+  static Object[] toArgsWithoutParams(@NonNull ArrayList<Object> args) {
+    final int size = args.size();
+    final Object[] result = new Object[size];
+    for (int i = 0; i < size; i++) {
+      final Object arg = args.get(i);
+      if (arg instanceof Placeholder) {
+        throw new IllegalStateException("Parameters are supported only in SELECT statements");
+      }
+      result[i] = arg;
+    }
+    return result;
+  }
+
+  static void checkAllBound(@Nullable ParamSlots params) {
+    if (params != null) {
+      throw new IllegalStateException("Select statement has unbound parameters. " +
+          "Bind parameter values with bind(...) before executing it");
+    }
+  }
+
+  /**
+   * Create new statement arguments with parameter values filled in.
+   */
+  @SuppressWarnings("unchecked")
+  @NonNull
+  Object[] bind(@NonNull Object[] args, @NonNull Object[] values) {
+    final int[] positions = this.positions;
+    final int count = positions.length;
+    if (values.length != count) {
+      throw new IllegalArgumentException("Expected " + count + " parameter values, but got " + values.length);
+    }
+    final Object[] boundArgs = args.clone();
+    final Column[] columns = this.columns;
+    for (int i = 0; i < count; i++) {
+      final Object value = values[i];
+      if (value == null) {
+        throw new NullPointerException("Parameter value at index " + i + " is null");
+      }
+      boundArgs[positions[i]] = columns[i].toSqlArg(value);
+    }
+    return boundArgs;
+  }
+
+  /**
+   * Parameter placeholder in builder arguments.
+   */
+  static final class Placeholder {
+    @NonNull
+    final Column<?, ?, ?, ?> column;
+
+    Placeholder(@NonNull Column<?, ?, ?, ?> column) {
+      this.column = column;
+    }
+  }
+}
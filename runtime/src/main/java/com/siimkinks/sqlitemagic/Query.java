@@ -3,6 +3,7 @@ package com.siimkinks.sqlitemagic;
 import android.support.annotation.CallSuper;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import rx.Observable;
@@ -102,4 +103,35 @@ public abstract class Query<T> {
     }
     return null;
   }
+
+  /**
+   * Ids of the rows this query is restricted to.
+   * <p>
+   * Observed query with row ids is re-run only when its observed table changes in one of
+   * these rows or in unknown rows.
+   *
+   * @return Row ids or {@code null} if this query is not restricted to a set of row ids
+   */
+  @Nullable
+  long[] observedRowIds() {
+    return null;
+  }
+
+  @Nullable
+  static long[] rowIdsFromArgs(@Nullable int[] rowIdArgs, @Nullable Object[] args) {
+    if (rowIdArgs == null || args == null) {
+      return null;
+    }
+    final int count = rowIdArgs.length;
+    final long[] rowIds = new long[count];
+    for (int i = 0; i < count; i++) {
+      final Object arg = args[rowIdArgs[i]];
+      if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+        rowIds[i] = ((Number) arg).longValue();
+      } else {
+        return null;
+      }
+    }
+    return rowIds;
+  }
 }
@@ -0,0 +1,142 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
+import com.siimkinks.sqlitemagic.internal.StringArraySet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Query parts that a table adds to a select statement &mdash; joins of the selected table
+ * graph, renamed tables and selection graph node names.
+ * <p>
+ * Table graph is fixed at compile time, so when a query has no user defined joins its
+ * query parts depend only on the root table and the selected tables. Where, order by and
+ * limit clauses do not affect them, so the walk over the table graph is done once per
+ * selection instead of once per query.
+ * <p>
+ * Query parts are immutable after they are created &mdash; join clauses and renamed
+ * tables are only read when SQL is generated.
+ */
+final class QueryParts {
+  /**
+   * Max number of different selections that are cached per table.
+   */
+  static final int MAX_CACHED_SELECTIONS = 16;
+
+  @NonNull
+  private final JoinClause[] joins;
+  @Nullable
+  private final SimpleArrayMap<String, LinkedList<String>> systemRenamedTables;
+  @Nullable
+  private final SimpleArrayMap<String, String> tableGraphNodeNames;
+
+  private QueryParts(@NonNull ArrayList<JoinClause> joins,
+                     @Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables,
+                     @Nullable SimpleArrayMap<String, String> tableGraphNodeNames) {
+    this.joins = joins.toArray(new JoinClause[joins.size()]);
+    this.systemRenamedTables = systemRenamedTables;
+    this.tableGraphNodeNames = tableGraphNodeNames != null && !tableGraphNodeNames.isEmpty()
+        ? new SimpleArrayMap<String, String>(tableGraphNodeNames) : null;
+  }
+
+  /**
+   * Add these query parts to the select statement.
+   *
+   * @return System renamed tables
+   */
+  @Nullable
+  private SimpleArrayMap<String, LinkedList<String>> addTo(@NonNull Select.From<?, ?, ?> from,
+                                                           @Nullable SimpleArrayMap<String, String> tableGraphNodeNames) {
+    Collections.addAll(from.joins, joins);
+    if (tableGraphNodeNames != null && this.tableGraphNodeNames != null) {
+      tableGraphNodeNames.putAll(this.tableGraphNodeNames);
+    }
+    return systemRenamedTables;
+  }
+
+  /**
+   * Query parts of one root table keyed by selection.
+   */
+  static final class Cache {
+    private final LinkedHashMap<Key, QueryParts> entries = new LinkedHashMap<Key, QueryParts>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, QueryParts> eldest) {
+        return size() > MAX_CACHED_SELECTIONS;
+      }
+    };
+
+    /**
+     * Add query parts of the root table to the select statement, walking the table
+     * graph only when the selection is seen for the first time.
+     *
+     * @return System renamed tables
+     */
+    @Nullable
+    SimpleArrayMap<String, LinkedList<String>> add(@NonNull Table<?> table,
+                                                   @NonNull Select.From<?, ?, ?> from,
+                                                   @Nullable StringArraySet selectFromTables,
+                                                   @Nullable SimpleArrayMap<String, String> tableGraphNodeNames,
+                                                   boolean select1,
+                                                   boolean deep) {
+      final QueryParts cached;
+      synchronized (this) {
+        cached = entries.get(new Key(deep, selectFromTables, select1));
+      }
+      if (cached != null) {
+        return cached.addTo(from, tableGraphNodeNames);
+      }
+      final SimpleArrayMap<String, LinkedList<String>> systemRenamedTables = deep
+          ? table.addDeepQueryParts(from, selectFromTables, tableGraphNodeNames, select1)
+          : table.addShallowQueryParts(from, selectFromTables, tableGraphNodeNames, select1);
+      final QueryParts parts = new QueryParts(from.joins, systemRenamedTables, tableGraphNodeNames);
+      final StringArraySet selection = selectFromTables != null && !selectFromTables.isEmpty()
+          ? new StringArraySet(selectFromTables) : null;
+      synchronized (this) {
+        entries.put(new Key(deep, selection, select1), parts);
+      }
+      return systemRenamedTables;
+    }
+  }
+
+  static final class Key {
+    private final boolean deep;
+    private final boolean select1;
+    @Nullable
+    private final StringArraySet selection;
+    private final int hash;
+
+    Key(boolean deep, @Nullable StringArraySet selection, boolean select1) {
+      final boolean selectAll = selection == null || selection.isEmpty();
+      this.deep = deep;
+      // select all adds the whole graph regardless of select1
+      this.select1 = !selectAll && select1;
+      this.selection = selectAll ? null : selection;
+      int hash = deep ? 1 : 0;
+      hash = 31 * hash + (this.select1 ? 1 : 0);
+      hash = 31 * hash + (this.selection != null ? this.selection.hashCode() : 0);
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      final Key other = (Key) o;
+      return deep == other.deep
+          && select1 == other.select1
+          && (selection != null ? selection.equals(other.selection) : other.selection == null);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,310 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Memory bounded cache of query results keyed by SQL and arguments.
+ * <p>
+ * Each DB connection has its own cache. Results are dropped when any of the tables
+ * the query observes change. Memory budget is counted in result rows &mdash; least recently
+ * used results are evicted when cached results hold more rows than the budget allows.
+ * <p>
+ * Concurrent executions of the same query share one database round trip, so all
+ * subscribers notified by the same table change receive the same result instance.
+ * Cached results are shared and therefore returned lists are unmodifiable.
+ */
+public final class QueryResultCache {
+  /**
+   * Query whose results can be cached.
+   */
+  interface Loader<R> {
+    /**
+     * Run the query against a database.
+     *
+     * @return Query result which is safe to share between multiple consumers
+     */
+    @Nullable
+    R loadShared();
+  }
+
+  private static final Object NULL_RESULT = new Object();
+
+  private final int maxRows;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final HashMap<Key, FutureTask<Object>> inFlight = new HashMap<>();
+  /**
+   * Incremented on every invalidation, so that results of queries that were running
+   * while tables changed are not cached.
+   */
+  private int generation;
+  private int rowCount;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  QueryResultCache(int maxRows) {
+    this.maxRows = maxRows;
+  }
+
+  /**
+   * Get cached query result or run the query and cache its result.
+   */
+  @Nullable
+  <R> R get(@NonNull String sql,
+            @Nullable Object[] args,
+            @Nullable Object projection,
+            @NonNull String[] observedTables,
+            @NonNull final Loader<R> loader) {
+    final Key key = new Key(loader.getClass(), sql, args, projection);
+    final FutureTask<Object> task;
+    final int startGeneration;
+    boolean runner = false;
+    synchronized (this) {
+      final Entry entry = entries.get(key);
+      if (entry != null) {
+        hitCount++;
+        return unwrap(entry.value);
+      }
+      FutureTask<Object> pending = inFlight.get(key);
+      if (pending != null) {
+        // same query is already running for another consumer
+        hitCount++;
+      } else {
+        missCount++;
+        pending = new FutureTask<>(new Callable<Object>() {
+          @Override
+          public Object call() throws Exception {
+            final R result = loader.loadShared();
+            return result != null ? result : NULL_RESULT;
+          }
+        });
+        inFlight.put(key, pending);
+        runner = true;
+      }
+      task = pending;
+      startGeneration = generation;
+    }
+    if (runner) {
+      task.run();
+      synchronized (this) {
+        if (inFlight.get(key) == task) {
+          inFlight.remove(key);
+        }
+      }
+    }
+    final Object result;
+    try {
+      result = task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return loader.loadShared();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+    if (runner) {
+      put(key, result, observedTables, startGeneration);
+    }
+    return unwrap(result);
+  }
+
+  private synchronized void put(@NonNull Key key,
+                                @NonNull Object result,
+                                @NonNull String[] observedTables,
+                                int startGeneration) {
+    if (startGeneration != generation) {
+      return;
+    }
+    final int rows = result instanceof List ? Math.max(1, ((List) result).size()) : 1;
+    if (rows > maxRows) {
+      return;
+    }
+    final Entry previous = entries.put(key, new Entry(result, observedTables, rows));
+    if (previous != null) {
+      rowCount -= previous.rows;
+    }
+    rowCount += rows;
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (rowCount > maxRows && iterator.hasNext()) {
+      rowCount -= iterator.next().rows;
+      iterator.remove();
+      evictionCount++;
+    }
+  }
+
+  /**
+   * Drop results of queries observing any of the changed tables.
+   */
+  synchronized void invalidate(@NonNull Set<String> tables) {
+    generation++;
+    // running queries might have read the old data
+    inFlight.clear();
+    final Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      final Entry entry = iterator.next();
+      for (String table : entry.observedTables) {
+        if (tables.contains(table)) {
+          rowCount -= entry.rows;
+          iterator.remove();
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Drop all cached results.
+   */
+  public synchronized void clear() {
+    generation++;
+    inFlight.clear();
+    entries.clear();
+    rowCount = 0;
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private static <R> R unwrap(@NonNull Object result) {
+    return result == NULL_RESULT ? null : (R) result;
+  }
+
+  /**
+   * @return Number of times a query result was shared instead of querying the database
+   */
+  public synchronized long hitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return Number of times a query had to be run against the database
+   */
+  public synchronized long missCount() {
+    return missCount;
+  }
+
+  /**
+   * @return Number of query results evicted from this cache to stay within its budget
+   */
+  public synchronized long evictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return Number of cached query results
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return Number of rows held by cached query results
+   */
+  public synchronized int rowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @return Maximum number of rows held by cached query results
+   */
+  public int maxRows() {
+    return maxRows;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "QueryResultCache[size=" + entries.size() + ", rows=" + rowCount + ", maxRows=" + maxRows +
+        ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+  }
+
+  /**
+   * Identity of a query result. Also keys {@linkplain LiveQueryRegistry shared live queries}.
+   */
+  static final class Key {
+    @NonNull
+    final Class<?> queryType;
+    @NonNull
+    final String sql;
+    @Nullable
+    final Object[] args;
+    /**
+     * Object that describes how result rows are parsed. Projections render the same SQL as
+     * their base tables, so results are shared only between projections of the same type.
+     */
+    @Nullable
+    final Object projection;
+    private final int hashCode;
+
+    Key(@NonNull Class<?> queryType, @NonNull String sql, @Nullable Object[] args, @Nullable Object projection) {
+      this.queryType = queryType;
+      this.sql = sql;
+      this.args = args;
+      this.projection = projection;
+      int hashCode = queryType.hashCode();
+      hashCode = 31 * hashCode + sql.hashCode();
+      hashCode = 31 * hashCode + Arrays.deepHashCode(args);
+      hashCode = 31 * hashCode + (projection != null ? projection.getClass().hashCode() : 0);
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return queryType == key.queryType
+          && sql.equals(key.sql)
+          && Arrays.deepEquals(args, key.args)
+          && sameProjection(projection, key.projection);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    /**
+     * @return Whether projections are of the same type and equal
+     */
+    static boolean sameProjection(@Nullable Object first, @Nullable Object second) {
+      if (first == null || second == null) {
+        return first == second;
+      }
+      return first.getClass() == second.getClass() && first.equals(second);
+    }
+  }
+
+  private static final class Entry {
+    @NonNull
+    final Object value;
+    @NonNull
+    final String[] observedTables;
+    final int rows;
+
+    Entry(@NonNull Object value, @NonNull String[] observedTables, int rows) {
+      this.value = value;
+      this.observedTables = observedTables;
+      this.rows = rows;
+    }
+  }
+}
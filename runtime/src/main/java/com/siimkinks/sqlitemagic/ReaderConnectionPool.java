@@ -0,0 +1,64 @@
+package com.siimkinks.sqlitemagic;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+
+import com.siimkinks.sqlitemagic.DbHelper.SqliteMagicCursorFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded pool of read-only database connections.
+ * <p>
+ * Connections are opened lazily against the writer's database file and handed out
+ * in round-robin order. Each connection is a separate {@link SQLiteDatabase} handle, so
+ * with write-ahead logging enabled readers do not block the writer and vice versa.
+ */
+final class ReaderConnectionPool {
+  @NonNull
+  private final DbConnectionImpl dbConnection;
+  private final AtomicReferenceArray<SQLiteDatabase> readers;
+  private final AtomicInteger nextReader = new AtomicInteger();
+  private final Object lock = new Object();
+
+  ReaderConnectionPool(@NonNull DbConnectionImpl dbConnection, int size) {
+    this.dbConnection = dbConnection;
+    this.readers = new AtomicReferenceArray<>(size);
+  }
+
+  @NonNull
+  SQLiteDatabase acquire() {
+    final int pos = (nextReader.getAndIncrement() & Integer.MAX_VALUE) % readers.length();
+    SQLiteDatabase db = readers.get(pos);
+    if (db == null) {
+      synchronized (lock) {
+        db = readers.get(pos);
+        if (db == null) {
+          // writer must create and migrate database before readers can open it
+          final String path = dbConnection.getWritableDatabase().getPath();
+          if (SqliteMagic.LOGGING_ENABLED) LogUtil.logDebug("Opening reader connection %s", pos);
+          db = SQLiteDatabase.openDatabase(path, new SqliteMagicCursorFactory(), SQLiteDatabase.OPEN_READONLY);
+          db.setMaxSqlCacheSize(dbConnection.getSqlCacheSize());
+          readers.set(pos, db);
+        }
+      }
+    }
+    return db;
+  }
+
+  int size() {
+    return readers.length();
+  }
+
+  void close() {
+    synchronized (lock) {
+      for (int i = 0, length = readers.length(); i < length; i++) {
+        final SQLiteDatabase db = readers.getAndSet(i, null);
+        if (db != null) {
+          db.close();
+        }
+      }
+    }
+  }
+}
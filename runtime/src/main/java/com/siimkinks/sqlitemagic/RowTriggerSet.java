@@ -0,0 +1,225 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
+import com.siimkinks.sqlitemagic.internal.StringArraySet;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Set of changed tables that also knows which rows of the tables changed.
+ * <p>
+ * Tables are added either with or without row ids. Table that is added without a row id
+ * is considered to be changed as a whole &mdash; any row ids added for it are dropped.
+ * Row ids of a table are tracked only up to {@link #MAX_ROWS_PER_TABLE}; after that the
+ * table is considered to be changed as a whole.
+ * <p>
+ * Along with the names, set keeps a bitset of {@linkplain TableIds table ids}, so that
+ * observers can match their tables with a bitwise AND.
+ */
+class RowTriggerSet extends StringArraySet {
+  static final int MAX_ROWS_PER_TABLE = 256;
+
+  /**
+   * Changed row ids of tables which changed only in known rows.
+   */
+  @Nullable
+  private SimpleArrayMap<String, HashSet<Long>> rowIds;
+  @NonNull
+  private long[] tableBits = new long[1];
+
+  /**
+   * Add changed row of the table.
+   */
+  void addRow(@NonNull String table, long rowId) {
+    addRow(table, TableIds.idOf(table), rowId);
+  }
+
+  /**
+   * Add changed row of the table.
+   *
+   * @param table   Table name
+   * @param tableId {@linkplain TableIds Id} of the table
+   * @param rowId   Changed row id
+   */
+  void addRow(@NonNull String table, int tableId, long rowId) {
+    if (addRowName(table, rowId)) {
+      tableBits = TableIds.setBit(tableBits, tableId);
+    }
+  }
+
+  /**
+   * @return Whether table was not in this set
+   */
+  private boolean addRowName(@NonNull String table, long rowId) {
+    SimpleArrayMap<String, HashSet<Long>> rowIds = this.rowIds;
+    if (!super.add(table)) {
+      if (rowIds == null) {
+        return false;
+      }
+      final HashSet<Long> ids = rowIds.get(table);
+      if (ids == null) {
+        // whole table has already changed
+        return false;
+      }
+      if (ids.size() < MAX_ROWS_PER_TABLE) {
+        ids.add(rowId);
+      } else {
+        rowIds.remove(table);
+      }
+      return false;
+    }
+    if (rowIds == null) {
+      rowIds = new SimpleArrayMap<>(BASE_SIZE);
+      this.rowIds = rowIds;
+    }
+    final HashSet<Long> ids = new HashSet<>();
+    ids.add(rowId);
+    rowIds.put(table, ids);
+    return true;
+  }
+
+  @Override
+  public boolean add(@Nullable String table) {
+    if (table == null) {
+      return super.add(null);
+    }
+    return add(table, TableIds.idOf(table));
+  }
+
+  /**
+   * Add table which changed as a whole.
+   *
+   * @param table   Table name
+   * @param tableId {@linkplain TableIds Id} of the table
+   * @return Whether table was not in this set
+   */
+  boolean add(@NonNull String table, int tableId) {
+    if (!addName(table)) {
+      return false;
+    }
+    tableBits = TableIds.setBit(tableBits, tableId);
+    return true;
+  }
+
+  private boolean addName(@NonNull String table) {
+    final SimpleArrayMap<String, HashSet<Long>> rowIds = this.rowIds;
+    if (rowIds != null) {
+      rowIds.remove(table);
+    }
+    return super.add(table);
+  }
+
+  @Override
+  public String removeAt(int index) {
+    final String table = super.removeAt(index);
+    final SimpleArrayMap<String, HashSet<Long>> rowIds = this.rowIds;
+    if (rowIds != null) {
+      rowIds.remove(table);
+    }
+    if (table != null) {
+      final int tableId = TableIds.idOf(table);
+      if (!TableIds.isShared(tableId)) {
+        TableIds.clearBit(tableBits, tableId);
+      }
+    }
+    return table;
+  }
+
+  @Override
+  public void addAll(@NonNull StringArraySet tables) {
+    final int size = tables.size();
+    if (!(tables instanceof RowTriggerSet)) {
+      for (int i = 0; i < size; i++) {
+        add(tables.valueAt(i));
+      }
+      return;
+    }
+    // bits of the other set already describe its tables, so names need no id lookups
+    final RowTriggerSet rowTriggers = (RowTriggerSet) tables;
+    tableBits = TableIds.setBits(tableBits, rowTriggers.tableBits);
+    for (int i = 0; i < size; i++) {
+      final String table = tables.valueAt(i);
+      final HashSet<Long> ids = rowTriggers.changedRows(table);
+      if (ids == null) {
+        addName(table);
+      } else {
+        for (Long id : ids) {
+          addRowName(table, id);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addAll(@NonNull String[] tables) {
+    for (String table : tables) {
+      add(table);
+    }
+  }
+
+  /**
+   * Add tables which changed as a whole.
+   *
+   * @param tables   Table names
+   * @param tableIds {@linkplain TableIds Ids} of the tables in the same order as names
+   */
+  void addAll(@NonNull String[] tables, @NonNull int[] tableIds) {
+    for (int i = 0, length = tables.length; i < length; i++) {
+      add(tables[i], tableIds[i]);
+    }
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    rowIds = null;
+    Arrays.fill(tableBits, 0);
+  }
+
+  /**
+   * Check whether any of the tables in the provided bitset changed.
+   *
+   * @param tableBits Bitset of {@linkplain TableIds table ids}
+   * @return Whether this set contains any of the provided tables
+   */
+  boolean containsAny(@NonNull long[] tableBits) {
+    return TableIds.intersects(this.tableBits, tableBits);
+  }
+
+  /**
+   * @return Changed row ids of the table or {@code null} if any row of the table might have changed
+   */
+  @Nullable
+  HashSet<Long> changedRows(@NonNull String table) {
+    final SimpleArrayMap<String, HashSet<Long>> rowIds = this.rowIds;
+    return rowIds != null ? rowIds.get(table) : null;
+  }
+
+  /**
+   * Check whether any of the provided rows of the table might have changed.
+   *
+   * @param table  Table name
+   * @param rowIds Row ids
+   * @return Whether table is in this set and its changed rows are unknown or contain any of
+   * the provided row ids
+   */
+  boolean affectsRows(@NonNull String table, @NonNull long[] rowIds) {
+    if (!contains(table)) {
+      return false;
+    }
+    final HashSet<Long> ids = changedRows(table);
+    if (ids == null) {
+      return true;
+    }
+    for (long rowId : rowIds) {
+      if (ids.contains(rowId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -5,6 +5,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
 import com.siimkinks.sqlitemagic.internal.StringArraySet;
 
@@ -200,12 +201,20 @@ public final class Select<S> extends SelectSqlNode<S> {
     void appendSql(@NonNull StringBuilder sb) {
       column.appendSql(sb);
       column.appendAliasDeclarationIfNeeded(sb);
+      final OrderBy<?, Select1> keysetNode = selectBuilder.keysetNode;
+      if (keysetNode != null) {
+        keysetNode.appendKeyColumns(sb, null);
+      }
     }
 
     @Override
     void appendSql(@NonNull StringBuilder sb, @NonNull SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
       column.appendSql(sb, systemRenamedTables);
       column.appendAliasDeclarationIfNeeded(sb);
+      final OrderBy<?, Select1> keysetNode = selectBuilder.keysetNode;
+      if (keysetNode != null) {
+        keysetNode.appendKeyColumns(sb, systemRenamedTables);
+      }
     }
 
     /**
@@ -234,7 +243,7 @@ public final class Select<S> extends SelectSqlNode<S> {
       super(parent);
       this.columns = columns;
       selectBuilder.columnsNode = this;
-      final ArrayList<String> args = selectBuilder.args;
+      final ArrayList<Object> args = selectBuilder.args;
       final ArrayList<String> observedTables = selectBuilder.observedTables;
       for (int i = 0, length = columns.length; i < length; i++) {
         final Column<?, ?, ?, ?> column = columns[i];
@@ -266,14 +275,21 @@ public final class Select<S> extends SelectSqlNode<S> {
     }
 
     @NonNull
-    SimpleArrayMap<String, Integer> compileColumns(@Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
-      final Column[] columns = this.columns;
+    ColumnPositions compileColumns(@Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
+      Column[] columns = this.columns;
+      final From from = selectBuilder.from;
+      if (columns.length == 0 && from != null) {
+        final Column[] defaultSelection = from.table.defaultSelection();
+        if (defaultSelection != null) {
+          columns = defaultSelection;
+        }
+      }
       final int length = columns.length;
       if (length == 0) {
         this.compiledColumns = "*";
-        return new SimpleArrayMap<>();
+        return new ColumnPositions();
       }
-      final SimpleArrayMap<String, Integer> columnPositions = new SimpleArrayMap<>(length);
+      final ColumnPositions columnPositions = new ColumnPositions(length);
       final StringBuilder compiledCols = new StringBuilder(length * 12);
       int columnOffset = 0;
       boolean first = true;
@@ -293,14 +309,36 @@ public final class Select<S> extends SelectSqlNode<S> {
       return columnPositions;
     }
 
+    @Override
+    void appendStructure(@NonNull StringBuilder sb) {
+      // compiled columns are not known until query parts are added
+      final Column[] columns = this.columns;
+      for (int i = 0, length = columns.length; i < length; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        final Column<?, ?, ?, ?> column = columns[i];
+        column.appendSql(sb);
+        column.appendAliasDeclarationIfNeeded(sb);
+      }
+    }
+
     @Override
     void appendSql(@NonNull StringBuilder sb) {
       sb.append(compiledColumns);
+      final OrderBy<?, SelectN> keysetNode = selectBuilder.keysetNode;
+      if (keysetNode != null) {
+        keysetNode.appendKeyColumns(sb, null);
+      }
     }
 
     @Override
     void appendSql(@NonNull StringBuilder sb, @NonNull SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
       sb.append(compiledColumns);
+      final OrderBy<?, SelectN> keysetNode = selectBuilder.keysetNode;
+      if (keysetNode != null) {
+        keysetNode.appendKeyColumns(sb, systemRenamedTables);
+      }
     }
 
     /**
@@ -721,8 +759,16 @@ public final class Select<S> extends SelectSqlNode<S> {
     Where(@NonNull SelectNode<T, S> parent, @NonNull Expr expr) {
       super(parent);
       this.expr = expr;
+      final SelectBuilder<S> selectBuilder = this.selectBuilder;
+      final int argsStart = selectBuilder.args.size();
+      final int observedTablesCount = selectBuilder.observedTables.size();
       expr.addArgs(selectBuilder.args);
       expr.addObservedTables(selectBuilder.observedTables);
+      final From<?, ?, ?> from = selectBuilder.from;
+      // subqueries and joins can read other rows of the same table
+      if (from.joins.isEmpty() && observedTablesCount == selectBuilder.observedTables.size()) {
+        selectBuilder.rowIdArgs = expr.rowIdArgs(from.table, argsStart);
+      }
     }
 
     @Override
@@ -897,11 +943,11 @@ public final class Select<S> extends SelectSqlNode<S> {
     static final String DESC = " DESC";
 
     @Nullable
-    private final Column column;
+    final Column column;
     @Nullable
     private final Expr expr;
     @Nullable
-    private final String ordering;
+    final String ordering;
 
     OrderingTerm(@Nullable Column column,
                  @Nullable Expr expr,
@@ -948,7 +994,16 @@ public final class Select<S> extends SelectSqlNode<S> {
    */
   public static final class OrderBy<T, S> extends SelectNode<T, S> {
     @NonNull
-    private final OrderingTerm[] orderingTerms;
+    final OrderingTerm[] orderingTerms;
+    /**
+     * Keyset paging page size or 0 if this query is not paged.
+     */
+    int pageSize;
+    /**
+     * Whether keyset paging seek condition is appended to the SQL.
+     */
+    boolean seek;
+    private boolean hasWhere;
 
     OrderBy(@NonNull SelectNode<T, S> parent,
             @NonNull @Size(min = 1) OrderingTerm[] orderingTerms) {
@@ -958,6 +1013,9 @@ public final class Select<S> extends SelectSqlNode<S> {
 
     @Override
     void appendSql(@NonNull StringBuilder sb) {
+      if (seek) {
+        appendSeekCondition(sb, null);
+      }
       sb.append("ORDER BY ");
       final OrderingTerm[] orderingTerms = this.orderingTerms;
       for (int i = 0, length = orderingTerms.length; i < length; i++) {
@@ -966,10 +1024,14 @@ public final class Select<S> extends SelectSqlNode<S> {
         }
         orderingTerms[i].appendSql(sb);
       }
+      appendPageLimit(sb);
     }
 
     @Override
     void appendSql(@NonNull StringBuilder sb, @NonNull SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
+      if (seek) {
+        appendSeekCondition(sb, systemRenamedTables);
+      }
       sb.append("ORDER BY ");
       final OrderingTerm[] orderingTerms = this.orderingTerms;
       for (int i = 0, length = orderingTerms.length; i < length; i++) {
@@ -978,6 +1040,112 @@ public final class Select<S> extends SelectSqlNode<S> {
         }
         orderingTerms[i].appendSql(sb, systemRenamedTables);
       }
+      appendPageLimit(sb);
+    }
+
+    /**
+     * Appends ordering columns to the selected columns, so that the ordering key of the
+     * last row in a page could be read from the cursor.
+     */
+    void appendKeyColumns(@NonNull StringBuilder sb, @Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
+      final OrderingTerm[] orderingTerms = this.orderingTerms;
+      for (int i = 0, length = orderingTerms.length; i < length; i++) {
+        sb.append(',');
+        appendColumn(sb, orderingTerms[i].column, systemRenamedTables);
+      }
+    }
+
+    /**
+     * Appends seek condition that selects rows that come after the ordering key.
+     * <p>
+     * For ordering terms {@code a,b,c} the condition is
+     * {@code (a>? OR (a=? AND (b>? OR (b=? AND (c>?)))))} where descending terms use
+     * {@code <} instead of {@code >}.
+     */
+    private void appendSeekCondition(@NonNull StringBuilder sb, @Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
+      sb.append(hasWhere ? "AND " : "WHERE ");
+      final OrderingTerm[] orderingTerms = this.orderingTerms;
+      final int last = orderingTerms.length - 1;
+      for (int i = 0; i <= last; i++) {
+        final OrderingTerm term = orderingTerms[i];
+        sb.append('(');
+        appendColumn(sb, term.column, systemRenamedTables);
+        sb.append(OrderingTerm.DESC.equals(term.ordering) ? "<?" : ">?");
+        if (i < last) {
+          sb.append(" OR (");
+          appendColumn(sb, term.column, systemRenamedTables);
+          sb.append("=? AND ");
+        }
+      }
+      for (int i = 0; i < last; i++) {
+        sb.append("))");
+      }
+      sb.append(") ");
+    }
+
+    private void appendPageLimit(@NonNull StringBuilder sb) {
+      final int pageSize = this.pageSize;
+      if (pageSize > 0) {
+        // one extra row tells if there is a next page
+        sb.append(" LIMIT ")
+            .append(pageSize + 1);
+      }
+    }
+
+    private static void appendColumn(@NonNull StringBuilder sb,
+                                     @NonNull Column column,
+                                     @Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
+      if (systemRenamedTables != null) {
+        column.appendSql(sb, systemRenamedTables);
+      } else {
+        column.appendSql(sb);
+      }
+    }
+
+    /**
+     * Create a page source which loads the result of this query page by page.
+     * <p>
+     * Pages are loaded with keyset (seek) pagination &mdash; instead of skipping rows with
+     * OFFSET, each page continues from the ordering key of the previous page's last row.
+     * This makes loading any page as fast as loading the first one, no matter how deep
+     * in the result set it is.
+     * <p>
+     * For pages to be stable ordering terms must define total ordering of the result set
+     * &mdash; the last ordering term should be a unique non-null column (e.g. id) &mdash;
+     * and all ordering terms must be non-null columns.
+     * Ordering by expressions is not supported.
+     * <p>
+     * NB! This method does not compile the underlying SQL statement against a database.
+     *
+     * @param pageSize Number of rows in a page
+     * @return Page source for this query
+     * @throws IllegalArgumentException if page size is not positive or any ordering term
+     *                                  is not a column
+     * @throws IllegalStateException    if query has GROUP BY clause or unbound
+     *                                  {@link Param parameters}
+     */
+    @NonNull
+    @CheckResult
+    public PageSource<T> paged(int pageSize) {
+      if (pageSize <= 0) {
+        throw new IllegalArgumentException("Page size must be positive");
+      }
+      final OrderingTerm[] orderingTerms = this.orderingTerms;
+      for (int i = 0, length = orderingTerms.length; i < length; i++) {
+        if (orderingTerms[i].column == null) {
+          throw new IllegalArgumentException("Paged select can be ordered only by columns");
+        }
+      }
+      for (SqlNode node = parent; node != null; node = node.parent) {
+        if (node instanceof GroupBy) {
+          throw new IllegalStateException("Paged select cannot have GROUP BY clause");
+        }
+        if (node instanceof Where) {
+          hasWhere = true;
+        }
+      }
+      this.pageSize = pageSize;
+      return selectBuilder.buildPaged(this);
     }
 
     /**
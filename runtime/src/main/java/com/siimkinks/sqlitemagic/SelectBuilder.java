@@ -4,6 +4,7 @@ import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
 import com.siimkinks.sqlitemagic.internal.StringArraySet;
 
@@ -11,21 +12,47 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 
 final class SelectBuilder<S> {
+  /**
+   * Compiled plans of builders shared by all builders with the same structure.
+   */
+  static final SelectPlanCache PLAN_CACHE = new SelectPlanCache(SelectPlanCache.MAX_SIZE);
+
   SqlNode sqlTreeRoot;
   int sqlNodeCount;
   Select.From from;
   Select.Columns columnsNode;
   Select.SingleColumn<?> columnNode;
-  final ArrayList<String> args = new ArrayList<>();
+  final ArrayList<Object> args = new ArrayList<>();
   final ArrayList<String> observedTables = new ArrayList<>();
   boolean deep;
   DbConnectionImpl dbConnection = SqliteMagic.getDefaultDbConnection();
+  Select.OrderBy<?, S> keysetNode;
+  /**
+   * Positions of arguments which restrict selected rows to a set of ids.
+   */
+  @Nullable
+  int[] rowIdArgs;
+  private PageSource<?> pageSource;
   private boolean compiled = false;
+  @Nullable
+  private String nestedSql;
 
   SelectBuilder() {
   }
 
   void appendCompiledQuery(@NonNull StringBuilder sb, @Nullable ArrayList<String> parentObservedTables) {
+    // adding query parts modifies the builder, so nested query can be compiled only once
+    String nestedSql = this.nestedSql;
+    if (nestedSql == null) {
+      final StringBuilder nestedSb = new StringBuilder(sqlNodeCount * 20);
+      compileNestedQuery(nestedSb, parentObservedTables);
+      nestedSql = nestedSb.toString();
+      this.nestedSql = nestedSql;
+    }
+    sb.append(nestedSql);
+  }
+
+  private void compileNestedQuery(@NonNull StringBuilder sb, @Nullable ArrayList<String> parentObservedTables) {
     final StringArraySet selectFromTables;
     final boolean select1 = columnNode != null;
     if (select1) {
@@ -38,11 +65,7 @@ final class SelectBuilder<S> {
     final Select.From<?, ?, ?> from = this.from;
     final Table<?> table = from.table;
     final SimpleArrayMap<String, LinkedList<String>> systemRenamedTables;
-    if (deep) {
-      systemRenamedTables = table.addDeepQueryParts(from, selectFromTables, tableGraphNodeNames, select1);
-    } else {
-      systemRenamedTables = table.addShallowQueryParts(from, selectFromTables, tableGraphNodeNames, select1);
-    }
+    systemRenamedTables = table.addQueryParts(from, selectFromTables, tableGraphNodeNames, select1, deep);
     if (parentObservedTables != null) {
       perfectSelection(from, parentObservedTables, tableGraphNodeNames, null);
     }
@@ -62,8 +85,19 @@ final class SelectBuilder<S> {
       throw new IllegalStateException("Select statement builder can be compiled only once");
     }
     compiled = true;
-    final StringArraySet selectFromTables;
     final boolean select1 = columnNode != null;
+    //noinspection unchecked
+    final Select.From<T, ?, ?> from = this.from;
+    final Table<T> table = from.table;
+    // paged selects keep per builder state, so they are always planned
+    final String fingerprint = keysetNode == null ? fingerprint() : null;
+    if (fingerprint != null) {
+      final SelectPlanCache.Plan plan = PLAN_CACHE.get(fingerprint);
+      if (plan != null) {
+        return fromPlan(plan, table, select1);
+      }
+    }
+    final StringArraySet selectFromTables;
     if (select1) {
       selectFromTables = columnNode.preCompileColumns();
     } else {
@@ -71,55 +105,161 @@ final class SelectBuilder<S> {
     }
     final SimpleArrayMap<String, String> tableGraphNodeNames = selectFromTables != null ? new SimpleArrayMap<String, String>(selectFromTables.size()) : new SimpleArrayMap<String, String>();
     final SimpleArrayMap<String, LinkedList<String>> systemRenamedTables;
-    //noinspection unchecked
-    final Select.From<T, ?, ?> from = this.from;
-    final Table<T> table = from.table;
 
-    if (deep) {
-      systemRenamedTables = table.addDeepQueryParts(from, selectFromTables, tableGraphNodeNames, select1);
+    systemRenamedTables = table.addQueryParts(from, selectFromTables, tableGraphNodeNames, select1, deep);
+
+    final Object[] args = ParamSlots.toArgs(this.args);
+    final ParamSlots params = ParamSlots.from(this.args);
+
+    final ColumnPositions columnPositions = select1 ? null : columnsNode.compileColumns(systemRenamedTables);
+    final String sql = getSql(systemRenamedTables);
+    final String keysetSql;
+    final Select.OrderBy<?, S> keysetNode = this.keysetNode;
+    if (keysetNode != null) {
+      if (params != null) {
+        throw new IllegalStateException("Paged select cannot have unbound parameters");
+      }
+      keysetNode.seek = true;
+      keysetSql = getSql(systemRenamedTables);
+      keysetNode.seek = false;
     } else {
-      systemRenamedTables = table.addShallowQueryParts(from, selectFromTables, tableGraphNodeNames, select1);
+      keysetSql = null;
     }
 
-    final int argsSize = args.size();
-
-    if (columnNode != null) {
-      final String sql = systemRenamedTables != null ?
-          SqlCreator.getSql(sqlTreeRoot, sqlNodeCount, systemRenamedTables) :
-          SqlCreator.getSql(sqlTreeRoot, sqlNodeCount);
+    final CompiledSelect<T, S> compiledSelect;
+    final SelectPlanCache.Plan plan;
+    if (select1) {
       perfectSelection(from, observedTables, tableGraphNodeNames, null);
+      plan = new SelectPlanCache.Plan(
+          sql,
+          this.observedTables.toArray(new String[this.observedTables.size()]),
+          null,
+          null,
+          deep);
       //noinspection unchecked
-      return new CompiledSelect1Impl<>(
+      compiledSelect = new CompiledSelect1Impl<>(
           sql,
-          argsSize > 0 ? args.toArray(new String[argsSize]) : null,
+          args,
+          params,
           dbConnection,
           (Column<?, T, ?, ?>) columnNode.column,
-          this.observedTables.toArray(new String[this.observedTables.size()])
+          plan.observedTables,
+          rowIdArgs
       );
-    }
-
-    final SimpleArrayMap<String, Integer> columnPositions = columnsNode.compileColumns(systemRenamedTables);
-    final String sql;
-    if (systemRenamedTables != null) {
-      sql = SqlCreator.getSql(sqlTreeRoot, sqlNodeCount, systemRenamedTables);
     } else {
-      sql = SqlCreator.getSql(sqlTreeRoot, sqlNodeCount);
+      final boolean forcedDeepSelection = perfectSelection(from, observedTables, tableGraphNodeNames, columnPositions);
+      final boolean fromSelection = columnPositions.isEmpty();
+      plan = new SelectPlanCache.Plan(
+          sql,
+          this.observedTables.toArray(new String[this.observedTables.size()]),
+          fromSelection ? null : columnPositions,
+          fromSelection ? null : tableGraphNodeNames,
+          deep || forcedDeepSelection);
+      compiledSelect = new CompiledSelectImpl<>(
+          sql,
+          args,
+          params,
+          table,
+          dbConnection,
+          plan.observedTables,
+          plan.columns,
+          plan.tableGraphNodeNames,
+          plan.queryDeep,
+          rowIdArgs
+      );
+    }
+    if (fingerprint != null) {
+      PLAN_CACHE.put(fingerprint, plan);
     }
+    if (keysetSql != null) {
+      //noinspection unchecked
+      pageSource = new PageSource<>(
+          (PageSource.PagedSelect<T>) compiledSelect,
+          dbConnection,
+          sql,
+          keysetSql,
+          args,
+          this.observedTables.toArray(new String[this.observedTables.size()]),
+          keysetNode.pageSize,
+          keysetNode.orderingTerms.length
+      );
+    }
+    return compiledSelect;
+  }
 
-    final boolean forcedDeepSelection = perfectSelection(from, observedTables, tableGraphNodeNames, columnPositions);
-    final boolean fromSelection = columnPositions.isEmpty();
+  @NonNull
+  private <T> CompiledSelect<T, S> fromPlan(@NonNull SelectPlanCache.Plan plan,
+                                            @NonNull Table<T> table,
+                                            boolean select1) {
+    final Object[] args = ParamSlots.toArgs(this.args);
+    final ParamSlots params = ParamSlots.from(this.args);
+    if (select1) {
+      //noinspection unchecked
+      return new CompiledSelect1Impl<>(
+          plan.sql,
+          args,
+          params,
+          dbConnection,
+          (Column<?, T, ?, ?>) columnNode.column,
+          plan.observedTables,
+          rowIdArgs
+      );
+    }
     return new CompiledSelectImpl<>(
-        sql,
-        argsSize > 0 ? args.toArray(new String[argsSize]) : null,
+        plan.sql,
+        args,
+        params,
         table,
         dbConnection,
-        this.observedTables.toArray(new String[this.observedTables.size()]),
-        fromSelection ? null : columnPositions,
-        fromSelection ? null : tableGraphNodeNames,
-        deep || forcedDeepSelection
+        plan.observedTables,
+        plan.columns,
+        plan.tableGraphNodeNames,
+        plan.queryDeep,
+        rowIdArgs
     );
   }
 
+  /**
+   * Fingerprint of this builder structure &ndash; the user defined SQL with argument
+   * placeholders, selected table type and query depth. Must be taken before any
+   * system query parts are added.
+   */
+  @NonNull
+  private String fingerprint() {
+    final StringBuilder sb = new StringBuilder(sqlNodeCount * 20 + 64);
+    sb.append(deep ? 'D' : 'S')
+        .append(from.table.getClass().getName())
+        .append(' ');
+    appendStructure(sqlTreeRoot, sb);
+    return sb.toString();
+  }
+
+  private static void appendStructure(@NonNull SqlNode sqlNode, @NonNull StringBuilder sb) {
+    final SqlNode parent = sqlNode.parent;
+    if (parent != null) {
+      appendStructure(parent, sb);
+    }
+    sqlNode.appendStructure(sb);
+    sb.append(' ');
+  }
+
+  @NonNull
+  @CheckResult
+  <T> PageSource<T> buildPaged(@NonNull Select.OrderBy<T, S> orderBy) {
+    keysetNode = orderBy;
+    build();
+    //noinspection unchecked
+    return (PageSource<T>) pageSource;
+  }
+
+  @NonNull
+  private String getSql(@Nullable SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
+    if (systemRenamedTables != null) {
+      return SqlCreator.getSql(sqlTreeRoot, sqlNodeCount, systemRenamedTables);
+    }
+    return SqlCreator.getSql(sqlTreeRoot, sqlNodeCount);
+  }
+
   @SuppressWarnings("unchecked")
   private static boolean perfectSelection(@NonNull Select.From from,
                                           @NonNull ArrayList<String> observedTables,
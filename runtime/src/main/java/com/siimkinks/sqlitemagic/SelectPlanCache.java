@@ -0,0 +1,111 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
+import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache of compiled SELECT statement plans keyed by builder structure.
+ * <p>
+ * Builder chains with the same structure &ndash; selected table, columns, joins, operators
+ * and query depth &ndash; compile to the same SQL, column positions and observed tables.
+ * Only the arguments differ, so those are taken from the builder and everything else
+ * is reused from the cached plan. Plans only depend on the schema, so the cache is shared
+ * between all DB connections.
+ */
+final class SelectPlanCache {
+  /**
+   * Maximum number of cached plans.
+   */
+  static final int MAX_SIZE = 64;
+
+  private final int maxSize;
+  private final LinkedHashMap<String, Plan> plans;
+  private long hitCount;
+  private long missCount;
+
+  SelectPlanCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.plans = new LinkedHashMap<String, Plan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+        return size() > SelectPlanCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * @param fingerprint Builder structure fingerprint
+   * @return Cached plan or {@code null} if builder with this structure is not compiled yet
+   */
+  @Nullable
+  synchronized Plan get(@NonNull String fingerprint) {
+    final Plan plan = plans.get(fingerprint);
+    if (plan != null) {
+      hitCount++;
+    } else {
+      missCount++;
+    }
+    return plan;
+  }
+
+  synchronized void put(@NonNull String fingerprint, @NonNull Plan plan) {
+    plans.put(fingerprint, plan);
+  }
+
+  synchronized void clear() {
+    plans.clear();
+  }
+
+  synchronized int size() {
+    return plans.size();
+  }
+
+  synchronized long hitCount() {
+    return hitCount;
+  }
+
+  synchronized long missCount() {
+    return missCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "SelectPlanCache[size=" + plans.size() + ", maxSize=" + maxSize +
+        ", hits=" + hitCount + ", misses=" + missCount + "]";
+  }
+
+  /**
+   * Argument independent part of a compiled SELECT statement.
+   * <p>
+   * Plans are shared between compiled statements and must not be modified.
+   */
+  static final class Plan {
+    @NonNull
+    final String sql;
+    @NonNull
+    final String[] observedTables;
+    @Nullable
+    final ColumnPositions columns;
+    @Nullable
+    final SimpleArrayMap<String, String> tableGraphNodeNames;
+    final boolean queryDeep;
+
+    Plan(@NonNull String sql,
+         @NonNull String[] observedTables,
+         @Nullable ColumnPositions columns,
+         @Nullable SimpleArrayMap<String, String> tableGraphNodeNames,
+         boolean queryDeep) {
+      this.sql = sql;
+      this.observedTables = observedTables;
+      this.columns = columns;
+      this.tableGraphNodeNames = tableGraphNodeNames;
+      this.queryDeep = queryDeep;
+    }
+  }
+}
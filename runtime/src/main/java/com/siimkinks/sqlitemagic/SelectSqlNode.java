@@ -196,7 +196,7 @@ public abstract class SelectSqlNode<S> extends SqlNode {
      */
     @NonNull
     @CheckResult
-    public final QueryObservable<List<T>> observe() {
+    public final ListQueryObservable<T> observe() {
       return selectBuilder.<T>build().observe();
     }
   }
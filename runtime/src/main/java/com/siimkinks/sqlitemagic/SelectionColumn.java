@@ -65,7 +65,7 @@ final class SelectionColumn<
   }
 
   @Override
-  void addArgs(@NonNull ArrayList<String> args) {
+  void addArgs(@NonNull ArrayList<Object> args) {
     args.addAll(selectBuilder.args);
   }
 
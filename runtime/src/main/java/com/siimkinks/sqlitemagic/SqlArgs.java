@@ -0,0 +1,130 @@
+package com.siimkinks.sqlitemagic;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteCursorDriver;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteQuery;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Typed SQL argument binding.
+ * <p>
+ * Statement arguments are kept in their SQLite storage class form &ndash; integer numbers,
+ * floating point numbers, {@code byte[]}, {@link String} or {@code null} &ndash; and bound
+ * with the matching typed bind method. Binding numbers as text would force affinity
+ * conversions and could keep SQLite from using integer primary key and index lookups.
+ */
+final class SqlArgs {
+  private SqlArgs() {
+    throw new AssertionError("no instances");
+  }
+
+  /**
+   * Bind all arguments to the provided statement or query.
+   */
+  static void bindAll(@NonNull SQLiteProgram program, @Nullable Object[] args) {
+    if (args != null) {
+      for (int i = args.length; i != 0; i--) {
+        bind(program, i, args[i - 1]);
+      }
+    }
+  }
+
+  static void bind(@NonNull SQLiteProgram program, int index, @Nullable Object arg) {
+    if (arg == null) {
+      program.bindNull(index);
+    } else if (arg instanceof String) {
+      program.bindString(index, (String) arg);
+    } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+      program.bindLong(index, ((Number) arg).longValue());
+    } else if (arg instanceof Double || arg instanceof Float) {
+      program.bindDouble(index, ((Number) arg).doubleValue());
+    } else if (arg instanceof byte[]) {
+      program.bindBlob(index, (byte[]) arg);
+    } else if (arg instanceof Boolean) {
+      program.bindLong(index, (Boolean) arg ? 1 : 0);
+    } else {
+      program.bindString(index, arg.toString());
+    }
+  }
+
+  /**
+   * Read column value in its SQLite storage class form, so that it could be bound
+   * back as an argument.
+   */
+  @Nullable
+  static Object fromCursor(@NonNull Cursor cursor, int index) {
+    switch (cursor.getType(index)) {
+      case Cursor.FIELD_TYPE_NULL:
+        return null;
+      case Cursor.FIELD_TYPE_INTEGER:
+        return cursor.getLong(index);
+      case Cursor.FIELD_TYPE_FLOAT:
+        return cursor.getDouble(index);
+      case Cursor.FIELD_TYPE_BLOB:
+        return cursor.getBlob(index);
+      default:
+        return cursor.getString(index);
+    }
+  }
+
+  /**
+   * Cursor factory for raw queries that binds typed arguments to the query.
+   * <p>
+   * Raw queries can only take string arguments, so the query is run without any and
+   * the arguments are bound here, before the cursor is created and the query executed.
+   * Created cursors read through the entity caches of the provided connection.
+   *
+   * @return Cursor factory
+   */
+  @NonNull
+  static SQLiteDatabase.CursorFactory cursorFactory(@NonNull DbConnectionImpl dbConnection,
+                                                    @Nullable Object[] args) {
+    if (args == null || args.length == 0) {
+      return dbConnection.cursorFactory;
+    }
+    return new BindingCursorFactory(dbConnection.entityCaches, args);
+  }
+
+  /**
+   * Convert arguments to strings for logging.
+   */
+  @Nullable
+  static String[] toStrings(@Nullable Object[] args) {
+    if (args == null) {
+      return null;
+    }
+    if (args instanceof String[]) {
+      return (String[]) args;
+    }
+    final int length = args.length;
+    final String[] result = new String[length];
+    for (int i = 0; i < length; i++) {
+      final Object arg = args[i];
+      result[i] = arg instanceof byte[] ? "<blob>" : String.valueOf(arg);
+    }
+    return result;
+  }
+
+  static final class BindingCursorFactory implements SQLiteDatabase.CursorFactory {
+    @NonNull
+    private final EntityCache.Registry entityCaches;
+    @Nullable
+    private final Object[] args;
+
+    BindingCursorFactory(@NonNull EntityCache.Registry entityCaches, @Nullable Object[] args) {
+      this.entityCaches = entityCaches;
+      this.args = args;
+    }
+
+    @Override
+    public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver driver, String editTable, SQLiteQuery query) {
+      if (args != null) {
+        bindAll(query, args);
+      }
+      return new SqliteMagicCursor(driver, editTable, query, entityCaches);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.siimkinks.sqlitemagic;
 
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 abstract class SqlNode extends SqlClause {
@@ -9,4 +10,14 @@ abstract class SqlNode extends SqlClause {
   SqlNode(@Nullable SqlNode parent) {
     this.parent = parent;
   }
+
+  /**
+   * Append this node's part of the builder structure fingerprint.
+   * <p>
+   * Arguments are not part of the SQL, so by default the fingerprint part is the node SQL
+   * before any system added query parts.
+   */
+  void appendStructure(@NonNull StringBuilder sb) {
+    appendSql(sb);
+  }
 }
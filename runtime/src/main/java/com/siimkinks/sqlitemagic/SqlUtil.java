@@ -9,6 +9,7 @@ import static com.siimkinks.sqlitemagic.GlobalConst.INVOCATION_METHOD_COLUMN_FOR
 import static com.siimkinks.sqlitemagic.GlobalConst.INVOCATION_METHOD_GET_DB_NAME;
 import static com.siimkinks.sqlitemagic.GlobalConst.INVOCATION_METHOD_GET_DB_VERSION;
 import static com.siimkinks.sqlitemagic.GlobalConst.INVOCATION_METHOD_GET_NR_OF_TABLES;
+import static com.siimkinks.sqlitemagic.GlobalConst.INVOCATION_METHOD_GET_TABLE_NAMES;
 
 /**
  * Internal utility functions.
@@ -24,6 +25,16 @@ public final class SqlUtil {
     throw new RuntimeException(ERROR_PROCESSOR_DID_NOT_RUN);
   }
 
+  /**
+   * @return Names of all generated tables, indexed by their table position
+   */
+  @NonNull
+  @Invokes(INVOCATION_METHOD_GET_TABLE_NAMES)
+  public static String[] getTableNames() {
+    // filled with magic
+    throw new RuntimeException(ERROR_PROCESSOR_DID_NOT_RUN);
+  }
+
   @Invokes(INVOCATION_METHOD_GET_DB_VERSION)
   public static int getDbVersion() {
     // filled with magic
@@ -5,6 +5,8 @@ import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.util.concurrent.TimeUnit;
+
 import rx.Scheduler;
 import rx.schedulers.Schedulers;
 
@@ -89,7 +91,7 @@ public final class SqliteMagic {
       final DbHelper dbHelper = new DbHelper(context, name, version);
       LogUtil.logInfo("Initializing database with [name=%s, version=%s, logging=%s]",
           name, version, LOGGING_ENABLED);
-      return new DbConnectionImpl(dbHelper, databaseSetupBuilder.queryScheduler);
+      return new DbConnectionImpl(dbHelper, databaseSetupBuilder);
     } catch (Exception e) {
       throw new IllegalStateException("Error initializing database. " +
           "Make sure there is at least one model annotated with @Table", e);
@@ -118,6 +120,13 @@ public final class SqliteMagic {
     String name;
     @NonNull
     Scheduler queryScheduler = Schedulers.io();
+    int readerConnections = 0;
+    int statementCacheSize = StatementCache.DEFAULT_MAX_SIZE;
+    int groupCommitSize = 0;
+    long groupCommitWindowNanos = 0;
+    int queryResultCacheRows = 0;
+    boolean shareLiveQueries = false;
+    long triggerCoalescingWindowNanos = 0;
 
     DatabaseSetupBuilder(@NonNull Application context) {
       if (context == null) {
@@ -160,6 +169,164 @@ public final class SqliteMagic {
       return this;
     }
 
+    /**
+     * Define write-ahead logging mode with a pool of read-only connections.
+     * <p>
+     * In this mode all writes go through a single writer connection while queries
+     * are spread over at most {@code maxReaderConnections} read-only connections.
+     * This way long running queries do not block writes and vice versa.
+     * Queries that run inside a transaction still use the writer connection so they
+     * see the uncommitted changes of that transaction.
+     * <p>
+     * By default reads and writes share one connection. Has no effect on in-memory
+     * databases.
+     *
+     * @param maxReaderConnections Maximum number of read-only connections; must be positive
+     * @return Database connection configuration builder
+     */
+    @CheckResult
+    public DatabaseSetupBuilder withWriteAheadLogging(int maxReaderConnections) {
+      if (maxReaderConnections <= 0) {
+        throw new IllegalArgumentException("Reader connections count must be positive");
+      }
+      this.readerConnections = maxReaderConnections;
+      return this;
+    }
+
+    /**
+     * Define the maximum number of prepared statements cached per connection.
+     * <p>
+     * Compiled statements are cached by their SQL, so that frequently executed
+     * statements skip SQLite's prepare step. Least recently used statements are
+     * evicted when the cache is full.
+     * <p>
+     * Defaults to {@value StatementCache#DEFAULT_MAX_SIZE}.
+     *
+     * @param maxSize Maximum number of cached statements; must be positive
+     * @return Database connection configuration builder
+     */
+    @CheckResult
+    public DatabaseSetupBuilder withStatementCacheSize(int maxSize) {
+      if (maxSize <= 0) {
+        throw new IllegalArgumentException("Statement cache size must be positive");
+      }
+      this.statementCacheSize = maxSize;
+      return this;
+    }
+
+    /**
+     * Define group commit mode for write operations.
+     * <p>
+     * In this mode writes started with {@code observe()} methods of entity operations,
+     * {@link CompiledUpdate#observe()} and {@link CompiledDelete#observe()} are queued from
+     * all threads onto a single writer thread. Queued writes are executed together in one
+     * transaction until {@code maxGroupSize} writes are collected or the {@code window}
+     * elapses since the first write in the group. Each write emits its result only after
+     * its group is committed and table triggers are sent once for the whole group.
+     * Results are emitted on the {@link Schedulers#io() io()} scheduler and never on the
+     * writer thread.
+     * <p>
+     * Synchronous {@code execute()} methods are not affected. Writes subscribed to inside
+     * a transaction run immediately on the subscribing thread.
+     * <p>
+     * By default writes run on the subscribing thread.
+     *
+     * @param maxGroupSize Maximum number of writes committed together; must be positive
+     * @param window       Time to wait for more writes after the first write in the group
+     * @param unit         Time unit of the {@code window}
+     * @return Database connection configuration builder
+     */
+    @CheckResult
+    public DatabaseSetupBuilder withGroupCommit(int maxGroupSize, long window, @NonNull TimeUnit unit) {
+      if (maxGroupSize <= 0) {
+        throw new IllegalArgumentException("Group size must be positive");
+      }
+      if (window < 0) {
+        throw new IllegalArgumentException("Group commit window cannot be negative");
+      }
+      this.groupCommitSize = maxGroupSize;
+      this.groupCommitWindowNanos = unit.toNanos(window);
+      return this;
+    }
+
+    /**
+     * Define query result cache.
+     * <p>
+     * When enabled, results of SELECT statements are cached by their SQL and arguments
+     * until any of the queried tables change through the SqliteMagic provided operations.
+     * All {@link CompiledSelect#observe() observers} of the same query that are notified by
+     * a table change share one query execution and receive the same result instance.
+     * Queries that run inside a transaction bypass the cache.
+     * <p>
+     * Since results are shared, returned lists are unmodifiable and returned objects must
+     * not be modified.
+     * <p>
+     * By default query results are not cached.
+     *
+     * @param maxRows Maximum number of result rows held by the cache; must be positive
+     * @return Database connection configuration builder
+     */
+    @CheckResult
+    public DatabaseSetupBuilder withQueryResultCache(int maxRows) {
+      if (maxRows <= 0) {
+        throw new IllegalArgumentException("Query result cache size must be positive");
+      }
+      this.queryResultCacheRows = maxRows;
+      return this;
+    }
+
+    /**
+     * Share observed queries between their observers.
+     * <p>
+     * When enabled, all {@link CompiledSelect#observe() observers} of queries with equal SQL,
+     * arguments and result type subscribe to one stream. Each table change runs the query
+     * against the database only once and all observers receive the same result instance.
+     * Late observers get the latest query replayed. Queries are still run on the
+     * {@linkplain #scheduleRxQueriesOn(Scheduler) query scheduler} of each observer.
+     * <p>
+     * Since results are shared, emitted lists are unmodifiable and emitted objects must
+     * not be modified &mdash; also when a query has a single observer.
+     * <p>
+     * By default each observer runs its own query.
+     *
+     * @return Database connection configuration builder
+     */
+    @CheckResult
+    public DatabaseSetupBuilder withSharedLiveQueries() {
+      this.shareLiveQueries = true;
+      return this;
+    }
+
+    /**
+     * Define trigger coalescing window.
+     * <p>
+     * When enabled, table changes that are made within the {@code window} since the first
+     * change are merged and {@link CompiledSelect#observe() observers} of the changed
+     * tables are notified once for the whole window. This way a burst of writes outside of
+     * a transaction re-runs each observed query only once. Query result cache is still
+     * invalidated immediately, so synchronous queries always see the latest data.
+     * <p>
+     * The window is the longest delay. Merged changes are published earlier once the
+     * writer is idle &ndash; the last open write transaction has ended, no
+     * {@link #withGroupCommit queued writes} are waiting and no new write transaction
+     * starts within a quarter of the window. Back-to-back transactions, like a series
+     * of bulk operations, are still merged.
+     * <p>
+     * By default observers are notified on each change.
+     *
+     * @param window Time to wait for more changes after the first change; must be positive
+     * @param unit   Time unit of the {@code window}
+     * @return Database connection configuration builder
+     */
+    @CheckResult
+    public DatabaseSetupBuilder withTriggerCoalescing(long window, @NonNull TimeUnit unit) {
+      if (window <= 0) {
+        throw new IllegalArgumentException("Trigger coalescing window must be positive");
+      }
+      this.triggerCoalescingWindowNanos = unit.toNanos(window);
+      return this;
+    }
+
     /**
      * Initialize library.
      * <p>
@@ -4,12 +4,36 @@ import android.database.sqlite.SQLiteCursor;
 import android.database.sqlite.SQLiteCursorDriver;
 import android.database.sqlite.SQLiteQuery;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 final class SqliteMagicCursor extends SQLiteCursor {
   private FastCursor cursor;
+  /**
+   * Entity caches of the connection that created this cursor or {@code null} if
+   * rows of this cursor are not cached.
+   */
+  @Nullable
+  final EntityCache.Registry entityCaches;
+  /**
+   * Entity cache generation at the time this cursor was created.
+   */
+  final int entityCacheGeneration;
 
   public SqliteMagicCursor(SQLiteCursorDriver driver, String editTable, SQLiteQuery query) {
+    this(driver, editTable, query, null);
+  }
+
+  SqliteMagicCursor(SQLiteCursorDriver driver, String editTable, SQLiteQuery query,
+                    @Nullable EntityCache.Registry entityCaches) {
     super(driver, editTable, query);
+    // uncommitted rows must not end up in the entity cache
+    if (entityCaches != null && !getDatabase().inTransaction()) {
+      this.entityCaches = entityCaches;
+      this.entityCacheGeneration = entityCaches.generation();
+    } else {
+      this.entityCaches = null;
+      this.entityCacheGeneration = EntityCache.NO_CACHE;
+    }
   }
 
   @NonNull
@@ -0,0 +1,133 @@
+package com.siimkinks.sqlitemagic;
+
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache of prepared statements keyed by SQL.
+ * <p>
+ * Each DB connection has its own cache. Statements are reference counted: every
+ * {@link #acquire(String) acquired} statement must be released with
+ * {@link SQLiteStatement#releaseReference()} after use. Evicted statements are closed and
+ * freed once the last user releases them.
+ */
+public final class StatementCache {
+  /**
+   * Default maximum number of cached statements per connection.
+   */
+  public static final int DEFAULT_MAX_SIZE = 25;
+
+  @NonNull
+  private final DbConnectionImpl dbConnection;
+  private final int maxSize;
+  private final LinkedHashMap<String, SQLiteStatement> statements;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+  private boolean closed;
+
+  StatementCache(@NonNull DbConnectionImpl dbConnection, int maxSize) {
+    this.dbConnection = dbConnection;
+    this.maxSize = maxSize;
+    this.statements = new LinkedHashMap<String, SQLiteStatement>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+        if (size() > StatementCache.this.maxSize) {
+          evictionCount++;
+          eldest.getValue().close();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Get prepared statement for the provided SQL, compiling it if needed.
+   * The returned statement must be released after use.
+   */
+  @NonNull
+  SQLiteStatement acquire(@NonNull String sql) {
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("DB connection closed");
+      }
+      final SQLiteStatement stm = statements.get(sql);
+      if (stm != null) {
+        hitCount++;
+        stm.acquireReference();
+        return stm;
+      }
+      missCount++;
+    }
+    // compile outside of lock so that waiting for DB does not block cache hits
+    final SQLiteStatement newStm = dbConnection.compileStatement(sql);
+    synchronized (this) {
+      if (closed) {
+        newStm.close();
+        throw new IllegalStateException("DB connection closed");
+      }
+      SQLiteStatement stm = statements.get(sql);
+      if (stm != null) {
+        newStm.close();
+      } else {
+        stm = newStm;
+        statements.put(sql, stm);
+      }
+      stm.acquireReference();
+      return stm;
+    }
+  }
+
+  synchronized void close() {
+    closed = true;
+    for (SQLiteStatement stm : statements.values()) {
+      stm.close();
+    }
+    statements.clear();
+  }
+
+  /**
+   * @return Number of times a prepared statement was found in this cache
+   */
+  public synchronized long hitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return Number of times a statement had to be prepared because it was not in this cache
+   */
+  public synchronized long missCount() {
+    return missCount;
+  }
+
+  /**
+   * @return Number of statements evicted from this cache
+   */
+  public synchronized long evictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return Number of currently cached statements
+   */
+  public synchronized int size() {
+    return statements.size();
+  }
+
+  /**
+   * @return Maximum number of cached statements
+   */
+  public int maxSize() {
+    return maxSize;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "StatementCache[size=" + statements.size() + ", maxSize=" + maxSize +
+        ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "]";
+  }
+}
@@ -5,6 +5,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
 import com.siimkinks.sqlitemagic.internal.MutableInt;
 import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
 import com.siimkinks.sqlitemagic.internal.StringArraySet;
@@ -31,6 +32,8 @@ public class Table<T> {
   final int nrOfColumns;
   final boolean hasAlias;
   private final Column<?, ?, ?, T> selectAllColumn;
+  @Nullable
+  private volatile QueryParts.Cache queryPartsCache;
 
   Table(@NonNull String name, @Nullable String alias, int nrOfColumns) {
     this.name = name;
@@ -123,7 +126,7 @@ public class Table<T> {
       }
 
       @Override
-      void addArgs(@NonNull ArrayList<String> args) {
+      void addArgs(@NonNull ArrayList<Object> args) {
         super.addArgs(args);
         expr.addArgs(args);
       }
@@ -176,6 +179,56 @@ public class Table<T> {
     };
   }
 
+  /**
+   * Columns that are selected from this table when the query does not define
+   * selected columns.
+   *
+   * @return Selected columns or {@code null} if all columns ("*") are selected
+   */
+  @Nullable
+  Column<?, ?, ?, ?>[] defaultSelection() {
+    return null;
+  }
+
+  /**
+   * Add query parts of this table to the select statement.
+   * <p>
+   * Query parts of a select without user defined joins are cached per selection, so
+   * selects that differ only by their where, order by or limit clauses do not walk
+   * the table graph again.
+   *
+   * @return System renamed tables
+   */
+  @Nullable
+  final SimpleArrayMap<String, LinkedList<String>> addQueryParts(@NonNull Select.From<?, ?, ?> from,
+                                                                 @Nullable StringArraySet selectFromTables,
+                                                                 @Nullable SimpleArrayMap<String, String> tableGraphNodeNames,
+                                                                 boolean select1,
+                                                                 boolean deep) {
+    if (!from.joins.isEmpty()) {
+      // user joins change the walk
+      return deep
+          ? addDeepQueryParts(from, selectFromTables, tableGraphNodeNames, select1)
+          : addShallowQueryParts(from, selectFromTables, tableGraphNodeNames, select1);
+    }
+    return queryPartsCache().add(this, from, selectFromTables, tableGraphNodeNames, select1, deep);
+  }
+
+  @NonNull
+  private QueryParts.Cache queryPartsCache() {
+    QueryParts.Cache cache = queryPartsCache;
+    if (cache == null) {
+      synchronized (this) {
+        cache = queryPartsCache;
+        if (cache == null) {
+          cache = new QueryParts.Cache();
+          queryPartsCache = cache;
+        }
+      }
+    }
+    return cache;
+  }
+
   @Nullable
   SimpleArrayMap<String, LinkedList<String>> addDeepQueryParts(@NonNull Select.From from,
                                                                @Nullable StringArraySet selectFromTables,
@@ -194,7 +247,7 @@ public class Table<T> {
 
   @NonNull
   ArrayList<T> allFromCursor(@NonNull FastCursor cursor,
-                             @Nullable SimpleArrayMap<String, Integer> columnPositions,
+                             @Nullable ColumnPositions columnPositions,
                              SimpleArrayMap<String, String> tableGraphNodeNames,
                              boolean queryDeep,
                              @NonNull Subscription subscription) {
@@ -203,7 +256,7 @@ public class Table<T> {
 
   @Nullable
   T firstFromCursor(@NonNull FastCursor cursor,
-                    @Nullable SimpleArrayMap<String, Integer> columnPositions,
+                    @Nullable ColumnPositions columnPositions,
                     SimpleArrayMap<String, String> tableGraphNodeNames,
                     boolean queryDeep) {
     throw new RuntimeException("not implemented");
@@ -211,13 +264,35 @@ public class Table<T> {
 
   @NonNull
   T fromCurrentCursorPosition(@NonNull FastCursor cursor,
-                              @Nullable SimpleArrayMap<String, Integer> columnPositions,
+                              @Nullable ColumnPositions columnPositions,
                               SimpleArrayMap<String, String> tableGraphNodeNames,
                               boolean queryDeep,
                               @NonNull MutableInt columnOffset) {
     throw new RuntimeException("not implemented");
   }
 
+  /**
+   * Get id of the provided entity.
+   *
+   * @param entity Table object
+   * @return Entity id or {@code null} if this table objects do not have an id
+   */
+  @Nullable
+  Object getId(@NonNull T entity) {
+    return null;
+  }
+
+  /**
+   * Get name of the id column whose values are published with row level triggers.
+   *
+   * @return Id column name or {@code null} if this table changes are published only with
+   * table level triggers
+   */
+  @Nullable
+  String getIdColumnName() {
+    return null;
+  }
+
   final boolean baseNameEquals(Object o) {
     if (this == o) return true;
     if (o == null) return false;
@@ -0,0 +1,178 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense integer ids of table names.
+ * <p>
+ * Generated tables get their ids at compile time &mdash; id of a generated table is its
+ * table position and generated code passes it along with the table name, so that
+ * no lookups by name are needed when sending triggers. Names of generated tables are
+ * mapped to their ids with {@link #init(String[])} when the first database connection
+ * is created.
+ * <p>
+ * Tables that are not known at compile time (e.g. tables from raw queries) get ids
+ * after the generated tables in the order they are first seen. At most
+ * {@link #MAX_UNKNOWN_TABLES} unknown tables get their own id; further unknown tables
+ * share one overflow id, which only means that observers of those tables might get
+ * triggered by changes in other unknown tables.
+ * <p>
+ * Ids are used as bit positions in trigger bitsets.
+ */
+final class TableIds {
+  static final int MAX_UNKNOWN_TABLES = 1024;
+
+  @Nullable
+  private static volatile HashMap<String, Integer> generatedIds;
+  private static volatile int nrOfGeneratedTables;
+  private static final ConcurrentHashMap<String, Integer> UNKNOWN_IDS = new ConcurrentHashMap<>();
+
+  private TableIds() {
+    throw new AssertionError("no instances");
+  }
+
+  /**
+   * Map names of generated tables to their compile time ids. Subsequent calls are ignored.
+   * <p>
+   * Unknown tables registered before this call are dropped, since their ids might
+   * collide with generated ids.
+   *
+   * @param tableNames Names of generated tables indexed by their table position
+   */
+  static synchronized void init(@NonNull String[] tableNames) {
+    if (generatedIds != null) {
+      return;
+    }
+    final int nrOfTables = tableNames.length;
+    final HashMap<String, Integer> ids = new HashMap<>(nrOfTables * 2);
+    for (int i = 0; i < nrOfTables; i++) {
+      ids.put(tableNames[i], i);
+    }
+    UNKNOWN_IDS.clear();
+    nrOfGeneratedTables = nrOfTables;
+    generatedIds = ids;
+  }
+
+  /**
+   * @return Id of the table
+   */
+  static int idOf(@NonNull String table) {
+    final HashMap<String, Integer> generatedIds = TableIds.generatedIds;
+    if (generatedIds != null) {
+      final Integer id = generatedIds.get(table);
+      if (id != null) {
+        return id;
+      }
+    }
+    final Integer id = UNKNOWN_IDS.get(table);
+    if (id != null) {
+      return id;
+    }
+    return registerUnknown(table);
+  }
+
+  /**
+   * @return Whether the id is shared by multiple tables
+   */
+  static boolean isShared(int id) {
+    return id == overflowId();
+  }
+
+  private static int overflowId() {
+    return nrOfGeneratedTables + MAX_UNKNOWN_TABLES;
+  }
+
+  private static synchronized int registerUnknown(@NonNull String table) {
+    final Integer id = UNKNOWN_IDS.get(table);
+    if (id != null) {
+      return id;
+    }
+    final int index = UNKNOWN_IDS.size();
+    if (index >= MAX_UNKNOWN_TABLES) {
+      return overflowId();
+    }
+    final int newId = nrOfGeneratedTables + index;
+    UNKNOWN_IDS.put(table, newId);
+    return newId;
+  }
+
+  @VisibleForTesting
+  static synchronized void clearUnknownTables() {
+    UNKNOWN_IDS.clear();
+  }
+
+  /**
+   * @return Bitset where bits of the provided tables are set
+   */
+  @NonNull
+  static long[] bitsOf(@NonNull String[] tables) {
+    long[] bits = new long[1];
+    for (String table : tables) {
+      bits = setBit(bits, idOf(table));
+    }
+    return bits;
+  }
+
+  /**
+   * Set bit in the bitset.
+   *
+   * @return Provided bitset or a grown copy of it if the bit did not fit
+   */
+  @NonNull
+  static long[] setBit(@NonNull long[] bits, int id) {
+    final int word = id >>> 6;
+    if (word >= bits.length) {
+      bits = grow(bits, word + 1);
+    }
+    bits[word] |= 1L << id;
+    return bits;
+  }
+
+  /**
+   * Set all bits of the other bitset in the bitset.
+   *
+   * @return Provided bitset or a grown copy of it if the bits did not fit
+   */
+  @NonNull
+  static long[] setBits(@NonNull long[] bits, @NonNull long[] other) {
+    final int length = other.length;
+    if (length > bits.length) {
+      bits = grow(bits, length);
+    }
+    for (int i = 0; i < length; i++) {
+      bits[i] |= other[i];
+    }
+    return bits;
+  }
+
+  @NonNull
+  private static long[] grow(@NonNull long[] bits, int length) {
+    final long[] grown = new long[length];
+    System.arraycopy(bits, 0, grown, 0, bits.length);
+    return grown;
+  }
+
+  static void clearBit(@NonNull long[] bits, int id) {
+    final int word = id >>> 6;
+    if (word < bits.length) {
+      bits[word] &= ~(1L << id);
+    }
+  }
+
+  /**
+   * @return Whether the bitsets have any common bits
+   */
+  static boolean intersects(@NonNull long[] first, @NonNull long[] second) {
+    for (int i = 0, length = Math.min(first.length, second.length); i < length; i++) {
+      if ((first[i] & second[i]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,207 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.siimkinks.sqlitemagic.internal.StringArraySet;
+
+import java.util.Set;
+
+import rx.Observer;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Merges table triggers that are sent in bursts.
+ * <p>
+ * First trigger set opens a window. All trigger sets that arrive before the window
+ * elapses are merged into one set which is published when the window closes. This way
+ * observed queries are notified at most once per window no matter how many separate
+ * writes changed their tables.
+ * <p>
+ * Window is the upper bound of the delay. Pending triggers are published early when the
+ * writer goes idle &ndash; when the last open write transaction of the connection ends,
+ * no queued writes are waiting and no new write transaction starts within a quarter of
+ * the window. Back-to-back transactions, such as a series of bulk operations, are still
+ * merged.
+ * <p>
+ * Caches are invalidated when the trigger is sent, so only observer notifications are delayed.
+ */
+public final class TriggerCoalescer {
+  @NonNull
+  private final Observer<Set<String>> downstream;
+  @NonNull
+  private final Scheduler.Worker worker;
+  private final long windowNanos;
+  private final long idleGraceNanos;
+  @Nullable
+  private RowTriggerSet pending;
+  @Nullable
+  private Subscription idleFlush;
+  private boolean closed;
+  private int openTransactions;
+  private long receivedCount;
+  private long publishedCount;
+  private long collapsedCount;
+
+  private final Action0 idleFlushAction = new Action0() {
+    @Override
+    public void call() {
+      synchronized (TriggerCoalescer.this) {
+        // a transaction started after the idle flush was scheduled
+        if (openTransactions > 0) {
+          return;
+        }
+        idleFlush = null;
+      }
+      flush();
+    }
+  };
+
+  TriggerCoalescer(@NonNull Observer<Set<String>> downstream,
+                   @NonNull Scheduler scheduler,
+                   long windowNanos) {
+    this.downstream = downstream;
+    this.worker = scheduler.createWorker();
+    this.windowNanos = windowNanos;
+    this.idleGraceNanos = windowNanos / 4;
+  }
+
+  /**
+   * Add changed tables to the current window or open a new window.
+   */
+  void add(@NonNull Set<String> tables) {
+    synchronized (this) {
+      if (!closed) {
+        receivedCount++;
+        RowTriggerSet pending = this.pending;
+        if (pending != null) {
+          collapsedCount++;
+          addAll(pending, tables);
+          return;
+        }
+        pending = new RowTriggerSet();
+        addAll(pending, tables);
+        this.pending = pending;
+        final RowTriggerSet window = pending;
+        worker.schedule(new Action0() {
+          @Override
+          public void call() {
+            flush(window);
+          }
+        }, windowNanos, NANOSECONDS);
+        return;
+      }
+    }
+    downstream.onNext(tables);
+  }
+
+  private static void addAll(@NonNull RowTriggerSet pending, @NonNull Set<String> tables) {
+    if (tables instanceof StringArraySet) {
+      pending.addAll((StringArraySet) tables);
+    } else {
+      for (String table : tables) {
+        pending.add(table);
+      }
+    }
+  }
+
+  /**
+   * Mark start of an outermost write transaction.
+   */
+  void transactionStarted() {
+    final Subscription idleFlush;
+    synchronized (this) {
+      openTransactions++;
+      idleFlush = this.idleFlush;
+      this.idleFlush = null;
+    }
+    if (idleFlush != null) {
+      idleFlush.unsubscribe();
+    }
+  }
+
+  /**
+   * Mark end of an outermost write transaction. Pending triggers are published if
+   * it was the last open transaction, the writer has nothing more to write and no
+   * new transaction starts within the idle grace period.
+   *
+   * @param writesQueued Whether there are queued writes waiting to be committed
+   */
+  void transactionEnded(boolean writesQueued) {
+    synchronized (this) {
+      openTransactions--;
+      if (openTransactions > 0 || writesQueued || pending == null || idleFlush != null || closed) {
+        return;
+      }
+      idleFlush = worker.schedule(idleFlushAction, idleGraceNanos, NANOSECONDS);
+    }
+  }
+
+  /**
+   * Publish merged triggers of the current window.
+   */
+  void flush() {
+    flush(null);
+  }
+
+  /**
+   * Publish merged triggers if the provided window is still pending.
+   *
+   * @param window Pending set of the window to publish or {@code null} to publish any pending set
+   */
+  private void flush(@Nullable RowTriggerSet window) {
+    final RowTriggerSet pending;
+    synchronized (this) {
+      pending = this.pending;
+      if (pending == null || (window != null && window != pending)) {
+        return;
+      }
+      this.pending = null;
+      publishedCount++;
+    }
+    downstream.onNext(pending);
+  }
+
+  /**
+   * Publish pending triggers and stop merging. Triggers added after closing
+   * are published immediately.
+   */
+  void close() {
+    synchronized (this) {
+      closed = true;
+    }
+    worker.unsubscribe();
+    flush();
+  }
+
+  /**
+   * @return Number of trigger sets sent to this coalescer
+   */
+  public synchronized long receivedCount() {
+    return receivedCount;
+  }
+
+  /**
+   * @return Number of merged trigger sets published to observers
+   */
+  public synchronized long publishedCount() {
+    return publishedCount;
+  }
+
+  /**
+   * @return Number of trigger sets that were merged into an already pending set
+   */
+  public synchronized long collapsedCount() {
+    return collapsedCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "TriggerCoalescer[windowNanos=" + windowNanos + ", received=" + receivedCount +
+        ", published=" + publishedCount + ", collapsed=" + collapsedCount + "]";
+  }
+}
@@ -186,7 +186,7 @@ public final class Update extends UpdateSqlNode {
 
     @NonNull
     @Override
-    String toSqlArg(@NonNull T val) {
+    Object toSqlArg(@NonNull T val) {
       return parentColumn.toSqlArg(val);
     }
 
@@ -44,6 +44,43 @@ public final class Utils {
     return new String(buf, 0, TABLE_NAME_LEN);
   }
 
+  /**
+   * Alias for a table that is joined through the provided column in deep and shallow
+   * queries.
+   * <p>
+   * Alias is derived from the parent table name in query and the column name, so the same
+   * table graph always gets the same aliases and compiles to the same SQL.
+   *
+   * @param parent     Table that contains the column
+   * @param columnName Name of the column that references the joined table
+   * @return Fixed length alias
+   */
+  @NonNull
+  @CheckResult
+  public static String joinedTableAlias(@NonNull Table<?> parent, @NonNull String columnName) {
+    // 64-bit FNV-1a hash of "parent.column"
+    long hash = 0xcbf29ce484222325L;
+    hash = fnv1a(hash, parent.nameInQuery);
+    hash = (hash ^ '.') * 0x100000001b3L;
+    hash = fnv1a(hash, columnName);
+    hash >>>= 1;
+    final char[] charSet = CHAR_SET;
+    final int charSetLen = charSet.length;
+    final char buf[] = new char[TABLE_NAME_LEN];
+    for (int i = 0; i < TABLE_NAME_LEN; i++) {
+      buf[i] = charSet[(int) (hash % charSetLen)];
+      hash /= charSetLen;
+    }
+    return new String(buf, 0, TABLE_NAME_LEN);
+  }
+
+  private static long fnv1a(long hash, @NonNull String str) {
+    for (int i = 0, len = str.length(); i < len; i++) {
+      hash = (hash ^ str.charAt(i)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
   @NonNull
   @CheckResult
   public static String addTableAlias(@NonNull Table<?> table, @NonNull SimpleArrayMap<String, LinkedList<String>> systemRenamedTables) {
@@ -0,0 +1,32 @@
+package com.siimkinks.sqlitemagic.entity;
+
+/**
+ * For internal use.
+ * <p>
+ * Table model that tracks which of its columns have changed since they were last
+ * written to the database.
+ * <p>
+ * Models annotated with {@code @Table(trackDirtyColumns = true)} get this interface
+ * implemented by the SqliteMagic gradle plugin, which also instruments every write to
+ * their column fields outside of the generated code. Models must not implement it
+ * themselves. Changed columns are reported as a bitmask of {@code DIRTY_*} constants
+ * generated into the table structure class.
+ */
+public interface DirtyTrackable {
+  /**
+   * @return Bitmask of changed columns or {@code 0} if nothing has changed
+   */
+  long dirtyColumns();
+
+  /**
+   * Mark columns as changed.
+   *
+   * @param columns Bitmask of changed columns
+   */
+  void markDirtyColumns(long columns);
+
+  /**
+   * Called after changed columns have been written to the database.
+   */
+  void clearDirtyColumns();
+}
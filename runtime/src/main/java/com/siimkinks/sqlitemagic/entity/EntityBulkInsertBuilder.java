@@ -3,6 +3,8 @@ package com.siimkinks.sqlitemagic.entity;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 
+import com.siimkinks.sqlitemagic.ConflictAlgorithm;
+
 import rx.Single;
 
 /**
@@ -11,6 +13,17 @@ import rx.Single;
  * @param <T> Operation target type
  */
 public interface EntityBulkInsertBuilder<T> extends ConnectionProvidedOperation<EntityBulkInsertBuilder<T>> {
+  /**
+   * Configure this operation to use provided conflict algorithm.
+   *
+   * @param conflictAlgorithm One of {@link android.database.sqlite.SQLiteDatabase}
+   *                          CONFLICT_* constant values
+   * @return Operation builder
+   */
+  @NonNull
+  @CheckResult
+  EntityBulkInsertBuilder<T> conflictAlgorithm(@ConflictAlgorithm int conflictAlgorithm);
+
   /**
    * Execute this configured bulk insert operation against a database.
    * Operation will be executed inside a transaction.
@@ -10,6 +10,9 @@ import rx.Single;
  * <p>
  * Persist is an operation that first tries to update and if that fails then inserts
  * the provided entity.
+ * <p>
+ * On API 30+ persist of a table whose id is not autoincremented is executed as a single
+ * {@code INSERT ... ON CONFLICT DO UPDATE} statement with the same result.
  *
  * @param <T> Operation target type
  */
@@ -0,0 +1,81 @@
+package com.siimkinks.sqlitemagic.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * For internal use.
+ * <p>
+ * Positions of selected columns in query result. Keys are "table.column" for single
+ * columns and table name when all table columns are selected.
+ * <p>
+ * Positions of table graph node columns are resolved by {@link TableGraphNode}s on first
+ * request and reused for every parsed row.
+ */
+public final class ColumnPositions extends SimpleArrayMap<String, Integer> {
+  public static final int NOT_SELECTED = -1;
+  static final int[] NODE_NOT_SELECTED = new int[0];
+
+  @Nullable
+  private volatile TableGraphNode rootNode;
+
+  public ColumnPositions() {
+  }
+
+  public ColumnPositions(int capacity) {
+    super(capacity);
+  }
+
+  /**
+   * @return Position of the provided key or {@link #NOT_SELECTED} if it is not part of the selection
+   */
+  public int positionOf(@NonNull String key) {
+    final Integer pos = get(key);
+    return pos != null ? pos : NOT_SELECTED;
+  }
+
+  /**
+   * Get root node of the selected table graph. Should be requested once per query
+   * execution, before parsing rows. Concurrent first requests might create separate
+   * but equal root nodes.
+   *
+   * @param tableGraphNodeNames Selection graph node names. Same instance must be used for
+   *                            every request
+   * @return Root node of the selection
+   */
+  @NonNull
+  public TableGraphNode rootNode(@NonNull SimpleArrayMap<String, String> tableGraphNodeNames) {
+    TableGraphNode rootNode = this.rootNode;
+    if (rootNode == null) {
+      rootNode = new TableGraphNode(this, tableGraphNodeNames, "");
+      this.rootNode = rootNode;
+    }
+    return rootNode;
+  }
+
+  @NonNull
+  int[] resolvePlan(@NonNull SimpleArrayMap<String, String> tableGraphNodeNames,
+                    @NonNull String nodeName,
+                    @NonNull String tableName,
+                    @NonNull String[] columnNames) {
+    String thisTableName = tableGraphNodeNames.get(nodeName);
+    if (thisTableName == null) {
+      if (nodeName.length() > 0) {
+        return NODE_NOT_SELECTED;
+      }
+      thisTableName = tableName;
+    }
+    final int columnCount = columnNames.length;
+    final int[] plan = new int[columnCount + 1];
+    plan[0] = positionOf(thisTableName);
+    final StringBuilder key = new StringBuilder(thisTableName.length() + 16)
+        .append(thisTableName)
+        .append('.');
+    final int prefixLength = key.length();
+    for (int i = 0; i < columnCount; i++) {
+      key.setLength(prefixLength);
+      plan[i + 1] = positionOf(key.append(columnNames[i]).toString());
+    }
+    return plan;
+  }
+}
@@ -0,0 +1,123 @@
+package com.siimkinks.sqlitemagic.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * For internal use.
+ * <p>
+ * Node of the selected table graph. Node resolves positions of its table columns and its
+ * child nodes on first request and keeps them for every following row and query execution,
+ * so parsing a row takes no locks, map lookups or string concatenation.
+ * <p>
+ * Resolved state is published through volatile copy-on-write arrays, so only the first
+ * request of each plan or child takes a lock.
+ */
+public final class TableGraphNode {
+  private static final Object[] NO_PLANS = new Object[0];
+  private static final TableGraphNode[] NO_CHILDREN = new TableGraphNode[0];
+
+  @NonNull
+  public final ColumnPositions columns;
+  @NonNull
+  private final SimpleArrayMap<String, String> tableGraphNodeNames;
+  @NonNull
+  private final String nodeName;
+  private final boolean tableSelected;
+  /**
+   * Resolved plans as pairs of table column names and their plan.
+   */
+  @NonNull
+  private volatile Object[] plans = NO_PLANS;
+  @NonNull
+  private volatile TableGraphNode[] children = NO_CHILDREN;
+
+  TableGraphNode(@NonNull ColumnPositions columns,
+                 @NonNull SimpleArrayMap<String, String> tableGraphNodeNames,
+                 @NonNull String nodeName) {
+    this.columns = columns;
+    this.tableGraphNodeNames = tableGraphNodeNames;
+    this.nodeName = nodeName;
+    final String nameInQuery = tableGraphNodeNames.get(nodeName);
+    this.tableSelected = nameInQuery != null && columns.get(nameInQuery) != null;
+  }
+
+  /**
+   * @return Whether all columns of this node table are selected
+   */
+  public boolean isTableSelected() {
+    return tableSelected;
+  }
+
+  /**
+   * Get column positions of this node table.
+   *
+   * @param tableName   Table name which is used when root node is not renamed
+   * @param columnNames Table column names. Same array instance must be used for
+   *                    every request from one table
+   * @return Plan where first element is the offset of all table columns and rest are
+   * positions of {@code columnNames} in the same order. Not selected positions are
+   * {@link ColumnPositions#NOT_SELECTED}. {@code null} if node is not part of the selection.
+   */
+  @Nullable
+  public int[] plan(@NonNull String tableName, @NonNull String[] columnNames) {
+    final Object[] plans = this.plans;
+    for (int i = 0, length = plans.length; i < length; i += 2) {
+      if (plans[i] == columnNames) {
+        final int[] plan = (int[]) plans[i + 1];
+        return plan != ColumnPositions.NODE_NOT_SELECTED ? plan : null;
+      }
+    }
+    final int[] plan = resolvePlan(tableName, columnNames);
+    return plan != ColumnPositions.NODE_NOT_SELECTED ? plan : null;
+  }
+
+  /**
+   * @param index      Position of the complex column in its table columns
+   * @param columnName Complex column name
+   * @return Node of the table that the complex column references
+   */
+  @NonNull
+  public TableGraphNode child(int index, @NonNull String columnName) {
+    final TableGraphNode[] children = this.children;
+    if (index < children.length) {
+      final TableGraphNode child = children[index];
+      if (child != null) {
+        return child;
+      }
+    }
+    return resolveChild(index, columnName);
+  }
+
+  @NonNull
+  private synchronized int[] resolvePlan(@NonNull String tableName, @NonNull String[] columnNames) {
+    final Object[] plans = this.plans;
+    final int length = plans.length;
+    for (int i = 0; i < length; i += 2) {
+      if (plans[i] == columnNames) {
+        return (int[]) plans[i + 1];
+      }
+    }
+    final int[] plan = columns.resolvePlan(tableGraphNodeNames, nodeName, tableName, columnNames);
+    final Object[] newPlans = new Object[length + 2];
+    System.arraycopy(plans, 0, newPlans, 0, length);
+    newPlans[length] = columnNames;
+    newPlans[length + 1] = plan;
+    this.plans = newPlans;
+    return plan;
+  }
+
+  @NonNull
+  private synchronized TableGraphNode resolveChild(int index, @NonNull String columnName) {
+    final TableGraphNode[] children = this.children;
+    if (index < children.length && children[index] != null) {
+      return children[index];
+    }
+    final TableGraphNode child = new TableGraphNode(columns, tableGraphNodeNames, nodeName + columnName);
+    final TableGraphNode[] newChildren = new TableGraphNode[Math.max(children.length, index + 1)];
+    System.arraycopy(children, 0, newChildren, 0, children.length);
+    newChildren[index] = child;
+    this.children = newChildren;
+    return child;
+  }
+}
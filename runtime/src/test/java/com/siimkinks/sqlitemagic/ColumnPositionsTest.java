@@ -0,0 +1,89 @@
+package com.siimkinks.sqlitemagic;
+
+import com.siimkinks.sqlitemagic.internal.ColumnPositions;
+import com.siimkinks.sqlitemagic.internal.SimpleArrayMap;
+import com.siimkinks.sqlitemagic.internal.TableGraphNode;
+
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.internal.ColumnPositions.NOT_SELECTED;
+
+public class ColumnPositionsTest {
+  private static final String[] AUTHOR_COLUMNS = new String[]{"id", "name", "boxed_boolean"};
+
+  @Test
+  public void rootNodeColumnsAreResolved() {
+    final ColumnPositions positions = new ColumnPositions();
+    positions.put("author.name", 0);
+    positions.put("author.id", 1);
+
+    final int[] plan = positions.rootNode(new SimpleArrayMap<String, String>()).plan("author", AUTHOR_COLUMNS);
+
+    assertThat(plan).isEqualTo(new int[]{NOT_SELECTED, 1, 0, NOT_SELECTED});
+  }
+
+  @Test
+  public void renamedNodeColumnsAreResolved() {
+    final ColumnPositions positions = new ColumnPositions();
+    positions.put("a1", 3);
+    positions.put("a1.name", 4);
+    final SimpleArrayMap<String, String> nodeNames = new SimpleArrayMap<>();
+    nodeNames.put("author", "a1");
+
+    final TableGraphNode node = positions.rootNode(nodeNames).child(2, "author");
+
+    assertThat(node.plan("author", AUTHOR_COLUMNS)).isEqualTo(new int[]{3, NOT_SELECTED, 4, NOT_SELECTED});
+    assertThat(node.isTableSelected()).isTrue();
+  }
+
+  @Test
+  public void missingNodeHasNoPlan() {
+    final ColumnPositions positions = new ColumnPositions();
+    positions.put("author.name", 0);
+
+    final TableGraphNode node = positions.rootNode(new SimpleArrayMap<String, String>()).child(0, "author");
+
+    assertThat(node.plan("author", AUTHOR_COLUMNS)).isNull();
+    assertThat(node.plan("author", AUTHOR_COLUMNS)).isNull();
+    assertThat(node.isTableSelected()).isFalse();
+  }
+
+  @Test
+  public void plansAreReused() {
+    final ColumnPositions positions = new ColumnPositions();
+    positions.put("author.name", 0);
+    final SimpleArrayMap<String, String> nodeNames = new SimpleArrayMap<>();
+
+    final TableGraphNode root = positions.rootNode(nodeNames);
+    final int[] plan = root.plan("author", AUTHOR_COLUMNS);
+
+    assertThat(positions.rootNode(nodeNames)).isSameAs(root);
+    assertThat(root.plan("author", AUTHOR_COLUMNS)).isSameAs(plan);
+    assertThat(root.plan("book", new String[]{"name"})).isNotSameAs(plan);
+  }
+
+  @Test
+  public void childNodesAreReused() {
+    final ColumnPositions positions = new ColumnPositions();
+    final SimpleArrayMap<String, String> nodeNames = new SimpleArrayMap<>();
+    nodeNames.put("author", "a1");
+    nodeNames.put("authormagazine", "a2");
+    final TableGraphNode root = positions.rootNode(nodeNames);
+
+    final TableGraphNode child = root.child(1, "author");
+
+    assertThat(root.child(1, "author")).isSameAs(child);
+    assertThat(root.child(0, "editor")).isNotSameAs(child);
+    assertThat(child.child(3, "magazine")).isSameAs(child.child(3, "magazine"));
+  }
+
+  @Test
+  public void positionOfMissingKey() {
+    final ColumnPositions positions = new ColumnPositions();
+    positions.put("name", 2);
+
+    assertThat(positions.positionOf("name")).isEqualTo(2);
+    assertThat(positions.positionOf("title")).isEqualTo(NOT_SELECTED);
+  }
+}
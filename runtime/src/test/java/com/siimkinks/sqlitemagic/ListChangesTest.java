@@ -0,0 +1,117 @@
+package com.siimkinks.sqlitemagic;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import rx.functions.Func1;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ListChangesTest {
+  private static final Func1<Row, Object> ID = new Func1<Row, Object>() {
+    @Override
+    public Object call(Row row) {
+      return row.id;
+    }
+  };
+
+  @Test
+  public void firstResultIsAllInserted() {
+    final List<Row> rows = Arrays.asList(new Row(1, "a"), new Row(2, "b"));
+    final ListChanges<Row> changes = ListChanges.compute(null, rows, ID);
+
+    assertThat(changes.getList()).isSameAs(rows);
+    assertThat(changes.getInserted()).isEqualTo(new int[]{0, 1});
+    assertThat(changes.getRemoved()).isEmpty();
+    assertThat(changes.getMovedTo()).isEmpty();
+    assertThat(changes.getChanged()).isEmpty();
+  }
+
+  @Test
+  public void unchangedResultKeepsPreviousList() {
+    final List<Row> previous = Arrays.asList(new Row(1, "a"), new Row(2, "b"));
+    final List<Row> current = Arrays.asList(new Row(1, "a"), new Row(2, "b"));
+    final ListChanges<Row> changes = ListChanges.compute(previous, current, ID);
+
+    assertThat(changes.isEmpty()).isTrue();
+    assertThat(changes.getList()).isSameAs(previous);
+  }
+
+  @Test
+  public void unchangedRowsKeepPreviousInstances() {
+    final Row first = new Row(1, "a");
+    final Row second = new Row(2, "b");
+    final List<Row> previous = Arrays.asList(first, second);
+    final Row updated = new Row(2, "updated");
+    final List<Row> current = Arrays.asList(new Row(1, "a"), updated, new Row(3, "c"));
+    final ListChanges<Row> changes = ListChanges.compute(previous, current, ID);
+
+    assertThat(changes.getList()).containsExactly(first, updated, current.get(2)).inOrder();
+    assertThat(changes.getList().get(0)).isSameAs(first);
+    assertThat(changes.getList().get(1)).isSameAs(updated);
+    assertThat(changes.getChanged()).isEqualTo(new int[]{1});
+    assertThat(changes.getInserted()).isEqualTo(new int[]{2});
+    assertThat(changes.getRemoved()).isEmpty();
+    assertThat(changes.getMovedTo()).isEmpty();
+  }
+
+  @Test
+  public void removedRowsAreReportedInPreviousPositions() {
+    final List<Row> previous = Arrays.asList(new Row(1, "a"), new Row(2, "b"), new Row(3, "c"));
+    final List<Row> current = Arrays.asList(new Row(2, "b"));
+    final ListChanges<Row> changes = ListChanges.compute(previous, current, ID);
+
+    assertThat(changes.getRemoved()).isEqualTo(new int[]{0, 2});
+    assertThat(changes.getInserted()).isEmpty();
+    assertThat(changes.getMovedTo()).isEmpty();
+    assertThat(changes.getList().get(0)).isSameAs(previous.get(1));
+  }
+
+  @Test
+  public void onlyRowsOutOfOrderAreMoved() {
+    final List<Row> previous = Arrays.asList(new Row(1, "a"), new Row(2, "b"), new Row(3, "c"), new Row(4, "d"));
+    final List<Row> current = Arrays.asList(new Row(4, "d"), new Row(1, "a"), new Row(2, "b"), new Row(3, "c"));
+    final ListChanges<Row> changes = ListChanges.compute(previous, current, ID);
+
+    assertThat(changes.getMovedFrom()).isEqualTo(new int[]{3});
+    assertThat(changes.getMovedTo()).isEqualTo(new int[]{0});
+    assertThat(changes.getInserted()).isEmpty();
+    assertThat(changes.getRemoved()).isEmpty();
+    assertThat(changes.getChanged()).isEmpty();
+  }
+
+  @Test
+  public void duplicateIdsAreMatchedOnce() {
+    final List<Row> previous = Arrays.asList(new Row(1, "a"));
+    final List<Row> current = Arrays.asList(new Row(1, "a"), new Row(1, "a"));
+    final ListChanges<Row> changes = ListChanges.compute(previous, current, ID);
+
+    assertThat(changes.getInserted()).isEqualTo(new int[]{1});
+    assertThat(changes.getList().get(0)).isSameAs(previous.get(0));
+  }
+
+  static final class Row {
+    final long id;
+    final String value;
+
+    Row(long id, String value) {
+      this.id = id;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Row)) return false;
+      final Row row = (Row) o;
+      return id == row.id && value.equals(row.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (int) (id ^ (id >>> 32)) + value.hashCode();
+    }
+  }
+}
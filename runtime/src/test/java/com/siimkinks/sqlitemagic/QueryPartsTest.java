@@ -0,0 +1,38 @@
+package com.siimkinks.sqlitemagic;
+
+import com.siimkinks.sqlitemagic.internal.StringArraySet;
+
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class QueryPartsTest {
+  @Test
+  public void sameSelectionHasEqualKeys() {
+    final QueryParts.Key first = new QueryParts.Key(true, new StringArraySet(new String[]{"author", "magazine"}), false);
+    final QueryParts.Key second = new QueryParts.Key(true, new StringArraySet(new String[]{"magazine", "author"}), false);
+
+    assertThat(first).isEqualTo(second);
+    assertThat(first.hashCode()).isEqualTo(second.hashCode());
+  }
+
+  @Test
+  public void selectAllIgnoresSelect1() {
+    final QueryParts.Key nullSelection = new QueryParts.Key(true, null, true);
+    final QueryParts.Key emptySelection = new QueryParts.Key(true, new StringArraySet(), false);
+
+    assertThat(nullSelection).isEqualTo(emptySelection);
+    assertThat(nullSelection.hashCode()).isEqualTo(emptySelection.hashCode());
+  }
+
+  @Test
+  public void differentQueryPartsHaveDifferentKeys() {
+    final StringArraySet selection = new StringArraySet(new String[]{"author"});
+    final QueryParts.Key deep = new QueryParts.Key(true, selection, false);
+
+    assertThat(deep).isNotEqualTo(new QueryParts.Key(false, selection, false));
+    assertThat(deep).isNotEqualTo(new QueryParts.Key(true, selection, true));
+    assertThat(deep).isNotEqualTo(new QueryParts.Key(true, new StringArraySet(new String[]{"magazine"}), false));
+    assertThat(deep).isNotEqualTo(new QueryParts.Key(true, null, false));
+  }
+}
@@ -0,0 +1,199 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class QueryResultCacheTest {
+  private static final String[] AUTHOR = new String[]{"author"};
+  private static final String[] BOOK_AND_AUTHOR = new String[]{"book", "author"};
+
+  @Test
+  public void resultIsSharedBetweenQueries() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    final CountingLoader loader = new CountingLoader(3);
+
+    final List<Integer> first = cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+    final List<Integer> second = cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+
+    assertThat(second).isSameAs(first);
+    assertThat(loader.loadCount).isEqualTo(1);
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+    assertThat(cache.rowCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void resultsAreKeyedByArgs() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    final CountingLoader loader = new CountingLoader(1);
+    final String sql = "SELECT * FROM author WHERE author.id=? ";
+
+    cache.get(sql, new Object[]{1L}, null, AUTHOR, loader);
+    cache.get(sql, new Object[]{2L}, null, AUTHOR, loader);
+    cache.get(sql, new Object[]{1L}, null, AUTHOR, loader);
+
+    assertThat(loader.loadCount).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void resultsAreKeyedByProjectionType() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    final CountingLoader loader = new CountingLoader(1);
+    final String sql = "SELECT author.id, author.name FROM author ";
+
+    final List<Integer> tableResult = cache.get(sql, null, new NamedProjection("author"), AUTHOR, loader);
+    final List<Integer> projectionResult = cache.get(sql, null, new OtherNamedProjection("author"), AUTHOR, loader);
+    final List<Integer> tableResultAgain = cache.get(sql, null, new NamedProjection("author"), AUTHOR, loader);
+
+    assertThat(projectionResult).isNotSameAs(tableResult);
+    assertThat(tableResultAgain).isSameAs(tableResult);
+    assertThat(loader.loadCount).isEqualTo(2);
+  }
+
+  @Test
+  public void nullResultIsCached() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    final NullLoader loader = new NullLoader();
+
+    assertThat(cache.get("SELECT * FROM author LIMIT 1 ", null, null, AUTHOR, loader)).isNull();
+    assertThat(cache.get("SELECT * FROM author LIMIT 1 ", null, null, AUTHOR, loader)).isNull();
+    assertThat(loader.loadCount).isEqualTo(1);
+  }
+
+  @Test
+  public void tableChangeDropsObservingResults() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    final CountingLoader loader = new CountingLoader(1);
+
+    cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+    cache.get("SELECT * FROM book JOIN author ", null, null, BOOK_AND_AUTHOR, loader);
+    cache.invalidate(Collections.singleton("book"));
+
+    assertThat(cache.size()).isEqualTo(1);
+    cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+    assertThat(loader.loadCount).isEqualTo(2);
+
+    cache.invalidate(Collections.singleton("author"));
+    assertThat(cache.size()).isEqualTo(0);
+    assertThat(cache.rowCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void leastRecentlyUsedResultsAreEvictedOverBudget() {
+    final QueryResultCache cache = new QueryResultCache(10);
+    final CountingLoader loader = new CountingLoader(4);
+
+    cache.get("SELECT 1 ", null, null, AUTHOR, loader);
+    cache.get("SELECT 2 ", null, null, AUTHOR, loader);
+    cache.get("SELECT 1 ", null, null, AUTHOR, loader);
+    cache.get("SELECT 3 ", null, null, AUTHOR, loader);
+
+    assertThat(cache.rowCount()).isEqualTo(8);
+    assertThat(cache.evictionCount()).isEqualTo(1);
+    cache.get("SELECT 1 ", null, null, AUTHOR, loader);
+    assertThat(loader.loadCount).isEqualTo(3);
+  }
+
+  @Test
+  public void resultOverBudgetIsNotCached() {
+    final QueryResultCache cache = new QueryResultCache(2);
+    final CountingLoader loader = new CountingLoader(3);
+
+    cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+    cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+
+    assertThat(loader.loadCount).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void resultLoadedDuringTableChangeIsNotCached() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    final CountingLoader loader = new CountingLoader(1) {
+      @NonNull
+      @Override
+      public List<Integer> loadShared() {
+        cache.invalidate(Collections.singleton("author"));
+        return super.loadShared();
+      }
+    };
+
+    cache.get("SELECT * FROM author ", null, null, AUTHOR, loader);
+
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void loaderErrorIsRethrown() {
+    final QueryResultCache cache = new QueryResultCache(100);
+    cache.get("SELECT * FROM author ", null, null, AUTHOR, new QueryResultCache.Loader<Object>() {
+      @Override
+      public Object loadShared() {
+        throw new IllegalStateException();
+      }
+    });
+  }
+
+  static class CountingLoader implements QueryResultCache.Loader<List<Integer>> {
+    final int rows;
+    int loadCount;
+
+    CountingLoader(int rows) {
+      this.rows = rows;
+    }
+
+    @NonNull
+    @Override
+    public List<Integer> loadShared() {
+      loadCount++;
+      final Integer[] values = new Integer[rows];
+      Arrays.fill(values, loadCount);
+      return Collections.unmodifiableList(Arrays.asList(values));
+    }
+  }
+
+  /**
+   * Projection which equals any other projection with the same name, like tables do.
+   */
+  static class NamedProjection {
+    final String name;
+
+    NamedProjection(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof NamedProjection && name.equals(((NamedProjection) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode();
+    }
+  }
+
+  static final class OtherNamedProjection extends NamedProjection {
+    OtherNamedProjection(String name) {
+      super(name);
+    }
+  }
+
+  static final class NullLoader implements QueryResultCache.Loader<Object> {
+    int loadCount;
+
+    @Override
+    public Object loadShared() {
+      loadCount++;
+      return null;
+    }
+  }
+}
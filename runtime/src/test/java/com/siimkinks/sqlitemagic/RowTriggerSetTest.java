@@ -0,0 +1,140 @@
+package com.siimkinks.sqlitemagic;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class RowTriggerSetTest {
+  @After
+  public void tearDown() {
+    TableIds.clearUnknownTables();
+  }
+
+  @Test
+  public void changedRowsAreTracked() {
+    final RowTriggerSet triggers = new RowTriggerSet();
+    triggers.addRow("author", 1);
+    triggers.addRow("author", 2);
+
+    assertThat(triggers.contains("author")).isTrue();
+    assertThat(triggers.changedRows("author")).containsExactly(1L, 2L);
+    assertThat(triggers.affectsRows("author", new long[]{2, 3})).isTrue();
+    assertThat(triggers.affectsRows("author", new long[]{3})).isFalse();
+    assertThat(triggers.affectsRows("book", new long[]{1})).isFalse();
+  }
+
+  @Test
+  public void wholeTableChangeOverridesRows() {
+    final RowTriggerSet triggers = new RowTriggerSet();
+    triggers.addRow("author", 1);
+    triggers.add("author");
+    triggers.addRow("author", 2);
+
+    assertThat(triggers.changedRows("author")).isNull();
+    assertThat(triggers.affectsRows("author", new long[]{3})).isTrue();
+  }
+
+  @Test
+  public void tooManyRowsDegradeToWholeTable() {
+    final RowTriggerSet triggers = new RowTriggerSet();
+    for (int i = 0; i <= RowTriggerSet.MAX_ROWS_PER_TABLE; i++) {
+      triggers.addRow("author", i);
+    }
+
+    assertThat(triggers.changedRows("author")).isNull();
+    assertThat(triggers.affectsRows("author", new long[]{-1})).isTrue();
+  }
+
+  @Test
+  public void mergingKeepsRowInfo() {
+    final RowTriggerSet first = new RowTriggerSet();
+    first.addRow("author", 1);
+    final RowTriggerSet second = new RowTriggerSet();
+    second.addRow("author", 2);
+    second.add("book");
+    first.addAll(second);
+
+    assertThat(first.changedRows("author")).containsExactly(1L, 2L);
+    assertThat(first.changedRows("book")).isNull();
+    assertThat(first.contains("book")).isTrue();
+  }
+
+  @Test
+  public void tablesAreMatchedByBits() {
+    final RowTriggerSet triggers = new RowTriggerSet();
+    triggers.add("author");
+    triggers.addRow("book", 1);
+
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"magazine", "book"}))).isTrue();
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"magazine"}))).isFalse();
+
+    triggers.remove("book");
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"book"}))).isFalse();
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"author"}))).isTrue();
+  }
+
+  @Test
+  public void bitsGrowPastOneWord() {
+    final String[] tables = new String[130];
+    for (int i = 0; i < tables.length; i++) {
+      tables[i] = "table" + i;
+    }
+    final RowTriggerSet triggers = new RowTriggerSet();
+    triggers.add(tables[129]);
+
+    assertThat(triggers.containsAny(TableIds.bitsOf(tables))).isTrue();
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{tables[0]}))).isFalse();
+  }
+
+  @Test
+  public void explicitIdsAreUsedAsBits() {
+    final int authorId = TableIds.idOf("author");
+    final int bookId = TableIds.idOf("book");
+    final RowTriggerSet triggers = new RowTriggerSet();
+    triggers.add("author", authorId);
+    triggers.addRow("book", bookId, 1);
+
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"author"}))).isTrue();
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"book"}))).isTrue();
+    assertThat(triggers.changedRows("book")).containsExactly(1L);
+  }
+
+  @Test
+  public void mergingKeepsBits() {
+    final RowTriggerSet first = new RowTriggerSet();
+    first.add("author");
+    final RowTriggerSet second = new RowTriggerSet();
+    second.addAll(new String[]{"book", "magazine"}, new int[]{TableIds.idOf("book"), TableIds.idOf("magazine")});
+    first.addAll(second);
+
+    assertThat(first.containsAny(TableIds.bitsOf(new String[]{"magazine"}))).isTrue();
+    assertThat(first.containsAny(TableIds.bitsOf(new String[]{"author"}))).isTrue();
+    assertThat(first.contains("book")).isTrue();
+  }
+
+  @Test
+  public void unknownTableIdsAreBounded() {
+    final int[] ids = new int[TableIds.MAX_UNKNOWN_TABLES + 10];
+    int maxId = 0;
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = TableIds.idOf("unknownTable" + i);
+      maxId = Math.max(maxId, ids[i]);
+    }
+
+    assertThat(TableIds.isShared(ids[ids.length - 1])).isTrue();
+    assertThat(TableIds.idOf("unknownTable" + (ids.length - 1))).isEqualTo(ids[ids.length - 1]);
+    assertThat(maxId).isEqualTo(ids[ids.length - 1]);
+  }
+
+  @Test
+  public void clearDropsRows() {
+    final RowTriggerSet triggers = new RowTriggerSet();
+    triggers.addRow("author", 1);
+    triggers.clear();
+
+    assertThat(triggers.contains("author")).isFalse();
+    assertThat(triggers.changedRows("author")).isNull();
+    assertThat(triggers.containsAny(TableIds.bitsOf(new String[]{"author"}))).isFalse();
+  }
+}
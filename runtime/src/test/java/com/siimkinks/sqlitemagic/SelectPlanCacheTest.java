@@ -0,0 +1,49 @@
+package com.siimkinks.sqlitemagic;
+
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class SelectPlanCacheTest {
+  private static final String[] AUTHOR = new String[]{"author"};
+
+  @Test
+  public void planIsSharedBetweenSameStructures() {
+    final SelectPlanCache cache = new SelectPlanCache(10);
+    final SelectPlanCache.Plan plan = plan("SELECT * FROM author WHERE author.id=? ");
+
+    assertThat(cache.get("SAuthorTable SELECT  FROM author WHERE author.id=? ")).isNull();
+    cache.put("SAuthorTable SELECT  FROM author WHERE author.id=? ", plan);
+
+    assertThat(cache.get("SAuthorTable SELECT  FROM author WHERE author.id=? ")).isSameAs(plan);
+    assertThat(cache.hitCount()).isEqualTo(1);
+    assertThat(cache.missCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void differentStructuresHaveDifferentPlans() {
+    final SelectPlanCache cache = new SelectPlanCache(10);
+    cache.put("SAuthorTable SELECT  FROM author ", plan("SELECT * FROM author "));
+
+    assertThat(cache.get("DAuthorTable SELECT  FROM author ")).isNull();
+    assertThat(cache.get("SAuthorSummaryTable SELECT  FROM author ")).isNull();
+  }
+
+  @Test
+  public void leastRecentlyUsedPlanIsEvicted() {
+    final SelectPlanCache cache = new SelectPlanCache(2);
+    cache.put("a", plan("a"));
+    cache.put("b", plan("b"));
+    cache.get("a");
+    cache.put("c", plan("c"));
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get("a")).isNotNull();
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.get("c")).isNotNull();
+  }
+
+  private static SelectPlanCache.Plan plan(String sql) {
+    return new SelectPlanCache.Plan(sql, AUTHOR, null, null, false);
+  }
+}
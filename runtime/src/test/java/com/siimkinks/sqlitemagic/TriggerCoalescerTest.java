@@ -0,0 +1,156 @@
+package com.siimkinks.sqlitemagic;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class TriggerCoalescerTest {
+  private final PublishSubject<Set<String>> triggers = PublishSubject.create();
+  private final TestScheduler scheduler = new TestScheduler();
+  private final TriggerCoalescer coalescer = new TriggerCoalescer(triggers, scheduler, MILLISECONDS.toNanos(10));
+
+  @Test
+  public void triggersWithinWindowAreMerged() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    coalescer.add(Collections.singleton("author"));
+    scheduler.advanceTimeBy(5, MILLISECONDS);
+    coalescer.add(Collections.singleton("book"));
+    coalescer.add(Collections.singleton("author"));
+    ts.assertNoValues();
+
+    scheduler.advanceTimeBy(5, MILLISECONDS);
+    ts.assertValueCount(1);
+    assertThat(ts.getOnNextEvents().get(0)).containsExactly("author", "book");
+    assertThat(coalescer.receivedCount()).isEqualTo(3);
+    assertThat(coalescer.publishedCount()).isEqualTo(1);
+    assertThat(coalescer.collapsedCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void triggerAfterWindowOpensNewWindow() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    coalescer.add(Collections.singleton("author"));
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+    coalescer.add(Collections.singleton("book"));
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+
+    ts.assertValueCount(2);
+    assertThat(ts.getOnNextEvents().get(1)).containsExactly("book");
+    assertThat(coalescer.collapsedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void rowTriggersAreMerged() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+    final RowTriggerSet first = new RowTriggerSet();
+    first.addRow("author", 1);
+    final RowTriggerSet second = new RowTriggerSet();
+    second.addRow("author", 2);
+
+    coalescer.add(first);
+    coalescer.add(second);
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+
+    ts.assertValueCount(1);
+    final RowTriggerSet merged = (RowTriggerSet) ts.getOnNextEvents().get(0);
+    assertThat(merged.changedRows("author")).containsExactly(1L, 2L);
+  }
+
+  @Test
+  public void idleWriterPublishesPendingTriggersAfterGracePeriod() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    coalescer.transactionStarted();
+    coalescer.transactionStarted();
+    coalescer.add(Collections.singleton("author"));
+    coalescer.transactionEnded(false);
+    coalescer.add(Collections.singleton("book"));
+    coalescer.transactionEnded(false);
+    ts.assertNoValues();
+
+    scheduler.advanceTimeBy(3, MILLISECONDS);
+    ts.assertValueCount(1);
+    assertThat(ts.getOnNextEvents().get(0)).containsExactly("author", "book");
+
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+    ts.assertValueCount(1);
+  }
+
+  @Test
+  public void backToBackTransactionsAreMerged() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    for (String table : new String[]{"author", "book", "magazine"}) {
+      coalescer.transactionStarted();
+      coalescer.add(Collections.singleton(table));
+      coalescer.transactionEnded(false);
+      scheduler.advanceTimeBy(1, MILLISECONDS);
+    }
+    ts.assertNoValues();
+
+    scheduler.advanceTimeBy(2, MILLISECONDS);
+    ts.assertValueCount(1);
+    assertThat(ts.getOnNextEvents().get(0)).containsExactly("author", "book", "magazine");
+  }
+
+  @Test
+  public void windowBoundsDelayOfBusyWriter() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    coalescer.transactionStarted();
+    coalescer.add(Collections.singleton("author"));
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+    ts.assertValueCount(1);
+
+    coalescer.add(Collections.singleton("book"));
+    coalescer.transactionEnded(false);
+    scheduler.advanceTimeBy(3, MILLISECONDS);
+    ts.assertValueCount(2);
+    assertThat(ts.getOnNextEvents().get(1)).containsExactly("book");
+  }
+
+  @Test
+  public void queuedWritesKeepTriggersPending() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    coalescer.transactionStarted();
+    coalescer.add(Collections.singleton("author"));
+    coalescer.transactionEnded(true);
+    ts.assertNoValues();
+
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+    ts.assertValueCount(1);
+  }
+
+  @Test
+  public void closePublishesPendingTriggers() {
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    triggers.subscribe(ts);
+
+    coalescer.add(Collections.singleton("author"));
+    coalescer.close();
+    ts.assertValueCount(1);
+
+    coalescer.add(Collections.singleton("book"));
+    ts.assertValueCount(2);
+    scheduler.advanceTimeBy(10, MILLISECONDS);
+    ts.assertValueCount(2);
+  }
+}
@@ -3,6 +3,7 @@ package com.siimkinks.sqlitemagic;
 import org.junit.Test;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.Utils.joinedTableAlias;
 import static com.siimkinks.sqlitemagic.Utils.toByteArray;
 
 public final class UtilsTest {
@@ -17,4 +18,22 @@ public final class UtilsTest {
     final Byte[] expected = new Byte[]{0x55, 0x66, 0x14};
     assertThat(toByteArray(new byte[]{0x55, 0x66, 0x14})).isEqualTo(expected);
   }
+
+  @Test
+  public void joinedTableAliasIsStable() {
+    final Table<?> table = new Table<>("magazine", null, 4);
+    final String alias = joinedTableAlias(table, "author");
+    assertThat(alias).hasLength(Utils.TABLE_NAME_LEN);
+    assertThat(alias).matches("[a-zA-Z]+");
+    assertThat(joinedTableAlias(new Table<>("magazine", null, 4), "author")).isEqualTo(alias);
+  }
+
+  @Test
+  public void joinedTableAliasDependsOnPath() {
+    final Table<?> table = new Table<>("magazine", null, 4);
+    final String alias = joinedTableAlias(table, "author");
+    assertThat(joinedTableAlias(table, "editor")).isNotEqualTo(alias);
+    assertThat(joinedTableAlias(table.internalAlias("m"), "author")).isNotEqualTo(alias);
+    assertThat(joinedTableAlias(new Table<>("magazin", null, 4), "eauthor")).isNotEqualTo(alias);
+  }
 }
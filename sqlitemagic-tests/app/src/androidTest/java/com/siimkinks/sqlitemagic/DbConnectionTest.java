@@ -72,6 +72,30 @@ public final class DbConnectionTest {
     assertThat(subscription.isUnsubscribed()).isTrue();
   }
 
+  @Test
+  public void statementCacheReusesPreparedStatements() {
+    final StatementCache statementCache = newConnection.getStatementCache();
+    final CompiledCountSelect<?> countSelect = Select
+        .from(AUTHOR)
+        .usingConnection(newConnection)
+        .count();
+    final long initialHits = statementCache.hitCount();
+    final long initialMisses = statementCache.missCount();
+
+    assertThat(countSelect.execute()).isEqualTo(0L);
+    assertThat(statementCache.missCount()).isEqualTo(initialMisses + 1);
+
+    Author.newRandom().insert().usingConnection(newConnection).execute();
+    assertThat(countSelect.execute()).isEqualTo(1L);
+    assertThat(Select
+        .from(AUTHOR)
+        .usingConnection(newConnection)
+        .count()
+        .execute()).isEqualTo(1L);
+    assertThat(statementCache.hitCount()).isEqualTo(initialHits + 2);
+    assertThat(statementCache.missCount()).isEqualTo(initialMisses + 1);
+  }
+
   @Test
   public void selectFirst() {
     final TestSubscriber<Author> ts1 = new TestSubscriber<>();
@@ -0,0 +1,193 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.model.Author;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@RunWith(AndroidJUnit4.class)
+public final class GroupCommitTest {
+  private static final int WRITE_COUNT = 20;
+
+  private DbConnectionImpl connection;
+
+  @Before
+  public void setUp() {
+    connection = (DbConnectionImpl) openGroupCommitConnection();
+    Author.deleteTable().usingConnection(connection).execute();
+  }
+
+  @After
+  public void tearDown() {
+    connection.close();
+  }
+
+  @Test
+  public void queuedWritesAreCommittedTogether() {
+    final AtomicInteger triggerCount = new AtomicInteger();
+    final Subscription triggersSubscription = connection.triggers.subscribe(new Action1<Set<String>>() {
+      @Override
+      public void call(Set<String> tables) {
+        triggerCount.incrementAndGet();
+      }
+    });
+    final ArrayList<TestSubscriber<Long>> subscribers = new ArrayList<>(WRITE_COUNT);
+    for (int i = 0; i < WRITE_COUNT; i++) {
+      final TestSubscriber<Long> ts = new TestSubscriber<>();
+      Author.newRandom()
+          .insert()
+          .usingConnection(connection)
+          .observe()
+          .subscribe(ts);
+      subscribers.add(ts);
+    }
+    for (TestSubscriber<Long> ts : subscribers) {
+      ts.awaitTerminalEvent(5, SECONDS);
+      ts.assertNoErrors();
+      ts.assertValueCount(1);
+    }
+    triggersSubscription.unsubscribe();
+
+    assertThat(Select.from(AUTHOR)
+        .usingConnection(connection)
+        .execute())
+        .hasSize(WRITE_COUNT);
+    assertThat(triggerCount.get()).isLessThan(WRITE_COUNT);
+  }
+
+  @Test
+  public void failingWriteDoesNotFailGroup() {
+    final Author author = Author.newRandom();
+    assertThat(author.insert().usingConnection(connection).execute()).isNotEqualTo(-1);
+
+    final TestSubscriber<Long> duplicate = new TestSubscriber<>();
+    final TestSubscriber<Long> valid = new TestSubscriber<>();
+    author.insert()
+        .usingConnection(connection)
+        .observe()
+        .subscribe(duplicate);
+    Author.newRandom()
+        .insert()
+        .usingConnection(connection)
+        .observe()
+        .subscribe(valid);
+
+    duplicate.awaitTerminalEvent(5, SECONDS);
+    valid.awaitTerminalEvent(5, SECONDS);
+    duplicate.assertError(Throwable.class);
+    valid.assertNoErrors();
+    valid.assertValueCount(1);
+    assertThat(Select.from(AUTHOR)
+        .usingConnection(connection)
+        .execute())
+        .hasSize(2);
+  }
+
+  @Test
+  public void retriedWriteKeepsEntityIdInSync() {
+    final Author author = Author.newRandom();
+    assertThat(author.insert().usingConnection(connection).execute()).isNotEqualTo(-1);
+    final Long duplicateId = author.id;
+
+    final TestSubscriber<Long> duplicate = new TestSubscriber<>();
+    final TestSubscriber<Long> valid = new TestSubscriber<>();
+    final Author validAuthor = Author.newRandom();
+    validAuthor.id = null;
+    author.insert()
+        .usingConnection(connection)
+        .observe()
+        .subscribe(duplicate);
+    validAuthor.insert()
+        .usingConnection(connection)
+        .observe()
+        .subscribe(valid);
+
+    duplicate.awaitTerminalEvent(5, SECONDS);
+    valid.awaitTerminalEvent(5, SECONDS);
+    duplicate.assertError(Throwable.class);
+    valid.assertNoErrors();
+    assertThat(author.id).isEqualTo(duplicateId);
+    assertThat(validAuthor.id).isEqualTo(valid.getOnNextEvents().get(0));
+    assertThat(Select.from(AUTHOR)
+        .where(AUTHOR.ID.is(validAuthor.id))
+        .usingConnection(connection)
+        .takeFirst()
+        .execute())
+        .isEqualTo(validAuthor);
+  }
+
+  @Test
+  public void resultsAreNotDeliveredOnWriterThread() {
+    final TestSubscriber<Long> ts = new TestSubscriber<>();
+    Author.newRandom()
+        .insert()
+        .usingConnection(connection)
+        .observe()
+        .subscribe(ts);
+
+    ts.awaitTerminalEvent(5, SECONDS);
+    ts.assertNoErrors();
+    ts.assertValueCount(1);
+    assertThat(ts.getLastSeenThread().getName()).isNotEqualTo("SqliteMagic-writer");
+  }
+
+  @Test
+  public void writeFromCallbackDoesNotDeadlock() {
+    final TestSubscriber<Long> ts = new TestSubscriber<>();
+    Author.newRandom()
+        .insert()
+        .usingConnection(connection)
+        .observe()
+        .map(new Func1<Long, Long>() {
+          @Override
+          public Long call(Long id) {
+            // blocks the callback until the nested queued write is committed
+            return Author.newRandom()
+                .insert()
+                .usingConnection(connection)
+                .observe()
+                .toBlocking()
+                .value();
+          }
+        })
+        .subscribe(ts);
+
+    ts.awaitTerminalEvent(5, SECONDS);
+    ts.assertNoErrors();
+    ts.assertValueCount(1);
+    assertThat(Select.from(AUTHOR)
+        .usingConnection(connection)
+        .execute())
+        .hasSize(2);
+  }
+
+  @NonNull
+  private DbConnection openGroupCommitConnection() {
+    return SqliteMagic
+        .setup(TestApp.INSTANCE)
+        .withName("groupCommitConnection.db")
+        .withGroupCommit(WRITE_COUNT, 200, MILLISECONDS)
+        .scheduleRxQueriesOn(Schedulers.immediate())
+        .openNewConnection();
+  }
+}
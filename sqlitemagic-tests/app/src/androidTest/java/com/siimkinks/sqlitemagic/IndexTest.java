@@ -0,0 +1,36 @@
+package com.siimkinks.sqlitemagic;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(AndroidJUnit4.class)
+public final class IndexTest {
+  @Test
+  public void columnIndexIsCreated() {
+    assertThat(indexSql("index_author_name"))
+        .isEqualTo("CREATE INDEX index_author_name ON author (name)");
+  }
+
+  @Test
+  public void compositePartialIndexIsCreated() {
+    assertThat(indexSql("index_magazine_author_nr_of_releases"))
+        .isEqualTo("CREATE INDEX index_magazine_author_nr_of_releases ON magazine (author, nr_of_releases) WHERE author IS NOT NULL");
+  }
+
+  private static String indexSql(String indexName) {
+    final SQLiteDatabase db = SqliteMagic.getDefaultDbConnection().getReadableDatabase();
+    final Cursor cursor = db.rawQuery("SELECT sql FROM sqlite_master WHERE type='index' AND name=?", new String[]{indexName});
+    try {
+      assertThat(cursor.moveToFirst()).isTrue();
+      return cursor.getString(0);
+    } finally {
+      cursor.close();
+    }
+  }
+}
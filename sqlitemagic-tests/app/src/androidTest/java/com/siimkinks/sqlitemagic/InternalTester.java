@@ -8,12 +8,14 @@ import static com.google.common.truth.Truth.assertThat;
 
 public final class InternalTester {
   public static void assertTriggersHaveNoObservers() {
-    final PublishSubject<Set<String>> triggers = SqliteMagic.getDefaultDbConnection().triggers;
-    assertThat(triggers.hasObservers()).isFalse();
+    assertTriggersHaveNoObservers(SqliteMagic.getDefaultDbConnection());
   }
 
   public static void assertTriggersHaveNoObservers(DbConnectionImpl dbConnection) {
     final PublishSubject<Set<String>> triggers = dbConnection.triggers;
     assertThat(triggers.hasObservers()).isFalse();
+    if (dbConnection.liveQueries != null) {
+      assertThat(dbConnection.liveQueries.size()).isEqualTo(0);
+    }
   }
 }
@@ -0,0 +1,104 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.model.Author;
+import com.siimkinks.sqlitemagic.model.Magazine;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static com.siimkinks.sqlitemagic.MagazineTable.MAGAZINE;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertAuthors;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertMagazines;
+
+@RunWith(AndroidJUnit4.class)
+public final class SelectPlanReuseTest {
+  @Before
+  public void setUp() {
+    Magazine.deleteTable().execute();
+    Author.deleteTable().execute();
+    SelectBuilder.PLAN_CACHE.clear();
+  }
+
+  @Test
+  public void sameStructureReusesPlanWithNewArgs() {
+    final List<Author> authors = insertAuthors(5);
+    final long hitsBefore = SelectBuilder.PLAN_CACHE.hitCount();
+    String sql = null;
+
+    for (Author author : authors) {
+      final CompiledSelectImpl<Author, ?> compiledSelect = (CompiledSelectImpl<Author, ?>) Select
+          .from(AUTHOR)
+          .where(AUTHOR.NAME.is(author.name))
+          .compile();
+      if (sql != null) {
+        assertThat(compiledSelect.sql).isSameAs(sql);
+      }
+      sql = compiledSelect.sql;
+      assertThat(compiledSelect.execute()).containsExactly(author);
+    }
+
+    assertThat(SelectBuilder.PLAN_CACHE.hitCount() - hitsBefore).isEqualTo(authors.size() - 1);
+  }
+
+  @Test
+  public void deepQueryReusesPlan() {
+    final List<Magazine> magazines = insertMagazines(3);
+    final long hitsBefore = SelectBuilder.PLAN_CACHE.hitCount();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(Select.from(MAGAZINE).queryDeep().execute())
+          .containsExactlyElementsIn(magazines);
+    }
+
+    assertThat(SelectBuilder.PLAN_CACHE.hitCount() - hitsBefore).isEqualTo(2);
+  }
+
+  @Test
+  public void deepJoinsAreSharedBetweenDifferentClauses() {
+    final List<Magazine> magazines = insertMagazines(3);
+    final Magazine magazine = magazines.get(1);
+    final SelectSqlNode.SelectNode<Magazine, ?> byName = Select
+        .from(MAGAZINE)
+        .where(MAGAZINE.NAME.is(magazine.name))
+        .queryDeep();
+    final SelectSqlNode.SelectNode<Magazine, ?> limited = Select
+        .from(MAGAZINE)
+        .limit(2)
+        .queryDeep();
+
+    assertThat(byName.execute()).containsExactly(magazine);
+    assertThat(limited.execute()).hasSize(2);
+
+    @SuppressWarnings("unchecked")
+    final ArrayList<JoinClause> joins = byName.selectBuilder.from.joins;
+    @SuppressWarnings("unchecked")
+    final ArrayList<JoinClause> otherJoins = limited.selectBuilder.from.joins;
+    assertThat(joins).isNotEmpty();
+    assertThat(otherJoins).hasSize(joins.size());
+    for (int i = 0, size = joins.size(); i < size; i++) {
+      assertThat(otherJoins.get(i)).isSameAs(joins.get(i));
+    }
+  }
+
+  @Test
+  public void differentStructuresDoNotSharePlan() {
+    final List<Author> authors = insertAuthors(3);
+    final Author author = authors.get(1);
+
+    assertThat(Select.from(AUTHOR).where(AUTHOR.NAME.is(author.name)).execute())
+        .containsExactly(author);
+    assertThat(Select.from(AUTHOR).where(AUTHOR.NAME.isNot(author.name)).execute())
+        .hasSize(2);
+    assertThat(Select.column(AUTHOR.NAME).from(AUTHOR).where(AUTHOR.ID.is(author.id)).takeFirst().execute())
+        .isEqualTo(author.name);
+    assertThat(SelectBuilder.PLAN_CACHE.size()).isEqualTo(3);
+  }
+}
@@ -0,0 +1,83 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.model.Author;
+import com.siimkinks.sqlitemagic.model.Magazine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@RunWith(AndroidJUnit4.class)
+public final class TriggerCoalescingTest {
+  private static final long WINDOW_MILLIS = 500;
+
+  private DbConnectionImpl connection;
+
+  @Before
+  public void setUp() {
+    connection = (DbConnectionImpl) SqliteMagic
+        .setup(TestApp.INSTANCE)
+        .withName("triggerCoalescing.db")
+        .withTriggerCoalescing(WINDOW_MILLIS, MILLISECONDS)
+        .scheduleRxQueriesOn(Schedulers.immediate())
+        .openNewConnection();
+    Magazine.deleteTable().usingConnection(connection).execute();
+    Author.deleteTable().usingConnection(connection).execute();
+  }
+
+  @After
+  public void tearDown() {
+    connection.close();
+  }
+
+  @Test
+  public void backToBackBulkOperationsAreMerged() throws InterruptedException {
+    // let triggers of the setup pass
+    Thread.sleep(2 * WINDOW_MILLIS);
+    final TestSubscriber<Set<String>> ts = new TestSubscriber<>();
+    final Subscription subscription = connection.triggers.subscribe(ts);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(Author.insert(newAuthors())
+          .usingConnection(connection)
+          .execute())
+          .isTrue();
+    }
+    final ArrayList<Magazine> magazines = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      magazines.add(Magazine.newRandom());
+    }
+    assertThat(Magazine.insert(magazines)
+        .usingConnection(connection)
+        .execute())
+        .isTrue();
+
+    Thread.sleep(2 * WINDOW_MILLIS);
+    subscription.unsubscribe();
+    ts.assertValueCount(1);
+    assertThat(ts.getOnNextEvents().get(0)).containsExactly("author", "magazine");
+    assertThat(connection.getTriggerCoalescer().publishedCount())
+        .isLessThan(connection.getTriggerCoalescer().receivedCount());
+  }
+
+  private static ArrayList<Author> newAuthors() {
+    final ArrayList<Author> authors = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      authors.add(Author.newRandom());
+    }
+    return authors;
+  }
+}
@@ -0,0 +1,180 @@
+package com.siimkinks.sqlitemagic;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.model.Author;
+import com.siimkinks.sqlitemagic.model.Magazine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Compares binding numeric arguments as text with typed binding.
+ * <p>
+ * Both bindings must return the same results and typed arguments must keep the
+ * integer primary key and index lookups in the query plan. Timings are only logged
+ * with the "SqliteMagic" tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public final class TypedArgsBenchmarkTest {
+  private static final int ROW_COUNT = 10000;
+  private static final int IN_CLAUSE_SIZE = 100;
+  private static final int RANGE_SIZE = 500;
+  private static final int WARMUP_ITERATIONS = 50;
+  private static final int ITERATIONS = 500;
+  private static final String MAGAZINE_AUTHOR_INDEX = "index_magazine_author_nr_of_releases";
+
+  private DbConnectionImpl connection;
+  private long[] ids;
+
+  @Before
+  public void setUp() {
+    connection = SqliteMagic.getDefaultDbConnection();
+    Magazine.deleteTable().execute();
+    Author.deleteTable().execute();
+    ids = new long[ROW_COUNT];
+    final Transaction transaction = connection.newTransaction();
+    final SQLiteStatement insertMagazine = connection.compileStatement(
+        "INSERT INTO magazine (name, author, nr_of_releases) VALUES (?, ?, ?)");
+    try {
+      for (int i = 0; i < ROW_COUNT; i++) {
+        final Author author = Author.newRandom();
+        assertThat(author.insert().execute()).isNotEqualTo(-1);
+        ids[i] = author.id;
+        insertMagazine.bindString(1, Utils.randomTableName());
+        insertMagazine.bindLong(2, author.id);
+        insertMagazine.bindLong(3, i);
+        assertThat(insertMagazine.executeInsert()).isNotEqualTo(-1);
+      }
+      transaction.markSuccessful();
+    } finally {
+      insertMagazine.close();
+      transaction.end();
+    }
+    Arrays.sort(ids);
+  }
+
+  @After
+  public void tearDown() {
+    Magazine.deleteTable().execute();
+    Author.deleteTable().execute();
+  }
+
+  @Test
+  public void inClauseOnIntegerPrimaryKey() {
+    final Long[] inIds = new Long[IN_CLAUSE_SIZE];
+    final Object[] args = new Object[IN_CLAUSE_SIZE];
+    final StringBuilder sql = new StringBuilder("SELECT count(*) FROM author WHERE author.id IN (");
+    for (int i = 0; i < IN_CLAUSE_SIZE; i++) {
+      if (i > 0) {
+        sql.append(',');
+      }
+      sql.append('?');
+      inIds[i] = ids[i * (ROW_COUNT / IN_CLAUSE_SIZE)];
+      args[i] = inIds[i];
+    }
+    sql.append(')');
+
+    benchmark("IN clause", sql.toString(), args, IN_CLAUSE_SIZE);
+    assertThat(queryPlan(sql.toString(), args)).contains("USING INTEGER PRIMARY KEY");
+    assertThat(Select.from(AUTHOR)
+        .where(AUTHOR.ID.in(inIds))
+        .count()
+        .execute())
+        .isEqualTo((long) IN_CLAUSE_SIZE);
+  }
+
+  @Test
+  public void rangeOnIntegerPrimaryKey() {
+    final int start = ROW_COUNT / 2;
+    final Object[] args = new Object[]{ids[start], ids[start + RANGE_SIZE - 1]};
+
+    final String sql = "SELECT count(*) FROM author WHERE author.id>=? AND author.id<=?";
+
+    benchmark("Range", sql, args, RANGE_SIZE);
+    assertThat(queryPlan(sql, args)).contains("USING INTEGER PRIMARY KEY");
+    assertThat(Select.from(AUTHOR)
+        .where(AUTHOR.ID.greaterOrEqual(ids[start])
+            .and(AUTHOR.ID.lessOrEqual(ids[start + RANGE_SIZE - 1])))
+        .count()
+        .execute())
+        .isEqualTo((long) RANGE_SIZE);
+  }
+
+  @Test
+  public void rangeOnIndexedColumn() {
+    final int start = ROW_COUNT / 2;
+    final Object[] args = new Object[]{ids[start], ids[start + RANGE_SIZE - 1]};
+    // partial index on (author, nr_of_releases) WHERE author IS NOT NULL
+    final String sql = "SELECT count(*) FROM magazine WHERE magazine.author>=? AND magazine.author<=?";
+
+    benchmark("Indexed range", sql, args, RANGE_SIZE);
+    final String plan = queryPlan(sql, args);
+    assertThat(plan).contains("SEARCH");
+    assertThat(plan).contains(MAGAZINE_AUTHOR_INDEX);
+  }
+
+  /**
+   * @return Query plan details of the provided query with typed arguments, one step per line
+   */
+  @NonNull
+  private String queryPlan(@NonNull String sql, @NonNull Object[] args) {
+    final Cursor cursor = connection.getReadableDatabase()
+        .rawQueryWithFactory(SqlArgs.cursorFactory(connection, args), "EXPLAIN QUERY PLAN " + sql, null, null, null);
+    try {
+      final int detailIndex = cursor.getColumnIndexOrThrow("detail");
+      final StringBuilder plan = new StringBuilder();
+      while (cursor.moveToNext()) {
+        plan.append(cursor.getString(detailIndex))
+            .append('\n');
+      }
+      return plan.toString();
+    } finally {
+      cursor.close();
+    }
+  }
+
+  private void benchmark(@NonNull String name, @NonNull String sql, @NonNull Object[] args, long expectedCount) {
+    final String[] stringArgs = SqlArgs.toStrings(args);
+    final SQLiteStatement stm = connection.compileStatement(sql);
+    try {
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        stm.bindAllArgsAsStrings(stringArgs);
+        assertThat(stm.simpleQueryForLong()).isEqualTo(expectedCount);
+        SqlArgs.bindAll(stm, args);
+        assertThat(stm.simpleQueryForLong()).isEqualTo(expectedCount);
+      }
+
+      long startNanos = nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        stm.bindAllArgsAsStrings(stringArgs);
+        stm.simpleQueryForLong();
+      }
+      final long stringNanos = nanoTime() - startNanos;
+
+      startNanos = nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        SqlArgs.bindAll(stm, args);
+        stm.simpleQueryForLong();
+      }
+      final long typedNanos = nanoTime() - startNanos;
+
+      LogUtil.logInfo("%s benchmark (%d iterations): text args %dms, typed args %dms",
+          name, ITERATIONS, NANOSECONDS.toMillis(stringNanos), NANOSECONDS.toMillis(typedNanos));
+    } finally {
+      stm.close();
+    }
+  }
+}
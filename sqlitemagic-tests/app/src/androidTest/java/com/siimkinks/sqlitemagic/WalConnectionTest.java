@@ -0,0 +1,129 @@
+package com.siimkinks.sqlitemagic;
+
+import android.support.annotation.NonNull;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.model.Author;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import rx.schedulers.Schedulers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static com.siimkinks.sqlitemagic.InternalTester.assertTriggersHaveNoObservers;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@RunWith(AndroidJUnit4.class)
+public final class WalConnectionTest {
+  private static final int INITIAL_COUNT = 100;
+  private static final int BULK_COUNT = 5000;
+
+  private DbConnectionImpl walConnection;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    walConnection = (DbConnectionImpl) openWalConnection();
+    executor = Executors.newFixedThreadPool(2);
+    Author.deleteTable().usingConnection(walConnection).execute();
+    for (int i = 0; i < INITIAL_COUNT; i++) {
+      assertThat(Author.newRandom().insert().usingConnection(walConnection).execute()).isNotEqualTo(-1);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    assertTriggersHaveNoObservers(walConnection);
+    walConnection.close();
+  }
+
+  @Test
+  public void readsUseReaderConnections() {
+    assertThat(walConnection.readerPool).isNotNull();
+    assertThat(walConnection.getReadableDatabase()).isNotSameAs(walConnection.getWritableDatabase());
+    assertThat(walConnection.getReadableDatabase().isReadOnly()).isTrue();
+  }
+
+  @Test
+  public void readsContinueDuringBulkInsert() throws Exception {
+    final CountDownLatch insertsDone = new CountDownLatch(1);
+    final CountDownLatch releaseWriter = new CountDownLatch(1);
+    final Future<Integer> writer = executor.submit(new Callable<Integer>() {
+      @Override
+      public Integer call() throws Exception {
+        final Transaction transaction = walConnection.newTransaction();
+        try {
+          for (int i = 0; i < BULK_COUNT; i++) {
+            Author.newRandom().insert().usingConnection(walConnection).execute();
+          }
+          insertsDone.countDown();
+          // keep write transaction open while readers run
+          releaseWriter.await(10, SECONDS);
+          transaction.markSuccessful();
+          return BULK_COUNT;
+        } finally {
+          transaction.end();
+        }
+      }
+    });
+    assertThat(insertsDone.await(30, SECONDS)).isTrue();
+
+    final Future<List<Author>> reader = executor.submit(new Callable<List<Author>>() {
+      @Override
+      public List<Author> call() throws Exception {
+        return Select.from(AUTHOR)
+            .usingConnection(walConnection)
+            .execute();
+      }
+    });
+    // reader sees last committed state without waiting for the writer
+    assertThat(reader.get(5, SECONDS)).hasSize(INITIAL_COUNT);
+
+    releaseWriter.countDown();
+    assertThat(writer.get(30, SECONDS)).isEqualTo(BULK_COUNT);
+    assertThat(Select.from(AUTHOR)
+        .usingConnection(walConnection)
+        .execute())
+        .hasSize(INITIAL_COUNT + BULK_COUNT);
+  }
+
+  @Test
+  public void readInsideTransactionSeesUncommittedChanges() {
+    final Transaction transaction = walConnection.newTransaction();
+    try {
+      Author.newRandom().insert().usingConnection(walConnection).execute();
+      assertThat(Select.from(AUTHOR)
+          .usingConnection(walConnection)
+          .execute())
+          .hasSize(INITIAL_COUNT + 1);
+    } finally {
+      transaction.end();
+    }
+    assertThat(Select.from(AUTHOR)
+        .usingConnection(walConnection)
+        .execute())
+        .hasSize(INITIAL_COUNT);
+  }
+
+  @NonNull
+  private DbConnection openWalConnection() {
+    return SqliteMagic
+        .setup(TestApp.INSTANCE)
+        .withName("walConnection.db")
+        .withWriteAheadLogging(2)
+        .scheduleRxQueriesOn(Schedulers.immediate())
+        .openNewConnection();
+  }
+}
@@ -88,6 +88,15 @@ public final class DeleteTest {
     assertThat(COUNT_AUTHORS.execute()).isEqualTo(count - deletedAuthors.size());
   }
 
+  @Test
+  public void bulkDeleteInManyStatements() {
+    final int count = 1337;
+    final List<Author> authors = insertAuthors(count);
+    final List<Author> deletedAuthors = authors.subList(1, count);
+    assertThat(Author.delete(deletedAuthors).execute()).isEqualTo(deletedAuthors.size());
+    assertThat(COUNT_AUTHORS.execute()).isEqualTo(1);
+  }
+
   @Test
   public void observeBulkDelete() {
     final int count = 20;
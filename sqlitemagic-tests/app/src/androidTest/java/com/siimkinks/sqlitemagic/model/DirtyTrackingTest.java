@@ -0,0 +1,141 @@
+package com.siimkinks.sqlitemagic.model;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.Select;
+import com.siimkinks.sqlitemagic.SqliteMagic;
+import com.siimkinks.sqlitemagic.Transaction;
+import com.siimkinks.sqlitemagic.Update;
+import com.siimkinks.sqlitemagic.entity.DirtyTrackable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.DirtyTrackedMutableTable.DIRTY_A_LONG;
+import static com.siimkinks.sqlitemagic.DirtyTrackedMutableTable.DIRTY_NAME;
+import static com.siimkinks.sqlitemagic.DirtyTrackedMutableTable.DIRTY_TRACKED_MUTABLE;
+
+@RunWith(AndroidJUnit4.class)
+public final class DirtyTrackingTest {
+  @Before
+  public void setUp() {
+    DirtyTrackedMutable.deleteTable().execute();
+  }
+
+  @Test
+  public void retrievedEntityIsClean() {
+    DirtyTrackedMutable.newRandom().insert().execute();
+
+    final DirtyTrackedMutable val = Select.from(DIRTY_TRACKED_MUTABLE).takeFirst().execute();
+
+    assertThat(dirtyColumns(val)).isEqualTo(0);
+  }
+
+  @Test
+  public void fieldWritesMarkColumnsDirty() {
+    DirtyTrackedMutable.newRandom().insert().execute();
+    final DirtyTrackedMutable val = Select.from(DIRTY_TRACKED_MUTABLE).takeFirst().execute();
+
+    val.name = "changed";
+    val.aLong = 42;
+
+    assertThat(dirtyColumns(val)).isEqualTo(DIRTY_NAME | DIRTY_A_LONG);
+  }
+
+  @Test
+  public void bulkUpdateWritesOnlyDirtyColumns() {
+    final List<DirtyTrackedMutable> inserted = insertVals(3);
+    final List<DirtyTrackedMutable> vals = Select.from(DIRTY_TRACKED_MUTABLE).execute();
+    // changed behind the loaded entities - must survive the bulk update
+    Update.table(DIRTY_TRACKED_MUTABLE)
+        .set(DIRTY_TRACKED_MUTABLE.NAME2, "untouched")
+        .execute();
+    for (DirtyTrackedMutable val : vals) {
+      val.name = "changed" + val.id;
+    }
+
+    assertThat(DirtyTrackedMutable.update(vals).execute()).isTrue();
+
+    final List<DirtyTrackedMutable> updated = Select.from(DIRTY_TRACKED_MUTABLE).execute();
+    assertThat(updated).hasSize(inserted.size());
+    for (int i = 0, size = updated.size(); i < size; i++) {
+      final DirtyTrackedMutable val = updated.get(i);
+      assertThat(val.name).isEqualTo("changed" + val.id);
+      assertThat(val.aLong).isEqualTo(vals.get(i).aLong);
+      assertThat(val.name2).isEqualTo("untouched");
+      assertThat(dirtyColumns(vals.get(i))).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void bulkUpdateOfMissingCleanRowFails() {
+    insertVals(2);
+    final List<DirtyTrackedMutable> vals = Select.from(DIRTY_TRACKED_MUTABLE).execute();
+    vals.get(0).name = "changed";
+    final DirtyTrackedMutable missing = vals.get(1);
+    missing.delete().execute();
+
+    assertThat(dirtyColumns(missing)).isEqualTo(0);
+    assertThat(DirtyTrackedMutable.update(vals).execute()).isFalse();
+    assertThat(dirtyColumns(vals.get(0))).isEqualTo(DIRTY_NAME);
+  }
+
+  @Test
+  public void bulkUpdateWritesEntitiesWithDifferentDirtyColumns() {
+    insertVals(4);
+    final List<DirtyTrackedMutable> vals = Select.from(DIRTY_TRACKED_MUTABLE).execute();
+    vals.get(0).name = "changed";
+    vals.get(1).aLong = 42;
+    vals.get(2).name = "changed";
+    vals.get(2).aLong = 42;
+
+    assertThat(DirtyTrackedMutable.update(vals).execute()).isTrue();
+
+    final List<DirtyTrackedMutable> updated = Select.from(DIRTY_TRACKED_MUTABLE).execute();
+    assertThat(updated).isEqualTo(vals);
+    for (DirtyTrackedMutable val : vals) {
+      assertThat(dirtyColumns(val)).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void rolledBackBulkUpdateKeepsColumnsDirty() {
+    insertVals(2);
+    final List<DirtyTrackedMutable> vals = Select.from(DIRTY_TRACKED_MUTABLE).execute();
+    vals.get(0).name = "changed";
+    vals.get(1).aLong = 42;
+
+    final Transaction transaction = SqliteMagic.newTransaction();
+    try {
+      assertThat(DirtyTrackedMutable.update(vals).execute()).isTrue();
+      assertThat(dirtyColumns(vals.get(0))).isEqualTo(0);
+      assertThat(dirtyColumns(vals.get(1))).isEqualTo(0);
+    } finally {
+      transaction.end();
+    }
+
+    assertThat(dirtyColumns(vals.get(0))).isEqualTo(DIRTY_NAME);
+    assertThat(dirtyColumns(vals.get(1))).isEqualTo(DIRTY_A_LONG);
+    assertThat(DirtyTrackedMutable.update(vals).execute()).isTrue();
+    assertThat(Select.from(DIRTY_TRACKED_MUTABLE).execute()).isEqualTo(vals);
+  }
+
+  private static List<DirtyTrackedMutable> insertVals(int count) {
+    final ArrayList<DirtyTrackedMutable> vals = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final DirtyTrackedMutable val = DirtyTrackedMutable.newRandom();
+      val.insert().execute();
+      vals.add(val);
+    }
+    return vals;
+  }
+
+  private static long dirtyColumns(DirtyTrackedMutable val) {
+    return ((DirtyTrackable) (Object) val).dirtyColumns();
+  }
+}
@@ -0,0 +1,176 @@
+package com.siimkinks.sqlitemagic.model;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.PageSource;
+import com.siimkinks.sqlitemagic.PageSource.Page;
+import com.siimkinks.sqlitemagic.Select;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import rx.observers.TestSubscriber;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertAuthors;
+
+@RunWith(AndroidJUnit4.class)
+public final class PagedQueryTest {
+  private static final int COUNT = 95;
+  private static final int PAGE_SIZE = 10;
+
+  @Before
+  public void setUp() {
+    Author.deleteTable().execute();
+  }
+
+  @Test
+  public void pagesContainAllRowsInOrder() {
+    insertAuthors(COUNT);
+    final List<Author> expected = Select
+        .from(AUTHOR)
+        .orderBy(AUTHOR.NAME.asc(), AUTHOR.ID.asc())
+        .execute();
+    final PageSource<Author> pageSource = Select
+        .from(AUTHOR)
+        .orderBy(AUTHOR.NAME.asc(), AUTHOR.ID.asc())
+        .paged(PAGE_SIZE);
+
+    final ArrayList<Author> result = new ArrayList<>(COUNT);
+    Page<Author> page = pageSource.firstPage();
+    int pageCount = 1;
+    result.addAll(page.getItems());
+    while (page.hasNext()) {
+      page = page.next();
+      pageCount++;
+      assertThat(page.getItems().size()).isAtMost(PAGE_SIZE);
+      result.addAll(page.getItems());
+    }
+    assertThat(pageCount).isEqualTo((COUNT + PAGE_SIZE - 1) / PAGE_SIZE);
+    assertThat(result).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void descendingPagesWithWhereClause() {
+    final ArrayList<Author> authors = insertAuthors(COUNT);
+    final long minId = authors.get(COUNT / 2).id;
+    final List<Author> expected = Select
+        .from(AUTHOR)
+        .where(AUTHOR.ID.greaterOrEqual(minId))
+        .orderBy(AUTHOR.ID.desc())
+        .execute();
+    final PageSource<Author> pageSource = Select
+        .from(AUTHOR)
+        .where(AUTHOR.ID.greaterOrEqual(minId))
+        .orderBy(AUTHOR.ID.desc())
+        .paged(PAGE_SIZE);
+
+    final ArrayList<Author> result = new ArrayList<>();
+    Page<Author> page = pageSource.firstPage();
+    result.addAll(page.getItems());
+    while (page.hasNext()) {
+      page = page.next();
+      result.addAll(page.getItems());
+    }
+    assertThat(result).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void pagedColumn() {
+    insertAuthors(COUNT);
+    final List<Long> expected = Select
+        .column(AUTHOR.ID)
+        .from(AUTHOR)
+        .orderBy(AUTHOR.ID.asc())
+        .execute();
+    final PageSource<Long> pageSource = Select
+        .column(AUTHOR.ID)
+        .from(AUTHOR)
+        .orderBy(AUTHOR.ID.asc())
+        .paged(PAGE_SIZE);
+
+    final ArrayList<Long> result = new ArrayList<>(COUNT);
+    Page<Long> page = pageSource.firstPage();
+    result.addAll(page.getItems());
+    while (page.hasNext()) {
+      page = page.next();
+      result.addAll(page.getItems());
+    }
+    assertThat(result).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void exactlyFullLastPageHasNoNext() {
+    insertAuthors(PAGE_SIZE * 2);
+    final PageSource<Author> pageSource = Select
+        .from(AUTHOR)
+        .orderBy(AUTHOR.ID.asc())
+        .paged(PAGE_SIZE);
+
+    final Page<Author> first = pageSource.firstPage();
+    assertThat(first.getItems().size()).isEqualTo(PAGE_SIZE);
+    assertThat(first.hasNext()).isTrue();
+    final Page<Author> second = first.next();
+    assertThat(second.getItems().size()).isEqualTo(PAGE_SIZE);
+    assertThat(second.hasNext()).isFalse();
+    try {
+      second.next();
+      throw new AssertionError("Expected NoSuchElementException");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void emptyResult() {
+    final Page<Author> page = Select
+        .from(AUTHOR)
+        .orderBy(AUTHOR.ID.asc())
+        .paged(PAGE_SIZE)
+        .firstPage();
+    assertThat(page.getItems()).isEmpty();
+    assertThat(page.hasNext()).isFalse();
+  }
+
+  @Test
+  public void observedPagesAreInvalidatedOnTableChange() {
+    insertAuthors(COUNT);
+    final PageSource<Author> pageSource = Select
+        .from(AUTHOR)
+        .orderBy(AUTHOR.ID.asc())
+        .paged(PAGE_SIZE);
+
+    final TestSubscriber<Page<Author>> ts = new TestSubscriber<>();
+    pageSource.observe()
+        .runQuery()
+        .subscribe(ts);
+    awaitValueCount(ts, 1);
+    final Page<Author> first = ts.getOnNextEvents().get(0);
+    assertThat(first.getItems().size()).isEqualTo(PAGE_SIZE);
+    assertThat(first.isInvalidated()).isFalse();
+
+    Author.newRandom().insert().execute();
+    awaitValueCount(ts, 2);
+    assertThat(first.isInvalidated()).isTrue();
+    final Page<Author> refreshed = ts.getOnNextEvents().get(1);
+    assertThat(refreshed.isInvalidated()).isFalse();
+    assertThat(refreshed.getItems()).containsExactlyElementsIn(first.getItems()).inOrder();
+    ts.unsubscribe();
+  }
+
+  private static void awaitValueCount(TestSubscriber<?> ts, int count) {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (ts.getOnNextEvents().size() < count && System.nanoTime() < deadline) {
+      ts.awaitTerminalEvent(10, TimeUnit.MILLISECONDS);
+    }
+    ts.assertNoErrors();
+    assertThat(ts.getOnNextEvents().size()).isAtLeast(count);
+  }
+}
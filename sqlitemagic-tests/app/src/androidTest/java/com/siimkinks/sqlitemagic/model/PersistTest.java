@@ -0,0 +1,128 @@
+package com.siimkinks.sqlitemagic.model;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.Select;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static com.siimkinks.sqlitemagic.SimpleAllValuesMutableTable.SIMPLE_ALL_VALUES_MUTABLE;
+import static com.siimkinks.sqlitemagic.SimpleMutableTable.SIMPLE_MUTABLE;
+
+/**
+ * Persist of tables without autoincrement ids goes through a single UPSERT statement on
+ * API 30+ and through UPDATE followed by INSERT otherwise. Both paths must give the
+ * same result on every API level.
+ */
+@RunWith(AndroidJUnit4.class)
+public final class PersistTest {
+  @Before
+  public void setUp() {
+    Author.deleteTable().execute();
+    SimpleMutable.deleteTable().execute();
+    SimpleAllValuesMutable.deleteTable().execute();
+  }
+
+  @Test
+  public void nullableIdNewEntity() {
+    final Author val = Author.newRandom();
+    val.id = null;
+
+    final long id = val.persist().execute();
+
+    assertThat(id).isNotEqualTo(-1);
+    assertThat(val.id).isEqualTo(id);
+    assertThat(Select.from(AUTHOR).count().execute()).isEqualTo(1);
+    assertThat(Select.from(AUTHOR).where(AUTHOR.ID.is(id)).takeFirst().execute()).isEqualTo(val);
+  }
+
+  @Test
+  public void nullableIdExistingEntity() {
+    final Author val = Author.newRandom();
+    final long id = val.insert().execute();
+    final Author changed = Author.newRandom();
+    changed.id = id;
+
+    final long persistId = changed.persist().execute();
+
+    assertThat(persistId).isEqualTo(id);
+    assertThat(changed.id).isEqualTo(id);
+    assertThat(Select.from(AUTHOR).count().execute()).isEqualTo(1);
+    assertThat(Select.from(AUTHOR).takeFirst().execute()).isEqualTo(changed);
+  }
+
+  @Test
+  public void nullableIdPresetToMissingRow() {
+    final Author existing = Author.newRandom();
+    final long existingId = existing.insert().execute();
+    final long presetId = existingId + 100;
+    final Author val = Author.newRandom();
+    val.id = presetId;
+
+    final long id = val.persist().execute();
+
+    assertThat(id).isNotEqualTo(-1);
+    assertThat(val.id).isEqualTo(id);
+    // update misses and insert gets a fresh autoincrement id
+    assertThat(id).isNotEqualTo(presetId);
+    assertThat(Select.from(AUTHOR).count().execute()).isEqualTo(2);
+    assertThat(Select.from(AUTHOR).where(AUTHOR.ID.is(id)).takeFirst().execute()).isEqualTo(val);
+  }
+
+  @Test
+  public void primitiveIdNewEntity() {
+    final SimpleAllValuesMutable val = SimpleAllValuesMutable.newRandom();
+
+    final long id = val.persist().execute();
+
+    assertThat(id).isNotEqualTo(-1);
+    assertThat(val.id).isEqualTo(id);
+    assertThat(Select.from(SIMPLE_ALL_VALUES_MUTABLE).count().execute()).isEqualTo(1);
+  }
+
+  @Test
+  public void primitiveIdExistingEntity() {
+    final SimpleMutable val = SimpleMutable.newRandom();
+    final long id = val.insert().execute();
+    final SimpleMutable changed = SimpleMutable.newRandom();
+    changed.id = id;
+
+    final long persistId = changed.persist().execute();
+
+    assertThat(persistId).isEqualTo(id);
+    assertThat(Select.from(SIMPLE_MUTABLE).count().execute()).isEqualTo(1);
+    assertThat(Select.from(SIMPLE_MUTABLE).takeFirst().execute()).isEqualTo(changed);
+  }
+
+  @Test
+  public void primitiveIdPresetToMissingRow() {
+    final SimpleMutable existing = SimpleMutable.newRandom();
+    existing.insert().execute();
+    final SimpleMutable val = SimpleMutable.newRandom();
+    val.id = existing.id + 100;
+
+    final long id = val.persist().execute();
+
+    assertThat(id).isEqualTo(val.id);
+    assertThat(Select.from(SIMPLE_MUTABLE).count().execute()).isEqualTo(2);
+    assertThat(Select.from(SIMPLE_MUTABLE).where(SIMPLE_MUTABLE.ID.is(id)).takeFirst().execute()).isEqualTo(val);
+  }
+
+  @Test
+  public void primitiveAutoincrementIdPresetToMissingRow() {
+    final SimpleAllValuesMutable existing = SimpleAllValuesMutable.newRandom();
+    final long existingId = existing.insert().execute();
+    final SimpleAllValuesMutable val = SimpleAllValuesMutable.newRandom();
+    val.id = existingId + 100;
+
+    final long id = val.persist().execute();
+
+    assertThat(id).isNotEqualTo(-1);
+    assertThat(val.id).isEqualTo(id);
+    assertThat(Select.from(SIMPLE_ALL_VALUES_MUTABLE).count().execute()).isEqualTo(2);
+  }
+}
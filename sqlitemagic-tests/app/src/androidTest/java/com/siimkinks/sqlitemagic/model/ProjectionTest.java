@@ -0,0 +1,175 @@
+package com.siimkinks.sqlitemagic.model;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.DbConnection;
+import com.siimkinks.sqlitemagic.Select;
+import com.siimkinks.sqlitemagic.SqliteMagic;
+import com.siimkinks.sqlitemagic.TestApp;
+import com.siimkinks.sqlitemagic.model.projection.AuthorFlags;
+import com.siimkinks.sqlitemagic.model.projection.AuthorSummary;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorFlagsTable.AUTHOR_FLAGS;
+import static com.siimkinks.sqlitemagic.AuthorSummaryTable.AUTHOR_SUMMARY;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertAuthors;
+
+@RunWith(AndroidJUnit4.class)
+public final class ProjectionTest {
+
+  @Before
+  public void setUp() {
+    Author.deleteTable().execute();
+  }
+
+  @Test
+  public void interfaceProjection() {
+    final int testCount = 4;
+    final List<Author> authors = insertAuthors(testCount);
+    final List<AuthorSummary> execute = Select
+        .from(AUTHOR_SUMMARY)
+        .execute();
+    final int executeSize = execute.size();
+    assertThat(executeSize).isEqualTo(testCount);
+    for (int i = 0; i < executeSize; i++) {
+      final AuthorSummary summary = execute.get(i);
+      final Author author = authors.get(i);
+      assertThat(summary.id()).isEqualTo(author.id);
+      assertThat(summary.name()).isEqualTo(author.name);
+    }
+  }
+
+  @Test
+  public void valueProjection() {
+    final int testCount = 4;
+    final List<Author> authors = insertAuthors(testCount);
+    final List<AuthorFlags> execute = Select
+        .from(AUTHOR_FLAGS)
+        .execute();
+    final int executeSize = execute.size();
+    assertThat(executeSize).isEqualTo(testCount);
+    for (int i = 0; i < executeSize; i++) {
+      final AuthorFlags flags = execute.get(i);
+      final Author author = authors.get(i);
+      assertThat(flags.authorName()).isEqualTo(author.name);
+      assertThat(flags.boxedBoolean()).isEqualTo(author.boxedBoolean);
+      assertThat(flags.primitiveBoolean()).isEqualTo(author.primitiveBoolean);
+    }
+  }
+
+  @Test
+  public void projectionWithFilter() {
+    final List<Author> authors = insertAuthors(4);
+    final Author expected = authors.get(2);
+
+    AuthorSummary summary = Select
+        .from(AUTHOR_SUMMARY)
+        .where(AUTHOR_SUMMARY.NAME.is(expected.name))
+        .takeFirst()
+        .execute();
+    assertThat(summary).isNotNull();
+    assertThat(summary.id()).isEqualTo(expected.id);
+
+    summary = Select
+        .from(AUTHOR_SUMMARY)
+        .where(AUTHOR.ID.is(expected.id))
+        .takeFirst()
+        .execute();
+    assertThat(summary).isNotNull();
+    assertThat(summary.name()).isEqualTo(expected.name);
+  }
+
+  @Test
+  public void partialProjectionSelection() {
+    final List<Author> authors = insertAuthors(2);
+    final List<AuthorFlags> execute = Select
+        .columns(AUTHOR_FLAGS.NAME, AUTHOR_FLAGS.PRIMITIVE_BOOLEAN)
+        .from(AUTHOR_FLAGS)
+        .execute();
+    assertThat(execute.size()).isEqualTo(2);
+    for (int i = 0; i < 2; i++) {
+      final AuthorFlags flags = execute.get(i);
+      assertThat(flags.authorName()).isEqualTo(authors.get(i).name);
+      assertThat(flags.boxedBoolean()).isNull();
+    }
+  }
+
+  @Test
+  public void projectionAndBaseTableObservedSideBySide() {
+    final List<Author> authors = insertAuthors(3);
+    final List<AuthorSummary> summaries = Select
+        .from(AUTHOR_SUMMARY)
+        .observe()
+        .runQuery()
+        .take(1)
+        .toBlocking()
+        .first();
+    final List<Author> partialAuthors = Select
+        .columns(AUTHOR.ID, AUTHOR.NAME)
+        .from(AUTHOR)
+        .observe()
+        .runQuery()
+        .take(1)
+        .toBlocking()
+        .first();
+
+    assertProjectionAndBaseTableResults(authors, summaries, partialAuthors);
+  }
+
+  @Test
+  public void projectionAndBaseTableExecutedSideBySideWithResultCache() {
+    final DbConnection connection = SqliteMagic
+        .setup(TestApp.INSTANCE)
+        .withName("projectionResultCache.db")
+        .withQueryResultCache(100)
+        .openNewConnection();
+    try {
+      Author.deleteTable().usingConnection(connection).execute();
+      final List<Author> authors = new ArrayList<>(3);
+      for (int i = 0; i < 3; i++) {
+        final Author author = Author.newRandom();
+        assertThat(author.persist().usingConnection(connection).execute()).isNotEqualTo(-1);
+        authors.add(author);
+      }
+
+      final List<AuthorSummary> summaries = Select
+          .from(AUTHOR_SUMMARY)
+          .usingConnection(connection)
+          .execute();
+      final List<Author> partialAuthors = Select
+          .columns(AUTHOR.ID, AUTHOR.NAME)
+          .from(AUTHOR)
+          .usingConnection(connection)
+          .execute();
+
+      assertProjectionAndBaseTableResults(authors, summaries, partialAuthors);
+    } finally {
+      connection.close();
+    }
+  }
+
+  private static void assertProjectionAndBaseTableResults(List<Author> authors,
+                                                          List<AuthorSummary> summaries,
+                                                          List<Author> partialAuthors) {
+    final int count = authors.size();
+    assertThat(summaries.size()).isEqualTo(count);
+    assertThat(partialAuthors.size()).isEqualTo(count);
+    for (int i = 0; i < count; i++) {
+      final Author author = authors.get(i);
+      final AuthorSummary summary = summaries.get(i);
+      assertThat(summary.id()).isEqualTo(author.id);
+      assertThat(summary.name()).isEqualTo(author.name);
+      final Author partialAuthor = partialAuthors.get(i);
+      assertThat(partialAuthor.id).isEqualTo(author.id);
+      assertThat(partialAuthor.name).isEqualTo(author.name);
+    }
+  }
+}
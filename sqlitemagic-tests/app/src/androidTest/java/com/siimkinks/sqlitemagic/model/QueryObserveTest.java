@@ -7,6 +7,8 @@ import android.support.test.runner.AndroidJUnit4;
 import com.siimkinks.sqlitemagic.CompiledCountSelect;
 import com.siimkinks.sqlitemagic.CompiledSelect;
 import com.siimkinks.sqlitemagic.DbConnection;
+import com.siimkinks.sqlitemagic.DbConnectionImpl;
+import com.siimkinks.sqlitemagic.ListChanges;
 import com.siimkinks.sqlitemagic.Delete;
 import com.siimkinks.sqlitemagic.Query;
 import com.siimkinks.sqlitemagic.QueryObservable;
@@ -29,15 +31,18 @@ import org.junit.runner.RunWith;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import rx.Observable;
+import rx.Scheduler;
 import rx.Subscription;
 import rx.functions.Action1;
 import rx.functions.Func1;
 import rx.internal.util.RxRingBuffer;
 import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
@@ -174,6 +179,200 @@ public final class QueryObserveTest {
     assertThat(result).isEqualTo(3);
   }
 
+  @Test
+  public void equalQueriesShareOneResult() {
+    final DbConnection connection = openSharedLiveQueriesConnection(Schedulers.immediate());
+    try {
+      insertAuthorsUsing(connection, 3);
+      final TestSubscriber<List<Author>> ts1 = new TestSubscriber<>();
+      final TestSubscriber<List<Author>> ts2 = new TestSubscriber<>();
+      final Subscription s1 = Select.from(AUTHOR)
+          .usingConnection(connection)
+          .observe()
+          .runQuery()
+          .subscribe(ts1);
+      final Subscription s2 = Select.from(AUTHOR)
+          .usingConnection(connection)
+          .observe()
+          .runQuery()
+          .subscribe(ts2);
+      ts1.assertValueCount(1);
+      ts2.assertValueCount(1);
+      assertThat(ts2.getOnNextEvents().get(0)).isSameAs(ts1.getOnNextEvents().get(0));
+
+      assertThat(Author.newRandom().insert().usingConnection(connection).execute()).isNotEqualTo(-1);
+      ts1.assertValueCount(2);
+      ts2.assertValueCount(2);
+      assertThat(ts2.getOnNextEvents().get(1)).isSameAs(ts1.getOnNextEvents().get(1));
+      assertThat(ts1.getOnNextEvents().get(1)).hasSize(4);
+
+      s1.unsubscribe();
+      assertThat(Author.newRandom().insert().usingConnection(connection).execute()).isNotEqualTo(-1);
+      ts1.assertValueCount(2);
+      ts2.assertValueCount(3);
+      s2.unsubscribe();
+      assertTriggersHaveNoObservers((DbConnectionImpl) connection);
+    } finally {
+      connection.close();
+    }
+  }
+
+  @Test
+  public void queriesWithDifferentArgsAreNotShared() {
+    final DbConnection connection = openSharedLiveQueriesConnection(Schedulers.immediate());
+    try {
+      final List<Author> authors = insertAuthorsUsing(connection, 3);
+      final TestSubscriber<List<Author>> ts1 = new TestSubscriber<>();
+      final TestSubscriber<List<Author>> ts2 = new TestSubscriber<>();
+      final Subscription s1 = Select.from(AUTHOR)
+          .where(AUTHOR.ID.is(authors.get(0).id))
+          .usingConnection(connection)
+          .observe()
+          .runQuery()
+          .subscribe(ts1);
+      final Subscription s2 = Select.from(AUTHOR)
+          .where(AUTHOR.ID.is(authors.get(1).id))
+          .usingConnection(connection)
+          .observe()
+          .runQuery()
+          .subscribe(ts2);
+      ts1.assertValue(authors.subList(0, 1));
+      ts2.assertValue(authors.subList(1, 2));
+      s1.unsubscribe();
+      s2.unsubscribe();
+    } finally {
+      connection.close();
+    }
+  }
+
+  @Test
+  public void replayedSharedQueryRunsOnQueryScheduler() {
+    final DbConnection connection = openSharedLiveQueriesConnection(scheduler);
+    try {
+      insertAuthorsUsing(connection, 3);
+      final TestSubscriber<List<Author>> ts1 = new TestSubscriber<>();
+      final TestSubscriber<List<Author>> ts2 = new TestSubscriber<>();
+      final Subscription s1 = Select.from(AUTHOR)
+          .usingConnection(connection)
+          .observe()
+          .runQuery()
+          .subscribe(ts1);
+      ts1.assertValueCount(1);
+
+      scheduler.runTasksImmediately(false);
+      final Subscription s2 = Select.from(AUTHOR)
+          .usingConnection(connection)
+          .observe()
+          .runQuery()
+          .subscribe(ts2);
+      ts2.assertNoValues();
+
+      scheduler.triggerActions();
+      ts2.assertValueCount(1);
+      assertThat(ts2.getOnNextEvents().get(0)).isSameAs(ts1.getOnNextEvents().get(0));
+      s1.unsubscribe();
+      s2.unsubscribe();
+    } finally {
+      connection.close();
+    }
+  }
+
+  @Test
+  public void observedListIsModifiableWithoutSharing() {
+    insertAuthors(3);
+    final List<Author> authors = selectAuthors.observe()
+        .runQuery()
+        .take(1)
+        .toBlocking()
+        .first();
+
+    Collections.reverse(authors);
+    authors.remove(0);
+    assertThat(authors).hasSize(2);
+  }
+
+  private static DbConnection openSharedLiveQueriesConnection(Scheduler queryScheduler) {
+    final DbConnection connection = SqliteMagic
+        .setup(TestApp.INSTANCE)
+        .withName("sharedLiveQueries.db")
+        .withSharedLiveQueries()
+        .scheduleRxQueriesOn(queryScheduler)
+        .openNewConnection();
+    Author.deleteTable()
+        .usingConnection(connection)
+        .execute();
+    return connection;
+  }
+
+  private static List<Author> insertAuthorsUsing(DbConnection connection, int count) {
+    final ArrayList<Author> authors = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final Author author = Author.newRandom();
+      assertThat(author.insert().usingConnection(connection).execute()).isNotEqualTo(-1);
+      authors.add(author);
+    }
+    return authors;
+  }
+
+  @Test
+  public void listChangesReuseUnchangedRows() {
+    final List<Author> authors = insertAuthors(3);
+    final TestSubscriber<ListChanges<Author>> ts = new TestSubscriber<>();
+    final Subscription subscription = selectAuthors.observe()
+        .runQueryChanges()
+        .subscribe(ts);
+    ts.assertValueCount(1);
+    final ListChanges<Author> initial = ts.getOnNextEvents().get(0);
+    assertThat(initial.getList()).isEqualTo(authors);
+    assertThat(initial.getInserted()).isEqualTo(new int[]{0, 1, 2});
+
+    final Author author = authors.get(1);
+    author.name = "updated";
+    assertThat(author.update().execute()).isTrue();
+    ts.assertValueCount(2);
+    final ListChanges<Author> changes = ts.getOnNextEvents().get(1);
+    assertThat(changes.getChanged()).isEqualTo(new int[]{1});
+    assertThat(changes.getInserted()).isEmpty();
+    assertThat(changes.getRemoved()).isEmpty();
+    assertThat(changes.getList().get(0)).isSameAs(initial.getList().get(0));
+    assertThat(changes.getList().get(1)).isEqualTo(author);
+    assertThat(changes.getList().get(2)).isSameAs(initial.getList().get(2));
+
+    assertThat(authors.get(0).delete().execute()).isEqualTo(1);
+    ts.assertValueCount(3);
+    assertThat(ts.getOnNextEvents().get(2).getRemoved()).isEqualTo(new int[]{0});
+    subscription.unsubscribe();
+  }
+
+  @Test
+  public void queryByIdIgnoresChangesOfOtherRows() {
+    final List<Author> authors = insertAuthors(3);
+    final Author observed = authors.get(0);
+    final TestSubscriber<List<Author>> ts = new TestSubscriber<>();
+    final Subscription subscription = Select.from(AUTHOR)
+        .where(AUTHOR.ID.is(observed.id))
+        .observe()
+        .runQuery()
+        .subscribe(ts);
+    ts.assertValueCount(1);
+
+    final Author other = authors.get(1);
+    other.name = "updated";
+    assertThat(other.update().execute()).isTrue();
+    assertThat(authors.get(2).delete().execute()).isEqualTo(1);
+    ts.assertValueCount(1);
+
+    observed.name = "updated";
+    assertThat(observed.update().execute()).isTrue();
+    ts.assertValueCount(2);
+    assertThat(ts.getOnNextEvents().get(1)).containsExactly(observed);
+
+    assertThat(Author.deleteTable().execute()).isEqualTo(2);
+    ts.assertValueCount(3);
+    assertThat(ts.getOnNextEvents().get(2)).isEmpty();
+    subscription.unsubscribe();
+  }
+
   @Test
   public void queryObservesInsert() {
     List<Author> authors = insertAuthors(3);
@@ -0,0 +1,72 @@
+package com.siimkinks.sqlitemagic.model;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.AuthorQueriesImpl;
+import com.siimkinks.sqlitemagic.model.query.AuthorQueries;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertAuthors;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertMagazines;
+
+@RunWith(AndroidJUnit4.class)
+public final class QueryTest {
+  private final AuthorQueries queries = new AuthorQueriesImpl();
+
+  @Before
+  public void setUp() {
+    Magazine.deleteTable().execute();
+    Author.deleteTable().execute();
+  }
+
+  @Test
+  public void compiledSqlIsNormalized() {
+    assertThat(AuthorQueriesImpl.BY_NAME_SQL).isEqualTo("SELECT * FROM author WHERE name = ?");
+  }
+
+  @Test
+  public void queryWithoutArgs() {
+    final List<Author> expected = new ArrayList<>(insertAuthors(5));
+    Collections.sort(expected, new Comparator<Author>() {
+      @Override
+      public int compare(Author lhs, Author rhs) {
+        return lhs.name.compareTo(rhs.name);
+      }
+    });
+
+    assertThat(queries.allByName().execute()).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void queryWithArgs() {
+    final List<Author> authors = insertAuthors(5);
+    final Author expected = authors.get(3);
+
+    assertThat(queries.byName(expected.name).execute()).containsExactly(expected);
+    assertThat(queries.byName(expected.name).takeFirst().execute()).isEqualTo(expected);
+    assertThat(queries.byName(expected.name).count().execute()).isEqualTo(1L);
+    assertThat(queries.byName("nonexistent").execute()).isEmpty();
+  }
+
+  @Test
+  public void queryWithJoin() {
+    final List<Magazine> magazines = insertMagazines(6);
+    final List<Author> expected = new ArrayList<>();
+    for (Magazine magazine : magazines) {
+      if (magazine.nrOfReleases > 0 && magazine.author.primitiveBoolean) {
+        expected.add(magazine.author);
+      }
+    }
+
+    assertThat(queries.withMagazineReleasesOver(0, true).execute()).containsExactlyElementsIn(expected);
+  }
+}
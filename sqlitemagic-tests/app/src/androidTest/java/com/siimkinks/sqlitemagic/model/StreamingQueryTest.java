@@ -0,0 +1,131 @@
+package com.siimkinks.sqlitemagic.model;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.CloseableIterator;
+import com.siimkinks.sqlitemagic.CompiledSelect;
+import com.siimkinks.sqlitemagic.Select;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import rx.observers.TestSubscriber;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
+import static com.siimkinks.sqlitemagic.model.TestUtil.insertAuthors;
+
+@RunWith(AndroidJUnit4.class)
+public final class StreamingQueryTest {
+  private static final int COUNT = 100;
+
+  private final CompiledSelect<Author, Select.SelectN> selectAuthors = Select.from(AUTHOR).compile();
+
+  @Before
+  public void setUp() {
+    Author.deleteTable().execute();
+  }
+
+  @Test
+  public void iterateReturnsAllRows() {
+    insertAuthors(COUNT);
+    final List<Author> expected = selectAuthors.execute();
+
+    final ArrayList<Author> result = new ArrayList<>(COUNT);
+    final CloseableIterator<Author> iterator = selectAuthors.iterate();
+    while (iterator.hasNext()) {
+      result.add(iterator.next());
+    }
+    assertThat(result).containsExactlyElementsIn(expected).inOrder();
+    assertThat(iterator.hasNext()).isFalse();
+  }
+
+  @Test
+  public void iterateEmptyResult() {
+    final CloseableIterator<Author> iterator = selectAuthors.iterate();
+    assertThat(iterator.hasNext()).isFalse();
+    try {
+      iterator.next();
+      throw new AssertionError("Expected NoSuchElementException");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void closedIteratorHasNoMoreElements() {
+    insertAuthors(COUNT);
+    final CloseableIterator<Author> iterator = selectAuthors.iterate();
+    assertThat(iterator.next()).isNotNull();
+    assertThat(iterator.next()).isNotNull();
+    iterator.close();
+    assertThat(iterator.hasNext()).isFalse();
+    iterator.close();
+  }
+
+  @Test
+  public void iterateColumn() {
+    final ArrayList<Author> authors = insertAuthors(COUNT);
+    final CompiledSelect<String, Select.Select1> selectNames = Select
+        .column(AUTHOR.NAME)
+        .from(AUTHOR)
+        .compile();
+
+    final ArrayList<String> expected = new ArrayList<>(COUNT);
+    for (Author author : authors) {
+      expected.add(author.name);
+    }
+    final ArrayList<String> result = new ArrayList<>(COUNT);
+    final CloseableIterator<String> iterator = selectNames.iterate();
+    while (iterator.hasNext()) {
+      result.add(iterator.next());
+    }
+    assertThat(result).containsExactlyElementsIn(expected);
+  }
+
+  @Test
+  public void streamEmitsRowsOnRequest() {
+    insertAuthors(COUNT);
+    final List<Author> expected = selectAuthors.execute();
+
+    final TestSubscriber<Author> ts = new TestSubscriber<>(0);
+    selectAuthors.stream().subscribe(ts);
+    ts.assertNoValues();
+
+    ts.requestMore(3);
+    ts.assertValues(expected.get(0), expected.get(1), expected.get(2));
+    ts.assertNotCompleted();
+
+    ts.requestMore(Long.MAX_VALUE);
+    ts.assertCompleted();
+    ts.assertNoErrors();
+    ts.assertReceivedOnNext(expected);
+  }
+
+  @Test
+  public void streamCanBeCutShort() {
+    insertAuthors(COUNT);
+    final List<Author> expected = selectAuthors.execute();
+
+    final TestSubscriber<Author> ts = new TestSubscriber<>();
+    selectAuthors.stream()
+        .take(5)
+        .subscribe(ts);
+    ts.assertCompleted();
+    ts.assertNoErrors();
+    ts.assertReceivedOnNext(expected.subList(0, 5));
+  }
+
+  @Test
+  public void streamEmptyResult() {
+    final TestSubscriber<Author> ts = new TestSubscriber<>();
+    selectAuthors.stream().subscribe(ts);
+    ts.assertCompleted();
+    ts.assertNoValues();
+  }
+}
@@ -17,6 +17,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -24,6 +25,7 @@ import java.util.Random;
 import rx.functions.Func1;
 
 import static android.database.sqlite.SQLiteDatabase.CONFLICT_FAIL;
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_IGNORE;
 import static com.google.common.truth.Truth.assertThat;
 import static com.siimkinks.sqlitemagic.AuthorTable.AUTHOR;
 import static com.siimkinks.sqlitemagic.BuilderMagazineTable.BUILDER_MAGAZINE;
@@ -937,6 +939,59 @@ public final class SynchronousOperationTest {
     assertMutableValue(vals, AUTHOR);
   }
 
+  @Test
+  public void simpleMutableBulkInsertWithConflictAlgorithm() {
+    final List<Author> vals = createVals(new Func1<Integer, Author>() {
+      @Override
+      public Author call(Integer integer) {
+        return Author.newRandom();
+      }
+    });
+    final boolean success = Author.insert(vals).conflictAlgorithm(CONFLICT_FAIL).execute();
+
+    assertThat(success).isTrue();
+
+    assertMutableValue(vals, AUTHOR);
+  }
+
+  @Test
+  public void simpleMutableBulkInsertSkipsIgnoredConflicts() {
+    final Author existing = Author.newRandom();
+    assertThat(existing.insert().execute()).isNotEqualTo(-1);
+    final List<Author> vals = createVals(new Func1<Integer, Author>() {
+      @Override
+      public Author call(Integer integer) {
+        return Author.newRandom();
+      }
+    });
+    final Author conflicting = Author.newRandom();
+    conflicting.id = existing.id;
+    vals.add(conflicting);
+
+    final boolean success = Author.insert(vals).conflictAlgorithm(CONFLICT_IGNORE).execute();
+
+    assertThat(success).isTrue();
+    assertThat(Select.from(AUTHOR).count().execute()).isEqualTo((long) vals.size());
+    assertThat(Select.from(AUTHOR)
+        .where(AUTHOR.ID.is(existing.id))
+        .takeFirst()
+        .execute())
+        .isEqualTo(existing);
+  }
+
+  @Test
+  public void simpleMutableBulkInsertInManyStatements() {
+    final List<Author> vals = new ArrayList<>(1337);
+    for (int i = 0; i < 1337; i++) {
+      vals.add(Author.newRandom());
+    }
+    final boolean success = Author.insert(vals).execute();
+
+    assertThat(success).isTrue();
+
+    assertMutableValue(vals, AUTHOR);
+  }
+
   @Test
   public void simpleImmutableWithBuilderBulkInsert() {
     final List<SimpleValueWithBuilder> vals = createVals(new Func1<Integer, SimpleValueWithBuilder>() {
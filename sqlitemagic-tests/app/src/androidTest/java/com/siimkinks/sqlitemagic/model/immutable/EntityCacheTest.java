@@ -0,0 +1,184 @@
+package com.siimkinks.sqlitemagic.model.immutable;
+
+import android.support.test.runner.AndroidJUnit4;
+
+import com.siimkinks.sqlitemagic.DbConnection;
+import com.siimkinks.sqlitemagic.EntityCache;
+import com.siimkinks.sqlitemagic.Select;
+import com.siimkinks.sqlitemagic.SqliteMagic;
+import com.siimkinks.sqlitemagic.TestApp;
+import com.siimkinks.sqlitemagic.Transaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.siimkinks.sqlitemagic.SimpleValueWithBuilderTable.SIMPLE_VALUE_WITH_BUILDER;
+
+@RunWith(AndroidJUnit4.class)
+public final class EntityCacheTest {
+  private static final int COUNT = 10;
+
+  private final EntityCache<SimpleValueWithBuilder> cache = EntityCache.of(SIMPLE_VALUE_WITH_BUILDER);
+
+  @Before
+  public void setUp() {
+    SimpleValueWithBuilder.deleteTable().execute();
+    for (int i = 0; i < COUNT; i++) {
+      assertThat(SimpleValueWithBuilder.newRandom().build().insert().execute()).isNotEqualTo(-1);
+    }
+  }
+
+  @After
+  public void tearDown() {
+    cache.disable();
+  }
+
+  @Test
+  public void disabledCacheDoesNotShareInstances() {
+    final List<SimpleValueWithBuilder> first = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    final List<SimpleValueWithBuilder> second = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    assertThat(second).isEqualTo(first);
+    for (int i = 0; i < COUNT; i++) {
+      assertThat(second.get(i)).isNotSameAs(first.get(i));
+    }
+    assertThat(cache.size()).isEqualTo(0);
+    assertThat(cache.hitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void enabledCacheSharesInstances() {
+    cache.enable(EntityCache.Policy.LRU, 100);
+    final List<SimpleValueWithBuilder> first = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    assertThat(cache.size()).isEqualTo(COUNT);
+    assertThat(cache.missCount()).isEqualTo(COUNT);
+
+    final List<SimpleValueWithBuilder> second = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    assertThat(second).hasSize(COUNT);
+    for (int i = 0; i < COUNT; i++) {
+      assertThat(second.get(i)).isSameAs(first.get(i));
+    }
+    assertThat(cache.hitCount()).isEqualTo(COUNT);
+    assertThat(cache.hitRate()).isWithin(0.001).of(0.5);
+
+    final SimpleValueWithBuilder firstRow = Select
+        .from(SIMPLE_VALUE_WITH_BUILDER)
+        .takeFirst()
+        .execute();
+    assertThat(first).contains(firstRow);
+  }
+
+  @Test
+  public void lruCacheIsBounded() {
+    cache.enable(EntityCache.Policy.LRU, COUNT / 2);
+    Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    assertThat(cache.size()).isEqualTo(COUNT / 2);
+    assertThat(cache.evictionCount()).isEqualTo(COUNT - COUNT / 2);
+  }
+
+  @Test
+  public void tableChangeClearsCache() {
+    cache.enable(EntityCache.Policy.LRU, 100);
+    final SimpleValueWithBuilder first = Select
+        .from(SIMPLE_VALUE_WITH_BUILDER)
+        .takeFirst()
+        .execute();
+    assertThat(cache.size()).isEqualTo(1);
+
+    final SimpleValueWithBuilder updated = first.copy()
+        .stringValue("updated")
+        .build();
+    assertThat(updated.update().execute()).isTrue();
+    assertThat(cache.size()).isEqualTo(0);
+
+    final SimpleValueWithBuilder queried = Select
+        .from(SIMPLE_VALUE_WITH_BUILDER)
+        .where(SIMPLE_VALUE_WITH_BUILDER.ID.is(first.id()))
+        .takeFirst()
+        .execute();
+    assertThat(queried).isEqualTo(updated);
+  }
+
+  @Test
+  public void queriesInTransactionBypassCache() {
+    cache.enable(EntityCache.Policy.LRU, 100);
+    final Transaction transaction = SqliteMagic.newTransaction();
+    try {
+      Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+      assertThat(cache.size()).isEqualTo(0);
+      transaction.markSuccessful();
+    } finally {
+      transaction.end();
+    }
+  }
+
+  @Test
+  public void weakCacheSharesReferencedInstances() {
+    cache.enable(EntityCache.Policy.WEAK, 100);
+    final List<SimpleValueWithBuilder> first = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    final List<SimpleValueWithBuilder> second = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    for (int i = 0; i < COUNT; i++) {
+      assertThat(second.get(i)).isSameAs(first.get(i));
+    }
+  }
+
+  @Test
+  public void tableChangeDropsOnlyChangedRows() {
+    cache.enable(EntityCache.Policy.LRU, 100);
+    final List<SimpleValueWithBuilder> first = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    assertThat(cache.size()).isEqualTo(COUNT);
+
+    final SimpleValueWithBuilder updated = first.get(0).copy()
+        .stringValue("updated")
+        .build();
+    assertThat(updated.update().execute()).isTrue();
+    assertThat(cache.size()).isEqualTo(COUNT - 1);
+
+    final List<SimpleValueWithBuilder> second = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+    assertThat(second.get(0)).isEqualTo(updated);
+    for (int i = 1; i < COUNT; i++) {
+      assertThat(second.get(i)).isSameAs(first.get(i));
+    }
+  }
+
+  @Test
+  public void cachesAreNotSharedBetweenConnections() {
+    cache.enable(EntityCache.Policy.LRU, 100);
+    final DbConnection otherConnection = SqliteMagic
+        .setup(TestApp.INSTANCE)
+        .withName("entityCacheConnection.db")
+        .openNewConnection();
+    final EntityCache<SimpleValueWithBuilder> otherCache = EntityCache.of(SIMPLE_VALUE_WITH_BUILDER, otherConnection);
+    try {
+      assertThat(otherCache).isNotSameAs(cache);
+      otherCache.enable(EntityCache.Policy.LRU, 100);
+      SimpleValueWithBuilder.deleteTable().usingConnection(otherConnection).execute();
+      for (int i = 0; i < COUNT; i++) {
+        assertThat(SimpleValueWithBuilder.newRandom().build().insert().usingConnection(otherConnection).execute()).isNotEqualTo(-1);
+      }
+
+      final List<SimpleValueWithBuilder> first = Select.from(SIMPLE_VALUE_WITH_BUILDER).execute();
+      final List<SimpleValueWithBuilder> other = Select.from(SIMPLE_VALUE_WITH_BUILDER)
+          .usingConnection(otherConnection)
+          .execute();
+      assertThat(cache.size()).isEqualTo(COUNT);
+      assertThat(otherCache.size()).isEqualTo(COUNT);
+      assertThat(otherCache.hitCount()).isEqualTo(0);
+      for (SimpleValueWithBuilder value : other) {
+        assertThat(first).doesNotContain(value);
+      }
+
+      // writes in one connection do not invalidate caches of the other
+      SimpleValueWithBuilder.deleteTable().usingConnection(otherConnection).execute();
+      assertThat(otherCache.size()).isEqualTo(0);
+      assertThat(cache.size()).isEqualTo(COUNT);
+    } finally {
+      otherCache.disable();
+      otherConnection.close();
+    }
+  }
+}
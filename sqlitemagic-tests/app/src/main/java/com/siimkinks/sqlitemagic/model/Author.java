@@ -7,6 +7,7 @@ import android.os.Parcelable;
 import com.siimkinks.sqlitemagic.Utils;
 import com.siimkinks.sqlitemagic.annotation.Column;
 import com.siimkinks.sqlitemagic.annotation.Id;
+import com.siimkinks.sqlitemagic.annotation.Index;
 import com.siimkinks.sqlitemagic.annotation.Table;
 
 import java.util.Random;
@@ -32,6 +33,7 @@ public class Author implements Parcelable {
   @Column
   public Long id;
   @Column
+  @Index
   public String name;
   @Column
   Boolean boxedBoolean;
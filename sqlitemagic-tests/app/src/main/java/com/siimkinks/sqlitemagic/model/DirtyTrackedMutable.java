@@ -0,0 +1,40 @@
+package com.siimkinks.sqlitemagic.model;
+
+import com.siimkinks.sqlitemagic.Utils;
+import com.siimkinks.sqlitemagic.annotation.Column;
+import com.siimkinks.sqlitemagic.annotation.Id;
+import com.siimkinks.sqlitemagic.annotation.Table;
+
+import java.util.Random;
+
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Table(trackDirtyColumns = true)
+public class DirtyTrackedMutable {
+
+  public static final String TABLE = "dirty_tracked_mutable";
+
+  @Id
+  @Column
+  Long id;
+  @Column
+  String name;
+  @Column
+  long aLong;
+  @Column
+  String name2;
+
+  public static DirtyTrackedMutable newRandom() {
+    final Random r = new Random();
+    final DirtyTrackedMutable val = new DirtyTrackedMutable();
+    val.name = Utils.randomTableName();
+    val.aLong = r.nextLong();
+    val.name2 = Utils.randomTableName();
+    return val;
+  }
+}
@@ -2,6 +2,7 @@ package com.siimkinks.sqlitemagic.model;
 
 import com.siimkinks.sqlitemagic.Utils;
 import com.siimkinks.sqlitemagic.annotation.Column;
+import com.siimkinks.sqlitemagic.annotation.Index;
 import com.siimkinks.sqlitemagic.annotation.Table;
 
 import java.util.Random;
@@ -11,7 +12,7 @@ import lombok.ToString;
 
 @EqualsAndHashCode
 @ToString
-@Table(persistAll = true)
+@Table(persistAll = true, indexes = @Index(columns = {"author", "nr_of_releases"}, where = "author IS NOT NULL"))
 public class Magazine {
 
   public static final String TABLE = "magazine";
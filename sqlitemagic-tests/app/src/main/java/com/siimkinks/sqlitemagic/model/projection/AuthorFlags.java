@@ -0,0 +1,19 @@
+package com.siimkinks.sqlitemagic.model.projection;
+
+import android.support.annotation.Nullable;
+
+import com.google.auto.value.AutoValue;
+import com.siimkinks.sqlitemagic.annotation.Column;
+import com.siimkinks.sqlitemagic.annotation.Projection;
+
+@Projection("author")
+@AutoValue
+public abstract class AuthorFlags {
+  @Column("name")
+  public abstract String authorName();
+
+  @Nullable
+  public abstract Boolean boxedBoolean();
+
+  public abstract boolean primitiveBoolean();
+}
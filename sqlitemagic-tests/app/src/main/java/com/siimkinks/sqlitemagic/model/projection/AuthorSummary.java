@@ -0,0 +1,10 @@
+package com.siimkinks.sqlitemagic.model.projection;
+
+import com.siimkinks.sqlitemagic.annotation.Projection;
+
+@Projection("author")
+public interface AuthorSummary {
+  Long id();
+
+  String name();
+}
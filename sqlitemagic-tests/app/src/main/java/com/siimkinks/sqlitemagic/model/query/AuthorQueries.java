@@ -0,0 +1,19 @@
+package com.siimkinks.sqlitemagic.model.query;
+
+import com.siimkinks.sqlitemagic.CompiledSelect;
+import com.siimkinks.sqlitemagic.Select;
+import com.siimkinks.sqlitemagic.annotation.Query;
+import com.siimkinks.sqlitemagic.model.Author;
+
+public interface AuthorQueries {
+  @Query("SELECT * FROM author ORDER BY name")
+  CompiledSelect<Author, Select.SelectN> allByName();
+
+  @Query("SELECT * FROM author WHERE name = ?")
+  CompiledSelect<Author, Select.SelectN> byName(String name);
+
+  @Query("SELECT author.* FROM author " +
+      "JOIN magazine m ON m.author = author.id " +
+      "WHERE m.nr_of_releases > ? AND author.primitive_boolean = ?")
+  CompiledSelect<Author, Select.SelectN> withMagazineReleasesOver(int nrOfReleases, boolean primitiveBoolean);
+}
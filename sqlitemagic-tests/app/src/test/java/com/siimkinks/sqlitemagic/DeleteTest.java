@@ -34,13 +34,13 @@ public final class DeleteTest {
         .from(BOOK)
         .where(BOOK.TITLE.is("asd").and(BOOK.TITLE.isNotNull()).or(BOOK.NR_OF_RELEASES.greaterThan(2)));
     expected = expectedBase + "WHERE ((book.title=? AND book.title IS NOT NULL) OR book.nr_of_releases>?) ";
-    assertSqlBuilder(sqlNode, expected, "asd", "2");
+    assertSqlBuilder(sqlNode, expected, "asd", 2);
 
     sqlNode = Delete
         .from(BOOK)
         .where(BOOK.TITLE.is("asd").and(BOOK.TITLE.isNotNull()).and(BOOK.NR_OF_RELEASES.is(2)));
     expected = expectedBase + "WHERE ((book.title=? AND book.title IS NOT NULL) AND book.nr_of_releases=?) ";
-    assertSqlBuilder(sqlNode, expected, "asd", "2");
+    assertSqlBuilder(sqlNode, expected, "asd", 2);
 
     sqlNode = Delete
         .from(BOOK)
@@ -50,10 +50,10 @@ public final class DeleteTest {
     expected = expectedBase + "WHERE ((((book.title=? AND book.title IS NOT NULL) AND book.nr_of_releases=?) " +
         "AND ((book.base_id=? OR book.author IS NOT NULL) OR book.nr_of_releases<?)) " +
         "OR ((book.base_id>? AND book.author IS NULL) AND book.nr_of_releases!=?)) ";
-    assertSqlBuilder(sqlNode, expected, "asd", "2", "2", "55", "2", "55");
+    assertSqlBuilder(sqlNode, expected, "asd", 2, 2L, 55, 2L, 55);
   }
 
-  private void assertSqlBuilder(DeleteSqlNode sqlNode, String expected, @Nullable String... expectedArgs) {
+  private void assertSqlBuilder(DeleteSqlNode sqlNode, String expected, @Nullable Object... expectedArgs) {
     final String sql = SqlCreator.getSql(sqlNode, 3);
     assertThat(sql).isEqualTo(expected);
     assertThat(sqlNode.deleteBuilder.args).containsExactly(expectedArgs);
@@ -251,19 +251,19 @@ public final class SelectSqlBuilderTest {
 
     expected = expectedBase + "(book.title=? AND book.nr_of_releases=?) ";
     sqlNode = Select.from(BOOK).where(titleIs.and(intIs));
-    assertSql(sqlNode, expected, "asd", "1920");
+    assertSql(sqlNode, expected, "asd", 1920);
 
     expected = expectedBase + "book.nr_of_releases BETWEEN ? AND ? ";
     sqlNode = Select.from(BOOK).where(between);
-    assertSql(sqlNode, expected, "1910", "2000");
+    assertSql(sqlNode, expected, 1910, 2000);
 
     expected = expectedBase + "book.nr_of_releases NOT BETWEEN ? AND ? ";
     sqlNode = Select.from(BOOK).where(notBetween);
-    assertSql(sqlNode, expected, "1910", "2000");
+    assertSql(sqlNode, expected, 1910, 2000);
 
     expected = expectedBase + "book.nr_of_releases IN (?,?,?) ";
     sqlNode = Select.from(BOOK).where(in);
-    assertSql(sqlNode, expected, "1910", "1999", "1920");
+    assertSql(sqlNode, expected, 1910, 1999, 1920);
 
     String expectedLongWhereClause = "((((((((book.title!=? AND book.title IS NOT NULL) AND book.title IS NULL) " +
         "AND book.title GLOB ?) AND book.title LIKE ?) AND book.nr_of_releases<?) AND book.nr_of_releases>?) " +
@@ -271,32 +271,32 @@ public final class SelectSqlBuilderTest {
     expected = expectedBase + expectedLongWhereClause;
     sqlNode = Select.from(BOOK).where(titleIsNot.and(titleIsNotNull).and(titleIsNull).and(titleGlob)
         .and(titleLike).and(lessThan).and(greaterThan).and(between).and(notBetween));
-    assertSql(sqlNode, expected, "asd", "asd", "asd", "1990", "1990", "1910", "2000", "1910", "2000");
+    assertSql(sqlNode, expected, "asd", "asd", "asd", 1990, 1990, 1910, 2000, 1910, 2000);
 
     expected = expectedBase + "(((book.nr_of_releases IN (?,?,?) AND book.nr_of_releases NOT IN (?,?,?)) " +
         "AND book.nr_of_releases IN (?)) AND book.nr_of_releases NOT IN (?)) ";
     sqlNode = Select.from(BOOK).where(in.and(notIn).and(oneIn).and(oneNotIn));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "1910", "1999", "1920", "1910", "1910");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, 1910, 1999, 1920, 1910, 1910);
 
     expected = expectedBase + "(book.nr_of_releases IN (?,?,?) OR book.title!=?) ";
     sqlNode = Select.from(BOOK).where(in.or(titleIsNot));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
 
     expected = expectedBase + "(book.nr_of_releases IN (?,?,?) AND (book.title!=? AND book.title IS NOT NULL)) ";
     sqlNode = Select.from(BOOK).where(in.and(titleIsNot.and(titleIsNotNull)));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
 
     expected = expectedBase + "(book.nr_of_releases IN (?,?,?) OR (book.nr_of_releases BETWEEN ? AND ? AND book.title IS NOT NULL)) ";
     sqlNode = Select.from(BOOK).where(in.or(between.and(titleIsNotNull)));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "1910", "2000");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, 1910, 2000);
 
     expected = expectedBase + "(book.nr_of_releases IN (?,?,?) AND ((book.title!=? OR book.title IS NOT NULL) OR book.title IS NULL)) ";
     sqlNode = Select.from(BOOK).where(in.and(titleIsNot.or(titleIsNotNull).or(titleIsNull)));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
 
     expected = expectedBase + "(book.nr_of_releases IN (?,?,?) OR book.title!=?) ";
     sqlNode = Select.from(BOOK).where(in.or(titleIsNot));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
   }
 
   @Test
@@ -326,19 +326,19 @@ public final class SelectSqlBuilderTest {
 
     expected = expectedBase + "(b.title=? AND b.nr_of_releases=?) ";
     sqlNode = Select.from(b).where(titleIs.and(intIs));
-    assertSql(sqlNode, expected, "asd", "1920");
+    assertSql(sqlNode, expected, "asd", 1920);
 
     expected = expectedBase + "b.nr_of_releases BETWEEN ? AND ? ";
     sqlNode = Select.from(b).where(between);
-    assertSql(sqlNode, expected, "1910", "2000");
+    assertSql(sqlNode, expected, 1910, 2000);
 
     expected = expectedBase + "b.nr_of_releases NOT BETWEEN ? AND ? ";
     sqlNode = Select.from(b).where(notBetween);
-    assertSql(sqlNode, expected, "1910", "2000");
+    assertSql(sqlNode, expected, 1910, 2000);
 
     expected = expectedBase + "b.nr_of_releases IN (?,?,?) ";
     sqlNode = Select.from(b).where(in);
-    assertSql(sqlNode, expected, "1910", "1999", "1920");
+    assertSql(sqlNode, expected, 1910, 1999, 1920);
 
     String expectedLongWhereClause = "((((((((b.title!=? AND b.title IS NOT NULL) AND b.title IS NULL) " +
         "AND b.title GLOB ?) AND b.title LIKE ?) AND b.nr_of_releases<?) AND b.nr_of_releases>?) " +
@@ -346,32 +346,32 @@ public final class SelectSqlBuilderTest {
     expected = expectedBase + expectedLongWhereClause;
     sqlNode = Select.from(b).where(titleIsNot.and(titleIsNotNull).and(titleIsNull).and(titleGlob)
         .and(titleLike).and(lessThan).and(greaterThan).and(between).and(notBetween));
-    assertSql(sqlNode, expected, "asd", "asd", "asd", "1990", "1990", "1910", "2000", "1910", "2000");
+    assertSql(sqlNode, expected, "asd", "asd", "asd", 1990, 1990, 1910, 2000, 1910, 2000);
 
     expected = expectedBase + "(((b.nr_of_releases IN (?,?,?) AND b.nr_of_releases NOT IN (?,?,?)) " +
         "AND b.nr_of_releases IN (?)) AND b.nr_of_releases NOT IN (?)) ";
     sqlNode = Select.from(b).where(in.and(notIn).and(oneIn).and(oneNotIn));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "1910", "1999", "1920", "1910", "1910");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, 1910, 1999, 1920, 1910, 1910);
 
     expected = expectedBase + "(b.nr_of_releases IN (?,?,?) OR b.title!=?) ";
     sqlNode = Select.from(b).where(in.or(titleIsNot));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
 
     expected = expectedBase + "(b.nr_of_releases IN (?,?,?) AND (b.title!=? AND b.title IS NOT NULL)) ";
     sqlNode = Select.from(b).where(in.and(titleIsNot.and(titleIsNotNull)));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
 
     expected = expectedBase + "(b.nr_of_releases IN (?,?,?) OR (b.nr_of_releases BETWEEN ? AND ? AND b.title IS NOT NULL)) ";
     sqlNode = Select.from(b).where(in.or(between.and(titleIsNotNull)));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "1910", "2000");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, 1910, 2000);
 
     expected = expectedBase + "(b.nr_of_releases IN (?,?,?) AND ((b.title!=? OR b.title IS NOT NULL) OR b.title IS NULL)) ";
     sqlNode = Select.from(b).where(in.and(titleIsNot.or(titleIsNotNull).or(titleIsNull)));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
 
     expected = expectedBase + "(b.nr_of_releases IN (?,?,?) OR b.title!=?) ";
     sqlNode = Select.from(b).where(in.or(titleIsNot));
-    assertSql(sqlNode, expected, "1910", "1999", "1920", "asd");
+    assertSql(sqlNode, expected, 1910, 1999, 1920, "asd");
   }
 
   @Test
@@ -406,17 +406,17 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(BOOK)
         .where(BOOK.AUTHOR.between(randomAuthor).and(randomAuthor2));
     String expected = expectedBase + "WHERE book.author BETWEEN ? AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString(), randomAuthor2.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id, randomAuthor2.id);
 
     sqlNode = Select.from(BOOK)
         .where(BOOK.AUTHOR.between(randomAuthor).and(AUTHOR.ID));
     expected = expectedBase + "WHERE book.author BETWEEN ? AND author.id ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(BOOK)
         .where(BOOK.AUTHOR.between(AUTHOR.ID).and(randomAuthor));
     expected = expectedBase + "WHERE book.author BETWEEN author.id AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(BOOK)
         .where(BOOK.AUTHOR.between(AUTHOR.ID).and(BOOK.BASE_ID));
@@ -436,7 +436,7 @@ public final class SelectSqlBuilderTest {
     sqlNode = Select.from(BOOK)
         .where(BOOK.AUTHOR.between(MAGAZINE.AUTHOR).and(randomAuthor));
     expected = expectedBase + "WHERE book.author BETWEEN magazine.author AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
   }
 
   @Test
@@ -451,27 +451,27 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(b)
         .where(b.AUTHOR.between(randomAuthor).and(randomAuthor2));
     String expected = expectedBase + "WHERE b.author BETWEEN ? AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString(), randomAuthor2.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id, randomAuthor2.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(randomAuthor).and(AUTHOR.ID));
     expected = expectedBase + "WHERE b.author BETWEEN ? AND author.id ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(randomAuthor).and(a.ID));
     expected = expectedBase + "WHERE b.author BETWEEN ? AND a.id ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(AUTHOR.ID).and(randomAuthor));
     expected = expectedBase + "WHERE b.author BETWEEN author.id AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(a.ID).and(randomAuthor));
     expected = expectedBase + "WHERE b.author BETWEEN a.id AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(AUTHOR.ID).and(b.BASE_ID));
@@ -496,12 +496,12 @@ public final class SelectSqlBuilderTest {
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(MAGAZINE.AUTHOR).and(randomAuthor));
     expected = expectedBase + "WHERE b.author BETWEEN magazine.author AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.between(m.AUTHOR).and(randomAuthor));
     expected = expectedBase + "WHERE b.author BETWEEN m.author AND ? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
   }
 
   @Test
@@ -567,7 +567,7 @@ public final class SelectSqlBuilderTest {
 
     assertSql(Select.from(BOOK).where(expr),
         String.format(expectedBase, operator),
-        "4");
+        4);
   }
 
   private void assertNumericSameTypeExpr(@NonNull String operator, @NonNull Expr expr) {
@@ -638,7 +638,7 @@ public final class SelectSqlBuilderTest {
 
     assertSql(Select.from(BOOK).where(expr),
         String.format(expectedBase, operator),
-        val.id.toString());
+        val.id);
   }
 
   private void assertComplexEquivalentTypeExpr(@NonNull String operator, long val, @NonNull Expr expr) {
@@ -673,7 +673,7 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(b)
         .where(b.AUTHOR.is(randomAuthor));
     String expected = expectedBase + "WHERE b.author=? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .where(b.AUTHOR.is(MAGAZINE.AUTHOR));
@@ -714,7 +714,7 @@ public final class SelectSqlBuilderTest {
     sqlNode = Select.from(BOOK)
         .leftJoin(MAGAZINE.on(BOOK.AUTHOR.is(randomAuthor)));
     expected = expectedBase + "LEFT JOIN magazine ON book.author=? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
   }
 
   @Test
@@ -747,12 +747,12 @@ public final class SelectSqlBuilderTest {
     sqlNode = Select.from(b)
         .leftJoin(MAGAZINE.on(b.AUTHOR.is(randomAuthor)));
     expected = expectedBase + "LEFT JOIN magazine ON b.author=? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
 
     sqlNode = Select.from(b)
         .leftJoin(m.on(b.AUTHOR.is(randomAuthor)));
     expected = expectedBase + "LEFT JOIN magazine AS m ON b.author=? ";
-    assertSql(sqlNode, expected, randomAuthor.id.toString());
+    assertSql(sqlNode, expected, randomAuthor.id);
   }
 
   @Test
@@ -762,17 +762,17 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(AUTHOR)
         .where(AUTHOR.PRIMITIVE_BOOLEAN.between(true).and(false));
     String expected = expectedBase + "WHERE author.primitive_boolean BETWEEN ? AND ? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString(), BooleanTransformer.objectToDbValue(false).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true), BooleanTransformer.objectToDbValue(false));
 
     sqlNode = Select.from(AUTHOR)
         .where(AUTHOR.PRIMITIVE_BOOLEAN.between(true).and(AUTHOR.BOXED_BOOLEAN));
     expected = expectedBase + "WHERE author.primitive_boolean BETWEEN ? AND author.boxed_boolean ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     sqlNode = Select.from(AUTHOR)
         .where(AUTHOR.PRIMITIVE_BOOLEAN.between(AUTHOR.BOXED_BOOLEAN).and(true));
     expected = expectedBase + "WHERE author.primitive_boolean BETWEEN author.boxed_boolean AND ? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     sqlNode = Select.from(AUTHOR)
         .where(AUTHOR.PRIMITIVE_BOOLEAN.between(AUTHOR.BOXED_BOOLEAN).and(SIMPLE_ALL_VALUES_MUTABLE.BOXED_BOOLEAN));
@@ -788,17 +788,17 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(a)
         .where(a.PRIMITIVE_BOOLEAN.between(true).and(false));
     String expected = expectedBase + "WHERE a.primitive_boolean BETWEEN ? AND ? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString(), BooleanTransformer.objectToDbValue(false).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true), BooleanTransformer.objectToDbValue(false));
 
     sqlNode = Select.from(a)
         .where(a.PRIMITIVE_BOOLEAN.between(true).and(a.BOXED_BOOLEAN));
     expected = expectedBase + "WHERE a.primitive_boolean BETWEEN ? AND a.boxed_boolean ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     sqlNode = Select.from(a)
         .where(a.PRIMITIVE_BOOLEAN.between(a.BOXED_BOOLEAN).and(true));
     expected = expectedBase + "WHERE a.primitive_boolean BETWEEN a.boxed_boolean AND ? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     sqlNode = Select.from(a)
         .where(a.PRIMITIVE_BOOLEAN.between(a.BOXED_BOOLEAN).and(SIMPLE_ALL_VALUES_MUTABLE.BOXED_BOOLEAN));
@@ -818,7 +818,7 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(AUTHOR)
         .where(AUTHOR.PRIMITIVE_BOOLEAN.is(true).and(AUTHOR.BOXED_BOOLEAN.isNot(false)));
     String expected = expectedBase + "(author.primitive_boolean=? AND author.boxed_boolean!=?) ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString(), BooleanTransformer.objectToDbValue(false).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true), BooleanTransformer.objectToDbValue(false));
 
     sqlNode = Select.from(AUTHOR)
         .where(AUTHOR.PRIMITIVE_BOOLEAN.is(AUTHOR.BOXED_BOOLEAN));
@@ -834,7 +834,7 @@ public final class SelectSqlBuilderTest {
     SelectSqlNode sqlNode = Select.from(a)
         .where(a.PRIMITIVE_BOOLEAN.is(true).and(a.BOXED_BOOLEAN.isNot(false)));
     String expected = expectedBase + "(a.primitive_boolean=? AND a.boxed_boolean!=?) ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString(), BooleanTransformer.objectToDbValue(false).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true), BooleanTransformer.objectToDbValue(false));
 
     sqlNode = Select.from(a)
         .where(a.PRIMITIVE_BOOLEAN.is(a.BOXED_BOOLEAN));
@@ -852,7 +852,7 @@ public final class SelectSqlBuilderTest {
     sqlNode = Select.from(AUTHOR)
         .join(SIMPLE_ALL_VALUES_MUTABLE.on(AUTHOR.BOXED_BOOLEAN.is(true)));
     expected = "SELECT * FROM author , simple_all_values_mutable ON author.boxed_boolean=? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
   }
 
   @Test
@@ -873,12 +873,12 @@ public final class SelectSqlBuilderTest {
     sqlNode = Select.from(a)
         .join(SIMPLE_ALL_VALUES_MUTABLE.on(a.BOXED_BOOLEAN.is(true)));
     expected = "SELECT * FROM author AS a , simple_all_values_mutable ON a.boxed_boolean=? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     sqlNode = Select.from(a)
         .join(s.on(a.BOXED_BOOLEAN.is(true)));
     expected = "SELECT * FROM author AS a , simple_all_values_mutable AS s ON a.boxed_boolean=? ";
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
   }
 
   @Test
@@ -900,12 +900,12 @@ public final class SelectSqlBuilderTest {
     expected = expectedBase + "GROUP BY book.title HAVING book.nr_of_releases=? ";
     sqlNode = Select.from(BOOK).groupBy(BOOK.TITLE)
         .having(BOOK.NR_OF_RELEASES.is(1990));
-    assertSql(sqlNode, expected, "1990");
+    assertSql(sqlNode, expected, 1990);
 
     expected = expectedBase + "GROUP BY book.title,book.author HAVING book.nr_of_releases=? ";
     sqlNode = Select.from(BOOK).groupBy(BOOK.TITLE, BOOK.AUTHOR)
         .having(BOOK.NR_OF_RELEASES.is(1990));
-    assertSql(sqlNode, expected, "1990");
+    assertSql(sqlNode, expected, 1990);
 
     expected = expectedBase + "LEFT JOIN simple_all_values_mutable GROUP BY book.title,book.author HAVING book.nr_of_releases=simple_all_values_mutable.boxed_integer ";
     sqlNode = Select.from(BOOK)
@@ -919,7 +919,7 @@ public final class SelectSqlBuilderTest {
         .leftJoin(AUTHOR)
         .groupBy(AUTHOR.BOXED_BOOLEAN)
         .having(AUTHOR.PRIMITIVE_BOOLEAN.is(true));
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     expected = expectedBase + "LEFT JOIN author GROUP BY author.boxed_boolean HAVING author.primitive_boolean=author.primitive_boolean ";
     sqlNode = Select.from(BOOK)
@@ -951,12 +951,12 @@ public final class SelectSqlBuilderTest {
     expected = expectedBase + "GROUP BY b.title HAVING b.nr_of_releases=? ";
     sqlNode = Select.from(b).groupBy(b.TITLE)
         .having(b.NR_OF_RELEASES.is(1990));
-    assertSql(sqlNode, expected, "1990");
+    assertSql(sqlNode, expected, 1990);
 
     expected = expectedBase + "GROUP BY b.title,b.author HAVING b.nr_of_releases=? ";
     sqlNode = Select.from(b).groupBy(b.TITLE, b.AUTHOR)
         .having(b.NR_OF_RELEASES.is(1990));
-    assertSql(sqlNode, expected, "1990");
+    assertSql(sqlNode, expected, 1990);
 
     expected = expectedBase + "LEFT JOIN simple_all_values_mutable GROUP BY b.title,b.author HAVING b.nr_of_releases=simple_all_values_mutable.boxed_integer ";
     sqlNode = Select.from(b)
@@ -977,14 +977,14 @@ public final class SelectSqlBuilderTest {
         .leftJoin(AUTHOR)
         .groupBy(AUTHOR.BOXED_BOOLEAN)
         .having(AUTHOR.PRIMITIVE_BOOLEAN.is(true));
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     expected = expectedBase + "LEFT JOIN author AS a GROUP BY a.boxed_boolean HAVING a.primitive_boolean=? ";
     sqlNode = Select.from(b)
         .leftJoin(a)
         .groupBy(a.BOXED_BOOLEAN)
         .having(a.PRIMITIVE_BOOLEAN.is(true));
-    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true).toString());
+    assertSql(sqlNode, expected, BooleanTransformer.objectToDbValue(true));
 
     expected = expectedBase + "LEFT JOIN author GROUP BY author.boxed_boolean HAVING author.primitive_boolean=author.primitive_boolean ";
     sqlNode = Select.from(b)
@@ -1949,7 +1949,7 @@ public final class SelectSqlBuilderTest {
     assertThat(generatedSql).isEqualTo(expectedOutput);
   }
 
-  private void assertSql(SelectSqlNode sqlNode, String expectedOutput, String... expectedArgs) {
+  private void assertSql(SelectSqlNode sqlNode, String expectedOutput, Object... expectedArgs) {
     final String generatedSql = generateSql(sqlNode);
     assertThat(generatedSql).isEqualTo(expectedOutput);
     assertThat(sqlNode.selectBuilder.args).containsExactly(expectedArgs);
@@ -397,6 +397,22 @@ public final class SelectSqlCompilerTest {
         .isEqualTo(select);
   }
 
+  @Test
+  public void deepQueryAliasesAreStable() {
+    SelectBuilder.PLAN_CACHE.clear();
+    final CompiledSelectImpl<ComplexObjectWithSameLeafs, SelectN> first = (CompiledSelectImpl<ComplexObjectWithSameLeafs, SelectN>) Select
+        .from(COMPLEX_OBJECT_WITH_SAME_LEAFS)
+        .queryDeep()
+        .compile();
+    SelectBuilder.PLAN_CACHE.clear();
+    final CompiledSelectImpl<ComplexObjectWithSameLeafs, SelectN> second = (CompiledSelectImpl<ComplexObjectWithSameLeafs, SelectN>) Select
+        .from(COMPLEX_OBJECT_WITH_SAME_LEAFS)
+        .queryDeep()
+        .compile();
+
+    assertThat(second.sql).isEqualTo(first.sql);
+  }
+
   @Test
   public void whereClause() {
     CompiledSelect<ComplexObjectWithSameLeafs, SelectN> select = Select
@@ -407,7 +423,7 @@ public final class SelectSqlCompilerTest {
         .where(BOOK.TITLE.is("asd").and(BOOK.NR_OF_RELEASES.is(12)))
         .queryDeep()
         .compile();
-    assertWhereClause(select, "WHERE \\(book.title=\\? AND book.nr_of_releases=\\?\\) ", "asd", "12");
+    assertWhereClause(select, "WHERE \\(book.title=\\? AND book.nr_of_releases=\\?\\) ", "asd", 12);
 
     select = Select
         .columns(SIMPLE_VALUE_WITH_BUILDER.all(),
@@ -417,7 +433,7 @@ public final class SelectSqlCompilerTest {
         .where(BOOK.TITLE.is("asd").and(BOOK.NR_OF_RELEASES.is(12).or(COMPLEX_OBJECT_WITH_SAME_LEAFS.NAME.is("asdasd"))))
         .queryDeep()
         .compile();
-    assertWhereClause(select, "WHERE \\(book.title=\\? AND \\(book.nr_of_releases=\\? OR complex_object_with_same_leafs.name=\\?\\)\\) ", "asd", "12", "asdasd");
+    assertWhereClause(select, "WHERE \\(book.title=\\? AND \\(book.nr_of_releases=\\? OR complex_object_with_same_leafs.name=\\?\\)\\) ", "asd", 12, "asdasd");
 
     select = Select
         .columns(
@@ -429,7 +445,7 @@ public final class SelectSqlCompilerTest {
         .where(BOOK.TITLE.is("asd").or(BOOK.NR_OF_RELEASES.is(12).and(COMPLEX_OBJECT_WITH_SAME_LEAFS.NAME.is("asdasd").and(COMPLEX_OBJECT_WITH_SAME_LEAFS.ID.is(123L)))))
         .queryDeep()
         .compile();
-    assertWhereClause(select, "WHERE \\(book.title=\\? OR \\(book.nr_of_releases=\\? AND \\(complex_object_with_same_leafs.name=\\? AND complex_object_with_same_leafs.id=\\?\\)\\)\\) ", "asd", "12", "asdasd", "123");
+    assertWhereClause(select, "WHERE \\(book.title=\\? OR \\(book.nr_of_releases=\\? AND \\(complex_object_with_same_leafs.name=\\? AND complex_object_with_same_leafs.id=\\?\\)\\)\\) ", "asd", 12, "asdasd", 123L);
 
     select = Select
         .columns(
@@ -441,7 +457,7 @@ public final class SelectSqlCompilerTest {
         .where(BOOK.TITLE.is("asd").or(BOOK.BASE_ID.is(22L)).and(BOOK.NR_OF_RELEASES.is(12).or(COMPLEX_OBJECT_WITH_SAME_LEAFS.NAME.is("asdasd"))))
         .queryDeep()
         .compile();
-    assertWhereClause(select, "WHERE \\(\\(book.title=\\? OR book.base_id=\\?\\) AND \\(book.nr_of_releases=\\? OR complex_object_with_same_leafs.name=\\?\\)\\) ", "asd", "22", "12", "asdasd");
+    assertWhereClause(select, "WHERE \\(\\(book.title=\\? OR book.base_id=\\?\\) AND \\(book.nr_of_releases=\\? OR complex_object_with_same_leafs.name=\\?\\)\\) ", "asd", 22L, 12, "asdasd");
 
     select = Select
         .columns(
@@ -453,10 +469,93 @@ public final class SelectSqlCompilerTest {
         .where(BOOK.TITLE.is("asd").or(BOOK.BASE_ID.is(22L)).and(BOOK.NR_OF_RELEASES.is(12).or(COMPLEX_OBJECT_WITH_SAME_LEAFS.NAME.is("asdasd"))))
         .queryDeep()
         .compile();
-    assertWhereClause(select, "WHERE \\(\\(book.title=\\? OR book.base_id=\\?\\) AND \\(book.nr_of_releases=\\? OR complex_object_with_same_leafs.name=\\?\\)\\) ", "asd", "22", "12", "asdasd");
+    assertWhereClause(select, "WHERE \\(\\(book.title=\\? OR book.base_id=\\?\\) AND \\(book.nr_of_releases=\\? OR complex_object_with_same_leafs.name=\\?\\)\\) ", "asd", 22L, 12, "asdasd");
+  }
+
+  @Test
+  public void parameterizedWhereClause() {
+    final CompiledSelect<Author, SelectN> template = Select
+        .from(AUTHOR)
+        .where(AUTHOR.NAME.is(Param.<String>create())
+            .and(AUTHOR.ID.greaterThan(Param.<Long>create())))
+        .compile();
+    final CompiledSelectMetadata.CompiledSelectMetadataBuilder expected = CompiledSelectMetadata.assertThat()
+        .sql("SELECT * FROM author WHERE (author.name=? AND author.id>?) ")
+        .args(null, null)
+        .tableName("author")
+        .observedTables("author");
+    expected.build().isEqualTo(template);
+
+    expected.args("asd", 5L)
+        .build()
+        .isEqualTo(template.bind("asd", 5L));
+    expected.sql("SELECT * FROM author WHERE (author.name=? AND author.id>?) LIMIT 1 ")
+        .args("dsa", 6L)
+        .build()
+        .isEqualTo(template.takeFirst().bind("dsa", 6L));
+
+    // template stays reusable
+    expected.sql("SELECT * FROM author WHERE (author.name=? AND author.id>?) ")
+        .args(null, null)
+        .build()
+        .isEqualTo(template);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void bindingWrongNumberOfParamsFails() {
+    Select.from(AUTHOR)
+        .where(AUTHOR.ID.is(Param.<Long>create()))
+        .compile()
+        .bind(1L, 2L);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void bindingSelectWithoutParamsFails() {
+    Select.from(AUTHOR)
+        .where(AUTHOR.ID.is(1L))
+        .compile()
+        .bind(1L);
+  }
+
+  @Test
+  public void pagedSelect() {
+    PageSource<Author> pageSource = Select
+        .from(AUTHOR)
+        .orderBy(AUTHOR.ID.asc())
+        .paged(10);
+    assertThat(pageSource.getPageSize()).isEqualTo(10);
+    assertThat(pageSource.firstPageSql).isEqualTo("SELECT *,author.id FROM author ORDER BY author.id ASC LIMIT 11 ");
+    assertThat(pageSource.nextPageSql).isEqualTo("SELECT *,author.id FROM author WHERE (author.id>?) ORDER BY author.id ASC LIMIT 11 ");
+    assertThat(pageSource.args).isNull();
+
+    pageSource = Select
+        .from(AUTHOR)
+        .where(AUTHOR.NAME.isNot("asd"))
+        .orderBy(AUTHOR.NAME.desc(), AUTHOR.ID.asc())
+        .paged(20);
+    assertThat(pageSource.firstPageSql).isEqualTo("SELECT *,author.name,author.id FROM author WHERE author.name!=? " +
+        "ORDER BY author.name DESC,author.id ASC LIMIT 21 ");
+    assertThat(pageSource.nextPageSql).isEqualTo("SELECT *,author.name,author.id FROM author WHERE author.name!=? " +
+        "AND (author.name<? OR (author.name=? AND (author.id>?))) ORDER BY author.name DESC,author.id ASC LIMIT 21 ");
+    assertThat(pageSource.args).asList().containsExactly("asd");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pagedSelectOrderedByExpressionFails() {
+    Select.from(AUTHOR)
+        .orderBy(AUTHOR.NAME.is("asd").asc())
+        .paged(10);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void pagedSelectWithParamsFails() {
+    Select.from(AUTHOR)
+        .where(AUTHOR.NAME.is(Param.<String>create()))
+        .orderBy(AUTHOR.ID.asc())
+        .paged(10);
   }
 
-  private void assertWhereClause(CompiledSelect<ComplexObjectWithSameLeafs, SelectN> genericSelect, String expectedWhereClause, String... args) {
+  private void assertWhereClause(CompiledSelect<ComplexObjectWithSameLeafs, SelectN> genericSelect, String expectedWhereClause, Object... args) {
     final CompiledSelectImpl<ComplexObjectWithSameLeafs, SelectN> select = (CompiledSelectImpl<ComplexObjectWithSameLeafs, SelectN>) genericSelect;
     final SimpleArrayMap<String, String> graphNodes = new SimpleArrayMap<>();
     graphNodes.put("book", "book");
@@ -1537,7 +1636,7 @@ public final class SelectSqlCompilerTest {
   static class CompiledSelectMetadata {
     @lombok.NonNull
     final String sql;
-    final String[] args;
+    final Object[] args;
     final String tableName;
     @lombok.NonNull
     final String[] observedTables;
@@ -1594,7 +1693,7 @@ public final class SelectSqlCompilerTest {
 
     static class CompiledSelectMetadataBuilder {
       private String sql;
-      private String[] args;
+      private Object[] args;
       private String[] observedTables;
       private SimpleArrayMap<String, Integer> columns;
       private SimpleArrayMap<String, String> tableGraphNodeNames;
@@ -1604,7 +1703,7 @@ public final class SelectSqlCompilerTest {
         return this;
       }
 
-      CompiledSelectMetadataBuilder args(String... args) {
+      CompiledSelectMetadataBuilder args(Object... args) {
         this.args = args;
         return this;
       }
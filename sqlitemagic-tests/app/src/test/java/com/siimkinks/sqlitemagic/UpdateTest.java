@@ -32,7 +32,7 @@ public final class UpdateTest {
     assertSqlBuilder(Update
             .table(AUTHOR)
             .set(AUTHOR.BOXED_BOOLEAN, Boolean.TRUE),
-        "UPDATE author SET boxed_boolean=? ", 3, "1");
+        "UPDATE author SET boxed_boolean=? ", 3, 1);
 
     assertSqlBuilder(Update
             .withConflictAlgorithm(SQLiteDatabase.CONFLICT_FAIL)
@@ -54,14 +54,14 @@ public final class UpdateTest {
             .set(AUTHOR.ID, 2L)
             .set(AUTHOR.PRIMITIVE_BOOLEAN, false),
         "UPDATE OR ROLLBACK author SET name=?,boxed_boolean=?,id=?,primitive_boolean=? ", 4,
-        "asd", "1", "2", "0");
+        "asd", 1, 2L, 0);
 
     assertSqlBuilder(Update
             .withConflictAlgorithm(SQLiteDatabase.CONFLICT_ROLLBACK)
             .table(AUTHOR)
             .set(AUTHOR.NAME, "asd")
             .set(AUTHOR.BOXED_BOOLEAN, Boolean.TRUE),
-        "UPDATE OR ROLLBACK author SET name=?,boxed_boolean=? ", 4, "asd", "1");
+        "UPDATE OR ROLLBACK author SET name=?,boxed_boolean=? ", 4, "asd", 1);
   }
 
   @Test
@@ -70,7 +70,7 @@ public final class UpdateTest {
             .table(AUTHOR)
             .set(AUTHOR.NAME, "asd")
             .where(AUTHOR.ID.is(2L)),
-        "UPDATE author SET name=? WHERE author.id=? ", 4, "asd", "2");
+        "UPDATE author SET name=? WHERE author.id=? ", 4, "asd", 2L);
 
     assertSqlBuilder(Update
             .withConflictAlgorithm(SQLiteDatabase.CONFLICT_IGNORE)
@@ -79,7 +79,7 @@ public final class UpdateTest {
             .set(AUTHOR.BOXED_BOOLEAN, Boolean.FALSE)
             .where(AUTHOR.ID.is(2L).and(AUTHOR.NAME.isNot("asd"))),
         "UPDATE OR IGNORE author SET name=?,boxed_boolean=? WHERE (author.id=? AND author.name!=?) ", 5,
-        "asd", "0", "2", "asd");
+        "asd", 0, 2L, "asd");
 
     assertSqlBuilder(Update
             .table(AUTHOR)
@@ -87,7 +87,7 @@ public final class UpdateTest {
             .set(AUTHOR.BOXED_BOOLEAN, Boolean.FALSE)
             .where(AUTHOR.ID.is(2L).or(AUTHOR.NAME.isNot("asd"))),
         "UPDATE author SET name=?,boxed_boolean=? WHERE (author.id=? OR author.name!=?) ", 4,
-        "asd", "0", "2", "asd");
+        "asd", 0, 2L, "asd");
 
     assertSqlBuilder(Update
             .withConflictAlgorithm(SQLiteDatabase.CONFLICT_FAIL)
@@ -95,7 +95,7 @@ public final class UpdateTest {
             .set(AUTHOR.NAME, "asd")
             .where(AUTHOR.ID.is(2L).and(AUTHOR.NAME.isNot("asd"))),
         "UPDATE OR FAIL author SET name=? WHERE (author.id=? AND author.name!=?) ", 5,
-        "asd", "2", "asd");
+        "asd", 2L, "asd");
 
     assertSqlBuilder(Update
             .withConflictAlgorithm(SQLiteDatabase.CONFLICT_FAIL)
@@ -106,7 +106,7 @@ public final class UpdateTest {
                 .and(AUTHOR.NAME.isNot("asd"))
                 .and(AUTHOR.PRIMITIVE_BOOLEAN.is(false))),
         "UPDATE OR FAIL author SET name=? WHERE (((author.id=? AND author.name IS NOT NULL) AND author.name!=?) AND author.primitive_boolean=?) ", 5,
-        "asd", "2", "asd", "0");
+        "asd", 2L, "asd", 0);
 
     assertSqlBuilder(Update
             .withConflictAlgorithm(SQLiteDatabase.CONFLICT_FAIL)
@@ -118,7 +118,7 @@ public final class UpdateTest {
                 .or(AUTHOR.PRIMITIVE_BOOLEAN.is(false)
                     .and(AUTHOR.BOXED_BOOLEAN.isNotNull()))),
         "UPDATE OR FAIL author SET name=? WHERE (((author.id=? AND author.name IS NOT NULL) OR author.name!=?) OR (author.primitive_boolean=? AND author.boxed_boolean IS NOT NULL)) ", 5,
-        "asd", "2", "asd", "0");
+        "asd", 2L, "asd", 0);
   }
 
   @Test
@@ -185,7 +185,7 @@ public final class UpdateTest {
         3);
   }
 
-  private void assertSqlBuilder(UpdateSqlNode node, String expectedSql, int expectedNodeCount, @Nullable String... expectedArgs) {
+  private void assertSqlBuilder(UpdateSqlNode node, String expectedSql, int expectedNodeCount, @Nullable Object... expectedArgs) {
     final CompiledUpdate.Builder updateBuilder = node.updateBuilder;
     final String sql = SqlCreator.getSql(updateBuilder.sqlTreeRoot, updateBuilder.sqlNodeCount);
     assertThat(sql).isEqualTo(expectedSql);
@@ -194,7 +194,7 @@ public final class UpdateTest {
     assertThat(updateBuilder.args).containsExactly(expectedArgs);
   }
 
-  private void assertSqlBuilderWithWildcards(UpdateSqlNode node, String expectedSql, int expectedNodeCount, @Nullable String... expectedArgs) {
+  private void assertSqlBuilderWithWildcards(UpdateSqlNode node, String expectedSql, int expectedNodeCount, @Nullable Object... expectedArgs) {
     final CompiledUpdate.Builder updateBuilder = node.updateBuilder;
     final String sql = SqlCreator.getSql(updateBuilder.sqlTreeRoot, updateBuilder.sqlNodeCount);
     assertStringsAreEqualOrMatching(sql, replaceRandomTableNames(expectedSql));